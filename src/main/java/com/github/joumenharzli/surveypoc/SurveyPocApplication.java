@@ -17,8 +17,12 @@ package com.github.joumenharzli.surveypoc;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties(ApplicationProperties.class)
 public class SurveyPocApplication {
 
   public static void main(String[] args) {
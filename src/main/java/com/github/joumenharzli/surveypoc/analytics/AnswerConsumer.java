@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.analytics;
+
+/**
+ * Callback receiving the answers read from a {@link ResponseSnapshot}
+ * <p>
+ * The answer is passed as primitives so a scan does not allocate any object per row
+ *
+ * @author Joumen Harzli
+ */
+@FunctionalInterface
+public interface AnswerConsumer {
+
+  /**
+   * @param userId  id of the user who answered
+   * @param valueId id of the content of the answer in the dictionary of the snapshot
+   */
+  void accept(long userId, int valueId);
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.analytics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Storage of the off-heap columns of a {@link ResponseSnapshot}
+ *
+ * @author Joumen Harzli
+ */
+@FunctionalInterface
+public interface ColumnStorage {
+
+  /**
+   * Columns allocated as direct buffers outside of the java heap
+   */
+  ColumnStorage DIRECT = (name, capacity) -> ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+
+  /**
+   * Allocate a column
+   *
+   * @param name     name of the column
+   * @param capacity size of the column in bytes
+   * @return an empty buffer with the requested capacity
+   */
+  ByteBuffer allocate(String name, int capacity);
+
+  /**
+   * Columns stored in memory-mapped files so the snapshot can be larger than the memory
+   * and is paged in by the operating system
+   *
+   * @param directory directory of the files, it must not be used by a snapshot that is still read
+   * @return a storage that maps a file for each column
+   */
+  static ColumnStorage mapped(Path directory) {
+    return (name, capacity) -> {
+      try {
+        Files.createDirectories(directory);
+        try (FileChannel channel = FileChannel.open(directory.resolve(name + ".col"), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+          return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity).order(ByteOrder.nativeOrder());
+        }
+      } catch (IOException exception) {
+        throw new UncheckedIOException("Unable to map the column " + name, exception);
+      }
+    };
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.analytics;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+import com.github.joumenharzli.surveypoc.repository.dao.DaoException;
+
+/**
+ * Build the {@link ResponseSnapshot} by streaming the responses from the database
+ * <p>
+ * The rows are read directly from the result set without mapping them to entities. This loader is
+ * not a repository on purpose: a full scan must not be counted in the latency samples of the
+ * adaptive concurrency limit of the daos
+ *
+ * @author Joumen Harzli
+ */
+@Component
+public class JdbcResponseSnapshotLoader {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JdbcResponseSnapshotLoader.class);
+
+  private static final String COUNT_USER_RESPONSES = "SELECT COUNT(*) FROM user_responses";
+  private static final String SELECT_USER_RESPONSES = "SELECT ur.question_id, ur.user_id, " +
+      "COALESCE(ur.content, rv.content) FROM user_responses AS ur " +
+      "LEFT JOIN response_values AS rv ON rv.id = ur.value_id ORDER BY ur.question_id, ur.user_id";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public JdbcResponseSnapshotLoader(DataSource dataSource, ApplicationProperties applicationProperties) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(applicationProperties.getAnalytics().getFetchSize());
+  }
+
+  /**
+   * Read all the responses and build a snapshot
+   *
+   * @param storage storage of the off-heap columns of the snapshot
+   * @return the built snapshot
+   * @throws DaoException if there is an sql exception
+   */
+  public ResponseSnapshot load(ColumnStorage storage) {
+    long start = System.nanoTime();
+
+    try {
+      Integer expectedSize = jdbcTemplate.queryForObject(COUNT_USER_RESPONSES, Integer.class);
+      ResponseSnapshotBuilder builder = new ResponseSnapshotBuilder(expectedSize == null ? 0 : expectedSize);
+
+      jdbcTemplate.query(SELECT_USER_RESPONSES,
+          resultSet -> {
+            builder.add(resultSet.getLong(1), resultSet.getLong(2), resultSet.getString(3));
+          });
+
+      ResponseSnapshot snapshot = builder.build(storage);
+
+      LOGGER.debug("Snapshot of {} responses with {} distinct contents built in {} ms", snapshot.size(),
+          snapshot.dictionarySize(), (System.nanoTime() - start) / 1_000_000);
+
+      return snapshot;
+    } catch (Exception exception) {
+      throw new DaoException("Unable to build the snapshot of the responses", exception);
+    }
+  }
+
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.analytics;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.springframework.util.Assert;
+
+/**
+ * Immutable columnar snapshot of the user responses used by the analytics queries
+ * <p>
+ * The rows are sorted by question then by user so the answers of a question are a contiguous range found
+ * with a binary search. The ids of the questions and of the users are primitive arrays, the contents are
+ * dictionary encoded: each row stores the id of its value in an off-heap column and the distinct values
+ * are stored once as UTF-8 in an off-heap buffer.
+ * <p>
+ * The scans pass the rows to an {@link AnswerConsumer} as primitives and do not allocate per row,
+ * the only allocations of a query are its result. The number of answers of each content is counted once
+ * per question when the snapshot is built, so grouping the answers of a question reads only its own contents.
+ *
+ * @author Joumen Harzli
+ */
+public final class ResponseSnapshot {
+
+  public static final int NO_VALUE = -1;
+
+  private static final ResponseSnapshot EMPTY = new ResponseSnapshotBuilder(0).build(ColumnStorage.DIRECT);
+
+  private final long[] questionIds;
+  private final long[] userIds;
+  private final IntBuffer valueIds;
+
+  private final ByteBuffer dictionary;
+  private final int[] dictionaryOffsets;
+  private final int[] dictionaryHashTable;
+
+  private final long[] countedQuestionIds;
+  private final int[] countOffsets;
+  private final int[] countedValueIds;
+  private final int[] valueCounts;
+
+  private final long builtAt;
+
+  ResponseSnapshot(long[] questionIds, long[] userIds, IntBuffer valueIds, ByteBuffer dictionary,
+                   int[] dictionaryOffsets, long builtAt) {
+    this.questionIds = questionIds;
+    this.userIds = userIds;
+    this.valueIds = valueIds;
+    this.dictionary = dictionary;
+    this.dictionaryOffsets = dictionaryOffsets;
+    this.dictionaryHashTable = buildHashTable();
+
+    int questions = 0;
+    for (int row = 0; row < questionIds.length; row++) {
+      if (row == 0 || questionIds[row] != questionIds[row - 1]) {
+        questions++;
+      }
+    }
+    this.countedQuestionIds = new long[questions];
+    this.countOffsets = new int[questions + 1];
+    int[] countedValues = new int[questionIds.length];
+    int[] counts = new int[questionIds.length];
+    int distinctValues = countValues(countedValues, counts);
+    this.countedValueIds = Arrays.copyOf(countedValues, distinctValues);
+    this.valueCounts = Arrays.copyOf(counts, distinctValues);
+    this.builtAt = builtAt;
+  }
+
+  /**
+   * @return a snapshot without any row
+   */
+  public static ResponseSnapshot empty() {
+    return EMPTY;
+  }
+
+  /**
+   * @return number of the rows in the snapshot
+   */
+  public int size() {
+    return questionIds.length;
+  }
+
+  /**
+   * @return number of the distinct contents in the snapshot
+   */
+  public int dictionarySize() {
+    return dictionaryOffsets.length - 1;
+  }
+
+  /**
+   * @return time of the build of the snapshot in milliseconds since the epoch
+   */
+  public long getBuiltAt() {
+    return builtAt;
+  }
+
+  /**
+   * Decode a value of the dictionary
+   *
+   * @param valueId id of the value
+   * @return the content
+   * @throws IllegalArgumentException if the id is not in the dictionary
+   */
+  public String value(int valueId) {
+    Assert.isTrue(valueId >= 0 && valueId < dictionarySize(), "Value id is not in the dictionary");
+
+    int offset = dictionaryOffsets[valueId];
+    byte[] bytes = new byte[dictionaryOffsets[valueId + 1] - offset];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = dictionary.get(offset + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Find the id of a content in the dictionary
+   *
+   * @param content the content to search
+   * @return the id of the value or {@link #NO_VALUE} if no row has this content
+   */
+  public int valueId(String content) {
+    Assert.notNull(content, "Content cannot be null");
+
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    int mask = dictionaryHashTable.length - 1;
+
+    int slot = hash(bytes, 0, bytes.length) & mask;
+    while (dictionaryHashTable[slot] != NO_VALUE) {
+      if (valueEquals(dictionaryHashTable[slot], bytes)) {
+        return dictionaryHashTable[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return NO_VALUE;
+  }
+
+  /**
+   * @param questionId id of the question
+   * @return number of the answers of the question
+   */
+  public int countAnswers(long questionId) {
+    return rangeEnd(questionId) - rangeStart(questionId);
+  }
+
+  /**
+   * @param questionId id of the question
+   * @param valueId    id of the content of the answers
+   * @return number of the answers of the question with the content
+   */
+  public int countAnswers(long questionId, int valueId) {
+    int count = 0;
+    for (int row = rangeStart(questionId), end = rangeEnd(questionId); row < end; row++) {
+      if (valueIds.get(row) == valueId) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Group the answers of a question by content
+   *
+   * @param questionId id of the question
+   * @param consumer   callback receiving each content of the answers with its number of answers,
+   *                   ordered by id of the content
+   */
+  public void forEachValueCount(long questionId, ValueCountConsumer consumer) {
+    int question = Arrays.binarySearch(countedQuestionIds, questionId);
+    if (question < 0) {
+      return;
+    }
+    for (int index = countOffsets[question], end = countOffsets[question + 1]; index < end; index++) {
+      consumer.accept(countedValueIds[index], valueCounts[index]);
+    }
+  }
+
+  /**
+   * Find the users who answered a question with a content
+   *
+   * @param questionId id of the question
+   * @param valueId    id of the content of the answers
+   * @return the ids of the users sorted
+   */
+  public long[] findUsers(long questionId, int valueId) {
+    int start = rangeStart(questionId);
+    int end = rangeEnd(questionId);
+
+    long[] users = new long[countAnswers(questionId, valueId)];
+    int index = 0;
+    for (int row = start; row < end; row++) {
+      if (valueIds.get(row) == valueId) {
+        users[index++] = userIds[row];
+      }
+    }
+    return users;
+  }
+
+  /**
+   * Scan the answers of a question
+   *
+   * @param questionId id of the question
+   * @param consumer   callback receiving each answer ordered by user
+   */
+  public void forEachAnswer(long questionId, AnswerConsumer consumer) {
+    for (int row = rangeStart(questionId), end = rangeEnd(questionId); row < end; row++) {
+      consumer.accept(userIds[row], valueIds.get(row));
+    }
+  }
+
+  private int rangeStart(long questionId) {
+    int low = 0;
+    int high = questionIds.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (questionIds[middle] < questionId) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private int rangeEnd(long questionId) {
+    int low = 0;
+    int high = questionIds.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (questionIds[middle] <= questionId) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Count the answers of each content of each question, the counts of a question are stored
+   * from its offset sorted by id of the content
+   *
+   * @return number of the distinct contents of all the questions
+   */
+  private int countValues(int[] countedValues, int[] counts) {
+    int question = 0;
+    int distinctValues = 0;
+    int[] questionValues = new int[0];
+    for (int start = 0; start < questionIds.length; question++) {
+      int end = rangeEnd(questionIds[start]);
+      if (questionValues.length < end - start) {
+        questionValues = new int[end - start];
+      }
+      for (int row = start; row < end; row++) {
+        questionValues[row - start] = valueIds.get(row);
+      }
+      Arrays.sort(questionValues, 0, end - start);
+
+      countedQuestionIds[question] = questionIds[start];
+      countOffsets[question] = distinctValues;
+      for (int index = 0; index < end - start; index++) {
+        if (index == 0 || questionValues[index] != questionValues[index - 1]) {
+          countedValues[distinctValues++] = questionValues[index];
+        }
+        counts[distinctValues - 1]++;
+      }
+      start = end;
+    }
+    countOffsets[question] = distinctValues;
+    return distinctValues;
+  }
+
+  /**
+   * Open addressing table of the value ids with a load factor of at most one half
+   */
+  private int[] buildHashTable() {
+    int capacity = Integer.highestOneBit(Math.max(2, dictionarySize()) * 2 - 1) << 1;
+    int[] table = new int[capacity];
+    Arrays.fill(table, NO_VALUE);
+
+    int mask = capacity - 1;
+    for (int valueId = 0; valueId < dictionarySize(); valueId++) {
+      int offset = dictionaryOffsets[valueId];
+      int slot = hash(dictionary, offset, dictionaryOffsets[valueId + 1]) & mask;
+      while (table[slot] != NO_VALUE) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = valueId;
+    }
+    return table;
+  }
+
+  private boolean valueEquals(int valueId, byte[] bytes) {
+    int offset = dictionaryOffsets[valueId];
+    if (dictionaryOffsets[valueId + 1] - offset != bytes.length) {
+      return false;
+    }
+    for (int i = 0; i < bytes.length; i++) {
+      if (dictionary.get(offset + i) != bytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int hash(byte[] bytes, int from, int to) {
+    int hash = 1;
+    for (int i = from; i < to; i++) {
+      hash = 31 * hash + bytes[i];
+    }
+    return mix(hash);
+  }
+
+  private static int hash(ByteBuffer bytes, int from, int to) {
+    int hash = 1;
+    for (int i = from; i < to; i++) {
+      hash = 31 * hash + bytes.get(i);
+    }
+    return mix(hash);
+  }
+
+  private static int mix(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
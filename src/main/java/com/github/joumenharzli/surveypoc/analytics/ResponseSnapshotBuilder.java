@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.analytics;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * Builder of a {@link ResponseSnapshot}
+ * <p>
+ * The rows must be added sorted by question then by user, which is the order of the primary key
+ * of the responses so the database can stream them without sorting
+ *
+ * @author Joumen Harzli
+ */
+public class ResponseSnapshotBuilder {
+
+  private static final String VALUE_IDS_COLUMN = "value_ids";
+  private static final String DICTIONARY_COLUMN = "dictionary";
+
+  private long[] questionIds;
+  private long[] userIds;
+  private int[] valueIds;
+  private int size;
+
+  private final Map<String, Integer> dictionaryIds = new HashMap<>();
+  private final List<byte[]> dictionaryValues = new ArrayList<>();
+  private int dictionaryBytes;
+
+  /**
+   * @param expectedSize expected number of rows used to size the columns
+   */
+  public ResponseSnapshotBuilder(int expectedSize) {
+    int capacity = Math.max(16, expectedSize);
+    this.questionIds = new long[capacity];
+    this.userIds = new long[capacity];
+    this.valueIds = new int[capacity];
+  }
+
+  /**
+   * Add a row to the snapshot
+   *
+   * @param questionId id of the question
+   * @param userId     id of the user who answered
+   * @param content    content of the answer
+   * @return this builder
+   * @throws IllegalArgumentException if the row is not sorted after the previous one or the content is null
+   */
+  public ResponseSnapshotBuilder add(long questionId, long userId, String content) {
+    Assert.notNull(content, "Content cannot be null");
+    Assert.isTrue(size == 0 || questionIds[size - 1] < questionId ||
+        (questionIds[size - 1] == questionId && userIds[size - 1] < userId), "Rows must be sorted by question and user");
+
+    if (size == questionIds.length) {
+      int capacity = questionIds.length + (questionIds.length >> 1);
+      questionIds = Arrays.copyOf(questionIds, capacity);
+      userIds = Arrays.copyOf(userIds, capacity);
+      valueIds = Arrays.copyOf(valueIds, capacity);
+    }
+
+    questionIds[size] = questionId;
+    userIds[size] = userId;
+    valueIds[size] = encode(content);
+    size++;
+    return this;
+  }
+
+  /**
+   * Build the snapshot, the builder must not be used anymore
+   *
+   * @param storage storage of the off-heap columns
+   * @return the snapshot of the added rows
+   */
+  public ResponseSnapshot build(ColumnStorage storage) {
+    IntBuffer valueIdsColumn = storage.allocate(VALUE_IDS_COLUMN, Math.max(1, size) * Integer.BYTES).asIntBuffer();
+    valueIdsColumn.put(valueIds, 0, size);
+
+    ByteBuffer dictionary = storage.allocate(DICTIONARY_COLUMN, Math.max(1, dictionaryBytes));
+    int[] dictionaryOffsets = new int[dictionaryValues.size() + 1];
+    for (int valueId = 0; valueId < dictionaryValues.size(); valueId++) {
+      byte[] value = dictionaryValues.get(valueId);
+      dictionary.put(value);
+      dictionaryOffsets[valueId + 1] = dictionaryOffsets[valueId] + value.length;
+    }
+
+    ResponseSnapshot snapshot = new ResponseSnapshot(Arrays.copyOf(questionIds, size), Arrays.copyOf(userIds, size),
+        valueIdsColumn, dictionary, dictionaryOffsets, System.currentTimeMillis());
+
+    valueIds = null;
+    return snapshot;
+  }
+
+  private int encode(String content) {
+    Integer valueId = dictionaryIds.get(content);
+    if (valueId == null) {
+      byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+      valueId = dictionaryValues.size();
+      dictionaryIds.put(content, valueId);
+      dictionaryValues.add(bytes);
+      dictionaryBytes += bytes.length;
+    }
+    return valueId;
+  }
+}
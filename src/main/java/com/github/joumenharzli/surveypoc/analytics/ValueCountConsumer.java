@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.analytics;
+
+/**
+ * Callback receiving the number of answers of each content of a question read from a {@link ResponseSnapshot}
+ *
+ * @author Joumen Harzli
+ */
+@FunctionalInterface
+public interface ValueCountConsumer {
+
+  /**
+   * @param valueId id of the content in the dictionary of the snapshot
+   * @param count   number of the answers with the content, always positive
+   */
+  void accept(int valueId, int count);
+
+}
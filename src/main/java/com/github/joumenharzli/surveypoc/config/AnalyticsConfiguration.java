@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.github.joumenharzli.surveypoc.service.ResponseAnalyticsService;
+
+/**
+ * Analytics Configuration
+ * The snapshot of the responses is built at startup then refreshed periodically
+ *
+ * @author Joumen Harzli
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.analytics", name = "enabled", matchIfMissing = true)
+public class AnalyticsConfiguration {
+
+  private final ResponseAnalyticsService responseAnalyticsService;
+
+  public AnalyticsConfiguration(ResponseAnalyticsService responseAnalyticsService) {
+    this.responseAnalyticsService = responseAnalyticsService;
+  }
+
+  @Scheduled(fixedDelayString = "${application.analytics.refresh-interval-millis}")
+  public void refreshSnapshot() {
+    responseAnalyticsService.refreshSnapshot();
+  }
+
+}
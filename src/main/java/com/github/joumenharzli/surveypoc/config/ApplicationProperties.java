@@ -0,0 +1,769 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Properties specific to the application
+ * Those properties are configured under the {@code application} prefix in {@code application.yml}
+ *
+ * @author Joumen Harzli
+ */
+@ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
+public class ApplicationProperties {
+
+  private final RateLimiting rateLimiting = new RateLimiting();
+  private final Admission admission = new Admission();
+  private final DaoLimit daoLimit = new DaoLimit();
+  private final Changes changes = new Changes();
+  private final Analytics analytics = new Analytics();
+  private final ResponseValues responseValues = new ResponseValues();
+  private final Validation validation = new Validation();
+  private final Diagnostics diagnostics = new Diagnostics();
+  private final Accounting accounting = new Accounting();
+  private final Startup startup = new Startup();
+  private final Swagger swagger = new Swagger();
+  private final ConnectionPool connectionPool = new ConnectionPool();
+  private final Progress progress = new Progress();
+  private final Live live = new Live();
+  private final Imports imports = new Imports();
+  private final Submissions submissions = new Submissions();
+  private final Catalog catalog = new Catalog();
+
+  public RateLimiting getRateLimiting() {
+    return rateLimiting;
+  }
+
+  public Admission getAdmission() {
+    return admission;
+  }
+
+  public DaoLimit getDaoLimit() {
+    return daoLimit;
+  }
+
+  public Changes getChanges() {
+    return changes;
+  }
+
+  public Analytics getAnalytics() {
+    return analytics;
+  }
+
+  public ResponseValues getResponseValues() {
+    return responseValues;
+  }
+
+  public Validation getValidation() {
+    return validation;
+  }
+
+  public Diagnostics getDiagnostics() {
+    return diagnostics;
+  }
+
+  public Accounting getAccounting() {
+    return accounting;
+  }
+
+  public Startup getStartup() {
+    return startup;
+  }
+
+  public Swagger getSwagger() {
+    return swagger;
+  }
+
+  public ConnectionPool getConnectionPool() {
+    return connectionPool;
+  }
+
+  public Progress getProgress() {
+    return progress;
+  }
+
+  public Live getLive() {
+    return live;
+  }
+
+  public Imports getImports() {
+    return imports;
+  }
+
+  public Submissions getSubmissions() {
+    return submissions;
+  }
+
+  public Catalog getCatalog() {
+    return catalog;
+  }
+
+  /**
+   * Per client token bucket limiting applied in front of the rest controllers
+   */
+  public static class RateLimiting {
+
+    private boolean enabled = true;
+    private int capacity = 20;
+    private int refillPerSecond = 10;
+    private int maxTrackedClients = 10000;
+    private long evictionIntervalMillis = 10000;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+      return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+      this.capacity = capacity;
+    }
+
+    public int getRefillPerSecond() {
+      return refillPerSecond;
+    }
+
+    public void setRefillPerSecond(int refillPerSecond) {
+      this.refillPerSecond = refillPerSecond;
+    }
+
+    public int getMaxTrackedClients() {
+      return maxTrackedClients;
+    }
+
+    public void setMaxTrackedClients(int maxTrackedClients) {
+      this.maxTrackedClients = maxTrackedClients;
+    }
+
+    public long getEvictionIntervalMillis() {
+      return evictionIntervalMillis;
+    }
+
+    public void setEvictionIntervalMillis(long evictionIntervalMillis) {
+      this.evictionIntervalMillis = evictionIntervalMillis;
+    }
+  }
+
+  /**
+   * Global admission control that sheds the load before the requests queue up in the connection pool
+   * <p>
+   * When {@code maxConcurrentRequests} is not positive the current maximum size of the connection pool is used
+   */
+  public static class Admission {
+
+    private boolean enabled = true;
+    private int maxConcurrentRequests = 0;
+    private long maxWaitMillis = 50;
+    private int retryAfterSeconds = 1;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getMaxConcurrentRequests() {
+      return maxConcurrentRequests;
+    }
+
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+      this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public long getMaxWaitMillis() {
+      return maxWaitMillis;
+    }
+
+    public void setMaxWaitMillis(long maxWaitMillis) {
+      this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public int getRetryAfterSeconds() {
+      return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+      this.retryAfterSeconds = retryAfterSeconds;
+    }
+  }
+
+  /**
+   * Adaptive limit of the number of the dao calls executed at the same time
+   */
+  public static class DaoLimit {
+
+    private boolean enabled = true;
+    private int initialLimit = 20;
+    private int minLimit = 2;
+    private int maxLimit = 200;
+    private double rttTolerance = 1.5;
+    private double smoothing = 0.2;
+    private int windowSize = 20;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+      return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+      this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+      return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+      this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+      return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+      this.maxLimit = maxLimit;
+    }
+
+    public double getRttTolerance() {
+      return rttTolerance;
+    }
+
+    public void setRttTolerance(double rttTolerance) {
+      this.rttTolerance = rttTolerance;
+    }
+
+    public double getSmoothing() {
+      return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+      this.smoothing = smoothing;
+    }
+
+    public int getWindowSize() {
+      return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+      this.windowSize = windowSize;
+    }
+  }
+
+  /**
+   * Incremental feed of the changed user responses
+   */
+  public static class Changes {
+
+    private long safetyLagMillis = 1000;
+    private int defaultPageSize = 100;
+    private int maxPageSize = 1000;
+
+    public long getSafetyLagMillis() {
+      return safetyLagMillis;
+    }
+
+    public void setSafetyLagMillis(long safetyLagMillis) {
+      this.safetyLagMillis = safetyLagMillis;
+    }
+
+    public int getDefaultPageSize() {
+      return defaultPageSize;
+    }
+
+    public void setDefaultPageSize(int defaultPageSize) {
+      this.defaultPageSize = defaultPageSize;
+    }
+
+    public int getMaxPageSize() {
+      return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+      this.maxPageSize = maxPageSize;
+    }
+  }
+
+  /**
+   * Columnar snapshot of the responses used by the analytics queries
+   * <p>
+   * When {@code directory} is not set the columns are allocated as direct buffers
+   * otherwise they are memory-mapped from files in this directory
+   */
+  public static class Analytics {
+
+    private boolean enabled = true;
+    private long refreshIntervalMillis = 300000;
+    private int fetchSize = 10000;
+    private String directory;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public long getRefreshIntervalMillis() {
+      return refreshIntervalMillis;
+    }
+
+    public void setRefreshIntervalMillis(long refreshIntervalMillis) {
+      this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    public int getFetchSize() {
+      return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+      this.fetchSize = fetchSize;
+    }
+
+    public String getDirectory() {
+      return directory;
+    }
+
+    public void setDirectory(String directory) {
+      this.directory = directory;
+    }
+  }
+
+  /**
+   * Dictionary storage of the contents of the responses to the choice and range questions in {@code response_values}
+   */
+  public static class ResponseValues {
+
+    private boolean dictionaryEnabled = false;
+    private int maxCachedValues = 100000;
+
+    public boolean isDictionaryEnabled() {
+      return dictionaryEnabled;
+    }
+
+    public void setDictionaryEnabled(boolean dictionaryEnabled) {
+      this.dictionaryEnabled = dictionaryEnabled;
+    }
+
+    public int getMaxCachedValues() {
+      return maxCachedValues;
+    }
+
+    public void setMaxCachedValues(int maxCachedValues) {
+      this.maxCachedValues = maxCachedValues;
+    }
+  }
+
+  /**
+   * Validation of the request bodies
+   * <p>
+   * When {@code precompiled} is enabled the request bodies that have a hand-built validator
+   * are not validated by the reflective bean validation anymore
+   */
+  public static class Validation {
+
+    private boolean precompiled = false;
+
+    public boolean isPrecompiled() {
+      return precompiled;
+    }
+
+    public void setPrecompiled(boolean precompiled) {
+      this.precompiled = precompiled;
+    }
+  }
+
+  /**
+   * Diagnostics of the allocations of the requests and time-boxed profiling with the flight recorder
+   */
+  public static class Diagnostics {
+
+    private boolean enabled = false;
+    private int maxRecordingSeconds = 60;
+    private int maxSites = 10;
+    private int maxTrackedEndpoints = 1000;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getMaxRecordingSeconds() {
+      return maxRecordingSeconds;
+    }
+
+    public void setMaxRecordingSeconds(int maxRecordingSeconds) {
+      this.maxRecordingSeconds = maxRecordingSeconds;
+    }
+
+    public int getMaxSites() {
+      return maxSites;
+    }
+
+    public void setMaxSites(int maxSites) {
+      this.maxSites = maxSites;
+    }
+
+    public int getMaxTrackedEndpoints() {
+      return maxTrackedEndpoints;
+    }
+
+    public void setMaxTrackedEndpoints(int maxTrackedEndpoints) {
+      this.maxTrackedEndpoints = maxTrackedEndpoints;
+    }
+  }
+
+  /**
+   * Accounting of the dao calls, the sql statements and the allocations of each request
+   * <p>
+   * When {@code serverTimingHeader} is enabled the accounting of the request is sent
+   * in the {@code Server-Timing} header of the response
+   */
+  public static class Accounting {
+
+    private boolean enabled = true;
+    private boolean serverTimingHeader = false;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public boolean isServerTimingHeader() {
+      return serverTimingHeader;
+    }
+
+    public void setServerTimingHeader(boolean serverTimingHeader) {
+      this.serverTimingHeader = serverTimingHeader;
+    }
+  }
+
+  /**
+   * Startup of the application
+   * <p>
+   * When {@code lazyInitialization} is enabled the application beans are created when they are first used,
+   * except the beans running the periodic tasks and the listeners,
+   * and when {@code warmUp} is enabled the critical paths are executed in the background once the application is ready,
+   * the {@code warmUp} health check is unhealthy until they were executed {@code warmUpIterations} times and the
+   * write path, which stops before modifying any row, {@code warmUpWriteIterations} times
+   */
+  public static class Startup {
+
+    private boolean lazyInitialization = false;
+    private boolean warmUp = false;
+    private int warmUpIterations = 1;
+    private int warmUpWriteIterations = 1;
+
+    public boolean isLazyInitialization() {
+      return lazyInitialization;
+    }
+
+    public void setLazyInitialization(boolean lazyInitialization) {
+      this.lazyInitialization = lazyInitialization;
+    }
+
+    public boolean isWarmUp() {
+      return warmUp;
+    }
+
+    public void setWarmUp(boolean warmUp) {
+      this.warmUp = warmUp;
+    }
+
+    public int getWarmUpIterations() {
+      return warmUpIterations;
+    }
+
+    public void setWarmUpIterations(int warmUpIterations) {
+      this.warmUpIterations = warmUpIterations;
+    }
+
+    public int getWarmUpWriteIterations() {
+      return warmUpWriteIterations;
+    }
+
+    public void setWarmUpWriteIterations(int warmUpWriteIterations) {
+      this.warmUpWriteIterations = warmUpWriteIterations;
+    }
+  }
+
+  /**
+   * Documentation of the rest api generated by springfox
+   */
+  public static class Swagger {
+
+    private boolean enabled = true;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+  }
+
+  /**
+   * Monitoring of the saturation of the connection pool
+   * <p>
+   * The pool is sampled every {@code intervalMillis} and is saturated when the mean wait for a connection exceeds
+   * {@code waitThresholdMillis}. When {@code autoTune} is enabled the recommended maximum size of the pool between
+   * {@code minPoolSize} and {@code maxPoolSize} is applied, the admission control follows the new size unless its
+   * limit is configured explicitly.
+   */
+  public static class ConnectionPool {
+
+    private boolean enabled = true;
+    private long intervalMillis = 10000;
+    private long waitThresholdMillis = 50;
+    private boolean autoTune = false;
+    private int minPoolSize = 2;
+    private int maxPoolSize = 50;
+    private int maxHotSpots = 5;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public long getIntervalMillis() {
+      return intervalMillis;
+    }
+
+    public void setIntervalMillis(long intervalMillis) {
+      this.intervalMillis = intervalMillis;
+    }
+
+    public long getWaitThresholdMillis() {
+      return waitThresholdMillis;
+    }
+
+    public void setWaitThresholdMillis(long waitThresholdMillis) {
+      this.waitThresholdMillis = waitThresholdMillis;
+    }
+
+    public boolean isAutoTune() {
+      return autoTune;
+    }
+
+    public void setAutoTune(boolean autoTune) {
+      this.autoTune = autoTune;
+    }
+
+    public int getMinPoolSize() {
+      return minPoolSize;
+    }
+
+    public void setMinPoolSize(int minPoolSize) {
+      this.minPoolSize = minPoolSize;
+    }
+
+    public int getMaxPoolSize() {
+      return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+      this.maxPoolSize = maxPoolSize;
+    }
+
+    public int getMaxHotSpots() {
+      return maxHotSpots;
+    }
+
+    public void setMaxHotSpots(int maxHotSpots) {
+      this.maxHotSpots = maxHotSpots;
+    }
+  }
+
+  /**
+   * Consistency check of the progress of the users
+   * <p>
+   * The progress is maintained by the writes of the responses, when {@code rebuildEnabled} is enabled it is
+   * recomputed from the responses every {@code rebuildIntervalMillis} and the rows that differ are corrected.
+   */
+  public static class Progress {
+
+    private boolean rebuildEnabled = true;
+    private long rebuildIntervalMillis = 3600000;
+
+    public boolean isRebuildEnabled() {
+      return rebuildEnabled;
+    }
+
+    public void setRebuildEnabled(boolean rebuildEnabled) {
+      this.rebuildEnabled = rebuildEnabled;
+    }
+
+    public long getRebuildIntervalMillis() {
+      return rebuildIntervalMillis;
+    }
+
+    public void setRebuildIntervalMillis(long rebuildIntervalMillis) {
+      this.rebuildIntervalMillis = rebuildIntervalMillis;
+    }
+  }
+
+  /**
+   * Streams of the updates of the answers
+   * <p>
+   * Each subscriber buffers at most {@code bufferSize} updates sent by {@code senderThreads} threads, a subscriber
+   * whose buffer is full is dropped. A stream is closed after {@code timeoutMillis} and the client reconnects.
+   */
+  public static class Live {
+
+    private int bufferSize = 256;
+    private int senderThreads = 2;
+    private long timeoutMillis = 1800000;
+
+    public int getBufferSize() {
+      return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+      this.bufferSize = bufferSize;
+    }
+
+    public int getSenderThreads() {
+      return senderThreads;
+    }
+
+    public void setSenderThreads(int senderThreads) {
+      this.senderThreads = senderThreads;
+    }
+
+    public long getTimeoutMillis() {
+      return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(long timeoutMillis) {
+      this.timeoutMillis = timeoutMillis;
+    }
+  }
+
+  /**
+   * Bulk imports of the responses
+   * <p>
+   * The files are stored in {@code directory}, the temporary directory when it is not set, then imported in the
+   * background. The lines are validated and written by chunks of {@code batchSize} lines, each chunk in its own
+   * transaction, and {@code parallelism} chunks are written at the same time. The rejected lines are reported in
+   * a file of {@code directory}.
+   */
+  public static class Imports {
+
+    private int batchSize = 5000;
+    private int parallelism = 2;
+    private String directory;
+
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+      this.batchSize = batchSize;
+    }
+
+    public int getParallelism() {
+      return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+      this.parallelism = parallelism;
+    }
+
+    public String getDirectory() {
+      return directory;
+    }
+
+    public void setDirectory(String directory) {
+      this.directory = directory;
+    }
+  }
+
+  /**
+   * Parallel processing of the large submissions
+   * <p>
+   * The submissions of at least {@code parallelThreshold} responses are mapped and validated by a dedicated pool
+   * of {@code parallelism} threads, bounded by the number of processors. The default threshold is provisional, it
+   * was not chosen by a benchmark: it must be measured with {@code ResponseSubmissionBenchmark} on the production
+   * hardware and configured with {@code parallelThreshold}.
+   */
+  public static class Submissions {
+
+    private int parallelThreshold = 2048;
+    private int parallelism = 4;
+
+    public int getParallelThreshold() {
+      return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+      this.parallelThreshold = parallelThreshold;
+    }
+
+    public int getParallelism() {
+      return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+      this.parallelism = parallelism;
+    }
+  }
+
+  /**
+   * Versioning of the catalog
+   * <p>
+   * The catalog is compared with its last versioned snapshot when the application starts then every
+   * {@code refreshIntervalMillis}, a change made by a migration is visible to the clients after the next refresh.
+   */
+  public static class Catalog {
+
+    private long refreshIntervalMillis = 60000;
+
+    public long getRefreshIntervalMillis() {
+      return refreshIntervalMillis;
+    }
+
+    public void setRefreshIntervalMillis(long refreshIntervalMillis) {
+      this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.config;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.github.joumenharzli.surveypoc.service.SubjectService;
+
+/**
+ * Catalog Configuration
+ * The version of the catalog is refreshed as soon as the application is ready, so the changes made while it was
+ * stopped are versioned, then periodically
+ *
+ * @author Joumen Harzli
+ */
+@Configuration
+public class CatalogConfiguration {
+
+  private final SubjectService subjectService;
+
+  public CatalogConfiguration(SubjectService subjectService) {
+    this.subjectService = subjectService;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void refreshCatalogVersionAtStartup() {
+    subjectService.refreshCatalogVersion();
+  }
+
+  @Scheduled(fixedDelayString = "${application.catalog.refresh-interval-millis}",
+      initialDelayString = "${application.catalog.refresh-interval-millis}")
+  public void refreshCatalogVersion() {
+    subjectService.refreshCatalogVersion();
+  }
+
+}
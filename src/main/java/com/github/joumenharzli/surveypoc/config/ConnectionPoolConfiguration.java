@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.github.joumenharzli.surveypoc.health.ConnectionPoolHealthCheck;
+import com.github.joumenharzli.surveypoc.repository.pool.ConnectionPoolMonitor;
+import com.github.joumenharzli.surveypoc.repository.pool.ConnectionPoolStatistics;
+import com.github.joumenharzli.surveypoc.repository.pool.DaoHoldSitePostProcessor;
+import com.github.joumenharzli.surveypoc.repository.pool.DataSourcePoolPostProcessor;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Connection Pool Configuration
+ * The waits and the holds of the connections are measured continuously and the pool is checked periodically,
+ * the result of the last check is reported by the {@code connectionPool} health check
+ *
+ * @author Joumen Harzli
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.connection-pool", name = "enabled", matchIfMissing = true)
+public class ConnectionPoolConfiguration {
+
+  private static final String CONNECTION_POOL_HEALTH_CHECK = "connectionPool";
+
+  private final ObjectProvider<ConnectionPoolMonitor> connectionPoolMonitor;
+  private final HealthCheckRegistry healthCheckRegistry;
+  private final ApplicationProperties applicationProperties;
+
+  /**
+   * The monitor is declared by this configuration so it is looked up when the pool is checked
+   */
+  public ConnectionPoolConfiguration(ObjectProvider<ConnectionPoolMonitor> connectionPoolMonitor,
+                                     HealthCheckRegistry healthCheckRegistry,
+                                     ApplicationProperties applicationProperties) {
+    this.connectionPoolMonitor = connectionPoolMonitor;
+    this.healthCheckRegistry = healthCheckRegistry;
+    this.applicationProperties = applicationProperties;
+  }
+
+  /**
+   * Declared static because it is needed by a post processor
+   */
+  @Bean
+  public static ConnectionPoolStatistics connectionPoolStatistics() {
+    return new ConnectionPoolStatistics();
+  }
+
+  @Bean
+  public static DaoHoldSitePostProcessor daoHoldSitePostProcessor() {
+    return new DaoHoldSitePostProcessor();
+  }
+
+  @Bean
+  public static DataSourcePoolPostProcessor dataSourcePoolPostProcessor(ConnectionPoolStatistics statistics) {
+    return new DataSourcePoolPostProcessor(statistics);
+  }
+
+  /**
+   * Eager even when the beans are lazy so the {@code connectionPool} health check is registered at startup
+   */
+  @Bean
+  @Lazy(false)
+  public ConnectionPoolMonitor connectionPoolMonitor(HikariDataSource hikariDataSource,
+                                                     ConnectionPoolStatistics connectionPoolStatistics) {
+    ConnectionPoolMonitor monitor = new ConnectionPoolMonitor(hikariDataSource, connectionPoolStatistics,
+        applicationProperties);
+    healthCheckRegistry.register(CONNECTION_POOL_HEALTH_CHECK, new ConnectionPoolHealthCheck(monitor));
+    return monitor;
+  }
+
+  @Scheduled(fixedDelayString = "${application.connection-pool.interval-millis}",
+      initialDelayString = "${application.connection-pool.interval-millis}")
+  public void checkConnectionPool() {
+    connectionPoolMonitor.getObject().check();
+  }
+
+}
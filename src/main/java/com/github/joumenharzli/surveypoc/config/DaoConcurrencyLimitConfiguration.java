@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.github.joumenharzli.surveypoc.repository.limit.AdaptiveConcurrencyLimiter;
+import com.github.joumenharzli.surveypoc.repository.limit.ConcurrencyLimitInterceptor;
+import com.github.joumenharzli.surveypoc.repository.limit.DaoConcurrencyLimitPostProcessor;
+
+/**
+ * Adaptive concurrency limit of the dao calls Configuration
+ *
+ * @author Joumen Harzli
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.dao-limit", name = "enabled", matchIfMissing = true)
+public class DaoConcurrencyLimitConfiguration {
+
+  private static final String PROP_METRIC_REG_DAO_LIMIT = "dao.limit";
+  private static final String PROP_METRIC_REG_DAO_IN_FLIGHT = "dao.in-flight";
+  private static final String PROP_METRIC_REG_DAO_REJECTED = "dao.rejected";
+
+  /**
+   * Static like the other post processors of the configurations, an instance method would create this
+   * configuration before the beans are post processed and exclude it from the post processing
+   */
+  @Bean
+  public static DaoConcurrencyLimitPostProcessor daoConcurrencyLimitPostProcessor() {
+    return new DaoConcurrencyLimitPostProcessor();
+  }
+
+  @Bean
+  public AdaptiveConcurrencyLimiter daoConcurrencyLimiter(ApplicationProperties applicationProperties,
+                                                          MetricRegistry metricRegistry) {
+    ApplicationProperties.DaoLimit properties = applicationProperties.getDaoLimit();
+
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties.getInitialLimit(),
+        properties.getMinLimit(), properties.getMaxLimit(), properties.getRttTolerance(), properties.getSmoothing(),
+        properties.getWindowSize());
+
+    metricRegistry.register(PROP_METRIC_REG_DAO_LIMIT, (Gauge<Integer>) limiter::getLimit);
+    metricRegistry.register(PROP_METRIC_REG_DAO_IN_FLIGHT, (Gauge<Integer>) limiter::getInFlight);
+
+    return limiter;
+  }
+
+  @Bean
+  public ConcurrencyLimitInterceptor concurrencyLimitInterceptor(AdaptiveConcurrencyLimiter daoConcurrencyLimiter,
+                                                                 MetricRegistry metricRegistry) {
+    return new ConcurrencyLimitInterceptor(daoConcurrencyLimiter, metricRegistry.meter(PROP_METRIC_REG_DAO_REJECTED));
+  }
+
+}
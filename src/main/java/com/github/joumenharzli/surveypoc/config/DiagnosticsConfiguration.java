@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.joumenharzli.surveypoc.diagnostics.AllocationStatistics;
+import com.github.joumenharzli.surveypoc.diagnostics.ProfileRecorder;
+import com.github.joumenharzli.surveypoc.diagnostics.ThreadAllocationCounter;
+import com.github.joumenharzli.surveypoc.web.filter.RequestDiagnosticsFilter;
+
+/**
+ * Diagnostics Configuration
+ * <p>
+ * The filter is applied on the rest api after the rate limiting and the admission control
+ * so only the requests that were handled are attributed to their endpoints
+ *
+ * @author Joumen Harzli
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.diagnostics", name = "enabled")
+public class DiagnosticsConfiguration {
+
+  private static final String API_URL_PATTERN = "/api/*";
+  private static final int REQUEST_DIAGNOSTICS_FILTER_ORDER = SecurityProperties.DEFAULT_FILTER_ORDER + 30;
+
+  @Bean
+  public FilterRegistrationBean requestDiagnosticsFilter(ThreadAllocationCounter allocationCounter,
+                                                         AllocationStatistics allocationStatistics,
+                                                         ProfileRecorder profileRecorder) {
+    FilterRegistrationBean registration = new FilterRegistrationBean(
+        new RequestDiagnosticsFilter(allocationCounter, allocationStatistics, profileRecorder));
+    registration.addUrlPatterns(API_URL_PATTERN);
+    registration.setOrder(REQUEST_DIAGNOSTICS_FILTER_ORDER);
+    return registration;
+  }
+
+}
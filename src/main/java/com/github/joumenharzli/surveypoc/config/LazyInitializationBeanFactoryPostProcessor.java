@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.config;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Bean factory post processor that makes lazy the application beans so they are created
+ * when they are first used instead of during the startup
+ * <p>
+ * Only the beans declared in the packages of the application are made lazy, the beans of the libraries like
+ * springfox expect to be created during the startup. The beans that must take part in the startup stay eager:
+ * the lifecycles, the singletons initialized once all the others are created and the beans declaring
+ * {@code @Scheduled} or {@code @EventListener} methods, which are only registered when the bean is created.
+ * A bean annotated with {@link Lazy} keeps the initialization given by the annotation, {@code @Lazy(false)}
+ * keeps eager a bean that registers itself somewhere when it is created.
+ *
+ * @author Joumen Harzli
+ */
+public class LazyInitializationBeanFactoryPostProcessor implements BeanFactoryPostProcessor, Ordered {
+
+  @Override
+  public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+    List<String> packages = AutoConfigurationPackages.get(beanFactory);
+    for (String beanName : beanFactory.getBeanDefinitionNames()) {
+      BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+      if (beanDefinition.getRole() != BeanDefinition.ROLE_APPLICATION || beanDefinition.isAbstract() ||
+          isAnnotatedWithLazy(beanDefinition)) {
+        continue;
+      }
+
+      Class<?> beanType = beanFactory.getType(beanName);
+      if (beanType != null && isInPackages(beanType, packages) && !mustBeEager(beanType)) {
+        beanDefinition.setLazyInit(true);
+      }
+    }
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+
+  private static boolean isAnnotatedWithLazy(BeanDefinition beanDefinition) {
+    if (!(beanDefinition instanceof AnnotatedBeanDefinition)) {
+      return false;
+    }
+    AnnotatedBeanDefinition annotatedBeanDefinition = (AnnotatedBeanDefinition) beanDefinition;
+    AnnotatedTypeMetadata metadata = annotatedBeanDefinition.getFactoryMethodMetadata();
+    if (metadata == null) {
+      metadata = annotatedBeanDefinition.getMetadata();
+    }
+    return metadata.isAnnotated(Lazy.class.getName());
+  }
+
+  private static boolean isInPackages(Class<?> beanType, List<String> packages) {
+    String packageName = ClassUtils.getPackageName(ClassUtils.getUserClass(beanType));
+    return packages.stream().anyMatch(base -> packageName.equals(base) || packageName.startsWith(base + "."));
+  }
+
+  private static boolean mustBeEager(Class<?> beanType) {
+    return SmartInitializingSingleton.class.isAssignableFrom(beanType) ||
+        SmartLifecycle.class.isAssignableFrom(beanType) || declaresCallbacks(ClassUtils.getUserClass(beanType));
+  }
+
+  private static boolean declaresCallbacks(Class<?> beanType) {
+    for (Method method : ReflectionUtils.getUniqueDeclaredMethods(beanType)) {
+      if (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ||
+          AnnotatedElementUtils.hasAnnotation(method, Schedules.class) ||
+          AnnotatedElementUtils.hasAnnotation(method, EventListener.class)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.github.joumenharzli.surveypoc.live.ResponseUpdateBroadcaster;
+import com.github.joumenharzli.surveypoc.service.dto.QuestionAnswersUpdateDto;
+
+/**
+ * Live updates of the answers Configuration
+ *
+ * @author Joumen Harzli
+ */
+@Configuration
+public class LiveResponseConfiguration {
+
+  private static final String PROP_METRIC_REG_LIVE_SUBSCRIBERS = "live.subscribers";
+  private static final String PROP_METRIC_REG_LIVE_DROPPED = "live.dropped";
+
+  @Bean(destroyMethod = "shutdown")
+  public ResponseUpdateBroadcaster<QuestionAnswersUpdateDto> responseUpdateBroadcaster(
+      ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
+    ApplicationProperties.Live properties = applicationProperties.getLive();
+
+    ResponseUpdateBroadcaster<QuestionAnswersUpdateDto> broadcaster = new ResponseUpdateBroadcaster<>(
+        properties.getBufferSize(), properties.getSenderThreads(), metricRegistry.meter(PROP_METRIC_REG_LIVE_DROPPED));
+
+    metricRegistry.register(PROP_METRIC_REG_LIVE_SUBSCRIBERS, (Gauge<Integer>) broadcaster::getSubscribers);
+
+    return broadcaster;
+  }
+
+}
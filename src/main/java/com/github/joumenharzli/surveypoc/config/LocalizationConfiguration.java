@@ -15,6 +15,9 @@
 
 package com.github.joumenharzli.surveypoc.config;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 
 import org.springframework.context.annotation.Bean;
@@ -31,11 +34,33 @@ import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
 @Configuration
 public class LocalizationConfiguration {
 
+  /**
+   * Locales of the i18n messages, the first one is used when the locale of the client is not supported
+   */
+  public static final List<Locale> SUPPORTED_LOCALES =
+      Collections.unmodifiableList(Arrays.asList(Locale.ENGLISH, Locale.FRENCH));
+
+  /**
+   * Get the supported locale having the language of a locale
+   *
+   * @param locale locale of the client, may be null
+   * @return the supported locale of the language or the first supported locale
+   */
+  public static Locale toSupportedLocale(Locale locale) {
+    if (locale != null) {
+      for (Locale supportedLocale : SUPPORTED_LOCALES) {
+        if (supportedLocale.getLanguage().equals(locale.getLanguage())) {
+          return supportedLocale;
+        }
+      }
+    }
+    return SUPPORTED_LOCALES.get(0);
+  }
 
   /**
    * Use {@code Accept-language} header of the HTTP request to set the client local
    * <p>
-   * If not specified {@code Locale.US} will be used
+   * If not specified or not supported {@code Locale.US} will be used
    *
    * @return instance of {@link LocaleResolver}
    */
@@ -43,6 +68,7 @@ public class LocalizationConfiguration {
   public LocaleResolver localeResolver() {
     AcceptHeaderLocaleResolver localeResolver = new AcceptHeaderLocaleResolver();
     localeResolver.setDefaultLocale(Locale.US);
+    localeResolver.setSupportedLocales(SUPPORTED_LOCALES);
     return localeResolver;
   }
 
@@ -25,6 +25,7 @@ import com.codahale.metrics.JvmAttributeGaugeSet;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.health.HealthCheckRegistry;
 import com.codahale.metrics.jvm.*;
+import com.github.joumenharzli.surveypoc.health.HealthCheckRegistryHealthIndicator;
 import com.ryantenney.metrics.spring.config.annotation.EnableMetrics;
 import com.ryantenney.metrics.spring.config.annotation.MetricsConfigurerAdapter;
 import com.zaxxer.hikari.HikariDataSource;
@@ -71,6 +72,14 @@ public class MetricsConfiguration extends MetricsConfigurerAdapter {
     return new HealthCheckRegistry();
   }
 
+  /**
+   * The health checks are reported in the {@code /health} endpoint under {@code healthChecks}
+   */
+  @Bean
+  public HealthCheckRegistryHealthIndicator healthChecksHealthIndicator(HealthCheckRegistry healthCheckRegistry) {
+    return new HealthCheckRegistryHealthIndicator(healthCheckRegistry);
+  }
+
   private void registerJVMMetrics(MetricRegistry metricRegistry) {
     metricRegistry.register(PROP_METRIC_REG_JVM_MEMORY, new MemoryUsageGaugeSet());
     metricRegistry.register(PROP_METRIC_REG_JVM_GARBAGE, new GarbageCollectorMetricSet());
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.github.joumenharzli.surveypoc.service.SubjectService;
+
+/**
+ * Progress Configuration
+ * The progress of the users is checked against their responses periodically, the first check
+ * runs after one interval since the progress is maintained by the writes
+ *
+ * @author Joumen Harzli
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.progress", name = "rebuild-enabled", matchIfMissing = true)
+public class ProgressConfiguration {
+
+  private final SubjectService subjectService;
+
+  public ProgressConfiguration(SubjectService subjectService) {
+    this.subjectService = subjectService;
+  }
+
+  @Scheduled(fixedDelayString = "${application.progress.rebuild-interval-millis}",
+      initialDelayString = "${application.progress.rebuild-interval-millis}")
+  public void rebuildProgress() {
+    subjectService.rebuildProgress();
+  }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.joumenharzli.surveypoc.web.error.RestErrorWriter;
+import com.github.joumenharzli.surveypoc.web.filter.AdmissionControlFilter;
+import com.github.joumenharzli.surveypoc.web.filter.RateLimitingFilter;
+import com.github.joumenharzli.surveypoc.web.ratelimit.ClientRateLimiter;
+import com.github.joumenharzli.surveypoc.web.ratelimit.ConcurrencyLimiter;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Rate limiting and admission control Configuration
+ * <p>
+ * The filters are applied on the rest api after the security filters so the
+ * authenticated user can be used as the key of the client. The idle clients are evicted
+ * every {@code application.rate-limiting.eviction-interval-millis}.
+ *
+ * @author Joumen Harzli
+ */
+@Configuration
+public class RateLimitingConfiguration {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitingConfiguration.class);
+  private static final String API_URL_PATTERN = "/api/*";
+  private static final int RATE_LIMITING_FILTER_ORDER = SecurityProperties.DEFAULT_FILTER_ORDER + 10;
+  private static final int ADMISSION_CONTROL_FILTER_ORDER = SecurityProperties.DEFAULT_FILTER_ORDER + 20;
+
+  private final ApplicationProperties applicationProperties;
+  private final MetricRegistry metricRegistry;
+  private final RestErrorWriter restErrorWriter;
+  private final ObjectProvider<ClientRateLimiter> clientRateLimiter;
+
+  public RateLimitingConfiguration(ApplicationProperties applicationProperties, MetricRegistry metricRegistry,
+                                   RestErrorWriter restErrorWriter, ObjectProvider<ClientRateLimiter> clientRateLimiter) {
+    this.applicationProperties = applicationProperties;
+    this.metricRegistry = metricRegistry;
+    this.restErrorWriter = restErrorWriter;
+    this.clientRateLimiter = clientRateLimiter;
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "application.rate-limiting", name = "enabled", matchIfMissing = true)
+  public ClientRateLimiter clientRateLimiter() {
+    ApplicationProperties.RateLimiting properties = applicationProperties.getRateLimiting();
+    return new ClientRateLimiter(properties.getCapacity(), properties.getRefillPerSecond(),
+        properties.getMaxTrackedClients());
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "application.rate-limiting", name = "enabled", matchIfMissing = true)
+  public FilterRegistrationBean rateLimitingFilter(ClientRateLimiter rateLimiter) {
+    FilterRegistrationBean registration = new FilterRegistrationBean(
+        new RateLimitingFilter(rateLimiter, restErrorWriter, metricRegistry));
+    registration.addUrlPatterns(API_URL_PATTERN);
+    registration.setOrder(RATE_LIMITING_FILTER_ORDER);
+    return registration;
+  }
+
+  @Scheduled(fixedDelayString = "${application.rate-limiting.eviction-interval-millis}")
+  public void evictIdleClients() {
+    ClientRateLimiter rateLimiter = clientRateLimiter.getIfAvailable();
+    if (rateLimiter != null) {
+      LOGGER.debug("Evicted {} idle clients of the rate limiter", rateLimiter.evictIdleClients());
+    }
+  }
+
+  /**
+   * The number of the concurrent requests is bounded by the current maximum size of the connection pool,
+   * which may be tuned at runtime, unless it is explicitly configured
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "application.admission", name = "enabled", matchIfMissing = true)
+  public ConcurrencyLimiter admissionConcurrencyLimiter(HikariDataSource hikariDataSource) {
+    ApplicationProperties.Admission properties = applicationProperties.getAdmission();
+
+    if (properties.getMaxConcurrentRequests() > 0) {
+      return new ConcurrencyLimiter(properties.getMaxConcurrentRequests(), properties.getMaxWaitMillis());
+    }
+    return new ConcurrencyLimiter(hikariDataSource::getMaximumPoolSize, properties.getMaxWaitMillis());
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "application.admission", name = "enabled", matchIfMissing = true)
+  public FilterRegistrationBean admissionControlFilter(ConcurrencyLimiter concurrencyLimiter) {
+    ApplicationProperties.Admission properties = applicationProperties.getAdmission();
+
+    FilterRegistrationBean registration = new FilterRegistrationBean(
+        new AdmissionControlFilter(concurrencyLimiter, restErrorWriter, properties.getRetryAfterSeconds(),
+            metricRegistry));
+    registration.addUrlPatterns(API_URL_PATTERN);
+    registration.setOrder(ADMISSION_CONTROL_FILTER_ORDER);
+    return registration;
+  }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.joumenharzli.surveypoc.diagnostics.RequestAccountingMetrics;
+import com.github.joumenharzli.surveypoc.diagnostics.ThreadAllocationCounter;
+import com.github.joumenharzli.surveypoc.repository.accounting.DaoAccountingPostProcessor;
+import com.github.joumenharzli.surveypoc.repository.accounting.DataSourceAccountingPostProcessor;
+import com.github.joumenharzli.surveypoc.web.filter.RequestAccountingFilter;
+
+/**
+ * Accounting of the requests Configuration
+ * <p>
+ * The filter is applied on the rest api after the rate limiting and the admission control
+ * so only the requests that were handled are attributed to their endpoints. The accounting is independent
+ * of the {@link DiagnosticsConfiguration diagnostics}: when both are enabled the allocations of a request
+ * are read by each filter, which costs two reads of the allocation counter of the thread.
+ *
+ * @author Joumen Harzli
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.accounting", name = "enabled", matchIfMissing = true)
+public class RequestAccountingConfiguration {
+
+  private static final String API_URL_PATTERN = "/api/*";
+  private static final int REQUEST_ACCOUNTING_FILTER_ORDER = SecurityProperties.DEFAULT_FILTER_ORDER + 30;
+
+  @Bean
+  public static DaoAccountingPostProcessor daoAccountingPostProcessor() {
+    return new DaoAccountingPostProcessor();
+  }
+
+  @Bean
+  public static DataSourceAccountingPostProcessor dataSourceAccountingPostProcessor() {
+    return new DataSourceAccountingPostProcessor();
+  }
+
+  @Bean
+  public FilterRegistrationBean requestAccountingFilter(ThreadAllocationCounter allocationCounter,
+                                                        RequestAccountingMetrics accountingMetrics,
+                                                        ApplicationProperties applicationProperties) {
+    FilterRegistrationBean registration = new FilterRegistrationBean(new RequestAccountingFilter(allocationCounter,
+        accountingMetrics, applicationProperties.getAccounting().isServerTimingHeader()));
+    registration.addUrlPatterns(API_URL_PATTERN);
+    registration.setOrder(REQUEST_ACCOUNTING_FILTER_ORDER);
+    return registration;
+  }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Scheduling Configuration
+ * The periodic tasks of the application are declared with {@code @Scheduled} and run by a single
+ * small scheduler, so a long task does not delay the others
+ *
+ * @author Joumen Harzli
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+
+  private static final String SCHEDULER_THREAD_PREFIX = "scheduler-";
+  private static final int SCHEDULER_THREADS = 2;
+
+  @Bean(destroyMethod = "shutdown")
+  public ThreadPoolTaskScheduler taskScheduler() {
+    ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+    taskScheduler.setPoolSize(SCHEDULER_THREADS);
+    taskScheduler.setThreadNamePrefix(SCHEDULER_THREAD_PREFIX);
+    taskScheduler.setDaemon(true);
+    return taskScheduler;
+  }
+
+}
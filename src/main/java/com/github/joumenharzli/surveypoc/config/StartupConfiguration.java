@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.github.joumenharzli.surveypoc.health.WarmUpHealthCheck;
+import com.github.joumenharzli.surveypoc.service.WarmUpService;
+import com.github.joumenharzli.surveypoc.service.dto.WarmUpReportDto;
+import com.github.joumenharzli.surveypoc.util.LongList;
+import com.github.joumenharzli.surveypoc.web.util.RestUtils;
+
+/**
+ * Startup Configuration
+ * <p>
+ * When the beans are lazy the first requests create them and until the just in time compiler compiles
+ * the critical paths the first requests run interpreted, so the critical paths are warmed up in the background
+ * once the application is ready. The {@code warmUp} health check is registered when the configuration is created,
+ * before the server accepts requests, and is unhealthy until they were warmed up.
+ *
+ * @author Joumen Harzli
+ */
+@Configuration
+public class StartupConfiguration {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StartupConfiguration.class);
+  private static final String WARM_UP_THREAD_NAME = "startup-warm-up";
+  private static final String WARM_UP_HEALTH_CHECK = "warmUp";
+
+  /* the ids are parsed by the controllers so the warm up parses a typical list of ids */
+  private static final String WARM_UP_IDS_PATH = "ids";
+  private static final String WARM_UP_IDS = LongStream.rangeClosed(1, 50)
+      .mapToObj(Long::toString)
+      .collect(Collectors.joining(","));
+
+  private final ObjectProvider<WarmUpService> warmUpService;
+  private final ApplicationProperties applicationProperties;
+  private final WarmUpHealthCheck warmUpHealthCheck = new WarmUpHealthCheck();
+
+  /**
+   * The warm up service is looked up by the warm up thread so its dependencies are not created
+   * by the thread that starts the application
+   */
+  public StartupConfiguration(ObjectProvider<WarmUpService> warmUpService, HealthCheckRegistry healthCheckRegistry,
+                              ApplicationProperties applicationProperties) {
+    this.warmUpService = warmUpService;
+    this.applicationProperties = applicationProperties;
+    if (applicationProperties.getStartup().isWarmUp()) {
+      healthCheckRegistry.register(WARM_UP_HEALTH_CHECK, warmUpHealthCheck);
+    }
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "application.startup", name = "lazy-initialization")
+  public static LazyInitializationBeanFactoryPostProcessor lazyInitializationBeanFactoryPostProcessor() {
+    return new LazyInitializationBeanFactoryPostProcessor();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUpInBackground() {
+    ApplicationProperties.Startup properties = applicationProperties.getStartup();
+    if (!properties.isWarmUp()) {
+      return;
+    }
+
+    Thread warmUpThread = new Thread(() -> {
+      try {
+        WarmUpReportDto report = warmUp(properties.getWarmUpIterations(), properties.getWarmUpWriteIterations());
+        String summary = "Critical paths warmed up in " + report.getTotalElapsedMillis() + " ms " +
+            report.getElapsedMillis();
+        warmUpHealthCheck.completed(summary);
+        LOGGER.info(summary);
+      } catch (RuntimeException exception) {
+        warmUpHealthCheck.failed(exception);
+        LOGGER.warn("Unable to warm up the critical paths", exception);
+      }
+    }, WARM_UP_THREAD_NAME);
+    warmUpThread.setDaemon(true);
+    warmUpThread.start();
+  }
+
+  private WarmUpReportDto warmUp(int iterations, int writeIterations) {
+    long start = System.nanoTime();
+    LongList ids = new LongList(0);
+    for (int i = 0; i < iterations; i++) {
+      RestUtils.parseCommaDelimitedIds(WARM_UP_IDS_PATH, WARM_UP_IDS, Integer.MAX_VALUE, ids);
+    }
+
+    Map<String, Long> elapsedMillis = new LinkedHashMap<>();
+    elapsedMillis.put(WARM_UP_IDS_PATH, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+    WarmUpReportDto report = warmUpService.getObject().warmUp(iterations, writeIterations);
+    elapsedMillis.putAll(report.getElapsedMillis());
+    return new WarmUpReportDto(iterations, writeIterations, elapsedMillis);
+  }
+
+}
@@ -18,6 +18,7 @@ package com.github.joumenharzli.surveypoc.config;
 import java.util.Arrays;
 import java.util.Collections;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.AnnotationUtils;
@@ -42,11 +43,13 @@ import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 /**
  * Swagger Configuration
+ * The documentation can be disabled to avoid scanning the controllers during the startup
  *
  * @author Joumen Harzli
  */
 @Configuration
 @EnableSwagger2
+@ConditionalOnProperty(prefix = "application.swagger", name = "enabled", matchIfMissing = true)
 public class SwaggerConfiguration {
 
 
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+
+/**
+ * Bytes allocated by the requests aggregated by endpoint and by request thread
+ * <p>
+ * The number of the tracked endpoints and threads is bounded, the requests whose key does not fit
+ * are only counted in the totals of {@link #OTHER}
+ *
+ * @author Joumen Harzli
+ */
+@Component
+public class AllocationStatistics {
+
+  public static final String OTHER = "OTHER";
+
+  private final int maxTrackedKeys;
+  private final Map<String, Totals> endpoints = new ConcurrentHashMap<>();
+  private final Map<String, Totals> threads = new ConcurrentHashMap<>();
+
+  public AllocationStatistics(ApplicationProperties applicationProperties) {
+    this.maxTrackedKeys = applicationProperties.getDiagnostics().getMaxTrackedEndpoints();
+  }
+
+  /**
+   * Record the bytes allocated by a request
+   *
+   * @param endpoint       the endpoint that handled the request
+   * @param thread         name of the thread that handled the request
+   * @param allocatedBytes the bytes allocated while the request was handled
+   */
+  public void record(String endpoint, String thread, long allocatedBytes) {
+    totalsOf(endpoints, endpoint).add(allocatedBytes);
+    totalsOf(threads, thread).add(allocatedBytes);
+  }
+
+  /**
+   * @return the totals of each endpoint ordered by decreasing allocated bytes
+   */
+  public List<Totals> getEndpoints() {
+    return sorted(endpoints);
+  }
+
+  /**
+   * @return the totals of each request thread ordered by decreasing allocated bytes
+   */
+  public List<Totals> getThreads() {
+    return sorted(threads);
+  }
+
+  /**
+   * Forget all the recorded allocations
+   */
+  public void clear() {
+    endpoints.clear();
+    threads.clear();
+  }
+
+  private Totals totalsOf(Map<String, Totals> totals, String key) {
+    Totals found = totals.get(key);
+    if (found != null) {
+      return found;
+    }
+    String trackedKey = totals.size() < maxTrackedKeys ? key : OTHER;
+    return totals.computeIfAbsent(trackedKey, Totals::new);
+  }
+
+  private static List<Totals> sorted(Map<String, Totals> totals) {
+    List<Totals> sortedTotals = new ArrayList<>(totals.values());
+    sortedTotals.sort(Comparator.comparingLong(Totals::getAllocatedBytes).reversed());
+    return sortedTotals;
+  }
+
+  /**
+   * Allocations of the requests sharing the same key
+   */
+  public static final class Totals {
+
+    private final String key;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAccumulator maxAllocatedBytes = new LongAccumulator(Long::max, 0);
+
+    private Totals(String key) {
+      this.key = key;
+    }
+
+    private void add(long bytes) {
+      requests.increment();
+      allocatedBytes.add(bytes);
+      maxAllocatedBytes.accumulate(bytes);
+    }
+
+    public String getKey() {
+      return key;
+    }
+
+    public long getRequests() {
+      return requests.sum();
+    }
+
+    public long getAllocatedBytes() {
+      return allocatedBytes.sum();
+    }
+
+    public long getMaxAllocatedBytes() {
+      return maxAllocatedBytes.get();
+    }
+
+    @Override
+    public String toString() {
+      return "Totals{" +
+          "key='" + key + '\'' +
+          ", requests=" + requests +
+          ", allocatedBytes=" + allocatedBytes +
+          '}';
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.diagnostics;
+
+import java.util.Map;
+
+/**
+ * Activity of an endpoint sampled by a recording of the flight recorder
+ * <p>
+ * The sites are the first frames outside of the jdk ordered by decreasing weight
+ *
+ * @author Joumen Harzli
+ */
+public final class EndpointProfile {
+
+  private final String endpoint;
+  private final long requests;
+  private final Map<String, Long> allocationSites;
+  private final Map<String, Long> cpuSites;
+  private final Map<String, Long> lockSites;
+
+  EndpointProfile(String endpoint, long requests, Map<String, Long> allocationSites, Map<String, Long> cpuSites,
+                  Map<String, Long> lockSites) {
+    this.endpoint = endpoint;
+    this.requests = requests;
+    this.allocationSites = allocationSites;
+    this.cpuSites = cpuSites;
+    this.lockSites = lockSites;
+  }
+
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  /**
+   * @return number of the requests handled during the recording
+   */
+  public long getRequests() {
+    return requests;
+  }
+
+  /**
+   * @return the sampled allocated bytes by site
+   */
+  public Map<String, Long> getAllocationSites() {
+    return allocationSites;
+  }
+
+  /**
+   * @return the number of the execution samples by site
+   */
+  public Map<String, Long> getCpuSites() {
+    return cpuSites;
+  }
+
+  /**
+   * @return the nanoseconds spent waiting for a monitor or parked by site
+   */
+  public Map<String, Long> getLockSites() {
+    return lockSites;
+  }
+
+  @Override
+  public String toString() {
+    return "EndpointProfile{" +
+        "endpoint='" + endpoint + '\'' +
+        ", requests=" + requests +
+        '}';
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.diagnostics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+/**
+ * Time-boxed recordings of the flight recorder sampling the allocations, the locks and the cpu
+ * <p>
+ * Only one recording runs at a time. While it runs the requests are recorded as events too so the samples
+ * can be attributed to the endpoints, otherwise the requests cost nothing more than a volatile read.
+ * The recorder is not available on the virtual machines that do not ship the {@code jdk.jfr} module.
+ *
+ * @author Joumen Harzli
+ */
+@Component
+public class ProfileRecorder {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProfileRecorder.class);
+
+  private static final Duration SAMPLING_PERIOD = Duration.ofMillis(10);
+  private static final Duration LOCK_THRESHOLD = Duration.ofMillis(1);
+
+  private final boolean available = isFlightRecorderAvailable();
+  private final AtomicBoolean recording = new AtomicBoolean();
+  private volatile boolean recordingRequests;
+
+  /**
+   * @return true if the flight recorder can be used
+   */
+  public boolean isAvailable() {
+    return available;
+  }
+
+  /**
+   * Start the event of a request if a recording is running
+   *
+   * @return the started event or null if no recording is running
+   */
+  public Object beginRequest() {
+    if (!recordingRequests) {
+      return null;
+    }
+    RequestMappingEvent event = new RequestMappingEvent();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Commit the event of a request
+   *
+   * @param event    the event returned by {@link #beginRequest()}
+   * @param endpoint the endpoint that handled the request
+   */
+  public void endRequest(Object event, String endpoint) {
+    if (event != null) {
+      RequestMappingEvent requestEvent = (RequestMappingEvent) event;
+      requestEvent.endpoint = endpoint;
+      requestEvent.commit();
+    }
+  }
+
+  /**
+   * Record the activity of the application during a duration, the calling thread is blocked until the end
+   *
+   * @param duration duration of the recording
+   * @return the file of the recording that should be deleted by the caller,
+   * or null if the recorder is not available or already recording
+   * @throws IOException          if the recording cannot be written
+   * @throws InterruptedException if the thread is interrupted while recording
+   */
+  public Path record(Duration duration) throws IOException, InterruptedException {
+    if (!available || !recording.compareAndSet(false, true)) {
+      return null;
+    }
+
+    LOGGER.debug("Starting a recording of {}", duration);
+
+    Path file = Files.createTempFile("surveypoc-", ".jfr");
+    try (Recording flightRecording = new Recording()) {
+      flightRecording.setName("surveypoc-diagnostics");
+      flightRecording.enable(RecordingSummarizer.ALLOCATION_IN_NEW_TLAB).withStackTrace();
+      flightRecording.enable(RecordingSummarizer.ALLOCATION_OUTSIDE_TLAB).withStackTrace();
+      flightRecording.enable(RecordingSummarizer.EXECUTION_SAMPLE).withPeriod(SAMPLING_PERIOD);
+      flightRecording.enable(RecordingSummarizer.MONITOR_ENTER).withThreshold(LOCK_THRESHOLD).withStackTrace();
+      flightRecording.enable(RecordingSummarizer.THREAD_PARK).withThreshold(LOCK_THRESHOLD).withStackTrace();
+      flightRecording.enable(RequestMappingEvent.class);
+
+      flightRecording.start();
+      recordingRequests = true;
+      try {
+        Thread.sleep(duration.toMillis());
+      } finally {
+        recordingRequests = false;
+        flightRecording.stop();
+      }
+
+      flightRecording.dump(file);
+      return file;
+    } catch (IOException | InterruptedException | RuntimeException exception) {
+      Files.deleteIfExists(file);
+      throw exception;
+    } finally {
+      recording.set(false);
+    }
+  }
+
+  /**
+   * Attribute the samples of a recording to the endpoints
+   *
+   * @param file     the file of the recording
+   * @param maxSites maximum number of the sites kept for each endpoint and kind of sample
+   * @return the profiles by endpoint ordered by endpoint
+   * @throws IOException if the recording cannot be read
+   */
+  public Map<String, EndpointProfile> summarize(Path file, int maxSites) throws IOException {
+    return new RecordingSummarizer(maxSites).summarize(file);
+  }
+
+  private static boolean isFlightRecorderAvailable() {
+    try {
+      return FlightRecorder.isAvailable();
+    } catch (LinkageError error) {
+      LOGGER.info("The flight recorder is not available on this virtual machine");
+      return false;
+    }
+  }
+}
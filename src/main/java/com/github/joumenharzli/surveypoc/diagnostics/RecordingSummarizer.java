@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.diagnostics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Attribute the sampled events of a recording to the endpoints whose requests were handled
+ * by the sampled thread at that time
+ * <p>
+ * The file is read twice so the spans of the requests are known before the samples are attributed
+ * and the events are never all loaded in memory
+ *
+ * @author Joumen Harzli
+ */
+final class RecordingSummarizer {
+
+  static final String ALLOCATION_IN_NEW_TLAB = "jdk.ObjectAllocationInNewTLAB";
+  static final String ALLOCATION_OUTSIDE_TLAB = "jdk.ObjectAllocationOutsideTLAB";
+  static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+  static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+  static final String THREAD_PARK = "jdk.ThreadPark";
+
+  private static final String UNKNOWN_SITE = "unknown";
+  private static final String[] JDK_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun."};
+
+  private final int maxSites;
+  private final Map<Long, List<RequestSpan>> spansByThread = new HashMap<>();
+  private final Map<String, Accumulator> accumulators = new TreeMap<>();
+
+  RecordingSummarizer(int maxSites) {
+    this.maxSites = maxSites;
+  }
+
+  /**
+   * Summarize a recording
+   *
+   * @param file the file of the recording
+   * @return the profiles by endpoint
+   * @throws IOException if the file cannot be read
+   */
+  Map<String, EndpointProfile> summarize(Path file) throws IOException {
+    try (RecordingFile recording = new RecordingFile(file)) {
+      while (recording.hasMoreEvents()) {
+        addRequestSpan(recording.readEvent());
+      }
+    }
+
+    spansByThread.values().forEach(spans -> spans.sort(Comparator.comparing(RequestSpan::getStart)));
+
+    try (RecordingFile recording = new RecordingFile(file)) {
+      while (recording.hasMoreEvents()) {
+        attribute(recording.readEvent());
+      }
+    }
+
+    Map<String, EndpointProfile> profiles = new LinkedHashMap<>();
+    accumulators.forEach((endpoint, accumulator) -> profiles.put(endpoint, accumulator.toProfile(endpoint)));
+    return profiles;
+  }
+
+  private void addRequestSpan(RecordedEvent event) {
+    if (!RequestMappingEvent.NAME.equals(event.getEventType().getName()) || event.getThread() == null) {
+      return;
+    }
+
+    String endpoint = event.getString(RequestMappingEvent.ENDPOINT_FIELD);
+    spansByThread.computeIfAbsent(event.getThread().getJavaThreadId(), threadId -> new ArrayList<>())
+        .add(new RequestSpan(event.getStartTime(), event.getEndTime(), endpoint));
+    accumulators.computeIfAbsent(endpoint, key -> new Accumulator()).requests++;
+  }
+
+  private void attribute(RecordedEvent event) {
+    switch (event.getEventType().getName()) {
+      case ALLOCATION_IN_NEW_TLAB:
+        attribute(event, event.getThread(), Accumulator::allocationSites, event.getLong("tlabSize"));
+        break;
+      case ALLOCATION_OUTSIDE_TLAB:
+        attribute(event, event.getThread(), Accumulator::allocationSites, event.getLong("allocationSize"));
+        break;
+      case EXECUTION_SAMPLE:
+        attribute(event, event.getThread("sampledThread"), Accumulator::cpuSites, 1);
+        break;
+      case MONITOR_ENTER:
+      case THREAD_PARK:
+        attribute(event, event.getThread(), Accumulator::lockSites, event.getDuration().toNanos());
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void attribute(RecordedEvent event, RecordedThread thread, SitesSelector selector, long weight) {
+    if (thread == null) {
+      return;
+    }
+
+    String endpoint = findEndpoint(thread.getJavaThreadId(), event.getStartTime());
+    if (endpoint != null) {
+      selector.select(accumulators.get(endpoint)).merge(siteOf(event.getStackTrace()), weight, Long::sum);
+    }
+  }
+
+  /**
+   * Find the endpoint handled by a thread at an instant
+   *
+   * @return the endpoint or null if the thread was not handling a request
+   */
+  private String findEndpoint(long threadId, Instant instant) {
+    List<RequestSpan> spans = spansByThread.get(threadId);
+    if (spans == null) {
+      return null;
+    }
+
+    int low = 0;
+    int high = spans.size() - 1;
+    RequestSpan candidate = null;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      RequestSpan span = spans.get(middle);
+      if (span.getStart().isAfter(instant)) {
+        high = middle - 1;
+      } else {
+        candidate = span;
+        low = middle + 1;
+      }
+    }
+
+    return candidate != null && !candidate.getEnd().isBefore(instant) ? candidate.getEndpoint() : null;
+  }
+
+  /**
+   * The site of an event is the first java frame outside of the jdk, or the top frame when there is none
+   */
+  private static String siteOf(RecordedStackTrace stackTrace) {
+    if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+      return UNKNOWN_SITE;
+    }
+
+    List<RecordedFrame> frames = stackTrace.getFrames();
+    RecordedFrame site = frames.get(0);
+    for (RecordedFrame frame : frames) {
+      if (frame.isJavaFrame() && !isJdkType(frame.getMethod().getType().getName())) {
+        site = frame;
+        break;
+      }
+    }
+
+    RecordedMethod method = site.getMethod();
+    return method.getType().getName() + '.' + method.getName() + ':' + site.getLineNumber();
+  }
+
+  private static boolean isJdkType(String typeName) {
+    for (String jdkPackage : JDK_PACKAGES) {
+      if (typeName.startsWith(jdkPackage)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Map<String, Long> top(Map<String, Long> sites) {
+    Map<String, Long> topSites = new LinkedHashMap<>();
+    sites.entrySet().stream()
+        .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+        .limit(maxSites)
+        .forEach(site -> topSites.put(site.getKey(), site.getValue()));
+    return Collections.unmodifiableMap(topSites);
+  }
+
+  @FunctionalInterface
+  private interface SitesSelector {
+    Map<String, Long> select(Accumulator accumulator);
+  }
+
+  private final class Accumulator {
+
+    private long requests;
+    private final Map<String, Long> allocationSites = new HashMap<>();
+    private final Map<String, Long> cpuSites = new HashMap<>();
+    private final Map<String, Long> lockSites = new HashMap<>();
+
+    private Map<String, Long> allocationSites() {
+      return allocationSites;
+    }
+
+    private Map<String, Long> cpuSites() {
+      return cpuSites;
+    }
+
+    private Map<String, Long> lockSites() {
+      return lockSites;
+    }
+
+    private EndpointProfile toProfile(String endpoint) {
+      return new EndpointProfile(endpoint, requests, top(allocationSites), top(cpuSites), top(lockSites));
+    }
+  }
+
+  private static final class RequestSpan {
+
+    private final Instant start;
+    private final Instant end;
+    private final String endpoint;
+
+    private RequestSpan(Instant start, Instant end, String endpoint) {
+      this.start = start;
+      this.end = end;
+      this.endpoint = endpoint;
+    }
+
+    private Instant getStart() {
+      return start;
+    }
+
+    private Instant getEnd() {
+      return end;
+    }
+
+    private String getEndpoint() {
+      return endpoint;
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.diagnostics;
+
+/**
+ * Accounting of the work done by the thread handling a request
+ * <p>
+ * The accounting is bound to the thread that began it and is only updated by this thread, so its counters
+ * are not synchronized. The work done by other threads on behalf of the request is not accounted.
+ *
+ * @author Joumen Harzli
+ */
+public final class RequestAccounting {
+
+  private static final ThreadLocal<RequestAccounting> CURRENT = new ThreadLocal<>();
+
+  private final ThreadAllocationCounter allocationCounter;
+  private final long startNanos;
+  private final long startAllocatedBytes;
+
+  private int daoCalls;
+  private int connections;
+  private int statements;
+  private long rowsRead;
+  private long rowsWritten;
+  private long jdbcNanos;
+
+  private boolean ended;
+  private long elapsedNanos;
+  private long allocatedBytes;
+
+  private RequestAccounting(ThreadAllocationCounter allocationCounter) {
+    this.allocationCounter = allocationCounter;
+    this.startNanos = System.nanoTime();
+    this.startAllocatedBytes = allocationCounter.currentThreadAllocatedBytes();
+  }
+
+  /**
+   * Begin the accounting of a request on the current thread
+   *
+   * @param allocationCounter counter of the allocations of the thread
+   * @return the accounting of the request
+   */
+  public static RequestAccounting begin(ThreadAllocationCounter allocationCounter) {
+    RequestAccounting accounting = new RequestAccounting(allocationCounter);
+    CURRENT.set(accounting);
+    return accounting;
+  }
+
+  /**
+   * @return the accounting of the request handled by the current thread or null if there is none
+   */
+  public static RequestAccounting current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * End the accounting, the counters are frozen and the accounting is unbound from the thread
+   */
+  public void end() {
+    if (!ended) {
+      elapsedNanos = getElapsedNanos();
+      allocatedBytes = getAllocatedBytes();
+      ended = true;
+      CURRENT.remove();
+    }
+  }
+
+  public void addDaoCall() {
+    daoCalls++;
+  }
+
+  public void addConnection() {
+    connections++;
+  }
+
+  /**
+   * @param nanos time spent executing the statement
+   */
+  public void addStatement(long nanos) {
+    statements++;
+    jdbcNanos += nanos;
+  }
+
+  public void addRowRead() {
+    rowsRead++;
+  }
+
+  public void addRowsWritten(long rows) {
+    rowsWritten += rows;
+  }
+
+  public int getDaoCalls() {
+    return daoCalls;
+  }
+
+  /**
+   * @return number of the connections obtained from the data source, the connection of a transaction is obtained once
+   */
+  public int getConnections() {
+    return connections;
+  }
+
+  /**
+   * @return number of the executions of statements, a batch is executed once
+   */
+  public int getStatements() {
+    return statements;
+  }
+
+  public long getRowsRead() {
+    return rowsRead;
+  }
+
+  public long getRowsWritten() {
+    return rowsWritten;
+  }
+
+  public long getJdbcNanos() {
+    return jdbcNanos;
+  }
+
+  public long getElapsedNanos() {
+    return ended ? elapsedNanos : System.nanoTime() - startNanos;
+  }
+
+  /**
+   * @return the bytes allocated by the thread or {@link ThreadAllocationCounter#UNSUPPORTED}
+   * if they cannot be counted
+   */
+  public long getAllocatedBytes() {
+    if (ended) {
+      return allocatedBytes;
+    }
+    return startAllocatedBytes == ThreadAllocationCounter.UNSUPPORTED ? ThreadAllocationCounter.UNSUPPORTED :
+        allocationCounter.currentThreadAllocatedBytes() - startAllocatedBytes;
+  }
+
+  @Override
+  public String toString() {
+    return "RequestAccounting{" +
+        "daoCalls=" + daoCalls +
+        ", connections=" + connections +
+        ", statements=" + statements +
+        ", rowsRead=" + rowsRead +
+        ", rowsWritten=" + rowsWritten +
+        ", jdbcNanos=" + jdbcNanos +
+        '}';
+  }
+}
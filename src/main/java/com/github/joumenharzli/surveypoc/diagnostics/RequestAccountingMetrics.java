@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.diagnostics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+
+/**
+ * Distributions of the accounting of the requests by endpoint exported as metrics
+ * named {@code RequestAccounting.<endpoint>.<counter>}
+ * <p>
+ * The metrics of an endpoint are registered the first time it handles a request, the number of the
+ * registered endpoints is bounded like the tracked allocations
+ *
+ * @author Joumen Harzli
+ */
+@Component
+public class RequestAccountingMetrics {
+
+  private final MetricRegistry metricRegistry;
+  private final int maxTrackedEndpoints;
+  private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+  public RequestAccountingMetrics(MetricRegistry metricRegistry, ApplicationProperties applicationProperties) {
+    this.metricRegistry = metricRegistry;
+    this.maxTrackedEndpoints = applicationProperties.getDiagnostics().getMaxTrackedEndpoints();
+  }
+
+  /**
+   * Record the accounting of a request
+   *
+   * @param endpoint   the endpoint that handled the request
+   * @param accounting the ended accounting of the request
+   */
+  public void record(String endpoint, RequestAccounting accounting) {
+    EndpointMetrics metrics = endpoints.get(endpoint);
+    if (metrics == null) {
+      String trackedEndpoint = endpoints.size() < maxTrackedEndpoints ? endpoint : AllocationStatistics.OTHER;
+      metrics = endpoints.computeIfAbsent(trackedEndpoint, this::register);
+    }
+    metrics.update(accounting);
+  }
+
+  private EndpointMetrics register(String endpoint) {
+    return new EndpointMetrics(
+        metricRegistry.histogram(MetricRegistry.name(RequestAccounting.class, endpoint, "dao-calls")),
+        metricRegistry.histogram(MetricRegistry.name(RequestAccounting.class, endpoint, "connections")),
+        metricRegistry.histogram(MetricRegistry.name(RequestAccounting.class, endpoint, "statements")),
+        metricRegistry.histogram(MetricRegistry.name(RequestAccounting.class, endpoint, "rows-read")),
+        metricRegistry.histogram(MetricRegistry.name(RequestAccounting.class, endpoint, "rows-written")),
+        metricRegistry.timer(MetricRegistry.name(RequestAccounting.class, endpoint, "jdbc-time")),
+        metricRegistry.histogram(MetricRegistry.name(RequestAccounting.class, endpoint, "allocated-bytes")));
+  }
+
+  private static final class EndpointMetrics {
+
+    private final Histogram daoCalls;
+    private final Histogram connections;
+    private final Histogram statements;
+    private final Histogram rowsRead;
+    private final Histogram rowsWritten;
+    private final Timer jdbcTime;
+    private final Histogram allocatedBytes;
+
+    private EndpointMetrics(Histogram daoCalls, Histogram connections, Histogram statements, Histogram rowsRead,
+                            Histogram rowsWritten, Timer jdbcTime, Histogram allocatedBytes) {
+      this.daoCalls = daoCalls;
+      this.connections = connections;
+      this.statements = statements;
+      this.rowsRead = rowsRead;
+      this.rowsWritten = rowsWritten;
+      this.jdbcTime = jdbcTime;
+      this.allocatedBytes = allocatedBytes;
+    }
+
+    private void update(RequestAccounting accounting) {
+      daoCalls.update(accounting.getDaoCalls());
+      connections.update(accounting.getConnections());
+      statements.update(accounting.getStatements());
+      rowsRead.update(accounting.getRowsRead());
+      rowsWritten.update(accounting.getRowsWritten());
+      jdbcTime.update(accounting.getJdbcNanos(), TimeUnit.NANOSECONDS);
+      if (accounting.getAllocatedBytes() != ThreadAllocationCounter.UNSUPPORTED) {
+        allocatedBytes.update(accounting.getAllocatedBytes());
+      }
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning the handling of a request by an endpoint
+ * <p>
+ * The events of the sampled threads are attributed to an endpoint when they happen inside one of these spans
+ *
+ * @author Joumen Harzli
+ */
+@Name(RequestMappingEvent.NAME)
+@Label("Request Mapping")
+@Category("Survey POC")
+@Description("Request handled by an endpoint of the rest api")
+@StackTrace(false)
+class RequestMappingEvent extends Event {
+
+  static final String NAME = "com.github.joumenharzli.surveypoc.RequestMapping";
+  static final String ENDPOINT_FIELD = "endpoint";
+
+  @Label("Endpoint")
+  String endpoint;
+
+}
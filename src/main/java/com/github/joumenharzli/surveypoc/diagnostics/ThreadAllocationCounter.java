@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Counter of the bytes allocated by the current thread
+ * <p>
+ * The counter relies on the extension of the {@link ThreadMXBean} of HotSpot, when the running
+ * virtual machine does not support it the allocations are not counted
+ *
+ * @author Joumen Harzli
+ */
+@Component
+public class ThreadAllocationCounter {
+
+  public static final long UNSUPPORTED = -1;
+
+  private final com.sun.management.ThreadMXBean threadMXBean;
+
+  public ThreadAllocationCounter() {
+    this.threadMXBean = enableAllocatedMemory(ManagementFactory.getThreadMXBean());
+  }
+
+  /**
+   * @return true if the allocations of the threads can be counted
+   */
+  public boolean isSupported() {
+    return threadMXBean != null;
+  }
+
+  /**
+   * Get the number of the bytes allocated by the current thread since it started
+   *
+   * @return the allocated bytes or {@link #UNSUPPORTED} if they cannot be counted
+   */
+  public long currentThreadAllocatedBytes() {
+    return threadMXBean == null ? UNSUPPORTED :
+        threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static com.sun.management.ThreadMXBean enableAllocatedMemory(ThreadMXBean threadMXBean) {
+    if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+      return null;
+    }
+
+    com.sun.management.ThreadMXBean allocationThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+    if (!allocationThreadMXBean.isThreadAllocatedMemorySupported()) {
+      return null;
+    }
+
+    if (!allocationThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+      allocationThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+    return allocationThreadMXBean;
+  }
+}
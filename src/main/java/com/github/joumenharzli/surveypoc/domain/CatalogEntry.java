@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.domain;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Catalog Entry entity
+ * The state of a subject or a question of the catalog in the last version where it changed,
+ * a removed entry is kept so the clients learn that it was removed. The entry of a question
+ * includes its definition so a change of the rules of its answers is a change of the catalog
+ *
+ * @author Joumen Harzli
+ */
+public class CatalogEntry {
+
+  private CatalogEntryType type;
+  private Long id;
+  private String label;
+  private Long subjectId;
+  private QuestionType questionType;
+  private Long minValue;
+  private Long maxValue;
+  private String pattern;
+  private List<String> choices;
+  private long version;
+  private boolean removed;
+
+  public CatalogEntry type(CatalogEntryType type) {
+    this.type = type;
+    return this;
+  }
+
+  public CatalogEntry id(Long id) {
+    this.id = id;
+    return this;
+  }
+
+  public CatalogEntry label(String label) {
+    this.label = label;
+    return this;
+  }
+
+  public CatalogEntry subjectId(Long subjectId) {
+    this.subjectId = subjectId;
+    return this;
+  }
+
+  public CatalogEntry questionType(QuestionType questionType) {
+    this.questionType = questionType;
+    return this;
+  }
+
+  public CatalogEntry minValue(Long minValue) {
+    this.minValue = minValue;
+    return this;
+  }
+
+  public CatalogEntry maxValue(Long maxValue) {
+    this.maxValue = maxValue;
+    return this;
+  }
+
+  public CatalogEntry pattern(String pattern) {
+    this.pattern = pattern;
+    return this;
+  }
+
+  public CatalogEntry choices(List<String> choices) {
+    this.choices = choices;
+    return this;
+  }
+
+  public CatalogEntry version(long version) {
+    this.version = version;
+    return this;
+  }
+
+  public CatalogEntry removed(boolean removed) {
+    this.removed = removed;
+    return this;
+  }
+
+  /**
+   * @param other another entry of the same subject or question
+   * @return true if the clients see the same content in both entries
+   */
+  public boolean hasSameContent(CatalogEntry other) {
+    return removed == other.removed && Objects.equals(label, other.label) &&
+        Objects.equals(subjectId, other.subjectId) && questionType == other.questionType &&
+        Objects.equals(minValue, other.minValue) && Objects.equals(maxValue, other.maxValue) &&
+        Objects.equals(pattern, other.pattern) && Objects.equals(choices, other.choices);
+  }
+
+  public CatalogEntryType getType() {
+    return type;
+  }
+
+  public void setType(CatalogEntryType type) {
+    this.type = type;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public void setLabel(String label) {
+    this.label = label;
+  }
+
+  public Long getSubjectId() {
+    return subjectId;
+  }
+
+  public void setSubjectId(Long subjectId) {
+    this.subjectId = subjectId;
+  }
+
+  public QuestionType getQuestionType() {
+    return questionType;
+  }
+
+  public void setQuestionType(QuestionType questionType) {
+    this.questionType = questionType;
+  }
+
+  public Long getMinValue() {
+    return minValue;
+  }
+
+  public void setMinValue(Long minValue) {
+    this.minValue = minValue;
+  }
+
+  public Long getMaxValue() {
+    return maxValue;
+  }
+
+  public void setMaxValue(Long maxValue) {
+    this.maxValue = maxValue;
+  }
+
+  public String getPattern() {
+    return pattern;
+  }
+
+  public void setPattern(String pattern) {
+    this.pattern = pattern;
+  }
+
+  public List<String> getChoices() {
+    return choices;
+  }
+
+  public void setChoices(List<String> choices) {
+    this.choices = choices;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
+  public boolean isRemoved() {
+    return removed;
+  }
+
+  public void setRemoved(boolean removed) {
+    this.removed = removed;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    CatalogEntry that = (CatalogEntry) o;
+
+    return type == that.type && Objects.equals(id, that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(type, id);
+  }
+
+  @Override
+  public String toString() {
+    return "CatalogEntry{" +
+        "type=" + type +
+        ", id=" + id +
+        ", label='" + label + '\'' +
+        ", subjectId=" + subjectId +
+        ", questionType=" + questionType +
+        ", minValue=" + minValue +
+        ", maxValue=" + maxValue +
+        ", pattern='" + pattern + '\'' +
+        ", choices=" + choices +
+        ", version=" + version +
+        ", removed=" + removed +
+        '}';
+  }
+}
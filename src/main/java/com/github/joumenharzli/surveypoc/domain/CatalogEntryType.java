@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.domain;
+
+/**
+ * Kind of the entries of the catalog
+ *
+ * @author Joumen Harzli
+ */
+public enum CatalogEntryType {
+
+  /**
+   * A subject, its label is versioned
+   */
+  SUBJECT,
+
+  /**
+   * A question, its label and its subject are versioned
+   */
+  QUESTION
+}
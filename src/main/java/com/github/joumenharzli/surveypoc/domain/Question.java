@@ -15,9 +15,8 @@
 
 package com.github.joumenharzli.surveypoc.domain;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Question entity
@@ -29,6 +28,11 @@ public class Question {
   private Long id;
   private String label;
   private Subject subject;
+  private QuestionType type;
+  private Long minValue;
+  private Long maxValue;
+  private String pattern;
+  private List<String> choices;
 
   public Question id(Long id) {
     this.id = id;
@@ -45,6 +49,31 @@ public class Question {
     return this;
   }
 
+  public Question type(QuestionType type) {
+    this.type = type;
+    return this;
+  }
+
+  public Question minValue(Long minValue) {
+    this.minValue = minValue;
+    return this;
+  }
+
+  public Question maxValue(Long maxValue) {
+    this.maxValue = maxValue;
+    return this;
+  }
+
+  public Question pattern(String pattern) {
+    this.pattern = pattern;
+    return this;
+  }
+
+  public Question choices(List<String> choices) {
+    this.choices = choices;
+    return this;
+  }
+
   public Long getId() {
     return id;
   }
@@ -76,6 +105,46 @@ public class Question {
     return subject.getId();
   }
 
+  public QuestionType getType() {
+    return type;
+  }
+
+  public void setType(QuestionType type) {
+    this.type = type;
+  }
+
+  public Long getMinValue() {
+    return minValue;
+  }
+
+  public void setMinValue(Long minValue) {
+    this.minValue = minValue;
+  }
+
+  public Long getMaxValue() {
+    return maxValue;
+  }
+
+  public void setMaxValue(Long maxValue) {
+    this.maxValue = maxValue;
+  }
+
+  public String getPattern() {
+    return pattern;
+  }
+
+  public void setPattern(String pattern) {
+    this.pattern = pattern;
+  }
+
+  public List<String> getChoices() {
+    return choices;
+  }
+
+  public void setChoices(List<String> choices) {
+    this.choices = choices;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -88,24 +157,21 @@ public class Question {
 
     Question question = (Question) o;
 
-    return new EqualsBuilder()
-        .append(id, question.id)
-        .isEquals();
+    return Objects.equals(id, question.id);
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(17, 37)
-        .append(id)
-        .toHashCode();
+    return Objects.hashCode(id);
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("id", id)
-        .append("label", label)
-        .append("subject", subject)
-        .toString();
+    return "Question{" +
+        "id=" + id +
+        ", label='" + label + '\'' +
+        ", subjectId=" + (subject == null ? null : subject.getId()) +
+        ", type=" + type +
+        '}';
   }
 }
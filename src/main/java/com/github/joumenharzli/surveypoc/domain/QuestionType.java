@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.domain;
+
+/**
+ * Type of a question that defines how its answers are validated
+ *
+ * @author Joumen Harzli
+ */
+public enum QuestionType {
+
+  /**
+   * Any text
+   */
+  FREE_TEXT,
+
+  /**
+   * An integer between the minimum and the maximum values of the question
+   */
+  INTEGER_RANGE,
+
+  /**
+   * One of the choices of the question
+   */
+  SINGLE_CHOICE,
+
+  /**
+   * Distinct choices of the question separated by commas
+   */
+  MULTIPLE_CHOICE,
+
+  /**
+   * A text matching the pattern of the question
+   */
+  REGEX
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.domain;
+
+import java.util.Objects;
+
+/**
+ * Response Import entity
+ * A bulk import of responses, the counts are the totals of the chunks already imported
+ *
+ * @author Joumen Harzli
+ */
+public class ResponseImport {
+
+  private String id;
+  private String format;
+  private int batchSize;
+  private long completedChunks;
+  private long importedResponses;
+  private long rejectedResponses;
+
+  public ResponseImport id(String id) {
+    this.id = id;
+    return this;
+  }
+
+  public ResponseImport format(String format) {
+    this.format = format;
+    return this;
+  }
+
+  public ResponseImport batchSize(int batchSize) {
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getFormat() {
+    return format;
+  }
+
+  public void setFormat(String format) {
+    this.format = format;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public long getCompletedChunks() {
+    return completedChunks;
+  }
+
+  public void setCompletedChunks(long completedChunks) {
+    this.completedChunks = completedChunks;
+  }
+
+  public long getImportedResponses() {
+    return importedResponses;
+  }
+
+  public void setImportedResponses(long importedResponses) {
+    this.importedResponses = importedResponses;
+  }
+
+  public long getRejectedResponses() {
+    return rejectedResponses;
+  }
+
+  public void setRejectedResponses(long rejectedResponses) {
+    this.rejectedResponses = rejectedResponses;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    ResponseImport that = (ResponseImport) o;
+
+    return Objects.equals(id, that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(id);
+  }
+
+  @Override
+  public String toString() {
+    return "ResponseImport{" +
+        "id='" + id + '\'' +
+        ", format='" + format + '\'' +
+        ", batchSize=" + batchSize +
+        ", completedChunks=" + completedChunks +
+        ", importedResponses=" + importedResponses +
+        ", rejectedResponses=" + rejectedResponses +
+        '}';
+  }
+}
@@ -15,9 +15,7 @@
 
 package com.github.joumenharzli.surveypoc.domain;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
+import java.util.Objects;
 
 /**
  * User entity
@@ -67,23 +65,19 @@ public class User {
 
     User user = (User) o;
 
-    return new EqualsBuilder()
-        .append(id, user.id)
-        .isEquals();
+    return Objects.equals(id, user.id);
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(17, 37)
-        .append(id)
-        .toHashCode();
+    return Objects.hashCode(id);
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("id", id)
-        .append("name", name)
-        .toString();
+    return "User{" +
+        "id=" + id +
+        ", name='" + name + '\'' +
+        '}';
   }
 }
@@ -15,9 +15,8 @@
 
 package com.github.joumenharzli.surveypoc.domain;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
+import java.time.Instant;
+import java.util.Objects;
 
 /**
  * User Response entity
@@ -29,6 +28,9 @@ public class UserResponse {
   private String content;
   private Question question;
   private User user;
+  private Instant createdAt;
+  private Instant updatedAt;
+  private Long version;
 
   public UserResponse content(String content) {
     this.content = content;
@@ -45,6 +47,11 @@ public class UserResponse {
     return this;
   }
 
+  public UserResponse version(Long version) {
+    this.version = version;
+    return this;
+  }
+
   public String getContent() {
     return content;
   }
@@ -75,6 +82,19 @@ public class UserResponse {
     return user.getId();
   }
 
+  /**
+   * @return the key of the response made of the ids of the user and the question
+   * @throws IllegalStateException if the user or the question has no id
+   */
+  public UserResponseKey getKey() {
+    Long userId = getUserId();
+    Long questionId = getQuestionId();
+    if (userId == null || questionId == null) {
+      throw new IllegalStateException("The key of a response requires the ids of the user and the question");
+    }
+    return new UserResponseKey(userId, questionId);
+  }
+
   public User getUser() {
     return user;
   }
@@ -83,6 +103,30 @@ public class UserResponse {
     this.user = user;
   }
 
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -95,26 +139,26 @@ public class UserResponse {
 
     UserResponse that = (UserResponse) o;
 
-    return new EqualsBuilder()
-        .append(question, that.question)
-        .append(user, that.user)
-        .isEquals();
+    return Objects.equals(getQuestionId(), that.getQuestionId())
+        && Objects.equals(getUserId(), that.getUserId());
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(17, 37)
-        .append(question)
-        .append(user)
-        .toHashCode();
+    int result = Objects.hashCode(getQuestionId());
+    result = 31 * result + Objects.hashCode(getUserId());
+    return result;
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("content", content)
-        .append("question", question)
-        .append("user", user)
-        .toString();
+    return "UserResponse{" +
+        "content='" + content + '\'' +
+        ", questionId=" + getQuestionId() +
+        ", userId=" + getUserId() +
+        ", createdAt=" + createdAt +
+        ", updatedAt=" + updatedAt +
+        ", version=" + version +
+        '}';
   }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.domain;
+
+/**
+ * Key of a {@link UserResponse} made of the primitive ids of its user and its question
+ * <p>
+ * The key is immutable so its hash code is computed once, it can be used in hash based
+ * collections without boxing the ids nor walking the entities
+ *
+ * @author Joumen Harzli
+ */
+public final class UserResponseKey {
+
+  private final long userId;
+  private final long questionId;
+  private final int hashCode;
+
+  public UserResponseKey(long userId, long questionId) {
+    this.userId = userId;
+    this.questionId = questionId;
+    this.hashCode = 31 * Long.hashCode(userId) + Long.hashCode(questionId);
+  }
+
+  public long getUserId() {
+    return userId;
+  }
+
+  public long getQuestionId() {
+    return questionId;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    UserResponseKey that = (UserResponseKey) o;
+
+    return userId == that.userId && questionId == that.questionId;
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return "UserResponseKey{" +
+        "userId=" + userId +
+        ", questionId=" + questionId +
+        '}';
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.domain;
+
+import java.util.Objects;
+
+/**
+ * User Subject Progress entity
+ * Number of the questions of a subject answered by a user
+ *
+ * @author Joumen Harzli
+ */
+public class UserSubjectProgress {
+
+  private User user;
+  private Subject subject;
+  private int answeredQuestions;
+
+  public UserSubjectProgress user(User user) {
+    this.user = user;
+    return this;
+  }
+
+  public UserSubjectProgress subject(Subject subject) {
+    this.subject = subject;
+    return this;
+  }
+
+  public UserSubjectProgress answeredQuestions(int answeredQuestions) {
+    this.answeredQuestions = answeredQuestions;
+    return this;
+  }
+
+  public User getUser() {
+    return user;
+  }
+
+  public void setUser(User user) {
+    this.user = user;
+  }
+
+  public Subject getSubject() {
+    return subject;
+  }
+
+  public void setSubject(Subject subject) {
+    this.subject = subject;
+  }
+
+  public Long getUserId() {
+    if (this.user == null) {
+      return null;
+    }
+    return user.getId();
+  }
+
+  public Long getSubjectId() {
+    if (this.subject == null) {
+      return null;
+    }
+    return subject.getId();
+  }
+
+  public int getAnsweredQuestions() {
+    return answeredQuestions;
+  }
+
+  public void setAnsweredQuestions(int answeredQuestions) {
+    this.answeredQuestions = answeredQuestions;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    UserSubjectProgress that = (UserSubjectProgress) o;
+
+    return Objects.equals(getUserId(), that.getUserId())
+        && Objects.equals(getSubjectId(), that.getSubjectId());
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Objects.hashCode(getUserId());
+    result = 31 * result + Objects.hashCode(getSubjectId());
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "UserSubjectProgress{" +
+        "userId=" + getUserId() +
+        ", subjectId=" + getSubjectId() +
+        ", answeredQuestions=" + answeredQuestions +
+        '}';
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.exception;
+
+/**
+ * Import Not Found Exception
+ *
+ * @author Joumen Harzli
+ */
+public class ImportNotFoundException extends RuntimeException {
+
+  private static final String ERROR_MESSAGE = "Import with id %s was not found";
+
+  private final String importId;
+
+  /**
+   * Constructs a new runtime exception with the specified detail message.
+   * The cause is not initialized, and may subsequently be initialized by a
+   * call to {@link #initCause}.
+   *
+   * @param importId the id of the not found import
+   */
+  public ImportNotFoundException(String importId) {
+    super(String.format(ERROR_MESSAGE, importId));
+    this.importId = importId;
+  }
+
+  /**
+   * @return id of the not found import
+   */
+  public String getImportId() {
+    return importId;
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.exception;
+
+/**
+ * Invalid Parameter Exception
+ * Thrown when a parameter sent by the client cannot be parsed
+ *
+ * @author Joumen Harzli
+ */
+public class InvalidParameterException extends RuntimeException {
+
+  private static final String ERROR_MESSAGE = "Value %s of the parameter %s is invalid";
+
+  private final String parameter;
+  private final String value;
+
+  /**
+   * Constructs a new runtime exception with the specified detail message.
+   * The cause is not initialized, and may subsequently be initialized by a
+   * call to {@link #initCause}.
+   *
+   * @param parameter name of the invalid parameter
+   * @param value     the invalid value
+   */
+  public InvalidParameterException(String parameter, String value) {
+    super(String.format(ERROR_MESSAGE, value, parameter));
+    this.parameter = parameter;
+    this.value = value;
+  }
+
+  /**
+   * @return name of the invalid parameter
+   */
+  public String getParameter() {
+    return parameter;
+  }
+
+  /**
+   * @return the invalid value
+   */
+  public String getValue() {
+    return value;
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.exception;
+
+import java.util.List;
+
+/**
+ * Invalid Response Exception
+ * Thrown when the contents of responses do not match the definitions of their questions
+ *
+ * @author Joumen Harzli
+ */
+public class InvalidResponseException extends RuntimeException {
+
+  private static final String ERROR_MESSAGE = "Responses %s are invalid";
+
+  private final List<InvalidResponse> invalidResponses;
+
+  /**
+   * Constructs a new runtime exception with the specified detail message.
+   * The cause is not initialized, and may subsequently be initialized by a
+   * call to {@link #initCause}.
+   *
+   * @param invalidResponses the invalid responses
+   */
+  public InvalidResponseException(List<InvalidResponse> invalidResponses) {
+    super(String.format(ERROR_MESSAGE, invalidResponses));
+    this.invalidResponses = invalidResponses;
+  }
+
+  /**
+   * @return the invalid responses
+   */
+  public List<InvalidResponse> getInvalidResponses() {
+    return invalidResponses;
+  }
+
+  /**
+   * An invalid response of the request
+   */
+  public static class InvalidResponse {
+
+    private final int index;
+    private final Long questionId;
+    private final String code;
+    private final Object[] arguments;
+
+    /**
+     * @param index      position of the response in the request
+     * @param questionId id of the question of the response
+     * @param code       code of the violation
+     * @param arguments  arguments of the message of the violation
+     */
+    public InvalidResponse(int index, Long questionId, String code, Object[] arguments) {
+      this.index = index;
+      this.questionId = questionId;
+      this.code = code;
+      this.arguments = arguments;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public Long getQuestionId() {
+      return questionId;
+    }
+
+    public String getCode() {
+      return code;
+    }
+
+    public Object[] getArguments() {
+      return arguments;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("[%d] question %d: %s", index, questionId, code);
+    }
+  }
+}
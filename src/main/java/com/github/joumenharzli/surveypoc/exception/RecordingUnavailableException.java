@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.exception;
+
+/**
+ * Recording Unavailable Exception
+ * Thrown when a recording is requested while the flight recorder is not available or already recording
+ *
+ * @author Joumen Harzli
+ */
+public class RecordingUnavailableException extends RuntimeException {
+
+  private static final String ERROR_MESSAGE = "The flight recorder is not available or is already recording";
+
+  /**
+   * Constructs a new runtime exception with the default detail message.
+   * The cause is not initialized, and may subsequently be initialized by a
+   * call to {@link #initCause}.
+   */
+  public RecordingUnavailableException() {
+    super(ERROR_MESSAGE);
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.exception;
+
+import java.util.List;
+
+/**
+ * Response Conflict Exception
+ * Thrown when the responses were modified by another request since they were read
+ *
+ * @author Joumen Harzli
+ */
+public class ResponseConflictException extends RuntimeException {
+
+  private static final String ERROR_MESSAGE = "Responses of the questions with ids %s were modified concurrently";
+
+  private final List<Long> conflictingQuestionsIds;
+
+  /**
+   * Constructs a new runtime exception with the specified detail message.
+   * The cause is not initialized, and may subsequently be initialized by a
+   * call to {@link #initCause}.
+   *
+   * @param conflictingQuestionsIds the ids of the questions whose responses were modified concurrently
+   */
+  public ResponseConflictException(List<Long> conflictingQuestionsIds) {
+    super(String.format(ERROR_MESSAGE, conflictingQuestionsIds));
+    this.conflictingQuestionsIds = conflictingQuestionsIds;
+  }
+
+  /**
+   * @return ids of the questions whose responses were modified concurrently
+   */
+  public List<Long> getConflictingQuestionsIds() {
+    return conflictingQuestionsIds;
+  }
+}
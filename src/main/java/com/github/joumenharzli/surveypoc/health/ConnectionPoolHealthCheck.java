@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.health;
+
+import com.codahale.metrics.health.HealthCheck;
+import com.github.joumenharzli.surveypoc.repository.pool.ConnectionPoolMonitor;
+import com.github.joumenharzli.surveypoc.repository.pool.ConnectionPoolSample;
+
+/**
+ * Health check that is unhealthy while the mean wait for a connection of the pool
+ * exceeds the threshold during the last interval
+ *
+ * @author Joumen Harzli
+ */
+public class ConnectionPoolHealthCheck extends HealthCheck {
+
+  private final ConnectionPoolMonitor connectionPoolMonitor;
+
+  public ConnectionPoolHealthCheck(ConnectionPoolMonitor connectionPoolMonitor) {
+    this.connectionPoolMonitor = connectionPoolMonitor;
+  }
+
+  @Override
+  protected Result check() {
+    ConnectionPoolSample sample = connectionPoolMonitor.getLastSample();
+    if (sample == null) {
+      return Result.healthy("The connection pool was not sampled yet");
+    }
+    return sample.isSaturated() ? Result.unhealthy("Saturated: " + sample) : Result.healthy(sample.toString());
+  }
+}
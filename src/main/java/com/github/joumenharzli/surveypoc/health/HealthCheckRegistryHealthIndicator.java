@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.health;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+import com.codahale.metrics.health.HealthCheck;
+import com.codahale.metrics.health.HealthCheckRegistry;
+
+/**
+ * Report the health checks of the metrics in the {@code /health} endpoint,
+ * the application is down while one of them is unhealthy
+ *
+ * @author Joumen Harzli
+ */
+public class HealthCheckRegistryHealthIndicator extends AbstractHealthIndicator {
+
+  private final HealthCheckRegistry healthCheckRegistry;
+
+  public HealthCheckRegistryHealthIndicator(HealthCheckRegistry healthCheckRegistry) {
+    this.healthCheckRegistry = healthCheckRegistry;
+  }
+
+  @Override
+  protected void doHealthCheck(Health.Builder builder) {
+    boolean healthy = true;
+
+    for (Map.Entry<String, HealthCheck.Result> entry : healthCheckRegistry.runHealthChecks().entrySet()) {
+      HealthCheck.Result result = entry.getValue();
+      healthy &= result.isHealthy();
+
+      Map<String, Object> details = new LinkedHashMap<>();
+      details.put("healthy", result.isHealthy());
+      if (result.getMessage() != null) {
+        details.put("message", result.getMessage());
+      }
+      builder.withDetail(entry.getKey(), details);
+    }
+
+    if (healthy) {
+      builder.up();
+    } else {
+      builder.down();
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.health;
+
+import com.codahale.metrics.health.HealthCheck;
+
+/**
+ * Health check that is unhealthy until the critical paths were warmed up
+ * <p>
+ * A failed warm up does not keep the instance out of service, it only leaves the critical paths cold
+ *
+ * @author Joumen Harzli
+ */
+public class WarmUpHealthCheck extends HealthCheck {
+
+  private volatile Result result = Result.unhealthy("The critical paths are warming up");
+
+  /**
+   * @param report time spent warming up the critical paths
+   */
+  public void completed(String report) {
+    result = Result.healthy(report);
+  }
+
+  /**
+   * @param exception cause of the failure of the warm up
+   */
+  public void failed(Exception exception) {
+    result = Result.healthy("Unable to warm up the critical paths: " + exception.getMessage());
+  }
+
+  @Override
+  protected Result check() {
+    return result;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.imports;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Report of the rejected lines of an import written as {@code line,code,detail}
+ * <p>
+ * The report is appended so the lines rejected before an interruption are kept when the import is resumed.
+ * The chunks are imported concurrently so the lines are not ordered.
+ *
+ * @author Joumen Harzli
+ */
+public class ImportErrorReport implements Closeable {
+
+  public static final String HEADER = "line,code,detail";
+
+  private final Path file;
+  private BufferedWriter writer;
+
+  public ImportErrorReport(Path file) {
+    this.file = file;
+  }
+
+  /**
+   * @return the file of the report
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * Report a rejected line, the file is created by the first rejection
+   *
+   * @param lineNumber number of the line
+   * @param code       reason of the rejection
+   * @param detail     details of the reason
+   * @throws UncheckedIOException if the report cannot be written
+   */
+  public synchronized void add(long lineNumber, String code, String detail) {
+    try {
+      if (writer == null) {
+        boolean created = Files.notExists(file);
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND);
+        if (created) {
+          writer.write(HEADER);
+          writer.newLine();
+        }
+      }
+      writer.write(lineNumber + "," + code + "," + quote(detail));
+      writer.newLine();
+    } catch (IOException exception) {
+      throw new UncheckedIOException("Unable to write the report of the rejected lines", exception);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (writer != null) {
+      writer.close();
+      writer = null;
+    }
+  }
+
+  private static String quote(String detail) {
+    if (detail == null) {
+      return "";
+    }
+    return '"' + detail.replace("\"", "\"\"") + '"';
+  }
+
+}
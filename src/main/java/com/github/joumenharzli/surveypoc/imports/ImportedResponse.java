@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.imports;
+
+/**
+ * A line of an imported file, either a response to import or the reason why the line cannot be parsed
+ *
+ * @author Joumen Harzli
+ */
+public final class ImportedResponse {
+
+  public static final String INVALID_LINE = "InvalidLine";
+  public static final String USER_NOT_FOUND = "UserNotFound";
+  public static final String QUESTION_NOT_FOUND = "QuestionNotFound";
+  public static final String DUPLICATE = "Duplicate";
+  public static final String CHUNK_FAILED = "ChunkFailed";
+
+  private final long lineNumber;
+  private final long userId;
+  private final long questionId;
+  private final String content;
+  private final String errorCode;
+  private final String errorDetail;
+
+  private ImportedResponse(long lineNumber, long userId, long questionId, String content, String errorCode,
+                           String errorDetail) {
+    this.lineNumber = lineNumber;
+    this.userId = userId;
+    this.questionId = questionId;
+    this.content = content;
+    this.errorCode = errorCode;
+    this.errorDetail = errorDetail;
+  }
+
+  static ImportedResponse valid(long lineNumber, long userId, long questionId, String content) {
+    return new ImportedResponse(lineNumber, userId, questionId, content, null, null);
+  }
+
+  static ImportedResponse invalid(long lineNumber, String errorDetail) {
+    return new ImportedResponse(lineNumber, 0, 0, null, INVALID_LINE, errorDetail);
+  }
+
+  /**
+   * @return number of the line in the file starting from 1
+   */
+  public long getLineNumber() {
+    return lineNumber;
+  }
+
+  public long getUserId() {
+    return userId;
+  }
+
+  public long getQuestionId() {
+    return questionId;
+  }
+
+  public String getContent() {
+    return content;
+  }
+
+  /**
+   * @return true if the line could not be parsed
+   */
+  public boolean isInvalid() {
+    return errorCode != null;
+  }
+
+  public String getErrorCode() {
+    return errorCode;
+  }
+
+  public String getErrorDetail() {
+    return errorDetail;
+  }
+
+  @Override
+  public String toString() {
+    return "ImportedResponse{" +
+        "lineNumber=" + lineNumber +
+        ", userId=" + userId +
+        ", questionId=" + questionId +
+        ", content='" + content + '\'' +
+        ", errorCode='" + errorCode + '\'' +
+        ", errorDetail='" + errorDetail + '\'' +
+        '}';
+  }
+}
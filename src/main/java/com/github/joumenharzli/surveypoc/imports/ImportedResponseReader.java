@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Incremental reader of the lines of an imported file, only the current line is held in memory
+ *
+ * @author Joumen Harzli
+ */
+public class ImportedResponseReader {
+
+  private final BufferedReader reader;
+  private final ResponseImportFormat format;
+  private long lineNumber;
+
+  public ImportedResponseReader(BufferedReader reader, ResponseImportFormat format) {
+    this.reader = reader;
+    this.format = format;
+  }
+
+  /**
+   * Read the next response, the blank lines and the header are skipped
+   *
+   * @return the next response or null at the end of the file
+   * @throws IOException if the file cannot be read
+   */
+  public ImportedResponse next() throws IOException {
+    String line;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      if (line.trim().isEmpty() || (lineNumber == 1 && format.isHeader(line))) {
+        continue;
+      }
+      return format.parse(lineNumber, line);
+    }
+    return null;
+  }
+
+  /**
+   * @return the number of the lines read
+   */
+  public long getLineNumber() {
+    return lineNumber;
+  }
+
+}
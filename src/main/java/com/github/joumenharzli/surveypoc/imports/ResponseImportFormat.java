@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.imports;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Formats of the imported files, one response per line
+ * <p>
+ * A line is parsed alone so a malformed line is rejected without stopping the import
+ *
+ * @author Joumen Harzli
+ */
+public enum ResponseImportFormat {
+
+  /**
+   * {@code user_id,question_id,content} with an optional header, the content may be quoted
+   * and a quote in a quoted content is doubled
+   */
+  CSV("text/csv") {
+    @Override
+    ImportedResponse parse(long lineNumber, String line) {
+      List<String> fields = splitCsv(line);
+      if (fields == null || fields.size() != CSV_FIELDS) {
+        return ImportedResponse.invalid(lineNumber, "Expected " + CSV_FIELDS + " comma separated fields");
+      }
+
+      try {
+        return ImportedResponse.valid(lineNumber, Long.parseLong(fields.get(0).trim()),
+            Long.parseLong(fields.get(1).trim()), fields.get(2));
+      } catch (NumberFormatException exception) {
+        return ImportedResponse.invalid(lineNumber, "The ids must be integers");
+      }
+    }
+
+    @Override
+    boolean isHeader(String line) {
+      return line.startsWith(CSV_HEADER_PREFIX);
+    }
+  },
+
+  /**
+   * {@code {"userId":1,"questionId":2,"content":"..."}} on each line
+   */
+  NDJSON("application/x-ndjson") {
+    @Override
+    ImportedResponse parse(long lineNumber, String line) {
+      JsonNode node;
+      try {
+        node = OBJECT_MAPPER.readTree(line);
+      } catch (IOException exception) {
+        return ImportedResponse.invalid(lineNumber, "Malformed json");
+      }
+
+      JsonNode userId = node.path("userId");
+      JsonNode questionId = node.path("questionId");
+      JsonNode content = node.path("content");
+      if (!isLong(userId) || !isLong(questionId) || !content.isTextual()) {
+        return ImportedResponse.invalid(lineNumber, "Expected the integers userId and questionId and the text content");
+      }
+      return ImportedResponse.valid(lineNumber, userId.longValue(), questionId.longValue(), content.textValue());
+    }
+  };
+
+  private static final int CSV_FIELDS = 3;
+  private static final String CSV_HEADER_PREFIX = "user_id";
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final String mediaType;
+
+  ResponseImportFormat(String mediaType) {
+    this.mediaType = mediaType;
+  }
+
+  /**
+   * @return the media type of the files of this format
+   */
+  public String getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * Find the format of a media type, the parameters of the media type are ignored
+   *
+   * @param mediaType the media type
+   * @return the format or null if the media type is not supported
+   */
+  public static ResponseImportFormat fromMediaType(String mediaType) {
+    if (mediaType == null) {
+      return null;
+    }
+    int parametersIndex = mediaType.indexOf(';');
+    String type = (parametersIndex < 0 ? mediaType : mediaType.substring(0, parametersIndex)).trim();
+    for (ResponseImportFormat format : values()) {
+      if (format.mediaType.equalsIgnoreCase(type)) {
+        return format;
+      }
+    }
+    return null;
+  }
+
+  abstract ImportedResponse parse(long lineNumber, String line);
+
+  /**
+   * @param line the first line of a file
+   * @return true if the line names the columns
+   */
+  boolean isHeader(String line) {
+    return false;
+  }
+
+  private static boolean isLong(JsonNode node) {
+    return node.isIntegralNumber() && node.canConvertToLong();
+  }
+
+  /**
+   * Split a line on the commas that are not quoted
+   *
+   * @return the unquoted fields or null if a quote is not closed
+   */
+  private static List<String> splitCsv(String line) {
+    List<String> fields = new ArrayList<>(CSV_FIELDS);
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+
+    for (int i = 0; i < line.length(); i++) {
+      char character = line.charAt(i);
+      if (quoted) {
+        if (character != '"') {
+          field.append(character);
+        } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (character == '"') {
+        quoted = true;
+      } else if (character == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(character);
+      }
+    }
+
+    if (quoted) {
+      return null;
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.live;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import com.codahale.metrics.Meter;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+/**
+ * Fan-out of the updates of the responses to the subscribers of their questions
+ * <p>
+ * The subscriptions are indexed by question so a publication costs nothing for the questions without
+ * subscriber. Each subscription buffers at most {@code bufferSize} updates that are sent by a fixed pool of
+ * sender threads, a subscriber whose buffer is full is too slow to follow the updates and is dropped.
+ * <p>
+ * Inside a transaction the updates are published only once it is committed, the updates of a transaction
+ * that is rolled back are never seen.
+ *
+ * @param <T> type of the updates
+ * @author Joumen Harzli
+ */
+public class ResponseUpdateBroadcaster<T> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResponseUpdateBroadcaster.class);
+
+  private static final String SENDER_THREAD_PREFIX = "live-sender-";
+
+  private final int bufferSize;
+  private final Meter dropped;
+  private final ExecutorService senders;
+
+  private final Map<Long, Set<ResponseUpdateSubscription<T>>> subscriptionsByQuestion = new ConcurrentHashMap<>();
+  private final AtomicInteger subscribers = new AtomicInteger();
+
+  /**
+   * Constructor for the broadcaster
+   *
+   * @param bufferSize    maximum number of the updates waiting to be sent to a subscriber
+   * @param senderThreads number of the threads sending the updates
+   * @param dropped       meter of the dropped subscribers
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  public ResponseUpdateBroadcaster(int bufferSize, int senderThreads, Meter dropped) {
+    Assert.isTrue(bufferSize > 0, "Buffer size must be positive");
+    Assert.isTrue(senderThreads > 0, "Number of the sender threads must be positive");
+
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(SENDER_THREAD_PREFIX);
+    threadFactory.setDaemon(true);
+
+    this.bufferSize = bufferSize;
+    this.dropped = dropped;
+    this.senders = Executors.newFixedThreadPool(senderThreads, threadFactory);
+  }
+
+  /**
+   * Subscribe to the updates of the questions
+   *
+   * @param questionsIds ids of the questions
+   * @param sink         destination of the updates
+   * @return the subscription to cancel once the client is gone
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  public ResponseUpdateSubscription<T> subscribe(LongList questionsIds, ResponseUpdateSink<T> sink) {
+    Assert.isTrue(questionsIds != null && !questionsIds.isEmpty(), "Ids of the questions cannot be null or empty");
+    Assert.notNull(sink, "Sink cannot be null");
+
+    ResponseUpdateSubscription<T> subscription = new ResponseUpdateSubscription<>(questionsIds, sink, bufferSize,
+        senders, this);
+    for (int i = 0; i < questionsIds.size(); i++) {
+      /* computed atomically with the removal of the last subscription of the question */
+      subscriptionsByQuestion.compute(questionsIds.get(i), (questionId, subscriptions) -> {
+        Set<ResponseUpdateSubscription<T>> questionSubscriptions = subscriptions == null ?
+            ConcurrentHashMap.newKeySet() : subscriptions;
+        questionSubscriptions.add(subscription);
+        return questionSubscriptions;
+      });
+    }
+    subscribers.incrementAndGet();
+    return subscription;
+  }
+
+  /**
+   * @param questionId id of the question
+   * @return true if a client subscribed to the updates of the question
+   */
+  public boolean hasSubscribers(long questionId) {
+    Set<ResponseUpdateSubscription<T>> subscriptions = subscriptionsByQuestion.get(questionId);
+    return subscriptions != null && !subscriptions.isEmpty();
+  }
+
+  /**
+   * @return the number of the subscribers
+   */
+  public int getSubscribers() {
+    return subscribers.get();
+  }
+
+  /**
+   * Publish the updates to the subscribers of their questions, once the current transaction is committed if any
+   *
+   * @param updatesByQuestionId the updates by question id
+   */
+  public void publish(Map<Long, T> updatesByQuestionId) {
+    if (updatesByQuestionId.isEmpty()) {
+      return;
+    }
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      dispatch(updatesByQuestionId);
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      @Override
+      public void afterCommit() {
+        dispatch(updatesByQuestionId);
+      }
+    });
+  }
+
+  /**
+   * Stop the sender threads, the updates still buffered are not sent
+   */
+  public void shutdown() {
+    senders.shutdownNow();
+    try {
+      senders.awaitTermination(1, TimeUnit.SECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  void unsubscribe(ResponseUpdateSubscription<T> subscription) {
+    LongList questionsIds = subscription.getQuestionsIds();
+    for (int i = 0; i < questionsIds.size(); i++) {
+      subscriptionsByQuestion.computeIfPresent(questionsIds.get(i), (questionId, subscriptions) -> {
+        subscriptions.remove(subscription);
+        return subscriptions.isEmpty() ? null : subscriptions;
+      });
+    }
+    subscribers.decrementAndGet();
+  }
+
+  private void dispatch(Map<Long, T> updatesByQuestionId) {
+    updatesByQuestionId.forEach((questionId, update) -> {
+      Set<ResponseUpdateSubscription<T>> subscriptions = subscriptionsByQuestion.get(questionId);
+      if (subscriptions == null) {
+        return;
+      }
+
+      for (ResponseUpdateSubscription<T> subscription : subscriptions) {
+        if (!subscription.offer(update)) {
+          LOGGER.warn("Dropping a slow subscriber of the questions {}, {} updates were not sent yet",
+              subscription.getQuestionsIds(), bufferSize);
+          dropped.mark();
+          subscription.drop();
+        }
+      }
+    });
+  }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.live;
+
+import java.io.IOException;
+
+/**
+ * Destination of the updates of a subscriber, usually the connection of a client
+ *
+ * @param <T> type of the updates
+ * @author Joumen Harzli
+ */
+public interface ResponseUpdateSink<T> {
+
+  /**
+   * Send an update, the call may block while the client is slow to read
+   *
+   * @param update the update to send
+   * @throws IOException if the client cannot be reached anymore
+   */
+  void send(T update) throws IOException;
+
+  /**
+   * Close the destination once the subscription is dropped or an update could not be sent
+   */
+  void close();
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.live;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+/**
+ * Subscription of a client to the updates of some questions
+ * <p>
+ * The updates are queued in a bounded buffer and sent by a sender thread, at most one sender drains
+ * the buffer of a subscription at a time so the updates are sent in order. The publishers never block
+ * on the client: when the buffer is full the subscription is dropped and the sink is closed by the sender.
+ *
+ * @param <T> type of the updates
+ * @author Joumen Harzli
+ */
+public final class ResponseUpdateSubscription<T> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResponseUpdateSubscription.class);
+
+  private final LongList questionsIds;
+  private final ResponseUpdateSink<T> sink;
+  private final BlockingQueue<T> buffer;
+  private final Executor senders;
+  private final ResponseUpdateBroadcaster<T> broadcaster;
+
+  private final AtomicBoolean draining = new AtomicBoolean();
+  private final AtomicBoolean sinkClosed = new AtomicBoolean();
+  private final AtomicBoolean cancelled = new AtomicBoolean();
+  private volatile boolean closeSink;
+
+  ResponseUpdateSubscription(LongList questionsIds, ResponseUpdateSink<T> sink, int bufferSize, Executor senders,
+                             ResponseUpdateBroadcaster<T> broadcaster) {
+    this.questionsIds = questionsIds;
+    this.sink = sink;
+    this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    this.senders = senders;
+    this.broadcaster = broadcaster;
+  }
+
+  /**
+   * @return ids of the subscribed questions
+   */
+  public LongList getQuestionsIds() {
+    return questionsIds;
+  }
+
+  /**
+   * @return true if the subscription was cancelled or dropped
+   */
+  public boolean isCancelled() {
+    return cancelled.get();
+  }
+
+  /**
+   * Cancel the subscription once the client is gone, the sink is not closed
+   */
+  public void cancel() {
+    if (cancelled.compareAndSet(false, true)) {
+      broadcaster.unsubscribe(this);
+    }
+  }
+
+  /**
+   * Queue an update without blocking
+   *
+   * @param update the update to send
+   * @return false if the buffer is full
+   */
+  boolean offer(T update) {
+    if (cancelled.get()) {
+      return true;
+    }
+    if (!buffer.offer(update)) {
+      return false;
+    }
+    schedule();
+    return true;
+  }
+
+  /**
+   * Cancel the subscription and close the sink from a sender thread
+   */
+  void drop() {
+    closeSink = true;
+    cancel();
+    schedule();
+  }
+
+  private void schedule() {
+    if (draining.compareAndSet(false, true)) {
+      try {
+        senders.execute(this::drain);
+      } catch (RejectedExecutionException exception) {
+        /* the senders are shut down */
+        draining.set(false);
+      }
+    }
+  }
+
+  private void drain() {
+    try {
+      T update;
+      while (!cancelled.get() && (update = buffer.poll()) != null) {
+        try {
+          sink.send(update);
+        } catch (Exception exception) {
+          LOGGER.debug("Unable to send an update to the subscriber of the questions {}", questionsIds, exception);
+          closeSink = true;
+          cancel();
+        }
+      }
+
+      if (cancelled.get()) {
+        buffer.clear();
+        if (closeSink && sinkClosed.compareAndSet(false, true)) {
+          sink.close();
+        }
+      }
+    } finally {
+      draining.set(false);
+    }
+
+    /* an update queued or a drop requested while the buffer was being drained */
+    if ((!cancelled.get() && !buffer.isEmpty()) || (closeSink && !sinkClosed.get())) {
+      schedule();
+    }
+  }
+
+}
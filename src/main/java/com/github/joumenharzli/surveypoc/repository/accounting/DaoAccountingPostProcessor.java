@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.accounting;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.stereotype.Repository;
+
+import com.github.joumenharzli.surveypoc.diagnostics.RequestAccounting;
+
+/**
+ * Bean post processor that counts the calls of the beans annotated with {@link Repository}
+ * in the accounting of the current request
+ * <p>
+ * The advisor is added to the existing proxy if the bean is already proxied
+ *
+ * @author Joumen Harzli
+ */
+public class DaoAccountingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+  public DaoAccountingPostProcessor() {
+    this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Repository.class, true),
+        new DaoAccountingInterceptor());
+  }
+
+  private static class DaoAccountingInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+      RequestAccounting accounting = RequestAccounting.current();
+      if (accounting != null) {
+        accounting.addDaoCall();
+      }
+      return invocation.proceed();
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.accounting;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import javax.sql.DataSource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+
+import com.github.joumenharzli.surveypoc.diagnostics.RequestAccounting;
+
+/**
+ * Bean post processor that accounts the connections obtained from the data sources and the statements
+ * executed on them in the accounting of the current request
+ * <p>
+ * The data source is proxied by subclassing so the bean keeps its type, and the transactions bound
+ * to it are still found by the templates. The connections obtained outside of a request are not wrapped.
+ *
+ * @author Joumen Harzli
+ */
+public class DataSourceAccountingPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+  private static final String GET_CONNECTION = "getConnection";
+
+  public DataSourceAccountingPostProcessor() {
+    setProxyTargetClass(true);
+    this.advisor = new DefaultPointcutAdvisor(new GetConnectionPointcut(), new ConnectionAccountingInterceptor());
+  }
+
+  private static class GetConnectionPointcut extends StaticMethodMatcherPointcut {
+
+    GetConnectionPointcut() {
+      setClassFilter(new RootClassFilter(DataSource.class));
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+      return GET_CONNECTION.equals(method.getName());
+    }
+  }
+
+  private static class ConnectionAccountingInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+      Connection connection = (Connection) invocation.proceed();
+      RequestAccounting accounting = RequestAccounting.current();
+      if (accounting == null) {
+        return connection;
+      }
+
+      accounting.addConnection();
+      return JdbcAccountingProxies.connection(connection, accounting);
+    }
+  }
+}
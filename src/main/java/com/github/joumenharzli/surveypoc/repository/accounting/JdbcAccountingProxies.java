@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.accounting;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import com.github.joumenharzli.surveypoc.diagnostics.RequestAccounting;
+
+/**
+ * Proxies of the jdbc objects that account the executions of the statements and the rows
+ * <p>
+ * Only the time spent in the {@code execute} methods is accounted as jdbc time, the rows written are the
+ * update counts returned by {@code executeUpdate} and {@code executeBatch} and the rows read are the rows
+ * reached by {@link ResultSet#next()}
+ *
+ * @author Joumen Harzli
+ */
+final class JdbcAccountingProxies {
+
+  private static final String EXECUTE_PREFIX = "execute";
+  private static final String GET_RESULT_SET = "getResultSet";
+  private static final String NEXT = "next";
+
+  private JdbcAccountingProxies() {
+  }
+
+  /**
+   * Wrap a connection so the statements it creates are accounted
+   *
+   * @param connection the connection to wrap
+   * @param accounting the accounting of the current request
+   * @return the wrapped connection
+   */
+  static Connection connection(Connection connection, RequestAccounting accounting) {
+    return proxy(Connection.class, new ConnectionHandler(connection, accounting));
+  }
+
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return type.cast(Proxy.newProxyInstance(JdbcAccountingProxies.class.getClassLoader(), new Class<?>[]{type},
+        handler));
+  }
+
+  private static Object invokeTarget(Object target, Method method, Object[] arguments) throws Throwable {
+    try {
+      return method.invoke(target, arguments);
+    } catch (InvocationTargetException exception) {
+      throw exception.getTargetException();
+    }
+  }
+
+  private static class ConnectionHandler implements InvocationHandler {
+
+    private final Connection connection;
+    private final RequestAccounting accounting;
+
+    ConnectionHandler(Connection connection, RequestAccounting accounting) {
+      this.connection = connection;
+      this.accounting = accounting;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+      Object result = invokeTarget(connection, method, arguments);
+
+      Class<?> returnType = method.getReturnType();
+      if (result != null && Statement.class.isAssignableFrom(returnType)) {
+        return proxy(returnType, new StatementHandler((Statement) result, accounting));
+      }
+      return result;
+    }
+  }
+
+  private static class StatementHandler implements InvocationHandler {
+
+    private final Statement statement;
+    private final RequestAccounting accounting;
+
+    StatementHandler(Statement statement, RequestAccounting accounting) {
+      this.statement = statement;
+      this.accounting = accounting;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+      String name = method.getName();
+
+      if (name.startsWith(EXECUTE_PREFIX)) {
+        long start = System.nanoTime();
+        Object result = invokeTarget(statement, method, arguments);
+        accounting.addStatement(System.nanoTime() - start);
+        accountRowsWritten(result);
+        return wrapResultSet(result);
+      }
+
+      Object result = invokeTarget(statement, method, arguments);
+      return GET_RESULT_SET.equals(name) ? wrapResultSet(result) : result;
+    }
+
+    private void accountRowsWritten(Object result) {
+      if (result instanceof Integer || result instanceof Long) {
+        accounting.addRowsWritten(Math.max(((Number) result).longValue(), 0));
+      } else if (result instanceof int[]) {
+        for (int rows : (int[]) result) {
+          accounting.addRowsWritten(Math.max(rows, 0));
+        }
+      } else if (result instanceof long[]) {
+        for (long rows : (long[]) result) {
+          accounting.addRowsWritten(Math.max(rows, 0));
+        }
+      }
+    }
+
+    private Object wrapResultSet(Object result) {
+      return result instanceof ResultSet ?
+          proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, accounting)) : result;
+    }
+  }
+
+  private static class ResultSetHandler implements InvocationHandler {
+
+    private final ResultSet resultSet;
+    private final RequestAccounting accounting;
+
+    ResultSetHandler(ResultSet resultSet, RequestAccounting accounting) {
+      this.resultSet = resultSet;
+      this.accounting = accounting;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+      Object result = invokeTarget(resultSet, method, arguments);
+      if (Boolean.TRUE.equals(result) && NEXT.equals(method.getName())) {
+        accounting.addRowRead();
+      }
+      return result;
+    }
+  }
+}
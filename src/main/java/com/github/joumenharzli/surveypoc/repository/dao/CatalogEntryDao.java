@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.dao;
+
+import java.util.List;
+
+import com.github.joumenharzli.surveypoc.domain.CatalogEntry;
+
+/**
+ * Catalog Entry Dao
+ * <p>
+ * Each entry carries the version where it last changed so the changes since a version
+ * are read with the index on the version
+ *
+ * @author Joumen Harzli
+ */
+public interface CatalogEntryDao {
+
+  /**
+   * Find the current version of the catalog
+   *
+   * @return the greatest version of the entries or 0 if the catalog was never versioned
+   * @throws DaoException if there is an sql exception
+   */
+  long findCurrentVersion();
+
+  /**
+   * Find all the entries including the removed ones
+   *
+   * @return list of the entries
+   * @throws DaoException if there is an sql exception
+   */
+  List<CatalogEntry> findAllEntries();
+
+  /**
+   * Find the entries that changed after a version
+   *
+   * @param version the version known by the client
+   * @return list of the entries ordered by type and id
+   * @throws DaoException if there is an sql exception
+   */
+  List<CatalogEntry> findEntriesChangedSince(long version);
+
+  /**
+   * Add or replace the entries
+   *
+   * @param entries the entries to save
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  void saveEntries(List<CatalogEntry> entries);
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.dao;
+
+/**
+ * This exception is thrown when a dao call is rejected without being executed
+ * because the database is saturated
+ *
+ * @author Joumen Harzli
+ */
+public class DaoOverloadedException extends DaoException {
+
+  private static final String ERROR_MESSAGE = "Dao call rejected because %d queries are already in flight";
+
+  /**
+   * Constructs a new runtime exception with the specified detail message.
+   *
+   * @param inFlightQueries number of the queries in flight when the call was rejected
+   */
+  public DaoOverloadedException(int inFlightQueries) {
+    super(String.format(ERROR_MESSAGE, inFlightQueries), null);
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.dao;
+
+/**
+ * This exception is thrown when an added response already exists, usually because it was added
+ * concurrently by another request
+ *
+ * @author Joumen Harzli
+ */
+public class DuplicateResponseException extends DaoException {
+
+  /**
+   * Constructs a new runtime exception with the specified detail message and cause.
+   *
+   * @param message the detail message
+   * @param cause   the duplicate key exception of the database
+   */
+  public DuplicateResponseException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.util.Assert;
+
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+/**
+ * A statement whose {@code IN} clause is expanded to one placeholder per id
+ * <p>
+ * The ids are bound as primitive values so they are never boxed, and the expanded statements are
+ * cached by number of ids so the same text is sent to the database for the same number of ids
+ *
+ * @author Joumen Harzli
+ */
+final class InClauseStatement {
+
+  private static final int MAX_CACHED_SIZE = 512;
+
+  private final String prefix;
+  private final String suffix;
+  private final AtomicReferenceArray<String> statements = new AtomicReferenceArray<>(MAX_CACHED_SIZE + 1);
+
+  /**
+   * Constructor for the statement
+   *
+   * @param sql       the statement
+   * @param parameter the parameter of the {@code IN} clause that is replaced by the placeholders
+   * @throws IllegalArgumentException if the parameter is not in the statement
+   */
+  InClauseStatement(String sql, String parameter) {
+    int index = sql.indexOf(parameter);
+    Assert.isTrue(index >= 0, "Parameter " + parameter + " not found in the statement");
+    this.prefix = sql.substring(0, index);
+    this.suffix = sql.substring(index + parameter.length());
+  }
+
+  /**
+   * @param size number of the ids
+   * @return the statement with a placeholder for each id
+   */
+  String getSql(int size) {
+    if (size > MAX_CACHED_SIZE) {
+      return expand(size);
+    }
+    String statement = statements.get(size);
+    if (statement == null) {
+      statement = expand(size);
+      statements.set(size, statement);
+    }
+    return statement;
+  }
+
+  /**
+   * Bind the ids to the placeholders of the {@code IN} clause
+   *
+   * @param preparedStatement the statement
+   * @param firstIndex        index of the first placeholder of the {@code IN} clause
+   * @param ids               the ids to bind
+   * @return the index of the parameter following the {@code IN} clause
+   * @throws SQLException if an id cannot be bound
+   */
+  static int bind(PreparedStatement preparedStatement, int firstIndex, LongList ids) throws SQLException {
+    int index = firstIndex;
+    for (int i = 0; i < ids.size(); i++) {
+      preparedStatement.setLong(index++, ids.get(i));
+    }
+    return index;
+  }
+
+  private String expand(int size) {
+    StringBuilder builder = new StringBuilder(prefix.length() + suffix.length() + size * 2);
+    builder.append(prefix);
+    for (int i = 0; i < size; i++) {
+      builder.append(i == 0 ? "?" : ",?");
+    }
+    return builder.append(suffix).toString();
+  }
+}
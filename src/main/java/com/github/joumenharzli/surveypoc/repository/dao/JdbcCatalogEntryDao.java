@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.Assert;
+
+import com.github.joumenharzli.surveypoc.domain.CatalogEntry;
+import com.github.joumenharzli.surveypoc.domain.CatalogEntryType;
+import com.github.joumenharzli.surveypoc.domain.QuestionType;
+
+/**
+ * JDBC implementation for {@link CatalogEntryDao}
+ * <p>
+ * The choices of a question are stored in a single column, one choice per line
+ *
+ * @author Joumen Harzli
+ */
+@Repository
+public class JdbcCatalogEntryDao implements CatalogEntryDao {
+
+  private static final String SELECT_CURRENT_VERSION = "SELECT COALESCE(MAX(e.version), 0) FROM catalog_entries AS e";
+
+  private static final String CHOICES_SEPARATOR = "\n";
+
+  private static final String SELECT_ENTRIES = "SELECT e.entity_type AS entity_type, e.entity_id AS entity_id, " +
+      "e.label AS label, e.subject_id AS subject_id, e.question_type AS question_type, e.min_value AS min_value, " +
+      "e.max_value AS max_value, e.pattern AS pattern, e.choices AS choices, e.version AS version, " +
+      "e.removed AS removed FROM catalog_entries AS e";
+
+  private static final String SELECT_ENTRIES_CHANGED_SINCE = SELECT_ENTRIES + " WHERE e.version > ? " +
+      "ORDER BY e.entity_type, e.entity_id";
+
+  private static final String MERGE_ENTRY = "MERGE INTO catalog_entries " +
+      "(entity_type, entity_id, label, subject_id, question_type, min_value, max_value, pattern, choices, " +
+      "version, removed) KEY (entity_type, entity_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final RowMapper<CatalogEntry> CATALOG_ENTRY_ROW_MAPPER = JdbcCatalogEntryDao::mapCatalogEntry;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public JdbcCatalogEntryDao(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Find the current version of the catalog
+   *
+   * @return the greatest version of the entries or 0 if the catalog was never versioned
+   * @throws DaoException if there is an sql exception
+   */
+  @Override
+  public long findCurrentVersion() {
+    try {
+      return jdbcTemplate.queryForObject(SELECT_CURRENT_VERSION, Long.class);
+    } catch (Exception exception) {
+      throw new DaoException("Unable to find the version of the catalog", exception);
+    }
+  }
+
+  /**
+   * Find all the entries including the removed ones
+   *
+   * @return list of the entries
+   * @throws DaoException if there is an sql exception
+   */
+  @Override
+  public List<CatalogEntry> findAllEntries() {
+    try {
+      return jdbcTemplate.query(SELECT_ENTRIES, CATALOG_ENTRY_ROW_MAPPER);
+    } catch (Exception exception) {
+      throw new DaoException("Unable to find the entries of the catalog", exception);
+    }
+  }
+
+  /**
+   * Find the entries that changed after a version
+   *
+   * @param version the version known by the client
+   * @return list of the entries ordered by type and id
+   * @throws DaoException if there is an sql exception
+   */
+  @Override
+  public List<CatalogEntry> findEntriesChangedSince(long version) {
+    try {
+      return jdbcTemplate.query(SELECT_ENTRIES_CHANGED_SINCE, CATALOG_ENTRY_ROW_MAPPER, version);
+    } catch (Exception exception) {
+      throw new DaoException("Unable to find the changes of the catalog", exception);
+    }
+  }
+
+  /**
+   * Add or replace the entries
+   *
+   * @param entries the entries to save
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  @Override
+  public void saveEntries(List<CatalogEntry> entries) {
+
+    Assert.notEmpty(entries, "Entries cannot be null or empty");
+
+    try {
+      jdbcTemplate.batchUpdate(MERGE_ENTRY, entries, entries.size(), this::bindCatalogEntry);
+    } catch (Exception exception) {
+      throw new DaoException("Unable to save the entries of the catalog", exception);
+    }
+  }
+
+  private void bindCatalogEntry(PreparedStatement ps, CatalogEntry entry) throws SQLException {
+    ps.setString(1, entry.getType().name());
+    ps.setLong(2, entry.getId());
+    ps.setString(3, entry.getLabel());
+    setNullableLong(ps, 4, entry.getSubjectId());
+    ps.setString(5, entry.getQuestionType() == null ? null : entry.getQuestionType().name());
+    setNullableLong(ps, 6, entry.getMinValue());
+    setNullableLong(ps, 7, entry.getMaxValue());
+    ps.setString(8, entry.getPattern());
+    ps.setString(9, entry.getChoices() == null ? null : String.join(CHOICES_SEPARATOR, entry.getChoices()));
+    ps.setLong(10, entry.getVersion());
+    ps.setBoolean(11, entry.isRemoved());
+  }
+
+  private static CatalogEntry mapCatalogEntry(ResultSet resultSet, int rowNum) throws SQLException {
+    String questionType = resultSet.getString("question_type");
+    String choices = resultSet.getString("choices");
+    return new CatalogEntry()
+        .type(CatalogEntryType.valueOf(resultSet.getString("entity_type")))
+        .id(resultSet.getLong("entity_id"))
+        .label(resultSet.getString("label"))
+        .subjectId(getNullableLong(resultSet, "subject_id"))
+        .questionType(questionType == null ? null : QuestionType.valueOf(questionType))
+        .minValue(getNullableLong(resultSet, "min_value"))
+        .maxValue(getNullableLong(resultSet, "max_value"))
+        .pattern(resultSet.getString("pattern"))
+        .choices(choices == null ? null : Arrays.asList(choices.split(CHOICES_SEPARATOR, -1)))
+        .version(resultSet.getLong("version"))
+        .removed(resultSet.getBoolean("removed"));
+  }
+
+  private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+    if (value != null) {
+      ps.setLong(index, value);
+    } else {
+      ps.setNull(index, Types.BIGINT);
+    }
+  }
+
+  private static Long getNullableLong(ResultSet resultSet, String column) throws SQLException {
+    long value = resultSet.getLong(column);
+    return resultSet.wasNull() ? null : value;
+  }
+
+}
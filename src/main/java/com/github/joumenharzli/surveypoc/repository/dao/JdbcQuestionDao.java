@@ -15,18 +15,24 @@
 
 package com.github.joumenharzli.surveypoc.repository.dao;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
-import org.simpleflatmapper.jdbc.spring.JdbcTemplateMapperFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
-import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
-import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 
 import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.QuestionType;
+import com.github.joumenharzli.surveypoc.domain.Subject;
+import com.github.joumenharzli.surveypoc.util.LongList;
 
 /**
  * JDBC implementation for {@link QuestionDao}
@@ -41,20 +47,46 @@ public class JdbcQuestionDao implements QuestionDao {
       " LEFT OUTER JOIN subjects s ON q.subject_id = s.id" +
       " ORDER BY id";
 
-  private static final String FIND_QUESTIONS_BY_IDS = "SELECT q.id AS id FROM questions q WHERE id IN (:questions_ids)";
+  private static final InClauseStatement FIND_QUESTIONS_BY_IDS = new InClauseStatement(
+      "SELECT q.id AS id FROM questions q WHERE id IN (:questions_ids)", ":questions_ids");
+
+  private static final String SELECT_QUESTIONS_DEFINITIONS = "SELECT q.id AS id, q.type AS type, " +
+      "q.min_value AS min_value, q.max_value AS max_value, q.pattern AS pattern, c.label AS choice FROM questions q" +
+      " LEFT OUTER JOIN question_choices c ON c.question_id = q.id";
+
+  private static final InClauseStatement FIND_QUESTIONS_DEFINITIONS_BY_IDS = new InClauseStatement(
+      SELECT_QUESTIONS_DEFINITIONS + " WHERE q.id IN (:questions_ids) ORDER BY q.id, c.position", ":questions_ids");
+
+  private static final String SELECT_ALL_QUESTIONS_DEFINITIONS = SELECT_QUESTIONS_DEFINITIONS +
+      " ORDER BY q.id, c.position";
 
-  private final NamedParameterJdbcTemplate parameterJdbcTemplate;
   private final JdbcTemplate jdbcTemplate;
 
-  private final ResultSetExtractor<List<Question>> selectQuestionAndSubjectResultSetExtractor =
-      JdbcTemplateMapperFactory
-          .newInstance()
-          .addKeys("id", "subject_id")
-          .newResultSetExtractor(Question.class);
+  /* the questions of a subject share the same instance of the subject and the equal labels share the same string
+   * so a large catalog does not hold a copy of them per row */
+  private final ResultSetExtractor<List<Question>> selectQuestionAndSubjectResultSetExtractor = rs -> {
+    List<Question> questions = new ArrayList<>();
+    Map<Long, Subject> subjects = new HashMap<>();
+    Map<String, String> labels = new HashMap<>();
+
+    while (rs.next()) {
+      long subjectId = rs.getLong("subject_id");
+      Subject subject = subjects.get(subjectId);
+      if (subject == null) {
+        subject = new Subject().id(subjectId).label(deduplicate(labels, rs.getString("subject_label")));
+        subjects.put(subjectId, subject);
+      }
+
+      questions.add(new Question()
+          .id(rs.getLong("id"))
+          .label(deduplicate(labels, rs.getString("label")))
+          .subject(subject));
+    }
+    return questions;
+  };
 
-  public JdbcQuestionDao(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate parameterJdbcTemplate) {
+  public JdbcQuestionDao(JdbcTemplate jdbcTemplate) {
     this.jdbcTemplate = jdbcTemplate;
-    this.parameterJdbcTemplate = parameterJdbcTemplate;
   }
 
   /**
@@ -81,27 +113,107 @@ public class JdbcQuestionDao implements QuestionDao {
    * @throws IllegalArgumentException if any given argument is invalid
    */
   @Override
-  public List<Long> findNonExistingQuestionsByQuestionsIds(List<Long> questionsIds) {
-
-    Assert.notEmpty(questionsIds, "Ids of the questions cannot be null or empty");
-    questionsIds.forEach(questionId -> Assert.notNull(questionId, "Id of the question cannot be null"));
+  public LongList findNonExistingQuestionsByQuestionsIds(LongList questionsIds) {
 
-    MapSqlParameterSource parameters = new MapSqlParameterSource();
-    parameters.addValue("questions_ids", questionsIds);
+    Assert.isTrue(questionsIds != null && !questionsIds.isEmpty(), "Ids of the questions cannot be null or empty");
 
     try {
-      List<Long> foundQuestionsId = parameterJdbcTemplate.query(FIND_QUESTIONS_BY_IDS, parameters,
-          (rs, rowNum) -> rs.getLong(1));
-
-      //@formatter:off
-      return questionsIds.stream()
-                         .filter(id -> !foundQuestionsId.contains(id))
-                         .collect(Collectors.toList());
-      //@formatter:on
+      LongList foundQuestionsIds = new LongList(questionsIds.size());
+      jdbcTemplate.query(FIND_QUESTIONS_BY_IDS.getSql(questionsIds.size()),
+          ps -> InClauseStatement.bind(ps, 1, questionsIds),
+          rs -> {
+            foundQuestionsIds.add(rs.getLong(1));
+          });
+      foundQuestionsIds.sortDistinct();
+
+      LongList nonExistingQuestionsIds = new LongList(0);
+      for (int i = 0; i < questionsIds.size(); i++) {
+        if (!foundQuestionsIds.containsSorted(questionsIds.get(i))) {
+          nonExistingQuestionsIds.add(questionsIds.get(i));
+        }
+      }
+      return nonExistingQuestionsIds;
     } catch (Exception exception) {
       throw new DaoException("Unable to find questions by ids", exception);
     }
 
   }
 
+  /**
+   * Find the definitions of the questions used to validate their answers
+   *
+   * @param questionsIds ids of the questions
+   * @return the found questions with their type, bounds, pattern and choices
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  @Override
+  public List<Question> findQuestionsDefinitionsByQuestionsIds(LongList questionsIds) {
+
+    Assert.isTrue(questionsIds != null && !questionsIds.isEmpty(), "Ids of the questions cannot be null or empty");
+
+    try {
+      Map<Long, Question> questions = new LinkedHashMap<>();
+      jdbcTemplate.query(FIND_QUESTIONS_DEFINITIONS_BY_IDS.getSql(questionsIds.size()),
+          ps -> InClauseStatement.bind(ps, 1, questionsIds), definitionsCollector(questions));
+      return new ArrayList<>(questions.values());
+    } catch (Exception exception) {
+      throw new DaoException("Unable to find the definitions of the questions", exception);
+    }
+  }
+
+  /**
+   * Find the definitions of all the questions
+   *
+   * @return the questions with their type, bounds, pattern and choices ordered by id
+   * @throws DaoException if there is an sql exception
+   */
+  @Override
+  public List<Question> findAllQuestionsDefinitions() {
+    try {
+      Map<Long, Question> questions = new LinkedHashMap<>();
+      jdbcTemplate.query(SELECT_ALL_QUESTIONS_DEFINITIONS, definitionsCollector(questions));
+      return new ArrayList<>(questions.values());
+    } catch (Exception exception) {
+      throw new DaoException("Unable to find the definitions of the questions", exception);
+    }
+  }
+
+  /**
+   * Collect the rows of the definitions, one row per choice, into the questions by id
+   */
+  private static RowCallbackHandler definitionsCollector(Map<Long, Question> questions) {
+    return rs -> {
+      Question question = questions.get(rs.getLong("id"));
+      if (question == null) {
+        question = new Question()
+            .id(rs.getLong("id"))
+            .type(QuestionType.valueOf(rs.getString("type")))
+            .minValue(getNullableLong(rs, "min_value"))
+            .maxValue(getNullableLong(rs, "max_value"))
+            .pattern(rs.getString("pattern"))
+            .choices(new ArrayList<>());
+        questions.put(question.getId(), question);
+      }
+
+      String choice = rs.getString("choice");
+      if (choice != null) {
+        question.getChoices().add(choice);
+      }
+    };
+  }
+
+  private static Long getNullableLong(ResultSet rs, String column) throws SQLException {
+    long value = rs.getLong(column);
+    return rs.wasNull() ? null : value;
+  }
+
+  private static String deduplicate(Map<String, String> labels, String label) {
+    if (label == null) {
+      return null;
+    }
+    String sharedLabel = labels.putIfAbsent(label, label);
+    return sharedLabel != null ? sharedLabel : label;
+  }
+
 }
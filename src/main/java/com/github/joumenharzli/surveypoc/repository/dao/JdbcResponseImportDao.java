@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.dao;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.Assert;
+
+import com.github.joumenharzli.surveypoc.domain.ResponseImport;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+/**
+ * JDBC implementation for {@link ResponseImportDao}
+ *
+ * @author Joumen Harzli
+ */
+@Repository
+public class JdbcResponseImportDao implements ResponseImportDao {
+
+  private static final String SELECT_IMPORT_BY_ID = "SELECT i.id AS id, i.format AS format, " +
+      "i.batch_size AS batch_size, COUNT(c.chunk_index) AS completed_chunks, " +
+      "COALESCE(SUM(c.imported), 0) AS imported, COALESCE(SUM(c.rejected), 0) AS rejected " +
+      "FROM response_imports AS i LEFT JOIN response_import_chunks AS c ON c.import_id = i.id " +
+      "WHERE i.id = ? GROUP BY i.id, i.format, i.batch_size";
+
+  private static final String INSERT_IMPORT = "INSERT INTO response_imports (id, format, batch_size) VALUES (?, ?, ?)";
+
+  private static final String SELECT_COMPLETED_CHUNKS = "SELECT c.chunk_index FROM response_import_chunks AS c " +
+      "WHERE c.import_id = ? ORDER BY c.chunk_index";
+
+  private static final String INSERT_CHUNK = "INSERT INTO response_import_chunks " +
+      "(import_id, chunk_index, imported, rejected) VALUES (?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public JdbcResponseImportDao(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Find an import and the totals of its imported chunks
+   *
+   * @param importId id of the import
+   * @return the import or null if it was not found
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  @Override
+  public ResponseImport findImportById(String importId) {
+
+    Assert.hasText(importId, "Id of the import cannot be null or empty");
+
+    try {
+      List<ResponseImport> imports = jdbcTemplate.query(SELECT_IMPORT_BY_ID, (resultSet, rowNum) -> {
+        ResponseImport responseImport = new ResponseImport()
+            .id(resultSet.getString("id"))
+            .format(resultSet.getString("format"))
+            .batchSize(resultSet.getInt("batch_size"));
+        responseImport.setCompletedChunks(resultSet.getLong("completed_chunks"));
+        responseImport.setImportedResponses(resultSet.getLong("imported"));
+        responseImport.setRejectedResponses(resultSet.getLong("rejected"));
+        return responseImport;
+      }, importId);
+      return imports.isEmpty() ? null : imports.get(0);
+    } catch (Exception exception) {
+      throw new DaoException("Unable to find the import", exception);
+    }
+  }
+
+  /**
+   * Add a new import
+   *
+   * @param responseImport the import to add
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  @Override
+  public void addImport(ResponseImport responseImport) {
+
+    Assert.notNull(responseImport, "Import cannot be null");
+    Assert.hasText(responseImport.getId(), "Id of the import cannot be null or empty");
+    Assert.hasText(responseImport.getFormat(), "Format of the import cannot be null or empty");
+    Assert.isTrue(responseImport.getBatchSize() > 0, "Batch size of the import must be positive");
+
+    try {
+      jdbcTemplate.update(INSERT_IMPORT, responseImport.getId(), responseImport.getFormat(),
+          responseImport.getBatchSize());
+    } catch (Exception exception) {
+      throw new DaoException("Unable to add the import", exception);
+    }
+  }
+
+  /**
+   * Find the indexes of the chunks of the import already imported
+   *
+   * @param importId id of the import
+   * @return the indexes of the imported chunks
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  @Override
+  public LongList findCompletedChunksOfImport(String importId) {
+
+    Assert.hasText(importId, "Id of the import cannot be null or empty");
+
+    try {
+      LongList chunks = new LongList(0);
+      jdbcTemplate.query(SELECT_COMPLETED_CHUNKS, rs -> {
+        chunks.add(rs.getLong(1));
+      }, importId);
+      return chunks;
+    } catch (Exception exception) {
+      throw new DaoException("Unable to find the imported chunks", exception);
+    }
+  }
+
+  /**
+   * Record an imported chunk
+   *
+   * @param importId   id of the import
+   * @param chunkIndex index of the chunk in the imported file
+   * @param imported   number of the imported responses of the chunk
+   * @param rejected   number of the rejected lines of the chunk
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  @Override
+  public void addCompletedChunk(String importId, long chunkIndex, int imported, int rejected) {
+
+    Assert.hasText(importId, "Id of the import cannot be null or empty");
+
+    try {
+      jdbcTemplate.update(INSERT_CHUNK, importId, chunkIndex, imported, rejected);
+    } catch (Exception exception) {
+      throw new DaoException("Unable to record the imported chunk", exception);
+    }
+  }
+
+}
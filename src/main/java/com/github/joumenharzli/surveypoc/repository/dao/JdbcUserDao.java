@@ -15,14 +15,12 @@
 
 package com.github.joumenharzli.surveypoc.repository.dao;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
-import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
-import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 
+import com.github.joumenharzli.surveypoc.util.LongList;
+
 /**
  * JDBC implementation for {@link UserDao}
  *
@@ -31,12 +29,13 @@ import org.springframework.util.Assert;
 @Repository
 public class JdbcUserDao implements UserDao {
 
-  private static final String FIND_USERS_BY_IDS = "SELECT u.id AS id FROM users u WHERE id IN (:users_ids)";
+  private static final InClauseStatement FIND_USERS_BY_IDS = new InClauseStatement(
+      "SELECT u.id AS id FROM users u WHERE id IN (:users_ids)", ":users_ids");
 
-  private final NamedParameterJdbcTemplate parameterJdbcTemplate;
+  private final JdbcTemplate jdbcTemplate;
 
-  public JdbcUserDao(NamedParameterJdbcTemplate parameterJdbcTemplate) {
-    this.parameterJdbcTemplate = parameterJdbcTemplate;
+  public JdbcUserDao(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
   }
 
   /**
@@ -48,24 +47,26 @@ public class JdbcUserDao implements UserDao {
    * @throws IllegalArgumentException if any given argument is invalid
    */
   @Override
-  public List<Long> findNonExistingUsersByUsersIds(List<Long> usersIds) {
+  public LongList findNonExistingUsersByUsersIds(LongList usersIds) {
 
-    Assert.notEmpty(usersIds, "Ids of the users cannot be null or empty");
-    usersIds.forEach(userId -> Assert.notNull(userId, "Id of the user cannot be null"));
-
-    MapSqlParameterSource parameters = new MapSqlParameterSource();
-    parameters.addValue("users_ids", usersIds);
+    Assert.isTrue(usersIds != null && !usersIds.isEmpty(), "Ids of the users cannot be null or empty");
 
     try {
-      List<Long> foundUsersId = parameterJdbcTemplate.query(FIND_USERS_BY_IDS, parameters,
-          (rs, rowNum) -> rs.getLong(1));
-
-      //@formatter:off
-      return usersIds.stream()
-                     .filter(id -> !foundUsersId.contains(id))
-                     .collect(Collectors.toList());
-      //@formatter:on
+      LongList foundUsersIds = new LongList(usersIds.size());
+      jdbcTemplate.query(FIND_USERS_BY_IDS.getSql(usersIds.size()),
+          ps -> InClauseStatement.bind(ps, 1, usersIds),
+          rs -> {
+            foundUsersIds.add(rs.getLong(1));
+          });
+      foundUsersIds.sortDistinct();
 
+      LongList nonExistingUsersIds = new LongList(0);
+      for (int i = 0; i < usersIds.size(); i++) {
+        if (!foundUsersIds.containsSorted(usersIds.get(i))) {
+          nonExistingUsersIds.add(usersIds.get(i));
+        }
+      }
+      return nonExistingUsersIds;
     } catch (Exception exception) {
       throw new DaoException("Unable to find users by ids", exception);
     }
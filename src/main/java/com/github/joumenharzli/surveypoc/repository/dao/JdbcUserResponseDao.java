@@ -17,59 +17,133 @@ package com.github.joumenharzli.surveypoc.repository.dao;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
-import org.simpleflatmapper.jdbc.spring.JdbcTemplateMapperFactory;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import org.springframework.jdbc.core.namedparam.SqlParameterSource;
-import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.User;
 import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.domain.UserResponseKey;
+import com.github.joumenharzli.surveypoc.util.LongList;
 
 /**
  * JDBC implementation for {@link UserResponseDao}
+ * <p>
+ * When the dictionary storage is enabled the contents of the choice and range questions are written as ids
+ * of {@code response_values} instead of the text, the free answers are always stored as text. The reads join both forms so the existing rows can be migrated at any time.
+ * <p>
+ * The added responses increment the progress of their users in {@code user_subject_progress}, the updates
+ * do not change the number of the answered questions.
  *
  * @author Joumen Harzli
  */
 @Repository
 public class JdbcUserResponseDao implements UserResponseDao {
 
-  private static final String INSERT_USER_RESPONSE = "INSERT INTO user_responses (content,user_id,question_id) " +
-      "VALUES (?, ?, ?)";
+  private static final String INSERT_USER_RESPONSE = "INSERT INTO user_responses " +
+      "(content,value_id,user_id,question_id,created_at,updated_at,version) VALUES (?, ?, ?, ?, ?, ?, 0)";
 
-  private static final String SELECT_USER_RESPONSES_FOR_QUESTIONS = "SELECT ur.content AS content, " +
-      "ur.question_id AS question_id, ur.user_id AS user_id FROM user_responses AS ur WHERE ur.user_id = :user_id " +
-      "AND ur.question_id IN (:question_ids) ORDER BY ur.question_id,ur.user_id";
+  /* the contents stored in the dictionary are joined so a page of responses is decoded in the same query */
+  private static final String SELECT_USER_RESPONSES_COLUMNS = "SELECT COALESCE(ur.content, rv.content) AS content, " +
+      "ur.question_id AS question_id, ur.user_id AS user_id, ur.created_at AS created_at, " +
+      "ur.updated_at AS updated_at, ur.version AS version FROM user_responses AS ur " +
+      "LEFT JOIN response_values AS rv ON rv.id = ur.value_id ";
 
-  private static final String UPDATE_USER_RESPONSE = "UPDATE user_responses SET content = :content " +
-      "WHERE user_id = :user.id AND question_id = :question.id";
+  private static final InClauseStatement SELECT_USER_RESPONSES_FOR_QUESTIONS = new InClauseStatement(
+      SELECT_USER_RESPONSES_COLUMNS + "WHERE ur.user_id = ? AND ur.question_id IN (:question_ids) " +
+          "ORDER BY ur.question_id,ur.user_id", ":question_ids");
+
+  private static final InClauseStatement SELECT_USER_RESPONSES_KEYS_FOR_USERS = new InClauseStatement(
+      "SELECT ur.user_id AS user_id, ur.question_id AS question_id FROM user_responses AS ur " +
+          "WHERE ur.user_id IN (:users_ids)", ":users_ids");
+
+  /* keyset pagination on the index (updated_at, user_id, question_id) */
+  private static final String SELECT_USER_RESPONSES_CHANGED_AFTER = SELECT_USER_RESPONSES_COLUMNS +
+      "WHERE (ur.updated_at > :updated_at OR (ur.updated_at = :updated_at AND (ur.user_id > :user_id " +
+      "OR (ur.user_id = :user_id AND ur.question_id > :question_id)))) AND ur.updated_at <= :upper_bound " +
+      "ORDER BY ur.updated_at, ur.user_id, ur.question_id LIMIT :limit";
+
+  private static final String UPDATE_USER_RESPONSE = "UPDATE user_responses SET content = ?, value_id = ?, updated_at = ?, " +
+      "version = version + 1 WHERE user_id = ? AND question_id = ? AND version = ?";
+
+  private static final InClauseStatement COUNT_QUESTIONS_BY_SUBJECT = new InClauseStatement(
+      "SELECT q.subject_id AS subject_id, COUNT(*) AS questions FROM questions AS q " +
+          "WHERE q.id IN (:question_ids) GROUP BY q.subject_id", ":question_ids");
+
+  /* only a closed set of contents can be answered to these questions so only their contents are shared */
+  private static final InClauseStatement SELECT_ENCODED_QUESTIONS = new InClauseStatement(
+      "SELECT q.id AS id FROM questions AS q WHERE q.id IN (:question_ids) " +
+          "AND q.type IN ('SINGLE_CHOICE', 'MULTIPLE_CHOICE', 'INTEGER_RANGE')", ":question_ids");
+
+  private static final String INCREMENT_PROGRESS = "UPDATE user_subject_progress " +
+      "SET answered_questions = answered_questions + ? WHERE user_id = ? AND subject_id = ?";
+
+  /* H2 MERGE: a first response of the same subject committed by another request after INCREMENT_PROGRESS found
+   * no row is added to instead of failing the save on the primary key */
+  private static final String MERGE_PROGRESS = "MERGE INTO user_subject_progress " +
+      "(user_id, subject_id, answered_questions) KEY (user_id, subject_id) " +
+      "SELECT i.user_id, i.subject_id, COALESCE(p.answered_questions, 0) + i.answered_questions " +
+      "FROM (SELECT CAST(? AS INT8) AS user_id, CAST(? AS INT8) AS subject_id, " +
+      "CAST(? AS INT) AS answered_questions) AS i LEFT JOIN user_subject_progress AS p " +
+      "ON p.user_id = i.user_id AND p.subject_id = i.subject_id";
+
+  /* mapped by hand instead of by reflection so the mapping is compiled once for all */
+  private static final RowMapper<UserResponse> MAPPER = (resultSet, rowNum) -> {
+    UserResponse userResponse = new UserResponse()
+        .content(resultSet.getString("content"))
+        .question(new Question().id(resultSet.getLong("question_id")))
+        .user(new User().id(resultSet.getLong("user_id")))
+        .version(resultSet.getLong("version"));
+    userResponse.setCreatedAt(toInstant(resultSet.getTimestamp("created_at")));
+    userResponse.setUpdatedAt(toInstant(resultSet.getTimestamp("updated_at")));
+    return userResponse;
+  };
 
   private final JdbcTemplate jdbcTemplate;
   private final NamedParameterJdbcTemplate parameterJdbcTemplate;
 
-  private final RowMapper<UserResponse> mapper = JdbcTemplateMapperFactory
-      .newInstance()
-      .addKeys("id", "question_id", "user_id")
-      .newRowMapper(UserResponse.class);
+  private final ResponseValueDictionary dictionary;
+  private final boolean dictionaryEnabled;
+
+  public JdbcUserResponseDao(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate parameterJdbcTemplate,
+                             ApplicationProperties applicationProperties) {
+    ApplicationProperties.ResponseValues properties = applicationProperties.getResponseValues();
 
-  public JdbcUserResponseDao(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate parameterJdbcTemplate) {
     this.jdbcTemplate = jdbcTemplate;
     this.parameterJdbcTemplate = parameterJdbcTemplate;
+    this.dictionary = new ResponseValueDictionary(jdbcTemplate, parameterJdbcTemplate,
+        properties.getMaxCachedValues());
+    this.dictionaryEnabled = properties.isDictionaryEnabled();
   }
 
   /**
-   * Add a new responses of the user
+   * Add a new responses of the user and increment the progress of the user in their subjects
+   * <p>
+   * The progress is consistent with the responses only if both are written in the same transaction
    *
    * @param userResponses entities to save
    * @return an array of the number of rows affected by each statement
-   * @throws DaoException             if there is an sql exception
-   * @throws IllegalArgumentException if any given argument is invalid
+   * @throws DuplicateResponseException if a response already exists
+   * @throws DaoException               if there is an sql exception
+   * @throws IllegalArgumentException   if any given argument is invalid
    */
   @Override
   public int[] addUserResponses(List<UserResponse> userResponses) {
@@ -77,7 +151,12 @@ public class JdbcUserResponseDao implements UserResponseDao {
     Assert.notEmpty(userResponses, "User responses cannot be null or empty");
 
     try {
-      return jdbcTemplate.batchUpdate(INSERT_USER_RESPONSE, userResponseBatchPreparedStatementSetter(userResponses));
+      int[] result = jdbcTemplate.batchUpdate(INSERT_USER_RESPONSE, insertBatchPreparedStatementSetter(userResponses,
+          resolveValueIds(userResponses), Timestamp.from(Instant.now())));
+      incrementProgress(userResponses);
+      return result;
+    } catch (DuplicateKeyException exception) {
+      throw new DuplicateResponseException("Unable to add responses that already exist for the user", exception);
     } catch (Exception exception) {
       throw new DaoException("Unable to add responses of the questions for the user", exception);
     }
@@ -86,6 +165,9 @@ public class JdbcUserResponseDao implements UserResponseDao {
 
   /**
    * Update responses of the user
+   * <p>
+   * A response is updated only if its version in the database is still the version of the entity,
+   * the update count of a response modified concurrently is zero
    *
    * @param userResponses entities to save
    * @return an array of the number of rows affected by each statement
@@ -97,10 +179,9 @@ public class JdbcUserResponseDao implements UserResponseDao {
 
     Assert.notEmpty(userResponses, "User responses cannot be null or empty");
 
-    SqlParameterSource[] batchParams = SqlParameterSourceUtils.createBatch(userResponses.toArray());
-
     try {
-      return parameterJdbcTemplate.batchUpdate(UPDATE_USER_RESPONSE, batchParams);
+      return jdbcTemplate.batchUpdate(UPDATE_USER_RESPONSE, updateBatchPreparedStatementSetter(userResponses,
+          resolveValueIds(userResponses), Timestamp.from(Instant.now())));
     } catch (Exception exception) {
       throw new DaoException("Unable to update responses of the questions for the user", exception);
     }
@@ -116,20 +197,79 @@ public class JdbcUserResponseDao implements UserResponseDao {
    * @throws IllegalArgumentException if any given argument is invalid
    */
   @Override
-  public List<UserResponse> findResponsesOfUserByUserIdAndQuestionIds(Long userId, List<Long> questionsIds) {
+  public List<UserResponse> findResponsesOfUserByUserIdAndQuestionIds(long userId, LongList questionsIds) {
+
+    Assert.isTrue(questionsIds != null && !questionsIds.isEmpty(), "Questions ids cannot be null or empty");
+
+    try {
+      return jdbcTemplate.query(SELECT_USER_RESPONSES_FOR_QUESTIONS.getSql(questionsIds.size()), ps -> {
+        ps.setLong(1, userId);
+        InClauseStatement.bind(ps, 2, questionsIds);
+      }, MAPPER);
+    } catch (Exception exception) {
+      throw new DaoException("Unable to find responses of the user for the questions", exception);
+    }
+  }
+
+  /**
+   * Find the keys of the responses of the users, without reading their contents
+   *
+   * @param usersIds ids of the users
+   * @return the keys of the existing responses
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  @Override
+  public Set<UserResponseKey> findResponsesKeysByUsersIds(LongList usersIds) {
 
+    Assert.isTrue(usersIds != null && !usersIds.isEmpty(), "Ids of the users cannot be null or empty");
+
+    try {
+      Set<UserResponseKey> keys = new HashSet<>();
+      jdbcTemplate.query(SELECT_USER_RESPONSES_KEYS_FOR_USERS.getSql(usersIds.size()),
+          ps -> InClauseStatement.bind(ps, 1, usersIds),
+          rs -> {
+            keys.add(new UserResponseKey(rs.getLong("user_id"), rs.getLong("question_id")));
+          });
+      return keys;
+    } catch (Exception exception) {
+      throw new DaoException("Unable to find the responses of the users", exception);
+    }
+  }
+
+  /**
+   * Find the responses changed after the provided position ordered by update time then user and question
+   *
+   * @param updatedAt  update time of the last response already read
+   * @param userId     user id of the last response already read
+   * @param questionId question id of the last response already read
+   * @param upperBound responses updated after this time are not returned
+   * @param limit      maximum number of the returned responses
+   * @return list of responses
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  @Override
+  public List<UserResponse> findResponsesChangedAfter(Instant updatedAt, Long userId, Long questionId,
+                                                      Instant upperBound, int limit) {
+
+    Assert.notNull(updatedAt, "Update time cannot be null");
     Assert.notNull(userId, "User id cannot be null");
-    Assert.notEmpty(questionsIds, "Questions ids cannot be null or empty");
-    questionsIds.forEach(questionId -> Assert.notNull(questionId, "Id of the question cannot be null"));
+    Assert.notNull(questionId, "Question id cannot be null");
+    Assert.notNull(upperBound, "Upper bound cannot be null");
+    Assert.isTrue(limit > 0, "Limit must be positive");
 
     MapSqlParameterSource parameters = new MapSqlParameterSource();
-    parameters.addValue("question_ids", questionsIds);
+    parameters.addValue("updated_at", Timestamp.from(updatedAt));
     parameters.addValue("user_id", userId);
+    parameters.addValue("question_id", questionId);
+    parameters.addValue("upper_bound", Timestamp.from(upperBound));
+    parameters.addValue("limit", limit);
 
     try {
-      return parameterJdbcTemplate.query(SELECT_USER_RESPONSES_FOR_QUESTIONS, parameters, mapper);
+      return parameterJdbcTemplate.query(SELECT_USER_RESPONSES_CHANGED_AFTER, parameters, MAPPER);
     } catch (Exception exception) {
-      throw new DaoException("Unable to find responses of the user for the questions", exception);
+      throw new DaoException("Unable to find the changed responses", exception);
     }
   }
 
@@ -138,9 +278,13 @@ public class JdbcUserResponseDao implements UserResponseDao {
    * of the user responses will be executed
    *
    * @param userResponses list of the user responses
+   * @param valueIds      ids of the contents in the dictionary by response or null if the contents are stored as text
+   * @param now           creation and update time of the responses
    * @return an instance of {@link BatchPreparedStatementSetter}
    */
-  private BatchPreparedStatementSetter userResponseBatchPreparedStatementSetter(List<UserResponse> userResponses) {
+  private BatchPreparedStatementSetter insertBatchPreparedStatementSetter(List<UserResponse> userResponses,
+                                                                          Long[] valueIds,
+                                                                          Timestamp now) {
     return new BatchPreparedStatementSetter() {
       @Override
       public void setValues(PreparedStatement ps, int i) throws SQLException {
@@ -153,9 +297,11 @@ public class JdbcUserResponseDao implements UserResponseDao {
         Assert.notNull(questionId, "Question id in the user response entity cannot be null");
         Assert.notNull(userId, "User id in the user response entity cannot be null");
 
-        ps.setString(1, userResponse.getContent());
-        ps.setLong(2, userId);
-        ps.setLong(3, questionId);
+        setContent(ps, 1, userResponse.getContent(), valueIds == null ? null : valueIds[i]);
+        ps.setLong(3, userId);
+        ps.setLong(4, questionId);
+        ps.setTimestamp(5, now);
+        ps.setTimestamp(6, now);
       }
 
       @Override
@@ -165,4 +311,158 @@ public class JdbcUserResponseDao implements UserResponseDao {
     };
   }
 
+  /**
+   * Batch update callback defines the way that the batch update
+   * of the user responses will be executed
+   *
+   * @param userResponses list of the user responses
+   * @param valueIds      ids of the contents in the dictionary by response or null if the contents are stored as text
+   * @param now           update time of the responses
+   * @return an instance of {@link BatchPreparedStatementSetter}
+   */
+  private BatchPreparedStatementSetter updateBatchPreparedStatementSetter(List<UserResponse> userResponses,
+                                                                          Long[] valueIds,
+                                                                          Timestamp now) {
+    return new BatchPreparedStatementSetter() {
+      @Override
+      public void setValues(PreparedStatement ps, int i) throws SQLException {
+        UserResponse userResponse = userResponses.get(i);
+        Assert.notNull(userResponse, "User response cannot be null");
+
+        Long questionId = userResponse.getQuestionId();
+        Long userId = userResponse.getUserId();
+
+        Assert.notNull(questionId, "Question id in the user response entity cannot be null");
+        Assert.notNull(userId, "User id in the user response entity cannot be null");
+        Assert.notNull(userResponse.getVersion(), "Version of the user response entity cannot be null");
+
+        setContent(ps, 1, userResponse.getContent(), valueIds == null ? null : valueIds[i]);
+        ps.setTimestamp(3, now);
+        ps.setLong(4, userId);
+        ps.setLong(5, questionId);
+        ps.setLong(6, userResponse.getVersion());
+      }
+
+      @Override
+      public int getBatchSize() {
+        return userResponses.size();
+      }
+    };
+  }
+
+  /**
+   * Increment the number of the answered questions of each user by subject
+   * <p>
+   * The questions are counted by subject so one row is written per subject whatever the number
+   * of the responses
+   *
+   * @param userResponses the added responses
+   */
+  private void incrementProgress(List<UserResponse> userResponses) {
+    Map<Long, LongList> questionsIdsByUser = new LinkedHashMap<>();
+    userResponses.forEach(userResponse -> questionsIdsByUser
+        .computeIfAbsent(userResponse.getUserId(), userId -> new LongList(userResponses.size()))
+        .add(userResponse.getQuestionId()));
+
+    questionsIdsByUser.forEach((userId, questionsIds) -> {
+      List<long[]> increments = new ArrayList<>();
+      jdbcTemplate.query(COUNT_QUESTIONS_BY_SUBJECT.getSql(questionsIds.size()),
+          ps -> InClauseStatement.bind(ps, 1, questionsIds),
+          rs -> {
+            increments.add(new long[]{rs.getLong("subject_id"), rs.getLong("questions")});
+          });
+      if (increments.isEmpty()) {
+        return;
+      }
+
+      int[] updated = jdbcTemplate.batchUpdate(INCREMENT_PROGRESS, increments, increments.size(),
+          (ps, increment) -> {
+            ps.setLong(1, increment[1]);
+            ps.setLong(2, userId);
+            ps.setLong(3, increment[0]);
+          })[0];
+
+      for (int i = 0; i < updated.length; i++) {
+        if (updated[i] == 0) {
+          insertProgress(userId, increments.get(i));
+        }
+      }
+    });
+  }
+
+  /**
+   * Insert the first progress of the user in a subject, a progress inserted concurrently by another
+   * request is incremented instead
+   */
+  private void insertProgress(long userId, long[] increment) {
+    jdbcTemplate.update(MERGE_PROGRESS, userId, increment[0], increment[1]);
+  }
+
+  private static Instant toInstant(Timestamp timestamp) {
+    return timestamp == null ? null : timestamp.toInstant();
+  }
+
+  /**
+   * Encode the contents of the responses to the choice and range questions when the dictionary storage is enabled
+   *
+   * @param userResponses the responses to write
+   * @return ids of the contents in the dictionary by index of the response, null for a content stored as text,
+   * or null if the dictionary storage is disabled
+   */
+  private Long[] resolveValueIds(List<UserResponse> userResponses) {
+    if (!dictionaryEnabled) {
+      return null;
+    }
+
+    LongList questionsIds = new LongList(userResponses.size());
+    userResponses.forEach(userResponse -> questionsIds.add(userResponse.getQuestionId()));
+    LongList encodedQuestionsIds = new LongList(questionsIds.size());
+    jdbcTemplate.query(SELECT_ENCODED_QUESTIONS.getSql(questionsIds.size()),
+        ps -> InClauseStatement.bind(ps, 1, questionsIds),
+        rs -> {
+          encodedQuestionsIds.add(rs.getLong("id"));
+        });
+    encodedQuestionsIds.sortDistinct();
+
+    Long[] valueIds = new Long[userResponses.size()];
+    if (encodedQuestionsIds.isEmpty()) {
+      return valueIds;
+    }
+    Map<String, Long> idsByContent = dictionary.resolveIds(userResponses.stream()
+        .filter(userResponse -> encodedQuestionsIds.containsSorted(userResponse.getQuestionId()))
+        .map(UserResponse::getContent)
+        .collect(Collectors.toSet()));
+    for (int i = 0; i < valueIds.length; i++) {
+      UserResponse userResponse = userResponses.get(i);
+      if (encodedQuestionsIds.containsSorted(userResponse.getQuestionId())) {
+        valueIds[i] = idsByContent.get(userResponse.getContent());
+        if (valueIds[i] == null) {
+          throw new IllegalStateException("The content of the response was not added to the dictionary");
+        }
+      }
+    }
+    return valueIds;
+  }
+
+  /**
+   * Bind the content as text or as the id of its value in the dictionary,
+   * the other column is set to null
+   *
+   * @param ps      the statement
+   * @param index   index of the content parameter, the id of the value is the next one
+   * @param content content of the response
+   * @param valueId id of the content in the dictionary or null if the content is stored as text
+   * @throws SQLException if a parameter cannot be set
+   */
+  private static void setContent(PreparedStatement ps, int index, String content, Long valueId)
+      throws SQLException {
+    if (valueId == null) {
+      ps.setString(index, content);
+      ps.setNull(index + 1, Types.BIGINT);
+    } else {
+      ps.setNull(index, Types.VARCHAR);
+      ps.setLong(index + 1, valueId);
+    }
+  }
+
 }
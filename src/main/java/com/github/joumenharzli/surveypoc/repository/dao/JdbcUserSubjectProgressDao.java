@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.dao;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.github.joumenharzli.surveypoc.domain.Subject;
+import com.github.joumenharzli.surveypoc.domain.User;
+import com.github.joumenharzli.surveypoc.domain.UserSubjectProgress;
+
+/**
+ * JDBC implementation for {@link UserSubjectProgressDao}
+ * <p>
+ * The progress of a user is read from the primary key of {@code user_subject_progress} without joining
+ * the responses, only the rebuild counts the responses.
+ *
+ * @author Joumen Harzli
+ */
+@Repository
+public class JdbcUserSubjectProgressDao implements UserSubjectProgressDao {
+
+  private static final String SELECT_PROGRESS_OF_USER = "SELECT p.user_id AS user_id, p.subject_id AS subject_id, " +
+      "p.answered_questions AS answered_questions FROM user_subject_progress AS p WHERE p.user_id = ? " +
+      "ORDER BY p.subject_id";
+
+  private static final String SELECT_LAST_USER_ID_OF_BATCH = "SELECT MAX(u.id) FROM " +
+      "(SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?) AS u";
+
+  /* the stored and the counted progresses are read by one statement so they are consistent with each other */
+  private static final String SELECT_DIFFERING_PROGRESS = "SELECT d.user_id AS user_id, " +
+      "d.subject_id AS subject_id, SUM(d.stored) AS stored, SUM(d.counted) AS counted FROM (" +
+      "SELECT p.user_id AS user_id, p.subject_id AS subject_id, p.answered_questions AS stored, 0 AS counted " +
+      "FROM user_subject_progress AS p WHERE p.user_id > ? AND p.user_id <= ? " +
+      "UNION ALL SELECT ur.user_id AS user_id, q.subject_id AS subject_id, 0 AS stored, COUNT(*) AS counted " +
+      "FROM user_responses AS ur INNER JOIN questions AS q ON q.id = ur.question_id " +
+      "WHERE ur.user_id > ? AND ur.user_id <= ? GROUP BY ur.user_id, q.subject_id) AS d " +
+      "GROUP BY d.user_id, d.subject_id HAVING SUM(d.stored) <> SUM(d.counted)";
+
+  private static final String ADD_TO_PROGRESS = "UPDATE user_subject_progress " +
+      "SET answered_questions = answered_questions + ? WHERE user_id = ? AND subject_id = ?";
+
+  private static final String INSERT_PROGRESS = "INSERT INTO user_subject_progress " +
+      "(user_id, subject_id, answered_questions) VALUES (?, ?, ?)";
+
+  private static final String DELETE_EMPTY_PROGRESS = "DELETE FROM user_subject_progress " +
+      "WHERE user_id = ? AND subject_id = ? AND answered_questions = 0";
+
+  private static final RowMapper<UserSubjectProgress> MAPPER = (resultSet, rowNum) -> new UserSubjectProgress()
+      .user(new User().id(resultSet.getLong("user_id")))
+      .subject(new Subject().id(resultSet.getLong("subject_id")))
+      .answeredQuestions(resultSet.getInt("answered_questions"));
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public JdbcUserSubjectProgressDao(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Find the progress of the user in the subjects where at least one question was answered
+   *
+   * @param userId id of the user
+   * @return the progress of the user ordered by subject
+   * @throws DaoException if there is an sql exception
+   */
+  @Override
+  public List<UserSubjectProgress> findProgressOfUser(long userId) {
+    try {
+      return jdbcTemplate.query(SELECT_PROGRESS_OF_USER, MAPPER, userId);
+    } catch (Exception exception) {
+      throw new DaoException("Unable to find the progress of the user", exception);
+    }
+  }
+
+  /**
+   * Find the greatest id of the next users in the order of their ids
+   *
+   * @param afterUserId the id after which the users are searched
+   * @param batchSize   maximum number of users in the batch
+   * @return the id of the last user of the batch or null if there is no user after the given id
+   * @throws DaoException if there is an sql exception
+   */
+  @Override
+  public Long findLastUserIdOfBatch(long afterUserId, int batchSize) {
+    try {
+      return jdbcTemplate.queryForObject(SELECT_LAST_USER_ID_OF_BATCH, Long.class, afterUserId, batchSize);
+    } catch (Exception exception) {
+      throw new DaoException("Unable to find the next batch of users", exception);
+    }
+  }
+
+  /**
+   * Recompute the progress of the users whose id is in the range from their responses and correct the rows
+   * that differ
+   * <p>
+   * A row is corrected by adding the difference between the counted and the stored progress instead of
+   * overwriting it, so an increment committed by a write after the progress was counted is kept. A row
+   * missing while the user has responses is inserted, a row left without responses is deleted.
+   *
+   * @param afterUserId the id after which the users are rebuilt
+   * @param lastUserId  the id of the last user rebuilt
+   * @return the number of the rows corrected, added or removed
+   * @throws DaoException if there is an sql exception
+   */
+  @Override
+  public int rebuildProgressOfUsers(long afterUserId, long lastUserId) {
+    try {
+      List<long[]> differences = jdbcTemplate.query(SELECT_DIFFERING_PROGRESS, (resultSet, rowNum) ->
+              new long[]{resultSet.getLong("user_id"), resultSet.getLong("subject_id"),
+                  resultSet.getLong("stored"), resultSet.getLong("counted")},
+          afterUserId, lastUserId, afterUserId, lastUserId);
+
+      for (long[] difference : differences) {
+        correctProgress(difference[0], difference[1], difference[3] - difference[2], difference[3] == 0);
+      }
+      return differences.size();
+    } catch (Exception exception) {
+      throw new DaoException("Unable to rebuild the progress of the users", exception);
+    }
+  }
+
+  private void correctProgress(long userId, long subjectId, long delta, boolean withoutResponses) {
+    if (jdbcTemplate.update(ADD_TO_PROGRESS, delta, userId, subjectId) == 0) {
+      /* the stored progress was missing, a write racing on the same key fails the insert and the next
+       * rebuild corrects the row */
+      jdbcTemplate.update(INSERT_PROGRESS, userId, subjectId, delta);
+    } else if (withoutResponses) {
+      jdbcTemplate.update(DELETE_EMPTY_PROGRESS, userId, subjectId);
+    }
+  }
+
+}
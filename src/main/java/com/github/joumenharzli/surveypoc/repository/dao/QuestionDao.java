@@ -18,6 +18,7 @@ package com.github.joumenharzli.surveypoc.repository.dao;
 import java.util.List;
 
 import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.util.LongList;
 
 /**
  * Question dao
@@ -42,5 +43,23 @@ public interface QuestionDao {
    * @throws DaoException             if there is an sql exception
    * @throws IllegalArgumentException if any given argument is invalid
    */
-  List<Long> findNonExistingQuestionsByQuestionsIds(List<Long> questionsIds);
+  LongList findNonExistingQuestionsByQuestionsIds(LongList questionsIds);
+
+  /**
+   * Find the definitions of the questions used to validate their answers
+   *
+   * @param questionsIds ids of the questions
+   * @return the found questions with their type, bounds, pattern and choices
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  List<Question> findQuestionsDefinitionsByQuestionsIds(LongList questionsIds);
+
+  /**
+   * Find the definitions of all the questions
+   *
+   * @return the questions with their type, bounds, pattern and choices ordered by id
+   * @throws DaoException if there is an sql exception
+   */
+  List<Question> findAllQuestionsDefinitions();
 }
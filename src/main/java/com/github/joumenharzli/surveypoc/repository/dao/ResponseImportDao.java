@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.dao;
+
+import com.github.joumenharzli.surveypoc.domain.ResponseImport;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+/**
+ * Response Import Dao
+ * <p>
+ * A chunk is recorded in the same transaction as its responses so an interrupted import
+ * is resumed without importing a chunk twice
+ *
+ * @author Joumen Harzli
+ */
+public interface ResponseImportDao {
+
+  /**
+   * Find an import and the totals of its imported chunks
+   *
+   * @param importId id of the import
+   * @return the import or null if it was not found
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  ResponseImport findImportById(String importId);
+
+  /**
+   * Add a new import
+   *
+   * @param responseImport the import to add
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  void addImport(ResponseImport responseImport);
+
+  /**
+   * Find the indexes of the chunks of the import already imported
+   *
+   * @param importId id of the import
+   * @return the indexes of the imported chunks
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  LongList findCompletedChunksOfImport(String importId);
+
+  /**
+   * Record an imported chunk
+   *
+   * @param importId   id of the import
+   * @param chunkIndex index of the chunk in the imported file
+   * @param imported   number of the imported responses of the chunk
+   * @param rejected   number of the rejected lines of the chunk
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  void addCompletedChunk(String importId, long chunkIndex, int imported, int rejected);
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.dao;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache of the ids of the response contents stored in {@code response_values}
+ * <p>
+ * The values are never updated nor deleted so a cached entry never becomes stale. Only the answers of
+ * the choice and range questions are stored here, the number of the cached values is still bounded and
+ * the least recently used values are evicted and read again from the database when needed. The contents are decoded by
+ * joining {@code response_values} in the queries of the responses.
+ * <p>
+ * Inside a transaction the values are cached only once it is committed, the values read or inserted
+ * by a transaction that is rolled back may not exist.
+ *
+ * @author Joumen Harzli
+ */
+class ResponseValueDictionary {
+
+  private static final String SELECT_VALUES_BY_CONTENTS = "SELECT id, content FROM response_values " +
+      "WHERE content IN (:contents)";
+  /* H2 MERGE: inserts the content only when it is missing, a value committed by another request between
+   * the select and this statement is reused instead of violating uk_response_values_content */
+  private static final String MERGE_VALUE = "MERGE INTO response_values (content) KEY (content) VALUES (?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate parameterJdbcTemplate;
+  private final Map<String, Long> idsByContent;
+
+  ResponseValueDictionary(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate parameterJdbcTemplate,
+                          int maxCachedValues) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.parameterJdbcTemplate = parameterJdbcTemplate;
+    this.idsByContent = Collections.synchronizedMap(new LinkedHashMap<String, Long>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+        return size() > maxCachedValues;
+      }
+    });
+  }
+
+  /**
+   * Find the ids of the contents, the contents that are not in the dictionary yet are added
+   *
+   * @param contents the contents to encode
+   * @return the ids of the values by content
+   */
+  Map<String, Long> resolveIds(Collection<String> contents) {
+    Map<String, Long> ids = new HashMap<>();
+    Set<String> missingContents = new HashSet<>();
+
+    contents.forEach(content -> {
+      Long id = idsByContent.get(content);
+      if (id != null) {
+        ids.put(content, id);
+      } else {
+        missingContents.add(content);
+      }
+    });
+
+    if (missingContents.isEmpty()) {
+      return ids;
+    }
+
+    selectIds(missingContents, ids);
+    missingContents.removeAll(ids.keySet());
+
+    if (!missingContents.isEmpty()) {
+      mergeValues(missingContents);
+      selectIds(missingContents, ids);
+    }
+
+    return ids;
+  }
+
+  private void selectIds(Set<String> contents, Map<String, Long> ids) {
+    Map<String, Long> selectedIds = new HashMap<>();
+    MapSqlParameterSource parameters = new MapSqlParameterSource("contents", contents);
+    parameterJdbcTemplate.query(SELECT_VALUES_BY_CONTENTS, parameters, resultSet -> {
+      selectedIds.put(resultSet.getString("content"), resultSet.getLong("id"));
+    });
+
+    ids.putAll(selectedIds);
+    cacheWhenCommitted(selectedIds);
+  }
+
+  /**
+   * Add the values, the values added concurrently by another request are kept
+   */
+  private void mergeValues(Set<String> contents) {
+    jdbcTemplate.batchUpdate(MERGE_VALUE, contents, contents.size(),
+        (ps, content) -> ps.setString(1, content));
+  }
+
+  private void cacheWhenCommitted(Map<String, Long> ids) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      idsByContent.putAll(ids);
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      @Override
+      public void afterCommit() {
+        idsByContent.putAll(ids);
+      }
+    });
+  }
+}
@@ -15,7 +15,7 @@
 
 package com.github.joumenharzli.surveypoc.repository.dao;
 
-import java.util.List;
+import com.github.joumenharzli.surveypoc.util.LongList;
 
 /**
  * User Dao
@@ -32,5 +32,5 @@ public interface UserDao {
    * @throws DaoException             if there is an sql exception
    * @throws IllegalArgumentException if any given argument is invalid
    */
-  List<Long> findNonExistingUsersByUsersIds(List<Long> usersIds);
+  LongList findNonExistingUsersByUsersIds(LongList usersIds);
 }
@@ -15,9 +15,13 @@
 
 package com.github.joumenharzli.surveypoc.repository.dao;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 
 import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.domain.UserResponseKey;
+import com.github.joumenharzli.surveypoc.util.LongList;
 
 /**
  * User Response Dao
@@ -31,13 +35,17 @@ public interface UserResponseDao {
    *
    * @param userResponses entities to save
    * @return an array of the number of rows affected by each statement
-   * @throws DaoException             if there is an sql exception
-   * @throws IllegalArgumentException if any given argument is invalid
+   * @throws DuplicateResponseException if a response already exists
+   * @throws DaoException               if there is an sql exception
+   * @throws IllegalArgumentException   if any given argument is invalid
    */
   int[] addUserResponses(List<UserResponse> userResponses);
 
   /**
    * Update responses of the user
+   * <p>
+   * A response is updated only if its version in the database is still the version of the entity,
+   * the update count of a response modified concurrently is zero
    *
    * @param userResponses entities to save
    * @return an array of the number of rows affected by each statement
@@ -55,5 +63,30 @@ public interface UserResponseDao {
    * @throws DaoException             if there is an sql exception
    * @throws IllegalArgumentException if any given argument is invalid
    */
-  List<UserResponse> findResponsesOfUserByUserIdAndQuestionIds(Long userId, List<Long> questionsIds);
+  List<UserResponse> findResponsesOfUserByUserIdAndQuestionIds(long userId, LongList questionsIds);
+
+  /**
+   * Find the keys of the responses of the users, without reading their contents
+   *
+   * @param usersIds ids of the users
+   * @return the keys of the existing responses
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  Set<UserResponseKey> findResponsesKeysByUsersIds(LongList usersIds);
+
+  /**
+   * Find the responses changed after the provided position ordered by update time then user and question
+   *
+   * @param updatedAt  update time of the last response already read
+   * @param userId     user id of the last response already read
+   * @param questionId question id of the last response already read
+   * @param upperBound responses updated after this time are not returned
+   * @param limit      maximum number of the returned responses
+   * @return list of responses
+   * @throws DaoException             if there is an sql exception
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  List<UserResponse> findResponsesChangedAfter(Instant updatedAt, Long userId, Long questionId,
+                                               Instant upperBound, int limit);
 }
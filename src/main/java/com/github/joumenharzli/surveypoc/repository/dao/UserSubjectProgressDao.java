@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.dao;
+
+import java.util.List;
+
+import com.github.joumenharzli.surveypoc.domain.UserSubjectProgress;
+
+/**
+ * User Subject Progress Dao
+ * <p>
+ * The progress is incremented by {@link UserResponseDao#addUserResponses(List)} in the same transaction
+ * as the responses
+ *
+ * @author Joumen Harzli
+ */
+public interface UserSubjectProgressDao {
+
+  /**
+   * Find the progress of the user in the subjects where at least one question was answered
+   *
+   * @param userId id of the user
+   * @return the progress of the user ordered by subject
+   * @throws DaoException if there is an sql exception
+   */
+  List<UserSubjectProgress> findProgressOfUser(long userId);
+
+  /**
+   * Find the greatest id of the next users in the order of their ids
+   *
+   * @param afterUserId the id after which the users are searched
+   * @param batchSize   maximum number of users in the batch
+   * @return the id of the last user of the batch or null if there is no user after the given id
+   * @throws DaoException if there is an sql exception
+   */
+  Long findLastUserIdOfBatch(long afterUserId, int batchSize);
+
+  /**
+   * Recompute the progress of the users whose id is in the range from their responses and correct the rows
+   * that differ
+   *
+   * @param afterUserId the id after which the users are rebuilt
+   * @param lastUserId  the id of the last user rebuilt
+   * @return the number of the rows corrected, added or removed
+   * @throws DaoException if there is an sql exception
+   */
+  int rebuildProgressOfUsers(long afterUserId, long lastUserId);
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.util.Assert;
+
+/**
+ * A concurrency limiter that adjusts the number of the allowed in flight calls using the measured latency
+ * <p>
+ * The algorithm is a gradient one: like in TCP Vegas the lowest latency measured is used as the latency
+ * of the database without load, then the latency averaged over a window of samples is compared with it.
+ * While the latency stays near the no load latency the limit grows by a small queue allowance, when the
+ * latency increases because the calls start queueing in the database the limit shrinks proportionally to
+ * the ratio between the two latencies. The no load latency slowly drifts up so a database that became
+ * slower permanently is learned again. A call dropped by the database shrinks the limit by the largest
+ * allowed step.
+ * <p>
+ * Acquiring a permit is lock-free, only the recording of the samples is synchronized
+ *
+ * @author Joumen Harzli
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private static final double MIN_GRADIENT = 0.5;
+  private static final double NO_LOAD_RTT_DRIFT = 1.01;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double rttTolerance;
+  private final double smoothing;
+  private final int windowSize;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile double limit;
+
+  private double noLoadRttNanos;
+  private long windowRttSumNanos;
+  private int windowSamples;
+  private int windowMaxInFlight;
+
+  /**
+   * Constructor for the adaptive limiter
+   *
+   * @param initialLimit number of the allowed in flight calls before any sample is measured
+   * @param minLimit     lower bound of the limit
+   * @param maxLimit     upper bound of the limit
+   * @param rttTolerance ratio of latency increase over the no load latency that is tolerated before shrinking
+   *                     the limit
+   * @param smoothing    weight of a new limit compared to the current one between 0 and 1
+   * @param windowSize   number of samples averaged before the limit is recomputed
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double rttTolerance,
+                                    double smoothing, int windowSize) {
+    Assert.isTrue(minLimit > 0, "Minimum limit must be positive");
+    Assert.isTrue(maxLimit >= minLimit, "Maximum limit cannot be lower than the minimum limit");
+    Assert.isTrue(initialLimit >= minLimit && initialLimit <= maxLimit, "Initial limit must be between the bounds");
+    Assert.isTrue(rttTolerance >= 1, "Latency tolerance cannot be lower than 1");
+    Assert.isTrue(smoothing > 0 && smoothing <= 1, "Smoothing must be between 0 and 1");
+    Assert.isTrue(windowSize > 0, "Size of the window must be positive");
+
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.rttTolerance = rttTolerance;
+    this.smoothing = smoothing;
+    this.windowSize = windowSize;
+    this.limit = initialLimit;
+  }
+
+  /**
+   * Try to get a permit for a call
+   *
+   * @return the number of calls in flight including this one if the permit was acquired, zero otherwise.
+   * An acquired permit must be released using {@link #release(long, int)}
+   */
+  public int tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= (int) limit) {
+        return 0;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return current + 1;
+      }
+    }
+  }
+
+  /**
+   * Release a permit and record the latency of the call
+   *
+   * @param rttNanos      duration of the call in nanoseconds
+   * @param inFlightCalls the value returned by {@link #tryAcquire()} for this call
+   */
+  public void release(long rttNanos, int inFlightCalls) {
+    inFlight.decrementAndGet();
+    onSample(rttNanos, inFlightCalls);
+  }
+
+  /**
+   * Release a permit without recording any latency, used when the call failed for a reason
+   * unrelated to the load of the database
+   */
+  public void release() {
+    inFlight.decrementAndGet();
+  }
+
+  /**
+   * Release a permit of a call dropped by the database, like a timeout, and shrink the limit as if the
+   * latency had exceeded the tolerance. A dropped call has no latency that could be compared with the others.
+   */
+  public void releaseDropped() {
+    inFlight.decrementAndGet();
+    onDrop();
+  }
+
+  private synchronized void onDrop() {
+    double currentLimit = limit;
+    double newLimit = currentLimit * (1 - smoothing) + currentLimit * MIN_GRADIENT * smoothing;
+    limit = Math.max(minLimit, newLimit);
+  }
+
+  private synchronized void onSample(long rttNanos, int inFlightCalls) {
+    if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos) {
+      noLoadRttNanos = rttNanos;
+    }
+
+    windowRttSumNanos += rttNanos;
+    windowSamples++;
+    windowMaxInFlight = Math.max(windowMaxInFlight, inFlightCalls);
+
+    if (windowSamples < windowSize) {
+      return;
+    }
+
+    double shortRtt = (double) windowRttSumNanos / windowSamples;
+    int maxInFlight = windowMaxInFlight;
+
+    windowRttSumNanos = 0;
+    windowSamples = 0;
+    windowMaxInFlight = 0;
+
+    updateLimit(shortRtt, maxInFlight);
+    noLoadRttNanos *= NO_LOAD_RTT_DRIFT;
+  }
+
+  private void updateLimit(double shortRtt, int maxInFlight) {
+    double currentLimit = limit;
+    double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * noLoadRttNanos / shortRtt));
+
+    /* a limit that was not used cannot be validated so it is not increased */
+    if (gradient == 1.0 && maxInFlight < currentLimit / 2) {
+      return;
+    }
+
+    double queueAllowance = Math.sqrt(currentLimit);
+    double newLimit = currentLimit * gradient + queueAllowance;
+
+    newLimit = currentLimit * (1 - smoothing) + newLimit * smoothing;
+    limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+  }
+
+  /**
+   * @return the current limit of the in flight calls
+   */
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  /**
+   * @return the number of the calls in flight
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+}
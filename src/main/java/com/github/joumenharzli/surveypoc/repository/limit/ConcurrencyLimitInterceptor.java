@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.limit;
+
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import com.codahale.metrics.Meter;
+import com.github.joumenharzli.surveypoc.repository.dao.DaoOverloadedException;
+
+/**
+ * Interceptor that executes the dao calls under an {@link AdaptiveConcurrencyLimiter}
+ * <p>
+ * The latency of the succeeded calls is recorded, the calls that timed out are recorded as dropped so the limit
+ * shrinks when a degraded database stops answering
+ *
+ * @author Joumen Harzli
+ */
+public class ConcurrencyLimitInterceptor implements MethodInterceptor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
+
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final Meter rejectedCalls;
+
+  public ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimiter limiter, Meter rejectedCalls) {
+    this.limiter = limiter;
+    this.rejectedCalls = rejectedCalls;
+  }
+
+  /**
+   * Execute the dao call if a permit is available otherwise reject it immediately
+   *
+   * @throws DaoOverloadedException if the limit of the in flight calls is reached
+   */
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    int inFlightCalls = limiter.tryAcquire();
+
+    if (inFlightCalls == 0) {
+      rejectedCalls.mark();
+      LOGGER.debug("Dao call {} rejected because the limit {} is reached", invocation.getMethod().getName(),
+          limiter.getLimit());
+      throw new DaoOverloadedException(limiter.getInFlight());
+    }
+
+    long start = System.nanoTime();
+    Object result;
+    try {
+      result = invocation.proceed();
+    } catch (Throwable throwable) {
+      if (isDropped(throwable)) {
+        limiter.releaseDropped();
+      } else {
+        limiter.release();
+      }
+      throw throwable;
+    }
+    limiter.release(System.nanoTime() - start, inFlightCalls);
+    return result;
+  }
+
+  /**
+   * A call is dropped when the database or the pool did not answer in time, the other failures like
+   * the conflicts say nothing about the load
+   */
+  private static boolean isDropped(Throwable throwable) {
+    for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLTimeoutException || cause instanceof SQLTransientConnectionException ||
+          cause instanceof QueryTimeoutException || cause instanceof CannotGetJdbcConnectionException) {
+        return true;
+      }
+      if (cause.getCause() == cause) {
+        break;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.limit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Bean post processor that applies the {@link ConcurrencyLimitInterceptor} on all the beans
+ * annotated with {@link Repository}
+ * <p>
+ * Like the {@code PersistenceExceptionTranslationPostProcessor} the advisor is added to the existing proxy
+ * if the bean is already proxied. The interceptor is looked up on the first call so this post processor
+ * does not force the early initialization of the metrics and the properties
+ *
+ * @author Joumen Harzli
+ */
+public class DaoConcurrencyLimitPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+  public DaoConcurrencyLimitPostProcessor() {
+    setBeforeExistingAdvisors(true);
+  }
+
+  @Override
+  public void setBeanFactory(BeanFactory beanFactory) {
+    super.setBeanFactory(beanFactory);
+    this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Repository.class, true),
+        new LazyInterceptor(beanFactory));
+  }
+
+  private static class LazyInterceptor implements MethodInterceptor {
+
+    private final BeanFactory beanFactory;
+    private volatile MethodInterceptor delegate;
+
+    LazyInterceptor(BeanFactory beanFactory) {
+      this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+      MethodInterceptor interceptor = delegate;
+      if (interceptor == null) {
+        interceptor = beanFactory.getBean(ConcurrencyLimitInterceptor.class);
+        delegate = interceptor;
+      }
+      return interceptor.invoke(invocation);
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.repository.pool;
+
+/**
+ * Site that holds the connections obtained by the current thread
+ * <p>
+ * The site is the dao method being executed, the connections obtained outside of a dao
+ * are attributed by the post processor of the data source
+ *
+ * @author Joumen Harzli
+ */
+final class ConnectionHoldSite {
+
+  private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+  private ConnectionHoldSite() {
+  }
+
+  /**
+   * @param site the dao method entered
+   * @return the site of the caller to restore when the method exits
+   */
+  static String enter(String site) {
+    String previous = CURRENT.get();
+    CURRENT.set(site);
+    return previous;
+  }
+
+  static void restore(String previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+
+  /**
+   * @return the dao method executed by the current thread or null outside of a dao
+   */
+  static String current() {
+    return CURRENT.get();
+  }
+}
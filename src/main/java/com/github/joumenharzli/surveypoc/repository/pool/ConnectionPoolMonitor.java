@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.repository.pool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Periodic check of the saturation of the connection pool
+ * <p>
+ * The pool is saturated when the mean wait for a connection during the last interval exceeds the threshold,
+ * then a larger maximum size is recommended. When at most half of the connections were used at the same time
+ * a maximum size smaller by one is recommended. The recommendations stay within the bounds and are applied
+ * through {@link HikariConfigMXBean} only when the auto tuning is enabled. While the pool is saturated the
+ * connections obtained outside of a dao are attributed to their caller.
+ *
+ * @author Joumen Harzli
+ */
+public class ConnectionPoolMonitor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPoolMonitor.class);
+
+  private static final double GROWTH_FACTOR = 1.5;
+
+  private final HikariDataSource dataSource;
+  private final ConnectionPoolStatistics statistics;
+  private final ApplicationProperties.ConnectionPool properties;
+
+  private volatile ConnectionPoolSample lastSample;
+  private int lastRecommendedPoolSize;
+
+  public ConnectionPoolMonitor(HikariDataSource dataSource, ConnectionPoolStatistics statistics,
+                               ApplicationProperties applicationProperties) {
+    this.dataSource = dataSource;
+    this.statistics = statistics;
+    this.properties = applicationProperties.getConnectionPool();
+  }
+
+  /**
+   * Sample the pool, log the sites that held the connections and recommend or apply a new maximum size
+   */
+  public synchronized void check() {
+    HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+    if (pool == null) {
+      /* the pool is started by the first connection */
+      return;
+    }
+
+    HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+    ConnectionPoolStatistics.Interval interval = statistics.drain();
+
+    int maximumPoolSize = config.getMaximumPoolSize();
+    boolean saturated = interval.getMeanWaitMillis() > properties.getWaitThresholdMillis();
+    statistics.setCallerSitesCaptured(saturated);
+    int recommendedPoolSize = recommend(maximumPoolSize, saturated, interval.getPeakInUse());
+
+    ConnectionPoolSample sample = new ConnectionPoolSample(interval.getAcquisitions(), interval.getMeanWaitMillis(),
+        interval.getMaxWaitMillis(), interval.getPeakInUse(), pool.getActiveConnections(),
+        pool.getTotalConnections(), pool.getThreadsAwaitingConnection(), maximumPoolSize, recommendedPoolSize,
+        saturated);
+    lastSample = sample;
+
+    if (saturated) {
+      LOGGER.warn("The connection pool is saturated: {}", sample);
+      interval.getHolds().stream().limit(properties.getMaxHotSpots()).forEach(hold -> LOGGER.warn("{}", hold));
+    } else {
+      LOGGER.debug("Connection pool: {}", sample);
+      interval.getHolds().stream().limit(properties.getMaxHotSpots()).forEach(hold -> LOGGER.debug("{}", hold));
+    }
+
+    if (recommendedPoolSize != maximumPoolSize) {
+      resize(config, maximumPoolSize, recommendedPoolSize);
+    }
+  }
+
+  /**
+   * @return the last sample of the pool or null if the pool was not sampled yet
+   */
+  public ConnectionPoolSample getLastSample() {
+    return lastSample;
+  }
+
+  private void resize(HikariConfigMXBean config, int maximumPoolSize, int recommendedPoolSize) {
+    if (properties.isAutoTune()) {
+      config.setMaximumPoolSize(recommendedPoolSize);
+      LOGGER.info("Maximum size of the connection pool changed from {} to {}", maximumPoolSize,
+          recommendedPoolSize);
+    } else if (recommendedPoolSize != lastRecommendedPoolSize) {
+      LOGGER.info("Recommended maximum size of the connection pool is {} instead of {}", recommendedPoolSize,
+          maximumPoolSize);
+    }
+    lastRecommendedPoolSize = recommendedPoolSize;
+  }
+
+  private int recommend(int maximumPoolSize, boolean saturated, int peakInUse) {
+    int recommendedPoolSize = maximumPoolSize;
+    if (saturated) {
+      recommendedPoolSize = Math.max(maximumPoolSize + 1, (int) Math.ceil(maximumPoolSize * GROWTH_FACTOR));
+    } else if (peakInUse * 2 <= maximumPoolSize) {
+      recommendedPoolSize = maximumPoolSize - 1;
+    }
+    return Math.max(properties.getMinPoolSize(), Math.min(properties.getMaxPoolSize(), recommendedPoolSize));
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.repository.pool;
+
+import java.util.Locale;
+
+/**
+ * State of the connection pool sampled at the end of an interval
+ *
+ * @author Joumen Harzli
+ */
+public final class ConnectionPoolSample {
+
+  private final long acquisitions;
+  private final double meanWaitMillis;
+  private final double maxWaitMillis;
+  private final int peakInUse;
+  private final int activeConnections;
+  private final int totalConnections;
+  private final int pendingThreads;
+  private final int maximumPoolSize;
+  private final int recommendedPoolSize;
+  private final boolean saturated;
+
+  ConnectionPoolSample(long acquisitions, double meanWaitMillis, double maxWaitMillis, int peakInUse,
+                       int activeConnections, int totalConnections, int pendingThreads, int maximumPoolSize,
+                       int recommendedPoolSize, boolean saturated) {
+    this.acquisitions = acquisitions;
+    this.meanWaitMillis = meanWaitMillis;
+    this.maxWaitMillis = maxWaitMillis;
+    this.peakInUse = peakInUse;
+    this.activeConnections = activeConnections;
+    this.totalConnections = totalConnections;
+    this.pendingThreads = pendingThreads;
+    this.maximumPoolSize = maximumPoolSize;
+    this.recommendedPoolSize = recommendedPoolSize;
+    this.saturated = saturated;
+  }
+
+  public long getAcquisitions() {
+    return acquisitions;
+  }
+
+  public double getMeanWaitMillis() {
+    return meanWaitMillis;
+  }
+
+  public double getMaxWaitMillis() {
+    return maxWaitMillis;
+  }
+
+  /**
+   * @return the maximum number of connections used at the same time during the interval
+   */
+  public int getPeakInUse() {
+    return peakInUse;
+  }
+
+  public int getActiveConnections() {
+    return activeConnections;
+  }
+
+  public int getTotalConnections() {
+    return totalConnections;
+  }
+
+  /**
+   * @return the number of threads waiting for a connection when the pool was sampled
+   */
+  public int getPendingThreads() {
+    return pendingThreads;
+  }
+
+  public int getMaximumPoolSize() {
+    return maximumPoolSize;
+  }
+
+  public int getRecommendedPoolSize() {
+    return recommendedPoolSize;
+  }
+
+  /**
+   * @return true if the mean wait for a connection exceeded the threshold during the interval
+   */
+  public boolean isSaturated() {
+    return saturated;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT, "%d acquisitions, mean wait %.2f ms, max wait %.2f ms, peak in use %d, " +
+            "active %d, total %d, pending %d, maximum %d, recommended %d", acquisitions, meanWaitMillis,
+        maxWaitMillis, peakInUse, activeConnections, totalConnections, pendingThreads, maximumPoolSize,
+        recommendedPoolSize);
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.repository.pool;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Waits for the connections of the pool and holds of the connections by site since the last drain
+ * <p>
+ * The number of the tracked sites is bounded, the holds whose site does not fit are attributed to {@link #OTHER}.
+ * The records made while the statistics are drained may be lost, they are only used for diagnostics.
+ * <p>
+ * The waits that failed, usually because of a timeout of the pool, are counted in the waits so a pool that cannot
+ * give connections anymore is seen as saturated.
+ *
+ * @author Joumen Harzli
+ */
+public class ConnectionPoolStatistics {
+
+  public static final String OTHER = "OTHER";
+
+  private static final int MAX_TRACKED_SITES = 1000;
+
+  private final AtomicInteger inUse = new AtomicInteger();
+  private final AtomicInteger peakInUse = new AtomicInteger();
+  private final LongAdder acquisitions = new LongAdder();
+  private final LongAdder failedAcquisitions = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+  private volatile Map<String, Hold> holds = new ConcurrentHashMap<>();
+  private volatile boolean callerSitesCaptured;
+
+  /**
+   * Record a wait for a connection of the pool
+   *
+   * @param waitNanos time spent waiting for the connection
+   * @param acquired  true if the connection was obtained, false if the wait failed
+   */
+  void waited(long waitNanos, boolean acquired) {
+    this.waitNanos.add(waitNanos);
+    maxWaitNanos.accumulate(waitNanos);
+
+    if (!acquired) {
+      failedAcquisitions.increment();
+      return;
+    }
+
+    acquisitions.increment();
+    int current = inUse.incrementAndGet();
+    peakInUse.accumulateAndGet(current, Math::max);
+  }
+
+  /**
+   * Record a connection given back to the pool
+   *
+   * @param site      the site that held the connection
+   * @param holdNanos time the connection was held
+   */
+  void released(String site, long holdNanos) {
+    inUse.decrementAndGet();
+
+    Map<String, Hold> currentHolds = holds;
+    Hold hold = currentHolds.get(site);
+    if (hold == null) {
+      hold = currentHolds.size() < MAX_TRACKED_SITES ?
+          currentHolds.computeIfAbsent(site, Hold::new) : currentHolds.computeIfAbsent(OTHER, Hold::new);
+    }
+    hold.add(holdNanos);
+  }
+
+  /**
+   * @return true if the connections obtained outside of a dao are attributed to their caller, false if they are
+   * attributed to {@link #OTHER} without walking the stack
+   */
+  boolean isCallerSitesCaptured() {
+    return callerSitesCaptured;
+  }
+
+  /**
+   * Enable or disable the attribution of the connections obtained outside of a dao to their caller,
+   * it is enabled only while the pool is saturated since the stack of the thread is walked for each connection
+   *
+   * @param callerSitesCaptured true to attribute the connections to their caller
+   */
+  public void setCallerSitesCaptured(boolean callerSitesCaptured) {
+    this.callerSitesCaptured = callerSitesCaptured;
+  }
+
+  /**
+   * Get the statistics since the last drain and start new ones
+   *
+   * @return the statistics of the interval
+   */
+  public Interval drain() {
+    Map<String, Hold> drainedHolds = holds;
+    holds = new ConcurrentHashMap<>();
+
+    List<Hold> sortedHolds = new ArrayList<>(drainedHolds.values());
+    sortedHolds.sort(Comparator.comparingLong(Hold::getTotalNanos).reversed());
+
+    return new Interval(acquisitions.sumThenReset(), failedAcquisitions.sumThenReset(), waitNanos.sumThenReset(),
+        maxWaitNanos.getThenReset(), peakInUse.getAndSet(inUse.get()), sortedHolds);
+  }
+
+  /**
+   * Statistics of the connections between two drains
+   */
+  public static final class Interval {
+
+    private final long acquisitions;
+    private final long failedAcquisitions;
+    private final long waitNanos;
+    private final long maxWaitNanos;
+    private final int peakInUse;
+    private final List<Hold> holds;
+
+    Interval(long acquisitions, long failedAcquisitions, long waitNanos, long maxWaitNanos, int peakInUse,
+             List<Hold> holds) {
+      this.acquisitions = acquisitions;
+      this.failedAcquisitions = failedAcquisitions;
+      this.waitNanos = waitNanos;
+      this.maxWaitNanos = maxWaitNanos;
+      this.peakInUse = peakInUse;
+      this.holds = holds;
+    }
+
+    public long getAcquisitions() {
+      return acquisitions;
+    }
+
+    /**
+     * @return the number of the waits for a connection that failed
+     */
+    public long getFailedAcquisitions() {
+      return failedAcquisitions;
+    }
+
+    /**
+     * @return the mean wait of all the acquisitions including the failed ones
+     */
+    public double getMeanWaitMillis() {
+      long waits = acquisitions + failedAcquisitions;
+      return waits == 0 ? 0 : (double) waitNanos / waits / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxWaitMillis() {
+      return (double) maxWaitNanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return the maximum number of connections used at the same time
+     */
+    public int getPeakInUse() {
+      return peakInUse;
+    }
+
+    /**
+     * @return the holds ordered by decreasing total hold time
+     */
+    public List<Hold> getHolds() {
+      return holds;
+    }
+  }
+
+  /**
+   * Holds of the connections by a site
+   */
+  public static final class Hold {
+
+    private final String site;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    Hold(String site) {
+      this.site = site;
+    }
+
+    void add(long holdNanos) {
+      count.increment();
+      totalNanos.add(holdNanos);
+      maxNanos.accumulate(holdNanos);
+    }
+
+    public String getSite() {
+      return site;
+    }
+
+    public long getCount() {
+      return count.sum();
+    }
+
+    public long getTotalNanos() {
+      return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+      return maxNanos.get();
+    }
+
+    @Override
+    public String toString() {
+      return site + " held " + getCount() + " connections for " + TimeUnit.NANOSECONDS.toMillis(getTotalNanos()) +
+          " ms (max " + TimeUnit.NANOSECONDS.toMillis(getMaxNanos()) + " ms)";
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.repository.pool;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Bean post processor that marks the methods of the beans annotated with {@link Repository}
+ * as the sites holding the connections they obtain
+ * <p>
+ * The advisor is added to the existing proxy if the bean is already proxied
+ *
+ * @author Joumen Harzli
+ */
+public class DaoHoldSitePostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+  public DaoHoldSitePostProcessor() {
+    this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Repository.class, true),
+        new DaoHoldSiteInterceptor());
+  }
+
+  private static class DaoHoldSiteInterceptor implements MethodInterceptor {
+
+    private final Map<Method, String> sites = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+      String previous = ConnectionHoldSite.enter(sites.computeIfAbsent(invocation.getMethod(),
+          method -> AopUtils.getTargetClass(invocation.getThis()).getSimpleName() + "." + method.getName()));
+      try {
+        return invocation.proceed();
+      } finally {
+        ConnectionHoldSite.restore(previous);
+      }
+    }
+  }
+}
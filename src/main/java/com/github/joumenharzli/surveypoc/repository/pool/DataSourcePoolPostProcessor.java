@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.repository.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import javax.sql.DataSource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+
+import com.github.joumenharzli.surveypoc.SurveyPocApplication;
+
+/**
+ * Bean post processor that records the time spent waiting for the connections of the data sources
+ * and the time they are held by each site
+ * <p>
+ * The data source is proxied by subclassing so the bean keeps its type, and the transactions bound
+ * to it are still found by the templates. The connections obtained outside of a dao, usually by the
+ * transactions, are attributed to the first dao method that uses them, so a transaction is attributed to
+ * its first dao. A connection that no dao used is attributed to the first application method found in the
+ * stack of the thread while the pool is saturated, otherwise to {@link ConnectionPoolStatistics#OTHER}
+ * so the stack is not walked for every connection.
+ *
+ * @author Joumen Harzli
+ */
+public class DataSourcePoolPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+  private static final String GET_CONNECTION = "getConnection";
+  private static final String CLOSE = "close";
+
+  private static final String APPLICATION_PACKAGE = SurveyPocApplication.class.getPackage().getName() + ".";
+  private static final String POOL_PACKAGE = DataSourcePoolPostProcessor.class.getPackage().getName() + ".";
+  private static final String GENERATED_CLASS_MARKER = "$$";
+
+  public DataSourcePoolPostProcessor(ConnectionPoolStatistics statistics) {
+    setProxyTargetClass(true);
+    this.advisor = new DefaultPointcutAdvisor(new GetConnectionPointcut(), new ConnectionPoolInterceptor(statistics));
+  }
+
+  /**
+   * @return the first application method in the stack of the current thread
+   */
+  private static String callerSite() {
+    for (StackTraceElement element : new Throwable().getStackTrace()) {
+      String className = element.getClassName();
+      if (className.startsWith(APPLICATION_PACKAGE) && !className.startsWith(POOL_PACKAGE) &&
+          !className.contains(GENERATED_CLASS_MARKER)) {
+        return className.substring(className.lastIndexOf('.') + 1) + "." + element.getMethodName();
+      }
+    }
+    return ConnectionPoolStatistics.OTHER;
+  }
+
+  private static class GetConnectionPointcut extends StaticMethodMatcherPointcut {
+
+    GetConnectionPointcut() {
+      setClassFilter(new RootClassFilter(DataSource.class));
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+      return GET_CONNECTION.equals(method.getName());
+    }
+  }
+
+  private static class ConnectionPoolInterceptor implements MethodInterceptor {
+
+    private final ConnectionPoolStatistics statistics;
+
+    ConnectionPoolInterceptor(ConnectionPoolStatistics statistics) {
+      this.statistics = statistics;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+      long start = System.nanoTime();
+      Connection connection = null;
+      long acquiredAt;
+      try {
+        connection = (Connection) invocation.proceed();
+      } finally {
+        acquiredAt = System.nanoTime();
+        statistics.waited(acquiredAt - start, connection != null);
+      }
+
+      String daoSite = ConnectionHoldSite.current();
+      ConnectionHoldHandler handler = daoSite != null ?
+          new ConnectionHoldHandler(connection, statistics, daoSite, true, acquiredAt) :
+          new ConnectionHoldHandler(connection, statistics, callerSite(statistics), false, acquiredAt);
+      return Proxy.newProxyInstance(DataSourcePoolPostProcessor.class.getClassLoader(),
+          new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static String callerSite(ConnectionPoolStatistics statistics) {
+      return statistics.isCallerSitesCaptured() ? DataSourcePoolPostProcessor.callerSite() :
+          ConnectionPoolStatistics.OTHER;
+    }
+  }
+
+  private static class ConnectionHoldHandler implements InvocationHandler {
+
+    private final Connection connection;
+    private final ConnectionPoolStatistics statistics;
+    private final long acquiredAt;
+    private String site;
+    private boolean daoSite;
+    private boolean released;
+
+    /**
+     * @param site    the site that obtained the connection
+     * @param daoSite true if the site is a dao method, otherwise the site is replaced by the first dao
+     *                method that uses the connection
+     */
+    ConnectionHoldHandler(Connection connection, ConnectionPoolStatistics statistics, String site, boolean daoSite,
+                          long acquiredAt) {
+      this.connection = connection;
+      this.statistics = statistics;
+      this.site = site;
+      this.daoSite = daoSite;
+      this.acquiredAt = acquiredAt;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+      if (!daoSite) {
+        String currentSite = ConnectionHoldSite.current();
+        if (currentSite != null) {
+          site = currentSite;
+          daoSite = true;
+        }
+      }
+
+      if (CLOSE.equals(method.getName()) && !released) {
+        released = true;
+        statistics.released(site, System.nanoTime() - acquiredAt);
+      }
+
+      try {
+        return method.invoke(connection, arguments);
+      } catch (InvocationTargetException exception) {
+        throw exception.getTargetException();
+      }
+    }
+  }
+}
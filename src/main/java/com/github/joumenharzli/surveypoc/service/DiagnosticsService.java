@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import org.springframework.core.io.Resource;
+
+import com.github.joumenharzli.surveypoc.service.dto.AllocationReportDto;
+import com.github.joumenharzli.surveypoc.service.dto.ProfileSummaryDto;
+
+/**
+ * Diagnostics Service
+ * The recordings block the calling thread during their whole duration
+ *
+ * @author Joumen Harzli
+ */
+public interface DiagnosticsService {
+
+  /**
+   * Get the bytes allocated by the requests since the start
+   *
+   * @return the allocations by endpoint and by request thread
+   */
+  AllocationReportDto getAllocations();
+
+  /**
+   * Record the activity of the application and summarize it by endpoint
+   *
+   * @param durationSeconds duration of the recording in seconds
+   * @return the top sites of the samples of each endpoint
+   * @throws IllegalArgumentException                                                  if any given argument is invalid
+   * @throws com.github.joumenharzli.surveypoc.exception.RecordingUnavailableException if the recorder cannot record
+   */
+  ProfileSummaryDto recordProfile(int durationSeconds);
+
+  /**
+   * Record the activity of the application
+   *
+   * @param durationSeconds duration of the recording in seconds
+   * @return the recording in the format of the flight recorder, its file is deleted once it is read
+   * @throws IllegalArgumentException                                                  if any given argument is invalid
+   * @throws com.github.joumenharzli.surveypoc.exception.RecordingUnavailableException if the recorder cannot record
+   */
+  Resource recordFlightRecording(int durationSeconds);
+
+}
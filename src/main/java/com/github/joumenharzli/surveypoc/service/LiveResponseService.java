@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import com.github.joumenharzli.surveypoc.live.ResponseUpdateSink;
+import com.github.joumenharzli.surveypoc.live.ResponseUpdateSubscription;
+import com.github.joumenharzli.surveypoc.service.dto.QuestionAnswersUpdateDto;
+
+/**
+ * Live Response Service
+ * The subscribers receive the variations of the counts of the answers as the responses are saved
+ *
+ * @author Joumen Harzli
+ */
+public interface LiveResponseService {
+
+  /**
+   * Subscribe to the updates of the answers of a question
+   *
+   * @param questionId id of the question
+   * @param sink       destination of the updates
+   * @return the subscription to cancel once the client is gone
+   * @throws com.github.joumenharzli.surveypoc.exception.QuestionNotFoundException if no question was found
+   */
+  ResponseUpdateSubscription<QuestionAnswersUpdateDto> subscribeToQuestion(long questionId,
+                                                                         ResponseUpdateSink<QuestionAnswersUpdateDto> sink);
+
+  /**
+   * Subscribe to the updates of the answers of the questions of a subject
+   *
+   * @param subjectId id of the subject
+   * @param sink      destination of the updates
+   * @return the subscription to cancel once the client is gone
+   * @throws com.github.joumenharzli.surveypoc.exception.SubjectNotFoundException if no subject was found
+   */
+  ResponseUpdateSubscription<QuestionAnswersUpdateDto> subscribeToSubject(long subjectId,
+                                                                        ResponseUpdateSink<QuestionAnswersUpdateDto> sink);
+
+}
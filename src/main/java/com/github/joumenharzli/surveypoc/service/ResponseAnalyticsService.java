@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import java.util.List;
+
+import com.github.joumenharzli.surveypoc.service.dto.AnswerCountDto;
+
+/**
+ * Response Analytics Service
+ * The queries are answered from the last snapshot of the responses so they may not see the latest changes
+ *
+ * @author Joumen Harzli
+ */
+public interface ResponseAnalyticsService {
+
+  /**
+   * Build a new snapshot of the responses and replace the current one
+   */
+  void refreshSnapshot();
+
+  /**
+   * Count the answers of a question grouped by content
+   *
+   * @param questionId id of the question
+   * @return the number of answers for each content ordered by decreasing count
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  List<AnswerCountDto> countAnswersByContent(Long questionId);
+
+  /**
+   * Find the users who answered a question with a content
+   *
+   * @param questionId id of the question
+   * @param content    content of the answer
+   * @return the ids of the users sorted
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  long[] findUsersWhoAnswered(Long questionId, String content);
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import java.io.Reader;
+
+import org.springframework.core.io.Resource;
+
+import com.github.joumenharzli.surveypoc.exception.ImportNotFoundException;
+import com.github.joumenharzli.surveypoc.imports.ResponseImportFormat;
+import com.github.joumenharzli.surveypoc.service.dto.ResponseImportProgressDto;
+
+/**
+ * Response Import Service
+ * Bulk imports of the responses of many users, for example from a legacy system
+ *
+ * @author Joumen Harzli
+ */
+public interface ResponseImportService {
+
+  /**
+   * Store a file then import its responses in the background, the file of an interrupted import is imported
+   * again with the same id to resume it
+   *
+   * @param importId id of the import
+   * @param format   format of the file
+   * @param input    content of the file read incrementally
+   * @return the progress of the import
+   * @throws com.github.joumenharzli.surveypoc.exception.InvalidParameterException  if the import was started
+   *                                                                                with another format
+   * @throws com.github.joumenharzli.surveypoc.exception.ImportInProgressException  if the import is already running
+   * @throws IllegalArgumentException                                               if any given argument is invalid
+   */
+  ResponseImportProgressDto importResponses(String importId, ResponseImportFormat format, Reader input);
+
+  /**
+   * Find the progress of an import
+   *
+   * @param importId id of the import
+   * @return the totals of the imported chunks
+   * @throws ImportNotFoundException if no import was found
+   */
+  ResponseImportProgressDto findProgressOfImport(String importId);
+
+  /**
+   * Find the report of the rejected lines of an import, it is complete once the import is not running
+   *
+   * @param importId id of the import
+   * @return the report as csv
+   * @throws ImportNotFoundException if no import was found
+   */
+  Resource findErrorReportOfImport(String importId);
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+import com.github.joumenharzli.surveypoc.domain.User;
+import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
+import com.github.joumenharzli.surveypoc.service.mapper.UserResponseMapper;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerValidator;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerViolation;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+/**
+ * Maps and validates the responses of a submission, in parallel when the submission is large
+ * <p>
+ * The submissions smaller than the configured {@code parallelThreshold} responses stay on the calling thread, its
+ * default is provisional until it is measured with {@code ResponseSubmissionBenchmark}. The larger ones
+ * are split by ranges of indexes across a dedicated fork join pool of {@code parallelism} threads, never the
+ * common pool, so a burst of large submissions cannot starve the parallel streams of the rest of the
+ * application. Each index is written by exactly one task so the results keep the order of the submission.
+ * <p>
+ * The parallel path is disabled when the pool would have a single thread.
+ *
+ * @author Joumen Harzli
+ */
+@Component
+public class ResponseSubmissionProcessor {
+
+  private static final String THREAD_PREFIX = "submission-";
+  private static final int TASKS_PER_THREAD = 4;
+
+  private final UserResponseMapper userResponseMapper;
+  private final int parallelThreshold;
+  private final int parallelism;
+  private final ForkJoinPool pool;
+
+  public ResponseSubmissionProcessor(UserResponseMapper userResponseMapper,
+                                     ApplicationProperties applicationProperties) {
+    ApplicationProperties.Submissions properties = applicationProperties.getSubmissions();
+    Assert.isTrue(properties.getParallelThreshold() > 0, "Parallel threshold of the submissions must be positive");
+    Assert.isTrue(properties.getParallelism() > 0, "Parallelism of the submissions must be positive");
+
+    this.userResponseMapper = userResponseMapper;
+    this.parallelThreshold = properties.getParallelThreshold();
+    this.parallelism = Math.min(properties.getParallelism(), Runtime.getRuntime().availableProcessors());
+    this.pool = parallelism > 1 ? new ForkJoinPool(parallelism, ResponseSubmissionProcessor::newThread,
+        null, false) : null;
+  }
+
+  /**
+   * Extract the ids of the questions of the responses
+   *
+   * @param userResponsesForQuestions the submitted responses
+   * @return the ids of the questions in the order of the responses
+   */
+  public LongList toQuestionsIds(List<UserResponseForQuestionDto> userResponsesForQuestions) {
+    if (!isParallel(userResponsesForQuestions.size())) {
+      return userResponseMapper.userResponsesForQuestionsToQuestionsIds(userResponsesForQuestions);
+    }
+
+    long[] questionsIds = new long[userResponsesForQuestions.size()];
+    forEachIndex(questionsIds.length, index ->
+        questionsIds[index] = userResponsesForQuestions.get(index).getQuestionId());
+    return LongList.of(questionsIds);
+  }
+
+  /**
+   * Map the responses to entities of the user
+   *
+   * @param userResponsesForQuestions the submitted responses
+   * @param user                      the user who responded
+   * @return the entities in the order of the responses
+   */
+  public List<UserResponse> toUserResponses(List<UserResponseForQuestionDto> userResponsesForQuestions, User user) {
+    if (!isParallel(userResponsesForQuestions.size())) {
+      return userResponseMapper.userResponsesForQuestionsDtoToUserResponsesList(userResponsesForQuestions, user);
+    }
+
+    UserResponse[] userResponses = new UserResponse[userResponsesForQuestions.size()];
+    forEachIndex(userResponses.length, index -> {
+      UserResponse userResponse = userResponseMapper
+          .userResponseForQuestionDtoToUserResponse(userResponsesForQuestions.get(index));
+      userResponse.setUser(user);
+      userResponses[index] = userResponse;
+    });
+    return new ArrayList<>(Arrays.asList(userResponses));
+  }
+
+  /**
+   * Validate the contents of the responses, the responses without content or without validator are valid
+   *
+   * @param userResponsesForQuestions the submitted responses
+   * @param validators                the validators by question id
+   * @return the violation of each response, null for the valid ones
+   */
+  public AnswerViolation[] findViolations(List<UserResponseForQuestionDto> userResponsesForQuestions,
+                                          Map<Long, AnswerValidator> validators) {
+    AnswerViolation[] violations = new AnswerViolation[userResponsesForQuestions.size()];
+    IntConsumer validation = index -> {
+      UserResponseForQuestionDto userResponseForQuestion = userResponsesForQuestions.get(index);
+      AnswerValidator validator = validators.get(userResponseForQuestion.getQuestionId());
+      if (validator != null && userResponseForQuestion.getContent() != null) {
+        violations[index] = validator.validate(userResponseForQuestion.getContent());
+      }
+    };
+
+    if (isParallel(violations.length)) {
+      forEachIndex(violations.length, validation);
+    } else {
+      for (int index = 0; index < violations.length; index++) {
+        validation.accept(index);
+      }
+    }
+    return violations;
+  }
+
+  /**
+   * @param size number of the responses of a submission
+   * @return true if the submission is processed in parallel
+   */
+  public boolean isParallel(int size) {
+    return pool != null && size >= parallelThreshold;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (pool != null) {
+      pool.shutdownNow();
+    }
+  }
+
+  private void forEachIndex(int size, IntConsumer action) {
+    int rangeSize = Math.max(parallelThreshold / parallelism, size / (parallelism * TASKS_PER_THREAD));
+    pool.invoke(new IndexRangeAction(0, size, Math.max(rangeSize, 1), action));
+  }
+
+  private static ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+    thread.setName(THREAD_PREFIX + thread.getPoolIndex());
+    return thread;
+  }
+
+  /**
+   * Apply an action to a range of indexes, splitting it in halves until it is not larger than the range size
+   */
+  private static final class IndexRangeAction extends RecursiveAction {
+
+    private final int from;
+    private final int to;
+    private final int rangeSize;
+    private final transient IntConsumer action;
+
+    private IndexRangeAction(int from, int to, int rangeSize, IntConsumer action) {
+      this.from = from;
+      this.to = to;
+      this.rangeSize = rangeSize;
+      this.action = action;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= rangeSize) {
+        for (int index = from; index < to; index++) {
+          action.accept(index);
+        }
+        return;
+      }
+
+      int middle = (from + to) >>> 1;
+      invokeAll(new IndexRangeAction(from, middle, rangeSize, action),
+          new IndexRangeAction(middle, to, rangeSize, action));
+    }
+  }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+import com.github.joumenharzli.surveypoc.diagnostics.AllocationStatistics;
+import com.github.joumenharzli.surveypoc.diagnostics.EndpointProfile;
+import com.github.joumenharzli.surveypoc.diagnostics.ProfileRecorder;
+import com.github.joumenharzli.surveypoc.diagnostics.ThreadAllocationCounter;
+import com.github.joumenharzli.surveypoc.exception.RecordingUnavailableException;
+import com.github.joumenharzli.surveypoc.service.dto.AllocationReportDto;
+import com.github.joumenharzli.surveypoc.service.dto.AllocationStatisticsDto;
+import com.github.joumenharzli.surveypoc.service.dto.EndpointProfileDto;
+import com.github.joumenharzli.surveypoc.service.dto.ProfileSiteDto;
+import com.github.joumenharzli.surveypoc.service.dto.ProfileSummaryDto;
+
+/**
+ * A simple implementation for {@link DiagnosticsService}
+ * <p>
+ * The files of the recordings are temporary and deleted once they are read, the flight recordings are
+ * streamed from their file instead of being loaded in memory
+ *
+ * @author Joumen Harzli
+ */
+@Service
+public class SimpleDiagnosticsService implements DiagnosticsService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SimpleDiagnosticsService.class);
+
+  private final ThreadAllocationCounter allocationCounter;
+  private final AllocationStatistics allocationStatistics;
+  private final ProfileRecorder profileRecorder;
+  private final ApplicationProperties applicationProperties;
+
+  public SimpleDiagnosticsService(ThreadAllocationCounter allocationCounter, AllocationStatistics allocationStatistics,
+                                  ProfileRecorder profileRecorder, ApplicationProperties applicationProperties) {
+    this.allocationCounter = allocationCounter;
+    this.allocationStatistics = allocationStatistics;
+    this.profileRecorder = profileRecorder;
+    this.applicationProperties = applicationProperties;
+  }
+
+  /**
+   * Get the bytes allocated by the requests since the start
+   *
+   * @return the allocations by endpoint and by request thread
+   */
+  @Override
+  public AllocationReportDto getAllocations() {
+    LOGGER.debug("Request to get the allocations of the requests");
+
+    return new AllocationReportDto(allocationCounter.isSupported(),
+        toAllocationStatisticsDtos(allocationStatistics.getEndpoints()),
+        toAllocationStatisticsDtos(allocationStatistics.getThreads()));
+  }
+
+  /**
+   * Record the activity of the application and summarize it by endpoint
+   *
+   * @param durationSeconds duration of the recording in seconds
+   * @return the top sites of the samples of each endpoint
+   * @throws IllegalArgumentException      if any given argument is invalid
+   * @throws RecordingUnavailableException if the recorder cannot record
+   */
+  @Override
+  public ProfileSummaryDto recordProfile(int durationSeconds) {
+    LOGGER.debug("Request to record a profile of {} seconds", durationSeconds);
+
+    Path file = record(durationSeconds);
+    try {
+      Map<String, EndpointProfile> profiles = profileRecorder.summarize(file,
+          applicationProperties.getDiagnostics().getMaxSites());
+
+      List<EndpointProfileDto> endpoints = new ArrayList<>(profiles.size());
+      profiles.values().forEach(profile -> endpoints.add(new EndpointProfileDto(profile.getEndpoint(),
+          profile.getRequests(), toProfileSiteDtos(profile.getAllocationSites()),
+          toProfileSiteDtos(profile.getCpuSites()), toProfileSiteDtos(profile.getLockSites()))));
+      return new ProfileSummaryDto(durationSeconds, endpoints);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    } finally {
+      delete(file);
+    }
+  }
+
+  /**
+   * Record the activity of the application
+   *
+   * @param durationSeconds duration of the recording in seconds
+   * @return the recording in the format of the flight recorder, its file is deleted once it is read
+   * @throws IllegalArgumentException      if any given argument is invalid
+   * @throws RecordingUnavailableException if the recorder cannot record
+   */
+  @Override
+  public Resource recordFlightRecording(int durationSeconds) {
+    LOGGER.debug("Request to record a flight recording of {} seconds", durationSeconds);
+
+    return new TemporaryFileResource(record(durationSeconds));
+  }
+
+  private Path record(int durationSeconds) {
+    Assert.isTrue(durationSeconds > 0, "Duration of the recording must be positive");
+    Assert.isTrue(durationSeconds <= applicationProperties.getDiagnostics().getMaxRecordingSeconds(),
+        "Duration of the recording exceeds the maximum duration");
+
+    Path file;
+    try {
+      file = profileRecorder.record(Duration.ofSeconds(durationSeconds));
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new RecordingUnavailableException();
+    }
+
+    if (file == null) {
+      throw new RecordingUnavailableException();
+    }
+    return file;
+  }
+
+  private static void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException exception) {
+      LOGGER.warn("Unable to delete the recording {}", file, exception);
+    }
+  }
+
+  /**
+   * A file deleted when the stream reading it is closed
+   */
+  private static class TemporaryFileResource extends FileSystemResource {
+
+    TemporaryFileResource(Path file) {
+      super(file.toFile());
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+      return Files.newInputStream(getFile().toPath(), StandardOpenOption.DELETE_ON_CLOSE);
+    }
+  }
+
+  private static List<AllocationStatisticsDto> toAllocationStatisticsDtos(List<AllocationStatistics.Totals> totals) {
+    return totals.stream()
+        .map(total -> new AllocationStatisticsDto(total.getKey(), total.getRequests(), total.getAllocatedBytes(),
+            total.getMaxAllocatedBytes()))
+        .collect(Collectors.toList());
+  }
+
+  private static List<ProfileSiteDto> toProfileSiteDtos(Map<String, Long> sites) {
+    List<ProfileSiteDto> siteDtos = new ArrayList<>(sites.size());
+    sites.forEach((frame, value) -> siteDtos.add(new ProfileSiteDto(frame, value)));
+    return siteDtos;
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import java.util.Collections;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.exception.QuestionNotFoundException;
+import com.github.joumenharzli.surveypoc.exception.SubjectNotFoundException;
+import com.github.joumenharzli.surveypoc.live.ResponseUpdateBroadcaster;
+import com.github.joumenharzli.surveypoc.live.ResponseUpdateSink;
+import com.github.joumenharzli.surveypoc.live.ResponseUpdateSubscription;
+import com.github.joumenharzli.surveypoc.repository.dao.QuestionDao;
+import com.github.joumenharzli.surveypoc.service.dto.QuestionAnswersUpdateDto;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+/**
+ * A simple implementation for {@link LiveResponseService}
+ * <p>
+ * The questions of a subject are resolved when subscribing, the questions added to the subject later
+ * are not followed by the existing subscriptions
+ *
+ * @author Joumen Harzli
+ */
+@Service
+public class SimpleLiveResponseService implements LiveResponseService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SimpleLiveResponseService.class);
+
+  private final QuestionDao questionDao;
+  private final ResponseUpdateBroadcaster<QuestionAnswersUpdateDto> responseUpdateBroadcaster;
+
+  public SimpleLiveResponseService(QuestionDao questionDao,
+                                   ResponseUpdateBroadcaster<QuestionAnswersUpdateDto> responseUpdateBroadcaster) {
+    this.questionDao = questionDao;
+    this.responseUpdateBroadcaster = responseUpdateBroadcaster;
+  }
+
+  /**
+   * Subscribe to the updates of the answers of a question
+   *
+   * @param questionId id of the question
+   * @param sink       destination of the updates
+   * @return the subscription to cancel once the client is gone
+   * @throws QuestionNotFoundException if no question was found
+   */
+  @Override
+  public ResponseUpdateSubscription<QuestionAnswersUpdateDto> subscribeToQuestion(long questionId,
+                                                                                ResponseUpdateSink<QuestionAnswersUpdateDto> sink) {
+    LOGGER.debug("Request to subscribe to the updates of the answers of the question {}", questionId);
+
+    LongList questionsIds = LongList.of(questionId);
+    if (!questionDao.findNonExistingQuestionsByQuestionsIds(questionsIds).isEmpty()) {
+      throw new QuestionNotFoundException(Collections.singletonList(questionId));
+    }
+
+    return responseUpdateBroadcaster.subscribe(questionsIds, sink);
+  }
+
+  /**
+   * Subscribe to the updates of the answers of the questions of a subject
+   *
+   * @param subjectId id of the subject
+   * @param sink      destination of the updates
+   * @return the subscription to cancel once the client is gone
+   * @throws SubjectNotFoundException if no subject was found
+   */
+  @Override
+  public ResponseUpdateSubscription<QuestionAnswersUpdateDto> subscribeToSubject(long subjectId,
+                                                                               ResponseUpdateSink<QuestionAnswersUpdateDto> sink) {
+    LOGGER.debug("Request to subscribe to the updates of the answers of the subject {}", subjectId);
+
+    LongList questionsIds = new LongList(0);
+    for (Question question : questionDao.findAllQuestionsAndSubjects()) {
+      if (question.getSubjectId() != null && question.getSubjectId() == subjectId) {
+        questionsIds.add(question.getId());
+      }
+    }
+
+    /* the catalog only contains the subjects that have questions */
+    if (questionsIds.isEmpty()) {
+      throw new SubjectNotFoundException(Collections.singletonList(subjectId));
+    }
+
+    return responseUpdateBroadcaster.subscribe(questionsIds, sink);
+  }
+
+}
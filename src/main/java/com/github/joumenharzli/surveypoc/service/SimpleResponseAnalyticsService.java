@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import com.github.joumenharzli.surveypoc.analytics.ColumnStorage;
+import com.github.joumenharzli.surveypoc.analytics.JdbcResponseSnapshotLoader;
+import com.github.joumenharzli.surveypoc.analytics.ResponseSnapshot;
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+import com.github.joumenharzli.surveypoc.service.dto.AnswerCountDto;
+
+/**
+ * A simple implementation for {@link ResponseAnalyticsService}
+ * <p>
+ * The snapshot is replaced atomically so the queries never block and always see a consistent snapshot.
+ * When a directory is configured the columns are memory-mapped in a sub directory for each snapshot.
+ * The queries hold a reference on the snapshot they read so the files of a replaced snapshot are deleted
+ * only once the last query reading it is done.
+ *
+ * @author Joumen Harzli
+ */
+@Service
+public class SimpleResponseAnalyticsService implements ResponseAnalyticsService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SimpleResponseAnalyticsService.class);
+
+  private final JdbcResponseSnapshotLoader snapshotLoader;
+  private final Path directory;
+
+  private volatile SnapshotReference current = new SnapshotReference(ResponseSnapshot.empty(), null);
+  private long generation;
+
+  public SimpleResponseAnalyticsService(JdbcResponseSnapshotLoader snapshotLoader,
+                                        ApplicationProperties applicationProperties) {
+    String configuredDirectory = applicationProperties.getAnalytics().getDirectory();
+    this.snapshotLoader = snapshotLoader;
+    this.directory = StringUtils.hasText(configuredDirectory) ? Paths.get(configuredDirectory) : null;
+  }
+
+  /**
+   * Build a new snapshot of the responses and replace the current one,
+   * the current snapshot is kept if the build fails
+   */
+  @Override
+  public synchronized void refreshSnapshot() {
+    LOGGER.debug("Request to refresh the snapshot of the responses");
+
+    SnapshotReference previous = current;
+    Path nextDirectory = directory == null ? null : directory.resolve(String.valueOf(++generation));
+
+    try {
+      ResponseSnapshot snapshot = snapshotLoader.load(nextDirectory == null ?
+          ColumnStorage.DIRECT : ColumnStorage.mapped(nextDirectory));
+      current = new SnapshotReference(snapshot, nextDirectory);
+    } catch (RuntimeException exception) {
+      LOGGER.error("Unable to refresh the snapshot of the responses", exception);
+      deleteDirectory(nextDirectory);
+      return;
+    }
+
+    previous.release();
+  }
+
+  /**
+   * Count the answers of a question grouped by content
+   *
+   * @param questionId id of the question
+   * @return the number of answers for each content ordered by decreasing count
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  @Override
+  public List<AnswerCountDto> countAnswersByContent(Long questionId) {
+    LOGGER.debug("Request to count the answers of the question {} by content", questionId);
+
+    Assert.notNull(questionId, "Id of the question cannot be null");
+
+    List<AnswerCountDto> answerCounts = new ArrayList<>();
+    SnapshotReference reference = acquire();
+    try {
+      ResponseSnapshot snapshot = reference.snapshot;
+      snapshot.forEachValueCount(questionId,
+          (valueId, count) -> answerCounts.add(new AnswerCountDto(snapshot.value(valueId), count)));
+    } finally {
+      reference.release();
+    }
+    answerCounts.sort(Comparator.comparingInt(AnswerCountDto::getCount).reversed());
+    return answerCounts;
+  }
+
+  /**
+   * Find the users who answered a question with a content
+   *
+   * @param questionId id of the question
+   * @param content    content of the answer
+   * @return the ids of the users sorted
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  @Override
+  public long[] findUsersWhoAnswered(Long questionId, String content) {
+    LOGGER.debug("Request to find the users who answered {} to the question {}", content, questionId);
+
+    Assert.notNull(questionId, "Id of the question cannot be null");
+    Assert.notNull(content, "Content cannot be null");
+
+    SnapshotReference reference = acquire();
+    try {
+      ResponseSnapshot snapshot = reference.snapshot;
+      int valueId = snapshot.valueId(content);
+      if (valueId == ResponseSnapshot.NO_VALUE) {
+        return new long[0];
+      }
+      return snapshot.findUsers(questionId, valueId);
+    } finally {
+      reference.release();
+    }
+  }
+
+  /**
+   * Hold a reference on the current snapshot, retrying when it was replaced and released meanwhile
+   */
+  private SnapshotReference acquire() {
+    while (true) {
+      SnapshotReference reference = current;
+      if (reference.retain()) {
+        return reference;
+      }
+    }
+  }
+
+  private static void deleteDirectory(Path snapshotDirectory) {
+    if (snapshotDirectory == null || !Files.exists(snapshotDirectory)) {
+      return;
+    }
+
+    try (Stream<Path> files = Files.list(snapshotDirectory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+      Files.delete(snapshotDirectory);
+    } catch (IOException exception) {
+      LOGGER.warn("Unable to delete the snapshot directory {}", snapshotDirectory, exception);
+    }
+  }
+
+  /**
+   * A snapshot with the number of its holders: the service while it is the current snapshot and
+   * each query reading it. The files of the snapshot are deleted when the last holder releases it.
+   */
+  private static final class SnapshotReference {
+
+    private final ResponseSnapshot snapshot;
+    private final Path directory;
+    private final AtomicInteger holders = new AtomicInteger(1);
+
+    private SnapshotReference(ResponseSnapshot snapshot, Path directory) {
+      this.snapshot = snapshot;
+      this.directory = directory;
+    }
+
+    private boolean retain() {
+      int count;
+      do {
+        count = holders.get();
+        if (count == 0) {
+          return false;
+        }
+      } while (!holders.compareAndSet(count, count + 1));
+      return true;
+    }
+
+    private void release() {
+      if (holders.decrementAndGet() == 0) {
+        deleteDirectory(directory);
+      }
+    }
+  }
+
+}
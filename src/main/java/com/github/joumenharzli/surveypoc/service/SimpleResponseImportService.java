@@ -0,0 +1,529 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StringUtils;
+
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.ResponseImport;
+import com.github.joumenharzli.surveypoc.domain.User;
+import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.domain.UserResponseKey;
+import com.github.joumenharzli.surveypoc.exception.ImportInProgressException;
+import com.github.joumenharzli.surveypoc.exception.ImportNotFoundException;
+import com.github.joumenharzli.surveypoc.exception.InvalidParameterException;
+import com.github.joumenharzli.surveypoc.imports.ImportErrorReport;
+import com.github.joumenharzli.surveypoc.imports.ImportedResponse;
+import com.github.joumenharzli.surveypoc.imports.ImportedResponseReader;
+import com.github.joumenharzli.surveypoc.imports.ResponseImportFormat;
+import com.github.joumenharzli.surveypoc.repository.dao.DuplicateResponseException;
+import com.github.joumenharzli.surveypoc.repository.dao.QuestionDao;
+import com.github.joumenharzli.surveypoc.repository.dao.ResponseImportDao;
+import com.github.joumenharzli.surveypoc.repository.dao.UserDao;
+import com.github.joumenharzli.surveypoc.repository.dao.UserResponseDao;
+import com.github.joumenharzli.surveypoc.service.dto.ResponseImportProgressDto;
+import com.github.joumenharzli.surveypoc.service.dto.ResponseImportReportDto;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerValidator;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerValidatorRegistry;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerViolation;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+/**
+ * A simple implementation for {@link ResponseImportService}
+ * <p>
+ * The file is stored in the directory of the imports by the calling thread then imported in the background,
+ * one import at a time, while the progress of the import can be polled. The stored file is cut into chunks of
+ * {@code batchSize} lines that are imported by a bounded pool of threads, at most {@code parallelism} chunks of
+ * an import are held in memory at a time whatever the size of the file. The users, the questions and the existing
+ * responses of a chunk are checked with one query each, then the valid responses are written in one batch and the
+ * chunk is recorded in the same transaction. A chunk that fails is not recorded and is imported again when the
+ * import is resumed.
+ * <p>
+ * A line repeating a response of a previous line of its chunk or an existing response is rejected as a duplicate.
+ * When two chunks imported at the same time contain the same response, the chunk that writes it second violates
+ * the primary key and is validated again once the other one committed, so the response of the first committed
+ * chunk is kept and the other line is rejected.
+ * <p>
+ * The imported responses update the progress of the users but are not published to the live subscribers.
+ *
+ * @author Joumen Harzli
+ */
+@Service
+public class SimpleResponseImportService implements ResponseImportService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SimpleResponseImportService.class);
+
+  private static final String IMPORT_THREAD_PREFIX = "import-";
+  private static final String IMPORT_RUN_THREAD_PREFIX = "import-run-";
+  private static final String ERROR_REPORT_SUFFIX = "-errors.csv";
+  private static final String UPLOAD_SUFFIX = ".upload";
+  private static final int MAX_REPORTED_RUNS = 1000;
+  private static final String FORMAT_PARAMETER = "format";
+  private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+  private final ResponseImportDao responseImportDao;
+  private final UserResponseDao userResponseDao;
+  private final UserDao userDao;
+  private final QuestionDao questionDao;
+  private final AnswerValidatorRegistry answerValidatorRegistry;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationProperties.Imports properties;
+  private final ExecutorService importers;
+  private final ExecutorService importRunner;
+  private final Set<String> runningImports = ConcurrentHashMap.newKeySet();
+  private final Map<String, ResponseImportReportDto> lastRuns = Collections.synchronizedMap(
+      new LinkedHashMap<String, ResponseImportReportDto>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ResponseImportReportDto> eldest) {
+          return size() > MAX_REPORTED_RUNS;
+        }
+      });
+
+  public SimpleResponseImportService(ResponseImportDao responseImportDao, UserResponseDao userResponseDao,
+                                     UserDao userDao, QuestionDao questionDao,
+                                     AnswerValidatorRegistry answerValidatorRegistry,
+                                     PlatformTransactionManager transactionManager,
+                                     ApplicationProperties applicationProperties) {
+    this.responseImportDao = responseImportDao;
+    this.userResponseDao = userResponseDao;
+    this.userDao = userDao;
+    this.questionDao = questionDao;
+    this.answerValidatorRegistry = answerValidatorRegistry;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.properties = applicationProperties.getImports();
+
+    Assert.isTrue(properties.getBatchSize() > 0, "Batch size of the imports must be positive");
+    Assert.isTrue(properties.getParallelism() > 0, "Parallelism of the imports must be positive");
+
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(IMPORT_THREAD_PREFIX);
+    threadFactory.setDaemon(true);
+    this.importers = Executors.newFixedThreadPool(properties.getParallelism(), threadFactory);
+
+    CustomizableThreadFactory runThreadFactory = new CustomizableThreadFactory(IMPORT_RUN_THREAD_PREFIX);
+    runThreadFactory.setDaemon(true);
+    this.importRunner = Executors.newSingleThreadExecutor(runThreadFactory);
+  }
+
+  /**
+   * Store a file then import its responses in the background, the file of an interrupted import is imported
+   * again with the same id to resume it
+   * <p>
+   * The chunks are cut with the batch size of the first run so the chunks already imported are recognized
+   *
+   * @param importId id of the import
+   * @param format   format of the file
+   * @param input    content of the file read incrementally
+   * @return the progress of the import
+   * @throws InvalidParameterException  if the import was started with another format
+   * @throws ImportInProgressException  if the import is already running
+   * @throws UncheckedIOException       if the file cannot be read or stored
+   * @throws IllegalArgumentException   if any given argument is invalid
+   */
+  @Override
+  public ResponseImportProgressDto importResponses(String importId, ResponseImportFormat format, Reader input) {
+    LOGGER.debug("Request to import the responses of {} as {}", importId, format);
+
+    Assert.hasText(importId, "Id of the import cannot be null or empty");
+    Assert.notNull(format, "Format of the import cannot be null");
+    Assert.notNull(input, "Input of the import cannot be null");
+
+    if (!runningImports.add(importId)) {
+      throw new ImportInProgressException(importId);
+    }
+
+    try {
+      ResponseImport responseImport = findOrAddImport(importId, format);
+      Path file = storeFile(importId, input);
+      importRunner.execute(() -> runImport(responseImport, format, file));
+    } catch (RuntimeException exception) {
+      runningImports.remove(importId);
+      throw exception;
+    }
+
+    return findProgressOfImport(importId);
+  }
+
+  /**
+   * Find the progress of an import
+   *
+   * @param importId id of the import
+   * @return the totals of the imported chunks
+   * @throws ImportNotFoundException if no import was found
+   */
+  @Override
+  public ResponseImportProgressDto findProgressOfImport(String importId) {
+    LOGGER.debug("Request to get the progress of the import {}", importId);
+
+    ResponseImport responseImport = responseImportDao.findImportById(importId);
+    if (responseImport == null) {
+      throw new ImportNotFoundException(importId);
+    }
+
+    return new ResponseImportProgressDto(responseImport.getId(), responseImport.getFormat(),
+        responseImport.getBatchSize(), responseImport.getCompletedChunks(), responseImport.getImportedResponses(),
+        responseImport.getRejectedResponses(), runningImports.contains(importId), lastRuns.get(importId));
+  }
+
+  /**
+   * Find the report of the rejected lines of an import, it is complete once the import is not running
+   *
+   * @param importId id of the import
+   * @return the report as csv
+   * @throws ImportNotFoundException if no import was found
+   */
+  @Override
+  public Resource findErrorReportOfImport(String importId) {
+    LOGGER.debug("Request to get the report of the rejected lines of the import {}", importId);
+
+    if (responseImportDao.findImportById(importId) == null) {
+      throw new ImportNotFoundException(importId);
+    }
+
+    Path file = errorReportFile(importId);
+    if (Files.notExists(file)) {
+      return new ByteArrayResource((ImportErrorReport.HEADER + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+    }
+    return new FileSystemResource(file.toFile());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    importRunner.shutdownNow();
+    importers.shutdownNow();
+  }
+
+  /**
+   * Import a stored file then delete it, the report of the run is kept until the application stops
+   */
+  private void runImport(ResponseImport responseImport, ResponseImportFormat format, Path file) {
+    String importId = responseImport.getId();
+    try {
+      lastRuns.put(importId, importFile(responseImport, format, file));
+    } catch (RuntimeException exception) {
+      LOGGER.error("Unable to import the responses of {}", importId, exception);
+    } finally {
+      deleteFile(file);
+      runningImports.remove(importId);
+    }
+  }
+
+  private ResponseImportReportDto importFile(ResponseImport responseImport, ResponseImportFormat format, Path file) {
+    long start = System.nanoTime();
+    String importId = responseImport.getId();
+    int batchSize = responseImport.getBatchSize();
+
+    BitSet completedChunks = new BitSet();
+    responseImportDao.findCompletedChunksOfImport(importId).stream()
+        .forEach(chunkIndex -> completedChunks.set((int) chunkIndex));
+
+    ImportRun run = new ImportRun(importId, new ImportErrorReport(errorReportFile(importId)));
+    long lines;
+    long skippedChunks = 0;
+
+    try (BufferedReader input = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      ImportedResponseReader reader = new ImportedResponseReader(input, format);
+      int chunkIndex = 0;
+      List<ImportedResponse> chunk = new ArrayList<>(batchSize);
+      ImportedResponse line;
+      do {
+        line = reader.next();
+        if (line != null) {
+          chunk.add(line);
+        }
+
+        if (chunk.size() == batchSize || (line == null && !chunk.isEmpty())) {
+          if (completedChunks.get(chunkIndex)) {
+            skippedChunks++;
+          } else {
+            run.submit(chunkIndex, chunk);
+          }
+          chunkIndex++;
+          chunk = new ArrayList<>(batchSize);
+        }
+      } while (line != null);
+      lines = reader.getLineNumber();
+    } catch (IOException exception) {
+      throw new UncheckedIOException("Unable to read the imported file", exception);
+    } finally {
+      run.awaitChunks();
+    }
+
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    LOGGER.info("Imported {} responses and rejected {} lines of {} in {} ms, {} chunks failed", run.imported,
+        run.rejected, importId, elapsedMillis, run.failedChunks);
+
+    return new ResponseImportReportDto(lines, skippedChunks, run.failedChunks.get(), run.imported.get(),
+        run.rejected.get(), elapsedMillis);
+  }
+
+  private Path storeFile(String importId, Reader input) {
+    Path file = fileOfImport(importId, UPLOAD_SUFFIX);
+    try {
+      Files.createDirectories(file.getParent());
+      FileCopyUtils.copy(input, Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+      return file;
+    } catch (IOException exception) {
+      deleteFile(file);
+      throw new UncheckedIOException("Unable to store the imported file", exception);
+    }
+  }
+
+  private static void deleteFile(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException exception) {
+      LOGGER.warn("Unable to delete the imported file {}", file, exception);
+    }
+  }
+
+  private ResponseImport findOrAddImport(String importId, ResponseImportFormat format) {
+    ResponseImport responseImport = responseImportDao.findImportById(importId);
+    if (responseImport == null) {
+      responseImport = new ResponseImport().id(importId).format(format.name()).batchSize(properties.getBatchSize());
+      responseImportDao.addImport(responseImport);
+    } else if (!format.name().equals(responseImport.getFormat())) {
+      throw new InvalidParameterException(FORMAT_PARAMETER, format.name());
+    }
+    return responseImport;
+  }
+
+  private Path errorReportFile(String importId) {
+    return fileOfImport(importId, ERROR_REPORT_SUFFIX);
+  }
+
+  private Path fileOfImport(String importId, String suffix) {
+    String directory = StringUtils.hasText(properties.getDirectory()) ?
+        properties.getDirectory() : System.getProperty("java.io.tmpdir");
+    return Paths.get(directory, importId + suffix);
+  }
+
+  /**
+   * Validate and write a chunk in one transaction then report its rejected lines, the chunk is validated again
+   * when a response was written concurrently by another chunk
+   */
+  private void importChunk(ImportRun run, int chunkIndex, List<ImportedResponse> lines) {
+    try {
+      List<Rejection> rejections = new ArrayList<>();
+      int imported = 0;
+      for (int attempt = 1; attempt <= MAX_CHUNK_ATTEMPTS; attempt++) {
+        try {
+          imported = writeChunk(run.importId, chunkIndex, lines, rejections);
+          break;
+        } catch (DuplicateResponseException exception) {
+          if (attempt == MAX_CHUNK_ATTEMPTS) {
+            throw exception;
+          }
+          LOGGER.debug("The chunk {} of {} conflicts with another chunk, validating it again", chunkIndex,
+              run.importId);
+        }
+      }
+
+      rejections.forEach(rejection -> run.errorReport.add(rejection.lineNumber, rejection.code, rejection.detail));
+      run.imported.addAndGet(imported);
+      run.rejected.addAndGet(rejections.size());
+    } catch (RuntimeException exception) {
+      LOGGER.warn("Unable to import the chunk {} of {}", chunkIndex, run.importId, exception);
+      run.failedChunks.incrementAndGet();
+      run.errorReport.add(lines.get(0).getLineNumber(), ImportedResponse.CHUNK_FAILED, "The lines " +
+          lines.get(0).getLineNumber() + " to " + lines.get(lines.size() - 1).getLineNumber() +
+          " are imported again when the import is resumed: " + exception.getMessage());
+    }
+  }
+
+  /**
+   * Validate and write a chunk then record it in one transaction
+   *
+   * @return the number of the written responses
+   * @throws DuplicateResponseException if a response was written by another chunk since it was checked
+   */
+  private int writeChunk(String importId, int chunkIndex, List<ImportedResponse> lines, List<Rejection> rejections) {
+    return transactionTemplate.execute(status -> {
+      rejections.clear();
+      List<UserResponse> userResponses = validateChunk(lines, rejections);
+      if (!userResponses.isEmpty()) {
+        userResponseDao.addUserResponses(userResponses);
+      }
+      responseImportDao.addCompletedChunk(importId, chunkIndex, userResponses.size(), rejections.size());
+      return userResponses.size();
+    });
+  }
+
+  /**
+   * Check the lines of a chunk with one query for its users, one for its questions and one for the existing
+   * responses of its users
+   *
+   * @param lines      the lines of the chunk
+   * @param rejections the rejected lines
+   * @return the responses to write
+   */
+  private List<UserResponse> validateChunk(List<ImportedResponse> lines, List<Rejection> rejections) {
+    List<ImportedResponse> parsedLines = new ArrayList<>(lines.size());
+    lines.forEach(line -> {
+      if (line.isInvalid()) {
+        rejections.add(new Rejection(line.getLineNumber(), line.getErrorCode(), line.getErrorDetail()));
+      } else {
+        parsedLines.add(line);
+      }
+    });
+
+    if (parsedLines.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    LongList usersIds = LongList.of(parsedLines.stream().mapToLong(ImportedResponse::getUserId).distinct().toArray());
+    LongList questionsIds = LongList.of(parsedLines.stream().mapToLong(ImportedResponse::getQuestionId)
+        .distinct().toArray());
+
+    LongList nonExistingUsersIds = userDao.findNonExistingUsersByUsersIds(usersIds);
+    LongList nonExistingQuestionsIds = questionDao.findNonExistingQuestionsByQuestionsIds(questionsIds);
+    nonExistingUsersIds.sortDistinct();
+    nonExistingQuestionsIds.sortDistinct();
+    Map<Long, AnswerValidator> validators = answerValidatorRegistry.getValidators(questionsIds);
+    Set<UserResponseKey> existingKeys = userResponseDao.findResponsesKeysByUsersIds(usersIds);
+    Set<UserResponseKey> chunkKeys = new HashSet<>(parsedLines.size() * 2);
+
+    List<UserResponse> userResponses = new ArrayList<>(parsedLines.size());
+    for (ImportedResponse line : parsedLines) {
+      UserResponseKey key = new UserResponseKey(line.getUserId(), line.getQuestionId());
+
+      if (nonExistingUsersIds.containsSorted(line.getUserId())) {
+        rejections.add(new Rejection(line.getLineNumber(), ImportedResponse.USER_NOT_FOUND,
+            String.valueOf(line.getUserId())));
+      } else if (nonExistingQuestionsIds.containsSorted(line.getQuestionId())) {
+        rejections.add(new Rejection(line.getLineNumber(), ImportedResponse.QUESTION_NOT_FOUND,
+            String.valueOf(line.getQuestionId())));
+      } else if (existingKeys.contains(key) || !chunkKeys.add(key)) {
+        rejections.add(new Rejection(line.getLineNumber(), ImportedResponse.DUPLICATE,
+            line.getUserId() + " " + line.getQuestionId()));
+      } else {
+        AnswerValidator validator = validators.get(line.getQuestionId());
+        AnswerViolation violation = validator == null ? null : validator.validate(line.getContent());
+        if (violation != null) {
+          rejections.add(new Rejection(line.getLineNumber(), violation.getCode(),
+              StringUtils.arrayToDelimitedString(violation.getArguments(), " ")));
+        } else {
+          userResponses.add(new UserResponse()
+              .user(new User().id(line.getUserId()))
+              .question(new Question().id(line.getQuestionId()))
+              .content(line.getContent()));
+        }
+      }
+    }
+    return userResponses;
+  }
+
+  /**
+   * The chunks of one run of an import being imported
+   */
+  private final class ImportRun {
+
+    private final String importId;
+    private final ImportErrorReport errorReport;
+    private final Semaphore inFlight = new Semaphore(properties.getParallelism());
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failedChunks = new AtomicLong();
+
+    private ImportRun(String importId, ImportErrorReport errorReport) {
+      this.importId = importId;
+      this.errorReport = errorReport;
+    }
+
+    /**
+     * Import a chunk in the background, waits while {@code parallelism} chunks are being imported
+     */
+    private void submit(int chunkIndex, List<ImportedResponse> chunk) {
+      inFlight.acquireUninterruptibly();
+      try {
+        importers.execute(() -> {
+          try {
+            importChunk(this, chunkIndex, chunk);
+          } finally {
+            inFlight.release();
+          }
+        });
+      } catch (RejectedExecutionException exception) {
+        inFlight.release();
+        throw exception;
+      }
+    }
+
+    /**
+     * Wait for the chunks being imported then close the report of the rejected lines
+     */
+    private void awaitChunks() {
+      inFlight.acquireUninterruptibly(properties.getParallelism());
+      inFlight.release(properties.getParallelism());
+      try {
+        errorReport.close();
+      } catch (IOException exception) {
+        LOGGER.warn("Unable to close the report of the rejected lines of {}", importId, exception);
+      }
+    }
+  }
+
+  private static final class Rejection {
+
+    private final long lineNumber;
+    private final String code;
+    private final String detail;
+
+    private Rejection(long lineNumber, String code, String detail) {
+      this.lineNumber = lineNumber;
+      this.code = code;
+      this.detail = detail;
+    }
+  }
+
+}
@@ -15,20 +15,43 @@
 
 package com.github.joumenharzli.surveypoc.service;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.CollectionUtils;
 
+import com.github.joumenharzli.surveypoc.domain.CatalogEntry;
+import com.github.joumenharzli.surveypoc.domain.CatalogEntryType;
 import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.exception.InvalidParameterException;
+import com.github.joumenharzli.surveypoc.repository.dao.CatalogEntryDao;
 import com.github.joumenharzli.surveypoc.repository.dao.QuestionDao;
+import com.github.joumenharzli.surveypoc.repository.dao.UserSubjectProgressDao;
+import com.github.joumenharzli.surveypoc.service.dto.CatalogChangesDto;
+import com.github.joumenharzli.surveypoc.service.dto.CatalogQuestionDto;
+import com.github.joumenharzli.surveypoc.service.dto.CatalogSubjectDto;
 import com.github.joumenharzli.surveypoc.service.dto.SubjectDto;
+import com.github.joumenharzli.surveypoc.service.dto.SubjectProgressDto;
 import com.github.joumenharzli.surveypoc.service.mapper.SubjectMapper;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerValidatorRegistry;
 
 /**
  * A simple implementation for {@link SubjectService}
+ * <p>
+ * The catalog is modified by the migrations, not by the application, so its version is maintained by comparing
+ * the catalog with the snapshot stored in {@code catalog_entries}. Each refresh that finds differences records
+ * them with the next version, the removed subjects and questions are kept as removed entries.
  *
  * @author Joumen Harzli
  */
@@ -36,13 +59,23 @@ import com.github.joumenharzli.surveypoc.service.mapper.SubjectMapper;
 public class SimpleSubjectService implements SubjectService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SimpleSubjectService.class);
+  private static final String VERSION_PARAMETER = "since";
+  private static final int PROGRESS_REBUILD_BATCH_SIZE = 1000;
 
   private final QuestionDao questionDao;
+  private final UserSubjectProgressDao userSubjectProgressDao;
+  private final CatalogEntryDao catalogEntryDao;
   private final SubjectMapper subjectMapper;
+  private final AnswerValidatorRegistry answerValidatorRegistry;
 
-  public SimpleSubjectService(QuestionDao questionDao, SubjectMapper subjectMapper) {
+  public SimpleSubjectService(QuestionDao questionDao, UserSubjectProgressDao userSubjectProgressDao,
+                              CatalogEntryDao catalogEntryDao, SubjectMapper subjectMapper,
+                              AnswerValidatorRegistry answerValidatorRegistry) {
     this.questionDao = questionDao;
+    this.userSubjectProgressDao = userSubjectProgressDao;
+    this.catalogEntryDao = catalogEntryDao;
     this.subjectMapper = subjectMapper;
+    this.answerValidatorRegistry = answerValidatorRegistry;
   }
 
   /**
@@ -63,4 +96,185 @@ public class SimpleSubjectService implements SubjectService {
     return Collections.emptyList();
   }
 
+  /**
+   * find the number of the answered questions of the user by subject
+   * <p>
+   * The progress is materialized by the writes of the responses so it is read without counting them
+   *
+   * @param userId id of the user
+   * @return the progress of the user in the subjects where at least one question was answered
+   */
+  @Override
+  public List<SubjectProgressDto> findProgressOfUser(long userId) {
+    LOGGER.debug("Request to get the progress of the user {}", userId);
+
+    return userSubjectProgressDao.findProgressOfUser(userId).stream()
+        .map(progress -> new SubjectProgressDto(progress.getSubjectId(), progress.getAnsweredQuestions()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * recompute the progress of the users from their responses and correct the differences
+   * <p>
+   * The users are rebuilt by batches of their ids under the default isolation, each difference is corrected
+   * by adding it to the stored progress so the increments of the writes running meanwhile are not lost
+   *
+   * @return the number of the corrected progresses
+   */
+  @Override
+  public int rebuildProgress() {
+    LOGGER.debug("Request to rebuild the progress of the users");
+
+    int corrected = 0;
+    long afterUserId = 0;
+    Long lastUserId;
+    while ((lastUserId = userSubjectProgressDao.findLastUserIdOfBatch(afterUserId,
+        PROGRESS_REBUILD_BATCH_SIZE)) != null) {
+      corrected += userSubjectProgressDao.rebuildProgressOfUsers(afterUserId, lastUserId);
+      afterUserId = lastUserId;
+    }
+    if (corrected > 0) {
+      LOGGER.warn("The progress of the users differed from their responses, {} rows were corrected", corrected);
+    }
+    return corrected;
+  }
+
+  /**
+   * find the current version of the catalog
+   *
+   * @return the version of the last refresh that found a change, 0 if the catalog was never versioned
+   */
+  @Override
+  public long findCatalogVersion() {
+    LOGGER.debug("Request to get the version of the catalog");
+
+    return catalogEntryDao.findCurrentVersion();
+  }
+
+  /**
+   * find the subjects and the questions added, changed or removed since a version of the catalog
+   * <p>
+   * The changes are read from the snapshot so they are consistent with the returned version even if
+   * the catalog was modified since the last refresh
+   *
+   * @param version the version known by the client, 0 for the whole catalog
+   * @return the changes and the current version
+   * @throws InvalidParameterException if the version is negative or greater than the current version
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public CatalogChangesDto findCatalogChangesSince(long version) {
+    LOGGER.debug("Request to get the changes of the catalog since the version {}", version);
+
+    long currentVersion = catalogEntryDao.findCurrentVersion();
+    if (version < 0 || version > currentVersion) {
+      throw new InvalidParameterException(VERSION_PARAMETER, String.valueOf(version));
+    }
+
+    List<CatalogSubjectDto> subjects = new ArrayList<>();
+    List<CatalogQuestionDto> questions = new ArrayList<>();
+    List<Long> removedSubjectsIds = new ArrayList<>();
+    List<Long> removedQuestionsIds = new ArrayList<>();
+
+    for (CatalogEntry entry : catalogEntryDao.findEntriesChangedSince(version)) {
+      boolean subject = entry.getType() == CatalogEntryType.SUBJECT;
+      if (entry.isRemoved()) {
+        (subject ? removedSubjectsIds : removedQuestionsIds).add(entry.getId());
+      } else if (subject) {
+        subjects.add(new CatalogSubjectDto(entry.getId(), entry.getLabel()));
+      } else {
+        questions.add(new CatalogQuestionDto(entry.getId(), entry.getLabel(), entry.getSubjectId(),
+            entry.getQuestionType(), entry.getMinValue(), entry.getMaxValue(), entry.getPattern(),
+            entry.getChoices() == null ? Collections.emptyList() : entry.getChoices()));
+      }
+    }
+
+    return new CatalogChangesDto(currentVersion, subjects, questions, removedSubjectsIds, removedQuestionsIds);
+  }
+
+  /**
+   * compare the catalog with its last versioned snapshot and record the differences in a new version
+   * <p>
+   * The compiled validators of the answers are discarded once a new version is committed since the
+   * definitions of the questions may have changed
+   *
+   * @return the current version of the catalog
+   */
+  @Override
+  @Transactional
+  public long refreshCatalogVersion() {
+    LOGGER.debug("Request to refresh the version of the catalog");
+
+    Map<Long, Question> definitions = questionDao.findAllQuestionsDefinitions().stream()
+        .collect(Collectors.toMap(Question::getId, Function.identity()));
+
+    Map<CatalogEntry, CatalogEntry> catalog = new LinkedHashMap<>();
+    for (Question question : questionDao.findAllQuestionsAndSubjects()) {
+      if (question.getSubject() != null) {
+        CatalogEntry subject = new CatalogEntry().type(CatalogEntryType.SUBJECT).id(question.getSubjectId())
+            .label(question.getSubject().getLabel());
+        catalog.putIfAbsent(subject, subject);
+      }
+      CatalogEntry entry = new CatalogEntry().type(CatalogEntryType.QUESTION).id(question.getId())
+          .label(question.getLabel()).subjectId(question.getSubjectId());
+      withDefinition(entry, definitions.get(question.getId()));
+      catalog.put(entry, entry);
+    }
+
+    Map<CatalogEntry, CatalogEntry> snapshot = catalogEntryDao.findAllEntries().stream()
+        .collect(Collectors.toMap(entry -> entry, entry -> entry));
+    long version = catalogEntryDao.findCurrentVersion();
+
+    List<CatalogEntry> changedEntries = new ArrayList<>();
+    catalog.values().forEach(entry -> {
+      CatalogEntry snapshotEntry = snapshot.get(entry);
+      if (snapshotEntry == null || !snapshotEntry.hasSameContent(entry)) {
+        changedEntries.add(entry.version(version + 1));
+      }
+    });
+    snapshot.values().forEach(snapshotEntry -> {
+      if (!snapshotEntry.isRemoved() && !catalog.containsKey(snapshotEntry)) {
+        changedEntries.add(snapshotEntry.removed(true).version(version + 1));
+      }
+    });
+
+    if (changedEntries.isEmpty()) {
+      return version;
+    }
+
+    catalogEntryDao.saveEntries(changedEntries);
+    clearValidatorsWhenCommitted();
+    LOGGER.info("The catalog changed, {} subjects and questions were recorded in the version {}",
+        changedEntries.size(), version + 1);
+    return version + 1;
+  }
+
+  /**
+   * Copy the definition of the question to its entry, a question without choices has no choices in its entry
+   */
+  private static void withDefinition(CatalogEntry entry, Question definition) {
+    if (definition == null) {
+      return;
+    }
+    entry.questionType(definition.getType())
+        .minValue(definition.getMinValue())
+        .maxValue(definition.getMaxValue())
+        .pattern(definition.getPattern())
+        .choices(CollectionUtils.isEmpty(definition.getChoices()) ? null : definition.getChoices());
+  }
+
+  private void clearValidatorsWhenCommitted() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      answerValidatorRegistry.clear();
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      @Override
+      public void afterCommit() {
+        answerValidatorRegistry.clear();
+      }
+    });
+  }
+
 }
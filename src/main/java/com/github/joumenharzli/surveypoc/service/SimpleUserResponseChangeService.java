@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.exception.InvalidParameterException;
+import com.github.joumenharzli.surveypoc.repository.dao.UserResponseDao;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseChangesDto;
+import com.github.joumenharzli.surveypoc.service.mapper.UserResponseMapper;
+
+/**
+ * A simple implementation for {@link UserResponseChangeService}
+ *
+ * @author Joumen Harzli
+ */
+@Service
+public class SimpleUserResponseChangeService implements UserResponseChangeService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SimpleUserResponseChangeService.class);
+
+  private final UserResponseDao userResponseDao;
+  private final UserResponseMapper userResponseMapper;
+  private final ApplicationProperties.Changes properties;
+
+  public SimpleUserResponseChangeService(UserResponseDao userResponseDao, UserResponseMapper userResponseMapper,
+                                         ApplicationProperties applicationProperties) {
+    this.userResponseDao = userResponseDao;
+    this.userResponseMapper = userResponseMapper;
+    this.properties = applicationProperties.getChanges();
+  }
+
+  /**
+   * Find the responses changed since the position encoded in the token
+   * <p>
+   * The responses changed during the safety lag are not returned yet, so a transaction that
+   * committed a change with an earlier update time after this call cannot be skipped by the client
+   *
+   * @param token    token returned by the previous call or null to start from the beginning
+   * @param pageSize maximum number of the returned changes, the default size is used if null
+   * @return a page of the changed responses and the token of the next page
+   * @throws InvalidParameterException if the token is malformed
+   */
+  @Override
+  public UserResponseChangesDto findChangesSince(String token, Integer pageSize) {
+    LOGGER.debug("Request to get the responses changed since {}", token);
+
+    UserResponseChangeCursor cursor = UserResponseChangeCursor.parse(token);
+    int limit = resolvePageSize(pageSize);
+    Instant upperBound = Instant.now().minusMillis(properties.getSafetyLagMillis());
+
+    /* one more response is read to know if there is another page */
+    List<UserResponse> responses = userResponseDao.findResponsesChangedAfter(cursor.getUpdatedAt(),
+        cursor.getUserId(), cursor.getQuestionId(), upperBound, limit + 1);
+
+    boolean hasMore = responses.size() > limit;
+    if (hasMore) {
+      responses = responses.subList(0, limit);
+    }
+
+    String nextToken = responses.isEmpty() ? cursor.toToken() :
+        UserResponseChangeCursor.after(responses.get(responses.size() - 1)).toToken();
+
+    return new UserResponseChangesDto(userResponseMapper.userResponseListToUserResponseChangeDtoList(responses),
+        nextToken, hasMore);
+  }
+
+  private int resolvePageSize(Integer pageSize) {
+    if (pageSize == null) {
+      return properties.getDefaultPageSize();
+    }
+    if (pageSize <= 0 || pageSize > properties.getMaxPageSize()) {
+      throw new InvalidParameterException("size", String.valueOf(pageSize));
+    }
+    return pageSize;
+  }
+
+}
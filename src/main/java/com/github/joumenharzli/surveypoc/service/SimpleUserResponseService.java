@@ -17,34 +17,59 @@ package com.github.joumenharzli.surveypoc.service;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
 import com.github.joumenharzli.surveypoc.domain.User;
 import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.domain.UserResponseKey;
+import com.github.joumenharzli.surveypoc.exception.InvalidResponseException;
 import com.github.joumenharzli.surveypoc.exception.QuestionNotFoundException;
+import com.github.joumenharzli.surveypoc.exception.ResponseConflictException;
 import com.github.joumenharzli.surveypoc.exception.UserNotFoundException;
+import com.github.joumenharzli.surveypoc.live.ResponseUpdateBroadcaster;
+import com.github.joumenharzli.surveypoc.repository.dao.DuplicateResponseException;
 import com.github.joumenharzli.surveypoc.repository.dao.QuestionDao;
 import com.github.joumenharzli.surveypoc.repository.dao.UserDao;
 import com.github.joumenharzli.surveypoc.repository.dao.UserResponseDao;
+import com.github.joumenharzli.surveypoc.service.dto.AnswerCountDto;
+import com.github.joumenharzli.surveypoc.service.dto.QuestionAnswersUpdateDto;
 import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
 import com.github.joumenharzli.surveypoc.service.mapper.QuestionMapper;
 import com.github.joumenharzli.surveypoc.service.mapper.UserMapper;
 import com.github.joumenharzli.surveypoc.service.mapper.UserResponseMapper;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerValidator;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerValidatorRegistry;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerViolation;
+import com.github.joumenharzli.surveypoc.util.LongList;
 
 /**
  * A simple implementation for {@link UserResponseService}
+ * <p>
+ * Each flow runs in a single transaction so its dao calls share one connection of the pool
+ * and the writes of a save are committed at once. The changes of the counts of the answers are published
+ * to the subscribers of the questions once the save is committed.
  *
  * @author Joumen Harzli
  */
 @Service
 public class SimpleUserResponseService implements UserResponseService {
 
+  private static final String DUPLICATE_QUESTION = "DuplicateQuestion";
+
   private static final Logger LOGGER = LoggerFactory.getLogger(SimpleUserResponseService.class);
 
   private final UserResponseDao userResponseDao;
@@ -53,16 +78,25 @@ public class SimpleUserResponseService implements UserResponseService {
   private final UserResponseMapper userResponseMapper;
   private final QuestionDao questionDao;
   private final UserDao userDao;
+  private final AnswerValidatorRegistry answerValidatorRegistry;
+  private final ResponseUpdateBroadcaster<QuestionAnswersUpdateDto> responseUpdateBroadcaster;
+  private final ResponseSubmissionProcessor responseSubmissionProcessor;
 
   public SimpleUserResponseService(UserResponseDao userResponseDao, UserMapper userMapper,
                                    QuestionMapper questionMapper, UserResponseMapper userResponseMapper,
-                                   QuestionDao questionDao, UserDao userDao) {
+                                   QuestionDao questionDao, UserDao userDao,
+                                   AnswerValidatorRegistry answerValidatorRegistry,
+                                   ResponseUpdateBroadcaster<QuestionAnswersUpdateDto> responseUpdateBroadcaster,
+                                   ResponseSubmissionProcessor responseSubmissionProcessor) {
     this.userResponseDao = userResponseDao;
     this.userMapper = userMapper;
     this.questionMapper = questionMapper;
     this.userResponseMapper = userResponseMapper;
     this.questionDao = questionDao;
     this.userDao = userDao;
+    this.answerValidatorRegistry = answerValidatorRegistry;
+    this.responseUpdateBroadcaster = responseUpdateBroadcaster;
+    this.responseSubmissionProcessor = responseSubmissionProcessor;
   }
 
   /**
@@ -76,12 +110,11 @@ public class SimpleUserResponseService implements UserResponseService {
    * @throws IllegalArgumentException  if any given argument is invalid
    */
   @Override
-  public List<UserResponseForQuestionDto> findResponsesOfUserForQuestions(Long userId, List<Long> questionsIds) {
+  @Transactional(readOnly = true)
+  public List<UserResponseForQuestionDto> findResponsesOfUserForQuestions(long userId, LongList questionsIds) {
     LOGGER.debug("Request to get the responses of the user {} for the questions with ids {}", userId, questionsIds);
 
-    Assert.notNull(userId, "Id of the user cannot be null");
-    Assert.notEmpty(questionsIds, "Ids of the questions cannot be null or empty");
-    questionsIds.forEach(questionId -> Assert.notNull(questionId, "Id of the question cannot be null"));
+    Assert.isTrue(questionsIds != null && !questionsIds.isEmpty(), "Ids of the questions cannot be null or empty");
 
     verifyUserAndQuestionsExists(userId, questionsIds);
 
@@ -96,29 +129,30 @@ public class SimpleUserResponseService implements UserResponseService {
    * @return List of the saved responses of the user
    * @throws UserNotFoundException     if no user was found
    * @throws QuestionNotFoundException if no question was found
+   * @throws InvalidResponseException  if a content does not match the definition of its question or
+   *                                   if a question is answered more than once
+   * @throws ResponseConflictException if a response was modified or added since it was read
    * @throws IllegalArgumentException  if any given argument is invalid
    */
   @Override
-  public List<UserResponseForQuestionDto> saveResponsesOfUserForQuestions(Long userId,
+  @Transactional
+  public List<UserResponseForQuestionDto> saveResponsesOfUserForQuestions(long userId,
                                                                           List<UserResponseForQuestionDto> userResponsesForQuestions) {
-    LOGGER.debug("Request to save the responses of the user {} for the questions {}", userId, userResponsesForQuestions);
-
-    Assert.notNull(userId, "Id of the user cannot be null");
+    /* the responses are not formatted in the log, a request can contain hundreds of them */
+    LOGGER.debug("Request to save {} responses of the user {}", size(userResponsesForQuestions), userId);
 
     if (CollectionUtils.isEmpty(userResponsesForQuestions)) {
       return Collections.emptyList();
     }
 
-    List<Long> questionsIds = userResponseMapper.userResponsesForQuestionsToQuestionsIdsList(userResponsesForQuestions);
+    LongList questionsIds = responseSubmissionProcessor.toQuestionsIds(userResponsesForQuestions);
 
+    validateResponses(userResponsesForQuestions, questionsIds);
     verifyUserAndQuestionsExists(userId, questionsIds);
 
     User user = this.userMapper.toEntityFromId(userId);
 
-    //@formatter:off
-    List<UserResponse> userResponses = userResponseMapper
-                                      .userResponsesForQuestionsDtoToUserResponsesList(userResponsesForQuestions, user);
-    //@formatter:on
+    List<UserResponse> userResponses = responseSubmissionProcessor.toUserResponses(userResponsesForQuestions, user);
 
     List<UserResponse> existingUserResponses = userResponseDao
         .findResponsesOfUserByUserIdAndQuestionIds(userId, questionsIds);
@@ -130,17 +164,29 @@ public class SimpleUserResponseService implements UserResponseService {
 
   /**
    * Update the existing user responses and save the new ones extracted from the provided user reponses
+   * <p>
+   * An existing response is updated only if it was not modified since the version sent by the client, or since
+   * it was read when no version was sent, so a concurrent save is never silently overwritten. A new response
+   * added concurrently by another save is a conflict too.
    *
    * @param userResponses         the provided user responses
    * @param existingUserResponses the existing user responses
+   * @throws ResponseConflictException if a response was modified or added concurrently
    */
   private void saveResponsesOfUserForQuestions(List<UserResponse> userResponses, List<UserResponse> existingUserResponses) {
 
+    Map<UserResponseKey, UserResponse> existingUserResponsesByKey = existingUserResponses.stream()
+        .collect(Collectors.toMap(UserResponse::getKey, Function.identity()));
+
     List<UserResponse> userResponsesToAdd = new ArrayList<>();
     List<UserResponse> userResponsesToUpdate = new ArrayList<>();
 
     userResponses.forEach((userResponse -> {
-      if (existingUserResponses.contains(userResponse)) {
+      UserResponse existingUserResponse = existingUserResponsesByKey.get(userResponse.getKey());
+      if (existingUserResponse != null) {
+        if (userResponse.getVersion() == null) {
+          userResponse.setVersion(existingUserResponse.getVersion());
+        }
         userResponsesToUpdate.add(userResponse);
       } else {
         userResponsesToAdd.add(userResponse);
@@ -148,11 +194,96 @@ public class SimpleUserResponseService implements UserResponseService {
     }));
 
     if (!CollectionUtils.isEmpty(userResponsesToAdd)) {
-      userResponseDao.addUserResponses(userResponsesToAdd);
+      addUserResponses(userResponsesToAdd);
     }
 
     if (!CollectionUtils.isEmpty(userResponsesToUpdate)) {
-      userResponseDao.updateUserResponses(userResponsesToUpdate);
+      int[] updatedRows = userResponseDao.updateUserResponses(userResponsesToUpdate);
+      verifyNoConflict(userResponsesToUpdate, updatedRows);
+    }
+
+    publishAnswersUpdates(userResponsesToAdd, userResponsesToUpdate, existingUserResponsesByKey);
+  }
+
+  /**
+   * Add the new user responses
+   *
+   * @param userResponses the new user responses
+   * @throws ResponseConflictException if a response was added concurrently
+   */
+  private void addUserResponses(List<UserResponse> userResponses) {
+    try {
+      userResponseDao.addUserResponses(userResponses);
+    } catch (DuplicateResponseException exception) {
+      throw new ResponseConflictException(userResponses.stream()
+          .map(UserResponse::getQuestionId)
+          .collect(Collectors.toList()));
+    }
+  }
+
+  /**
+   * Publish the variations of the counts of the answers by content of the subscribed questions
+   *
+   * @param addedUserResponses         the added user responses
+   * @param updatedUserResponses       the updated user responses
+   * @param existingUserResponsesByKey the user responses before the update
+   */
+  private void publishAnswersUpdates(List<UserResponse> addedUserResponses, List<UserResponse> updatedUserResponses,
+                                     Map<UserResponseKey, UserResponse> existingUserResponsesByKey) {
+    Map<Long, Map<String, Integer>> countChangesByQuestion = new LinkedHashMap<>();
+
+    addedUserResponses.forEach(userResponse ->
+        addCountChange(countChangesByQuestion, userResponse.getQuestionId(), userResponse.getContent(), 1));
+
+    updatedUserResponses.forEach(userResponse -> {
+      String previousContent = existingUserResponsesByKey.get(userResponse.getKey()).getContent();
+      if (!Objects.equals(previousContent, userResponse.getContent())) {
+        addCountChange(countChangesByQuestion, userResponse.getQuestionId(), previousContent, -1);
+        addCountChange(countChangesByQuestion, userResponse.getQuestionId(), userResponse.getContent(), 1);
+      }
+    });
+
+    if (countChangesByQuestion.isEmpty()) {
+      return;
+    }
+
+    Map<Long, QuestionAnswersUpdateDto> updates = new LinkedHashMap<>();
+    countChangesByQuestion.forEach((questionId, countChanges) -> updates.put(questionId,
+        new QuestionAnswersUpdateDto(questionId, countChanges.entrySet().stream()
+            .map(countChange -> new AnswerCountDto(countChange.getKey(), countChange.getValue()))
+            .collect(Collectors.toList()))));
+    responseUpdateBroadcaster.publish(updates);
+  }
+
+  /**
+   * Add a variation of the count of the answers, only for the questions having subscribers
+   */
+  private void addCountChange(Map<Long, Map<String, Integer>> countChangesByQuestion, Long questionId,
+                              String content, int change) {
+    if (responseUpdateBroadcaster.hasSubscribers(questionId)) {
+      countChangesByQuestion.computeIfAbsent(questionId, id -> new LinkedHashMap<>())
+          .merge(content, change, Integer::sum);
+    }
+  }
+
+  /**
+   * Verify that every response was updated, a response that was not updated has been modified concurrently
+   *
+   * @param userResponses the updated user responses
+   * @param updatedRows   number of rows affected by the update of each response
+   * @throws ResponseConflictException if a response was modified concurrently
+   */
+  private void verifyNoConflict(List<UserResponse> userResponses, int[] updatedRows) {
+    List<Long> conflictingQuestionsIds = new ArrayList<>();
+
+    for (int i = 0; i < updatedRows.length; i++) {
+      if (updatedRows[i] == 0) {
+        conflictingQuestionsIds.add(userResponses.get(i).getQuestionId());
+      }
+    }
+
+    if (!conflictingQuestionsIds.isEmpty()) {
+      throw new ResponseConflictException(conflictingQuestionsIds);
     }
   }
 
@@ -164,11 +295,48 @@ public class SimpleUserResponseService implements UserResponseService {
    * @param questionsIds ids of the questions
    * @return list of dto of the response of the user
    */
-  private List<UserResponseForQuestionDto> findResponsesOfUserByUserIdAndQuestionIds(Long userId, List<Long> questionsIds) {
+  private List<UserResponseForQuestionDto> findResponsesOfUserByUserIdAndQuestionIds(long userId, LongList questionsIds) {
     List<UserResponse> responses = userResponseDao.findResponsesOfUserByUserIdAndQuestionIds(userId, questionsIds);
     return userResponseMapper.userResponseListToUserResponseForQuestionDtoList(responses);
   }
 
+  /**
+   * Validate the contents of the responses using the compiled validators of their questions,
+   * the responses of the unknown questions are left to the verification of the existence of the questions.
+   * <p>
+   * A question can be answered only once by a request, the following responses to the same question are invalid
+   *
+   * @param userResponsesForQuestions the responses to validate
+   * @param questionsIds              ids of the questions of the responses
+   * @throws InvalidResponseException if a content does not match the definition of its question or
+   *                                  if a question is answered more than once
+   */
+  private void validateResponses(List<UserResponseForQuestionDto> userResponsesForQuestions, LongList questionsIds) {
+    Map<Long, AnswerValidator> validators = answerValidatorRegistry.getValidators(questionsIds);
+    AnswerViolation[] violations = responseSubmissionProcessor.findViolations(userResponsesForQuestions, validators);
+    List<InvalidResponseException.InvalidResponse> invalidResponses = new ArrayList<>();
+    Set<Long> answeredQuestionsIds = new HashSet<>();
+
+    for (int index = 0; index < violations.length; index++) {
+      long questionId = questionsIds.get(index);
+      if (!answeredQuestionsIds.add(questionId)) {
+        invalidResponses.add(new InvalidResponseException.InvalidResponse(index, questionId, DUPLICATE_QUESTION,
+            new Object[]{String.valueOf(questionId)}));
+        continue;
+      }
+
+      AnswerViolation violation = violations[index];
+      if (violation != null) {
+        invalidResponses.add(new InvalidResponseException.InvalidResponse(index,
+            userResponsesForQuestions.get(index).getQuestionId(), violation.getCode(), violation.getArguments()));
+      }
+    }
+
+    if (!invalidResponses.isEmpty()) {
+      throw new InvalidResponseException(invalidResponses);
+    }
+  }
+
   /**
    * Verify that the user and the questions exist in the database
    *
@@ -177,7 +345,7 @@ public class SimpleUserResponseService implements UserResponseService {
    * @throws UserNotFoundException     if no user was found
    * @throws QuestionNotFoundException if no question was found
    */
-  private void verifyUserAndQuestionsExists(Long userId, List<Long> questionsIds) {
+  private void verifyUserAndQuestionsExists(long userId, LongList questionsIds) {
     verifyUserExist(userId);
     verifyQuestionsExist(questionsIds);
   }
@@ -188,10 +356,10 @@ public class SimpleUserResponseService implements UserResponseService {
    * @param userId id of the user
    * @throws UserNotFoundException if no user was found
    */
-  private void verifyUserExist(Long userId) {
-    List<Long> nonExistingUsersIds = userDao.findNonExistingUsersByUsersIds(Collections.singletonList(userId));
-    if (!CollectionUtils.isEmpty(nonExistingUsersIds)) {
-      throw new UserNotFoundException(nonExistingUsersIds);
+  private void verifyUserExist(long userId) {
+    LongList nonExistingUsersIds = userDao.findNonExistingUsersByUsersIds(LongList.of(userId));
+    if (!nonExistingUsersIds.isEmpty()) {
+      throw new UserNotFoundException(toList(nonExistingUsersIds));
     }
   }
 
@@ -201,11 +369,22 @@ public class SimpleUserResponseService implements UserResponseService {
    * @param questionsIds ids of the questions
    * @throws QuestionNotFoundException if no question was found
    */
-  private void verifyQuestionsExist(List<Long> questionsIds) {
-    List<Long> nonExistingQuestionsIds = questionDao.findNonExistingQuestionsByQuestionsIds(questionsIds);
-    if (!CollectionUtils.isEmpty(nonExistingQuestionsIds)) {
-      throw new QuestionNotFoundException(nonExistingQuestionsIds);
+  private void verifyQuestionsExist(LongList questionsIds) {
+    LongList nonExistingQuestionsIds = questionDao.findNonExistingQuestionsByQuestionsIds(questionsIds);
+    if (!nonExistingQuestionsIds.isEmpty()) {
+      throw new QuestionNotFoundException(toList(nonExistingQuestionsIds));
     }
   }
 
+  private static int size(List<?> list) {
+    return list == null ? 0 : list.size();
+  }
+
+  /**
+   * Box the ids reported by an exception, only the failing requests pay for it
+   */
+  private static List<Long> toList(LongList ids) {
+    return ids.stream().boxed().collect(Collectors.toList());
+  }
+
 }
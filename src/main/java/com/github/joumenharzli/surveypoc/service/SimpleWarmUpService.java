@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.repository.dao.QuestionDao;
+import com.github.joumenharzli.surveypoc.repository.dao.UserDao;
+import com.github.joumenharzli.surveypoc.repository.dao.UserResponseDao;
+import com.github.joumenharzli.surveypoc.service.dto.SubjectDto;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
+import com.github.joumenharzli.surveypoc.service.dto.WarmUpReportDto;
+import com.github.joumenharzli.surveypoc.service.mapper.UserMapper;
+import com.github.joumenharzli.surveypoc.service.mapper.UserResponseMapper;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerValidator;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerValidatorRegistry;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+/**
+ * A simple implementation for {@link WarmUpService}
+ * <p>
+ * The statements are prepared on the connection that executes them, so only the connections
+ * used by the warm up have their statements prepared. The writes are warmed up without writing: the answers
+ * of a user that never exists are validated, mapped and compared to the stored responses in a read-only
+ * transaction, the statements that modify the rows are not executed so the warm up never writes any row and
+ * they are prepared by the first saves.
+ *
+ * @author Joumen Harzli
+ */
+@Service
+public class SimpleWarmUpService implements WarmUpService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SimpleWarmUpService.class);
+
+  private static final String CATALOG = "catalog";
+  private static final String VALIDATORS = "validators";
+  private static final String MAPPERS = "mappers";
+  private static final String READS = "reads";
+  /* the save path is executed up to the statements that modify the rows, which are not warmed up */
+  private static final String SAVE_PREPARATION = "savePreparation";
+
+  /**
+   * Ids are generated from 1 so this user never exists
+   */
+  private static final long WARM_UP_USER_ID = 0L;
+  private static final String WARM_UP_CONTENT = "warm-up";
+
+  private final SubjectService subjectService;
+  private final ResponseSubmissionProcessor responseSubmissionProcessor;
+  private final AnswerValidatorRegistry answerValidatorRegistry;
+  private final UserMapper userMapper;
+  private final UserResponseMapper userResponseMapper;
+  private final QuestionDao questionDao;
+  private final UserDao userDao;
+  private final UserResponseDao userResponseDao;
+  private final TransactionTemplate transactionTemplate;
+
+  public SimpleWarmUpService(SubjectService subjectService, ResponseSubmissionProcessor responseSubmissionProcessor,
+                             AnswerValidatorRegistry answerValidatorRegistry, UserMapper userMapper,
+                             UserResponseMapper userResponseMapper, QuestionDao questionDao, UserDao userDao,
+                             UserResponseDao userResponseDao, PlatformTransactionManager transactionManager) {
+    this.subjectService = subjectService;
+    this.responseSubmissionProcessor = responseSubmissionProcessor;
+    this.answerValidatorRegistry = answerValidatorRegistry;
+    this.userMapper = userMapper;
+    this.userResponseMapper = userResponseMapper;
+    this.questionDao = questionDao;
+    this.userDao = userDao;
+    this.userResponseDao = userResponseDao;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  /**
+   * Execute the critical paths, the writes are executed up to the statements that modify the rows
+   *
+   * @param iterations      number of the executions of each read path
+   * @param writeIterations number of the executions of the write path
+   * @return the time spent by path
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  @Override
+  public WarmUpReportDto warmUp(int iterations, int writeIterations) {
+    LOGGER.debug("Request to warm up the critical paths {} times and the writes {} times", iterations,
+        writeIterations);
+
+    Assert.isTrue(iterations > 0, "Number of iterations must be positive");
+    Assert.isTrue(writeIterations >= 0, "Number of write iterations cannot be negative");
+
+    Map<String, Long> elapsedMillis = new LinkedHashMap<>();
+
+    LongList questionsIds = new LongList(0);
+    time(elapsedMillis, CATALOG, () -> {
+      for (int i = 0; i < iterations; i++) {
+        questionsIds.clear();
+        List<SubjectDto> subjects = subjectService.findAllSubjectsAndQuestions();
+        subjects.forEach(subject -> subject.getQuestions().forEach(question -> questionsIds.add(question.getId())));
+      }
+    });
+
+    if (questionsIds.isEmpty()) {
+      return new WarmUpReportDto(iterations, writeIterations, elapsedMillis);
+    }
+
+    List<UserResponseForQuestionDto> answers = new ArrayList<>();
+    time(elapsedMillis, VALIDATORS, () -> {
+      Map<Long, AnswerValidator> validators = answerValidatorRegistry.getValidators(questionsIds);
+      answers.addAll(validAnswers(questionDao.findQuestionsDefinitionsByQuestionsIds(questionsIds), validators));
+
+      for (int i = 0; i < iterations; i++) {
+        answers.forEach(answer -> validators.get(answer.getQuestionId()).validate(answer.getContent()));
+      }
+    });
+
+    time(elapsedMillis, MAPPERS, () -> {
+      for (int i = 0; i < iterations; i++) {
+        List<UserResponse> userResponses = userResponseMapper.userResponsesForQuestionsDtoToUserResponsesList(answers,
+            userMapper.toEntityFromId(WARM_UP_USER_ID));
+        userResponseMapper.userResponseListToUserResponseForQuestionDtoList(userResponses);
+        userResponseMapper.userResponsesForQuestionsToQuestionsIds(answers);
+      }
+    });
+
+    time(elapsedMillis, READS, () -> {
+      for (int i = 0; i < iterations; i++) {
+        questionDao.findNonExistingQuestionsByQuestionsIds(questionsIds);
+        userDao.findNonExistingUsersByUsersIds(LongList.of(WARM_UP_USER_ID));
+        userResponseDao.findResponsesOfUserByUserIdAndQuestionIds(WARM_UP_USER_ID, questionsIds);
+      }
+    });
+
+    if (!answers.isEmpty()) {
+      time(elapsedMillis, SAVE_PREPARATION, () -> {
+        for (int i = 0; i < writeIterations; i++) {
+          prepareWrites(answers);
+        }
+      });
+    }
+
+    return new WarmUpReportDto(iterations, writeIterations, elapsedMillis);
+  }
+
+  /**
+   * Execute the steps of a save of the answers that precede the writes, in a read-only transaction
+   *
+   * @param answers the answers to save
+   */
+  private void prepareWrites(List<UserResponseForQuestionDto> answers) {
+    transactionTemplate.execute(status -> {
+      LongList questionsIds = responseSubmissionProcessor.toQuestionsIds(answers);
+      responseSubmissionProcessor.findViolations(answers, answerValidatorRegistry.getValidators(questionsIds));
+      questionDao.findNonExistingQuestionsByQuestionsIds(questionsIds);
+
+      List<UserResponse> userResponses = responseSubmissionProcessor.toUserResponses(answers,
+          userMapper.toEntityFromId(WARM_UP_USER_ID));
+      userResponseDao.findResponsesOfUserByUserIdAndQuestionIds(WARM_UP_USER_ID, questionsIds);
+      return userResponseMapper.userResponseListToUserResponseForQuestionDtoList(userResponses);
+    });
+  }
+
+  /**
+   * Build an answer accepted by the validator of each question, the questions for which no answer
+   * can be built are not answered
+   *
+   * @param questions  definitions of the questions
+   * @param validators validators by question id
+   * @return the valid answers
+   */
+  private static List<UserResponseForQuestionDto> validAnswers(List<Question> questions,
+                                                               Map<Long, AnswerValidator> validators) {
+    List<UserResponseForQuestionDto> answers = new ArrayList<>();
+
+    for (Question question : questions) {
+      String content = sampleContent(question);
+      AnswerValidator validator = validators.get(question.getId());
+
+      if (content != null && validator != null && validator.validate(content) == null) {
+        UserResponseForQuestionDto answer = new UserResponseForQuestionDto();
+        answer.setQuestionId(question.getId());
+        answer.setContent(content);
+        answers.add(answer);
+      }
+    }
+
+    return answers;
+  }
+
+  /**
+   * @return a content that should match the definition of the question or null for the patterns
+   */
+  private static String sampleContent(Question question) {
+    switch (question.getType()) {
+      case INTEGER_RANGE:
+        return String.valueOf(question.getMinValue() == null ? 0 : question.getMinValue());
+      case SINGLE_CHOICE:
+      case MULTIPLE_CHOICE:
+        return question.getChoices().isEmpty() ? null : question.getChoices().get(0);
+      case REGEX:
+        return null;
+      default:
+        return WARM_UP_CONTENT;
+    }
+  }
+
+  private static void time(Map<String, Long> elapsedMillis, String path, Runnable runnable) {
+    long start = System.nanoTime();
+    runnable.run();
+    elapsedMillis.put(path, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+}
@@ -17,7 +17,10 @@ package com.github.joumenharzli.surveypoc.service;
 
 import java.util.List;
 
+import com.github.joumenharzli.surveypoc.exception.InvalidParameterException;
+import com.github.joumenharzli.surveypoc.service.dto.CatalogChangesDto;
 import com.github.joumenharzli.surveypoc.service.dto.SubjectDto;
+import com.github.joumenharzli.surveypoc.service.dto.SubjectProgressDto;
 
 /**
  * Subject service
@@ -33,4 +36,42 @@ public interface SubjectService {
    */
   List<SubjectDto> findAllSubjectsAndQuestions();
 
+  /**
+   * find the number of the answered questions of the user by subject
+   *
+   * @param userId id of the user
+   * @return the progress of the user in the subjects where at least one question was answered
+   */
+  List<SubjectProgressDto> findProgressOfUser(long userId);
+
+  /**
+   * recompute the progress of the users from their responses and correct the differences
+   *
+   * @return the number of the corrected progresses
+   */
+  int rebuildProgress();
+
+  /**
+   * find the current version of the catalog
+   *
+   * @return the version of the last refresh that found a change, 0 if the catalog was never versioned
+   */
+  long findCatalogVersion();
+
+  /**
+   * find the subjects and the questions added, changed or removed since a version of the catalog
+   *
+   * @param version the version known by the client, 0 for the whole catalog
+   * @return the changes and the current version
+   * @throws InvalidParameterException if the version is negative or greater than the current version
+   */
+  CatalogChangesDto findCatalogChangesSince(long version);
+
+  /**
+   * compare the catalog with its last versioned snapshot and record the differences in a new version
+   *
+   * @return the current version of the catalog
+   */
+  long refreshCatalogVersion();
+
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.util.StringUtils;
+
+import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.exception.InvalidParameterException;
+
+/**
+ * Position in the feed of the changed responses
+ * <p>
+ * The position is the key of the last read response in the order of the index
+ * {@code (updated_at, user_id, question_id)} and it is sent to the clients as an opaque token
+ *
+ * @author Joumen Harzli
+ */
+final class UserResponseChangeCursor {
+
+  static final String TOKEN_PARAMETER = "since";
+
+  private static final UserResponseChangeCursor START = new UserResponseChangeCursor(Instant.EPOCH, 0L, 0L);
+  private static final String TOKEN_VERSION = "1";
+  private static final String SEPARATOR = ":";
+
+  private final Instant updatedAt;
+  private final Long userId;
+  private final Long questionId;
+
+  private UserResponseChangeCursor(Instant updatedAt, Long userId, Long questionId) {
+    this.updatedAt = updatedAt;
+    this.userId = userId;
+    this.questionId = questionId;
+  }
+
+  /**
+   * Parse a token sent by a client, an empty token means the start of the feed
+   *
+   * @param token the token to parse
+   * @return the position encoded in the token
+   * @throws InvalidParameterException if the token is malformed
+   */
+  static UserResponseChangeCursor parse(String token) {
+    if (!StringUtils.hasText(token)) {
+      return START;
+    }
+
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = decoded.split(SEPARATOR);
+
+      if (parts.length != 5 || !TOKEN_VERSION.equals(parts[0])) {
+        throw new InvalidParameterException(TOKEN_PARAMETER, token);
+      }
+
+      Instant updatedAt = Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+      return new UserResponseChangeCursor(updatedAt, Long.parseLong(parts[3]), Long.parseLong(parts[4]));
+
+    } catch (IllegalArgumentException | DateTimeException exception) {
+      throw new InvalidParameterException(TOKEN_PARAMETER, token);
+    }
+  }
+
+  /**
+   * @param userResponse the last read response
+   * @return the position after the response
+   */
+  static UserResponseChangeCursor after(UserResponse userResponse) {
+    return new UserResponseChangeCursor(userResponse.getUpdatedAt(), userResponse.getUserId(),
+        userResponse.getQuestionId());
+  }
+
+  /**
+   * @return the opaque token that encodes this position
+   */
+  String toToken() {
+    String decoded = String.join(SEPARATOR, TOKEN_VERSION, String.valueOf(updatedAt.getEpochSecond()),
+        String.valueOf(updatedAt.getNano()), String.valueOf(userId), String.valueOf(questionId));
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+  }
+
+  Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  Long getUserId() {
+    return userId;
+  }
+
+  Long getQuestionId() {
+    return questionId;
+  }
+}
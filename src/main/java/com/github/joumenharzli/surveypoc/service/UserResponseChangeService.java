@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import com.github.joumenharzli.surveypoc.exception.InvalidParameterException;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseChangesDto;
+
+/**
+ * User Response Change Service
+ *
+ * @author Joumen Harzli
+ */
+public interface UserResponseChangeService {
+
+  /**
+   * Find the responses changed since the position encoded in the token
+   *
+   * @param token    token returned by the previous call or null to start from the beginning
+   * @param pageSize maximum number of the returned changes, the default size is used if null
+   * @return a page of the changed responses and the token of the next page
+   * @throws InvalidParameterException if the token is malformed
+   */
+  UserResponseChangesDto findChangesSince(String token, Integer pageSize);
+
+}
@@ -17,9 +17,12 @@ package com.github.joumenharzli.surveypoc.service;
 
 import java.util.List;
 
+import com.github.joumenharzli.surveypoc.exception.InvalidResponseException;
 import com.github.joumenharzli.surveypoc.exception.QuestionNotFoundException;
+import com.github.joumenharzli.surveypoc.exception.ResponseConflictException;
 import com.github.joumenharzli.surveypoc.exception.UserNotFoundException;
 import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
+import com.github.joumenharzli.surveypoc.util.LongList;
 
 /**
  * User Response Service
@@ -38,7 +41,7 @@ public interface UserResponseService {
    * @throws QuestionNotFoundException if no question was found
    * @throws IllegalArgumentException if any given argument is invalid
    */
-  List<UserResponseForQuestionDto> findResponsesOfUserForQuestions(Long userId, List<Long> questionsIds);
+  List<UserResponseForQuestionDto> findResponsesOfUserForQuestions(long userId, LongList questionsIds);
 
   /**
    * Save the responses of the connected user for the provided questions
@@ -48,8 +51,10 @@ public interface UserResponseService {
    * @return List of the saved responses of the user
    * @throws UserNotFoundException     if no user was found
    * @throws QuestionNotFoundException if no question was found
+   * @throws InvalidResponseException   if a content does not match the definition of its question
+   * @throws ResponseConflictException  if a response was modified since it was read
    * @throws IllegalArgumentException if any given argument is invalid
    */
-  List<UserResponseForQuestionDto> saveResponsesOfUserForQuestions(Long userId,
+  List<UserResponseForQuestionDto> saveResponsesOfUserForQuestions(long userId,
                                                                    List<UserResponseForQuestionDto> userResponsesForQuestions);
 }
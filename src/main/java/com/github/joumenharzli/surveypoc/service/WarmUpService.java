@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import com.github.joumenharzli.surveypoc.service.dto.WarmUpReportDto;
+
+/**
+ * Warm Up Service
+ * Exercise the critical paths so the first requests do not pay for the lazy initializations
+ * of the beans, the pool, the caches and the prepared statements nor run interpreted
+ *
+ * @author Joumen Harzli
+ */
+public interface WarmUpService {
+
+  /**
+   * Execute the critical paths, the writes are executed up to the statements that modify the rows
+   *
+   * @param iterations      number of the executions of each read path
+   * @param writeIterations number of the executions of the write path without writing
+   * @return the time spent by path
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  WarmUpReportDto warmUp(int iterations, int writeIterations);
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+import java.util.List;
+
+/**
+ * Allocation Report Dto
+ * Bytes allocated by the requests since the start grouped by endpoint and by request thread
+ *
+ * @author Joumen Harzli
+ */
+public final class AllocationReportDto {
+
+  private final boolean supported;
+  private final List<AllocationStatisticsDto> endpoints;
+  private final List<AllocationStatisticsDto> threads;
+
+  public AllocationReportDto(boolean supported, List<AllocationStatisticsDto> endpoints,
+                             List<AllocationStatisticsDto> threads) {
+    this.supported = supported;
+    this.endpoints = endpoints;
+    this.threads = threads;
+  }
+
+  /**
+   * @return false if the virtual machine cannot count the allocations of the threads
+   */
+  public boolean isSupported() {
+    return supported;
+  }
+
+  public List<AllocationStatisticsDto> getEndpoints() {
+    return endpoints;
+  }
+
+  public List<AllocationStatisticsDto> getThreads() {
+    return threads;
+  }
+
+  @Override
+  public String toString() {
+    return "AllocationReportDto{" +
+        "supported=" + supported +
+        ", endpoints=" + endpoints +
+        ", threads=" + threads +
+        '}';
+  }
+}
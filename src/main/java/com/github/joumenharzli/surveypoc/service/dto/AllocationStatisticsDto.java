@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+/**
+ * Allocation Statistics Dto
+ * Bytes allocated by the requests handled by an endpoint or by a request thread
+ *
+ * @author Joumen Harzli
+ */
+public final class AllocationStatisticsDto {
+
+  private final String name;
+  private final long requests;
+  private final long allocatedBytes;
+  private final long maxAllocatedBytes;
+
+  public AllocationStatisticsDto(String name, long requests, long allocatedBytes, long maxAllocatedBytes) {
+    this.name = name;
+    this.requests = requests;
+    this.allocatedBytes = allocatedBytes;
+    this.maxAllocatedBytes = maxAllocatedBytes;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getRequests() {
+    return requests;
+  }
+
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  public long getMaxAllocatedBytes() {
+    return maxAllocatedBytes;
+  }
+
+  public long getAverageAllocatedBytes() {
+    return requests == 0 ? 0 : allocatedBytes / requests;
+  }
+
+  @Override
+  public String toString() {
+    return "AllocationStatisticsDto{" +
+        "name='" + name + '\'' +
+        ", requests=" + requests +
+        ", allocatedBytes=" + allocatedBytes +
+        ", maxAllocatedBytes=" + maxAllocatedBytes +
+        '}';
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+/**
+ * Answer Count Dto
+ * Number of the answers of a question with the same content
+ *
+ * @author Joumen Harzli
+ */
+public class AnswerCountDto {
+
+  private final String content;
+  private final int count;
+
+  public AnswerCountDto(String content, int count) {
+    this.content = content;
+    this.count = count;
+  }
+
+  public String getContent() {
+    return content;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  @Override
+  public String toString() {
+    return "AnswerCountDto{" +
+        "content='" + content + '\'' +
+        ", count=" + count +
+        '}';
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+import java.util.List;
+
+/**
+ * Catalog Changes Dto
+ * The subjects and the questions added, changed or removed since the version known by the client,
+ * the client applies them to its copy of the catalog then keeps the returned version
+ *
+ * @author Joumen Harzli
+ */
+public class CatalogChangesDto {
+
+  private final long version;
+  private final List<CatalogSubjectDto> subjects;
+  private final List<CatalogQuestionDto> questions;
+  private final List<Long> removedSubjectsIds;
+  private final List<Long> removedQuestionsIds;
+
+  public CatalogChangesDto(long version, List<CatalogSubjectDto> subjects, List<CatalogQuestionDto> questions,
+                           List<Long> removedSubjectsIds, List<Long> removedQuestionsIds) {
+    this.version = version;
+    this.subjects = subjects;
+    this.questions = questions;
+    this.removedSubjectsIds = removedSubjectsIds;
+    this.removedQuestionsIds = removedQuestionsIds;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public List<CatalogSubjectDto> getSubjects() {
+    return subjects;
+  }
+
+  public List<CatalogQuestionDto> getQuestions() {
+    return questions;
+  }
+
+  public List<Long> getRemovedSubjectsIds() {
+    return removedSubjectsIds;
+  }
+
+  public List<Long> getRemovedQuestionsIds() {
+    return removedQuestionsIds;
+  }
+
+  @Override
+  public String toString() {
+    return "CatalogChangesDto{" +
+        "version=" + version +
+        ", subjects=" + subjects +
+        ", questions=" + questions +
+        ", removedSubjectsIds=" + removedSubjectsIds +
+        ", removedQuestionsIds=" + removedQuestionsIds +
+        '}';
+  }
+}
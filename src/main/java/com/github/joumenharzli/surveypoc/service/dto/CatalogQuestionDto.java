@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+import java.util.List;
+
+import com.github.joumenharzli.surveypoc.domain.QuestionType;
+
+/**
+ * Catalog Question Dto
+ * A question added or changed in the catalog, a question moved to another subject or whose answers
+ * are validated differently is changed
+ *
+ * @author Joumen Harzli
+ */
+public class CatalogQuestionDto {
+
+  private final long id;
+  private final String label;
+  private final Long subjectId;
+  private final QuestionType type;
+  private final Long minValue;
+  private final Long maxValue;
+  private final String pattern;
+  private final List<String> choices;
+
+  public CatalogQuestionDto(long id, String label, Long subjectId, QuestionType type, Long minValue, Long maxValue,
+                            String pattern, List<String> choices) {
+    this.id = id;
+    this.label = label;
+    this.subjectId = subjectId;
+    this.type = type;
+    this.minValue = minValue;
+    this.maxValue = maxValue;
+    this.pattern = pattern;
+    this.choices = choices;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public Long getSubjectId() {
+    return subjectId;
+  }
+
+  public QuestionType getType() {
+    return type;
+  }
+
+  public Long getMinValue() {
+    return minValue;
+  }
+
+  public Long getMaxValue() {
+    return maxValue;
+  }
+
+  public String getPattern() {
+    return pattern;
+  }
+
+  public List<String> getChoices() {
+    return choices;
+  }
+
+  @Override
+  public String toString() {
+    return "CatalogQuestionDto{" +
+        "id=" + id +
+        ", label='" + label + '\'' +
+        ", subjectId=" + subjectId +
+        ", type=" + type +
+        ", minValue=" + minValue +
+        ", maxValue=" + maxValue +
+        ", pattern='" + pattern + '\'' +
+        ", choices=" + choices +
+        '}';
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+/**
+ * Catalog Subject Dto
+ * A subject added or changed in the catalog, without its questions
+ *
+ * @author Joumen Harzli
+ */
+public class CatalogSubjectDto {
+
+  private final long id;
+  private final String label;
+
+  public CatalogSubjectDto(long id, String label) {
+    this.id = id;
+    this.label = label;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  @Override
+  public String toString() {
+    return "CatalogSubjectDto{" +
+        "id=" + id +
+        ", label='" + label + '\'' +
+        '}';
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+import java.util.List;
+
+/**
+ * Endpoint Profile Dto
+ * Top sites of the samples of a recording attributed to an endpoint
+ * <p>
+ * The allocation sites are weighted by sampled bytes, the cpu sites by number of samples
+ * and the lock sites by nanoseconds spent blocked or parked
+ *
+ * @author Joumen Harzli
+ */
+public final class EndpointProfileDto {
+
+  private final String endpoint;
+  private final long requests;
+  private final List<ProfileSiteDto> allocationSites;
+  private final List<ProfileSiteDto> cpuSites;
+  private final List<ProfileSiteDto> lockSites;
+
+  public EndpointProfileDto(String endpoint, long requests, List<ProfileSiteDto> allocationSites,
+                            List<ProfileSiteDto> cpuSites, List<ProfileSiteDto> lockSites) {
+    this.endpoint = endpoint;
+    this.requests = requests;
+    this.allocationSites = allocationSites;
+    this.cpuSites = cpuSites;
+    this.lockSites = lockSites;
+  }
+
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  public long getRequests() {
+    return requests;
+  }
+
+  public List<ProfileSiteDto> getAllocationSites() {
+    return allocationSites;
+  }
+
+  public List<ProfileSiteDto> getCpuSites() {
+    return cpuSites;
+  }
+
+  public List<ProfileSiteDto> getLockSites() {
+    return lockSites;
+  }
+
+  @Override
+  public String toString() {
+    return "EndpointProfileDto{" +
+        "endpoint='" + endpoint + '\'' +
+        ", requests=" + requests +
+        ", allocationSites=" + allocationSites +
+        ", cpuSites=" + cpuSites +
+        ", lockSites=" + lockSites +
+        '}';
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+/**
+ * Profile Site Dto
+ * Weight of the samples of a recording attributed to a frame
+ *
+ * @author Joumen Harzli
+ */
+public final class ProfileSiteDto {
+
+  private final String frame;
+  private final long value;
+
+  public ProfileSiteDto(String frame, long value) {
+    this.frame = frame;
+    this.value = value;
+  }
+
+  public String getFrame() {
+    return frame;
+  }
+
+  public long getValue() {
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return "ProfileSiteDto{" +
+        "frame='" + frame + '\'' +
+        ", value=" + value +
+        '}';
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+import java.util.List;
+
+/**
+ * Profile Summary Dto
+ * Summary of a time-boxed recording of the flight recorder
+ *
+ * @author Joumen Harzli
+ */
+public final class ProfileSummaryDto {
+
+  private final int durationSeconds;
+  private final List<EndpointProfileDto> endpoints;
+
+  public ProfileSummaryDto(int durationSeconds, List<EndpointProfileDto> endpoints) {
+    this.durationSeconds = durationSeconds;
+    this.endpoints = endpoints;
+  }
+
+  public int getDurationSeconds() {
+    return durationSeconds;
+  }
+
+  public List<EndpointProfileDto> getEndpoints() {
+    return endpoints;
+  }
+
+  @Override
+  public String toString() {
+    return "ProfileSummaryDto{" +
+        "durationSeconds=" + durationSeconds +
+        ", endpoints=" + endpoints +
+        '}';
+  }
+}
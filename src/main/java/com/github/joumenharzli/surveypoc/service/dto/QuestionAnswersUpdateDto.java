@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+import java.util.List;
+
+/**
+ * Question Answers Update Dto
+ * Variation of the number of the answers of a question for each content changed by a save,
+ * a content whose answer was replaced has a negative count
+ *
+ * @author Joumen Harzli
+ */
+public class QuestionAnswersUpdateDto {
+
+  private final Long questionId;
+  private final List<AnswerCountDto> countChanges;
+
+  public QuestionAnswersUpdateDto(Long questionId, List<AnswerCountDto> countChanges) {
+    this.questionId = questionId;
+    this.countChanges = countChanges;
+  }
+
+  public Long getQuestionId() {
+    return questionId;
+  }
+
+  public List<AnswerCountDto> getCountChanges() {
+    return countChanges;
+  }
+
+  @Override
+  public String toString() {
+    return "QuestionAnswersUpdateDto{" +
+        "questionId=" + questionId +
+        ", countChanges=" + countChanges +
+        '}';
+  }
+}
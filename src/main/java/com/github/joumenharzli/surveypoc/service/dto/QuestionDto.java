@@ -15,36 +15,31 @@
 
 package com.github.joumenharzli.surveypoc.service.dto;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-
 /**
  * Question Dto
+ * <p>
+ * An immutable entry of the catalog, it can be shared between threads without copying
  *
  * @author Joumen Harzli
  */
-public class QuestionDto {
+public final class QuestionDto {
 
-  private Long id;
-  private String label;
+  private final long id;
+  private final String label;
 
-  public Long getId() {
-    return id;
+  public QuestionDto(long id, String label) {
+    this.id = id;
+    this.label = label;
   }
 
-  public void setId(Long id) {
-    this.id = id;
+  public long getId() {
+    return id;
   }
 
   public String getLabel() {
     return label;
   }
 
-  public void setLabel(String label) {
-    this.label = label;
-  }
-
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -57,23 +52,19 @@ public class QuestionDto {
 
     QuestionDto that = (QuestionDto) o;
 
-    return new EqualsBuilder()
-        .append(id, that.id)
-        .isEquals();
+    return id == that.id;
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(17, 37)
-        .append(id)
-        .toHashCode();
+    return Long.hashCode(id);
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("id", id)
-        .append("label", label)
-        .toString();
+    return "QuestionDto{" +
+        "id=" + id +
+        ", label='" + label + '\'' +
+        '}';
   }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+/**
+ * Response Import Progress Dto
+ * Totals of the chunks of an import already imported, whether a run of the import is in progress
+ * and the report of its last run completed since the application started
+ *
+ * @author Joumen Harzli
+ */
+public class ResponseImportProgressDto {
+
+  private final String importId;
+  private final String format;
+  private final int batchSize;
+  private final long completedChunks;
+  private final long importedResponses;
+  private final long rejectedResponses;
+  private final boolean running;
+  private final ResponseImportReportDto lastRun;
+
+  public ResponseImportProgressDto(String importId, String format, int batchSize, long completedChunks,
+                                   long importedResponses, long rejectedResponses, boolean running,
+                                   ResponseImportReportDto lastRun) {
+    this.importId = importId;
+    this.format = format;
+    this.batchSize = batchSize;
+    this.completedChunks = completedChunks;
+    this.importedResponses = importedResponses;
+    this.rejectedResponses = rejectedResponses;
+    this.running = running;
+    this.lastRun = lastRun;
+  }
+
+  public String getImportId() {
+    return importId;
+  }
+
+  public String getFormat() {
+    return format;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public long getCompletedChunks() {
+    return completedChunks;
+  }
+
+  public long getImportedResponses() {
+    return importedResponses;
+  }
+
+  public long getRejectedResponses() {
+    return rejectedResponses;
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  public ResponseImportReportDto getLastRun() {
+    return lastRun;
+  }
+
+  @Override
+  public String toString() {
+    return "ResponseImportProgressDto{" +
+        "importId='" + importId + '\'' +
+        ", format='" + format + '\'' +
+        ", batchSize=" + batchSize +
+        ", completedChunks=" + completedChunks +
+        ", importedResponses=" + importedResponses +
+        ", rejectedResponses=" + rejectedResponses +
+        ", running=" + running +
+        ", lastRun=" + lastRun +
+        '}';
+  }
+}
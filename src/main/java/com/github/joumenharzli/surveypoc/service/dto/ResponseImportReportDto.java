@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+/**
+ * Response Import Report Dto
+ * Result of one run of an import, the chunks imported by a previous run are skipped
+ *
+ * @author Joumen Harzli
+ */
+public class ResponseImportReportDto {
+
+  private final long lines;
+  private final long skippedChunks;
+  private final long failedChunks;
+  private final long importedResponses;
+  private final long rejectedResponses;
+  private final long elapsedMillis;
+
+  public ResponseImportReportDto(long lines, long skippedChunks, long failedChunks, long importedResponses,
+                                 long rejectedResponses, long elapsedMillis) {
+    this.lines = lines;
+    this.skippedChunks = skippedChunks;
+    this.failedChunks = failedChunks;
+    this.importedResponses = importedResponses;
+    this.rejectedResponses = rejectedResponses;
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  public long getLines() {
+    return lines;
+  }
+
+  public long getSkippedChunks() {
+    return skippedChunks;
+  }
+
+  public long getFailedChunks() {
+    return failedChunks;
+  }
+
+  public long getImportedResponses() {
+    return importedResponses;
+  }
+
+  public long getRejectedResponses() {
+    return rejectedResponses;
+  }
+
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  @Override
+  public String toString() {
+    return "ResponseImportReportDto{" +
+        "lines=" + lines +
+        ", skippedChunks=" + skippedChunks +
+        ", failedChunks=" + failedChunks +
+        ", importedResponses=" + importedResponses +
+        ", rejectedResponses=" + rejectedResponses +
+        ", elapsedMillis=" + elapsedMillis +
+        '}';
+  }
+}
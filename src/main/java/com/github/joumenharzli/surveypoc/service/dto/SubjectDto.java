@@ -15,65 +15,53 @@
 
 package com.github.joumenharzli.surveypoc.service.dto;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.springframework.util.Assert;
-
 /**
  * Subject Dto
+ * <p>
+ * An immutable entry of the catalog, it can be shared between threads without copying.
+ * The questions are kept in an array exposed as a read-only list.
  *
  * @author Joumen Harzli
  */
-public class SubjectDto {
-  private Long id;
-  private String label;
-  private List<QuestionDto> questions;
-
-  public Long getId() {
-    return id;
-  }
-
-  public void setId(Long id) {
+public final class SubjectDto {
+
+  private final long id;
+  private final String label;
+  private final List<QuestionDto> questions;
+
+  /**
+   * Constructor for the subject
+   *
+   * @param id        id of the subject
+   * @param label     label of the subject
+   * @param questions questions of the subject, the array is owned by the subject and must not be modified
+   * @throws IllegalArgumentException if the questions are null
+   */
+  public SubjectDto(long id, String label, QuestionDto[] questions) {
+    if (questions == null) {
+      throw new IllegalArgumentException("Cannot create the subject " + id + " with null questions");
+    }
     this.id = id;
-  }
-
-  public String getLabel() {
-    return label;
-  }
-
-  public void setLabel(String label) {
     this.label = label;
+    this.questions = Collections.unmodifiableList(Arrays.asList(questions));
   }
 
-  public void addQuestions(List<QuestionDto> questions) {
-    Assert.notNull(questions, String.format("Cannot add null questions to subject %s", this.toString()));
-    if (!questions.isEmpty()) {
-      questions.forEach(this::addQuestion);
-    }
+  public long getId() {
+    return id;
   }
 
-  public void addQuestion(QuestionDto question) {
-    Assert.notNull(question, String.format("Cannot add null question to the list of questions in the subject %s",
-        this.toString()));
-
-    if (questions == null) {
-      questions = new ArrayList<>();
-    }
-    questions.add(question);
+  public String getLabel() {
+    return label;
   }
 
   public List<QuestionDto> getQuestions() {
     return questions;
   }
 
-  public void setQuestions(List<QuestionDto> questions) {
-    this.questions = questions;
-  }
-
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -86,24 +74,20 @@ public class SubjectDto {
 
     SubjectDto that = (SubjectDto) o;
 
-    return new EqualsBuilder()
-        .append(id, that.id)
-        .isEquals();
+    return id == that.id;
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(17, 37)
-        .append(id)
-        .toHashCode();
+    return Long.hashCode(id);
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("id", id)
-        .append("label", label)
-        .append("questions", questions)
-        .toString();
+    return "SubjectDto{" +
+        "id=" + id +
+        ", label='" + label + '\'' +
+        ", questions=" + questions +
+        '}';
   }
 }
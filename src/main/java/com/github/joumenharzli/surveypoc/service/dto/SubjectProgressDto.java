@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+/**
+ * Subject Progress Dto
+ * Number of the questions of a subject answered by the user
+ *
+ * @author Joumen Harzli
+ */
+public class SubjectProgressDto {
+
+  private final Long subjectId;
+  private final int answeredQuestions;
+
+  public SubjectProgressDto(Long subjectId, int answeredQuestions) {
+    this.subjectId = subjectId;
+    this.answeredQuestions = answeredQuestions;
+  }
+
+  public Long getSubjectId() {
+    return subjectId;
+  }
+
+  public int getAnsweredQuestions() {
+    return answeredQuestions;
+  }
+
+  @Override
+  public String toString() {
+    return "SubjectProgressDto{" +
+        "subjectId=" + subjectId +
+        ", answeredQuestions=" + answeredQuestions +
+        '}';
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * User Response Change Dto
+ * A response of a user as it is after its last change
+ *
+ * @author Joumen Harzli
+ */
+public class UserResponseChangeDto {
+
+  private Long userId;
+  private Long questionId;
+  private String content;
+  private Long version;
+  private Instant createdAt;
+  private Instant updatedAt;
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public void setUserId(Long userId) {
+    this.userId = userId;
+  }
+
+  public Long getQuestionId() {
+    return questionId;
+  }
+
+  public void setQuestionId(Long questionId) {
+    this.questionId = questionId;
+  }
+
+  public String getContent() {
+    return content;
+  }
+
+  public void setContent(String content) {
+    this.content = content;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    UserResponseChangeDto that = (UserResponseChangeDto) o;
+
+    return Objects.equals(userId, that.userId)
+        && Objects.equals(questionId, that.questionId)
+        && Objects.equals(version, that.version);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Objects.hashCode(userId);
+    result = 31 * result + Objects.hashCode(questionId);
+    result = 31 * result + Objects.hashCode(version);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "UserResponseChangeDto{" +
+        "userId=" + userId +
+        ", questionId=" + questionId +
+        ", content='" + content + '\'' +
+        ", version=" + version +
+        ", createdAt=" + createdAt +
+        ", updatedAt=" + updatedAt +
+        '}';
+  }
+}
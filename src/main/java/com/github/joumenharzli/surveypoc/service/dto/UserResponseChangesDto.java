@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+import java.util.List;
+
+/**
+ * User Responses Changes Dto
+ * A page of the incremental feed of the changed responses
+ *
+ * @author Joumen Harzli
+ */
+public class UserResponseChangesDto {
+
+  private final List<UserResponseChangeDto> changes;
+  private final String nextToken;
+  private final boolean hasMore;
+
+  /**
+   * Constructor for the page of changes
+   *
+   * @param changes   changed responses ordered by update time
+   * @param nextToken token to send to get the changes after this page
+   * @param hasMore   true if more changes can be read immediately using the next token
+   */
+  public UserResponseChangesDto(List<UserResponseChangeDto> changes, String nextToken, boolean hasMore) {
+    this.changes = changes;
+    this.nextToken = nextToken;
+    this.hasMore = hasMore;
+  }
+
+  public List<UserResponseChangeDto> getChanges() {
+    return changes;
+  }
+
+  public String getNextToken() {
+    return nextToken;
+  }
+
+  public boolean isHasMore() {
+    return hasMore;
+  }
+
+  @Override
+  public String toString() {
+    return "UserResponseChangesDto{" +
+        "changes=" + changes +
+        ", nextToken='" + nextToken + '\'' +
+        ", hasMore=" + hasMore +
+        '}';
+  }
+}
@@ -15,11 +15,10 @@
 
 package com.github.joumenharzli.surveypoc.service.dto;
 
+import java.util.Objects;
+
 import javax.validation.constraints.NotNull;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.hibernate.validator.constraints.NotBlank;
 
 /**
@@ -36,6 +35,8 @@ public class UserResponseForQuestionDto {
   @NotBlank
   private String content;
 
+  private Long version;
+
   public Long getQuestionId() {
     return questionId;
   }
@@ -52,6 +53,14 @@ public class UserResponseForQuestionDto {
     this.content = content;
   }
 
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -64,23 +73,20 @@ public class UserResponseForQuestionDto {
 
     UserResponseForQuestionDto that = (UserResponseForQuestionDto) o;
 
-    return new EqualsBuilder()
-        .append(questionId, that.questionId)
-        .isEquals();
+    return Objects.equals(questionId, that.questionId);
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(17, 37)
-        .append(questionId)
-        .toHashCode();
+    return Objects.hashCode(questionId);
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("questionId", questionId)
-        .append("content", content)
-        .toString();
+    return "UserResponseForQuestionDto{" +
+        "questionId=" + questionId +
+        ", content='" + content + '\'' +
+        ", version=" + version +
+        '}';
   }
 }
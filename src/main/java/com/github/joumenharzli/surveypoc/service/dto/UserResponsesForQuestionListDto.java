@@ -17,24 +17,29 @@ package com.github.joumenharzli.surveypoc.service.dto;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import javax.validation.Valid;
+import javax.validation.constraints.Size;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.hibernate.validator.constraints.NotEmpty;
 
 /**
  * User Responses List
  * A wrapper for a list of user response for question dto
  * This useful to apply {@code Bean validations}
+ * <p>
+ * A submission is bounded to {@link #MAX_RESPONSES} responses so a single request cannot hold a worker
+ * and a connection for an unbounded time
  *
  * @author Joumen Harzli
  */
 public class UserResponsesForQuestionListDto {
 
+  public static final int MAX_RESPONSES = 10000;
+
   @Valid
   @NotEmpty
+  @Size(max = MAX_RESPONSES)
   private List<UserResponseForQuestionDto> responses;
 
   public UserResponsesForQuestionListDto() {
@@ -61,22 +66,18 @@ public class UserResponsesForQuestionListDto {
 
     UserResponsesForQuestionListDto that = (UserResponsesForQuestionListDto) o;
 
-    return new EqualsBuilder()
-        .append(responses, that.responses)
-        .isEquals();
+    return Objects.equals(responses, that.responses);
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(17, 37)
-        .append(responses)
-        .toHashCode();
+    return Objects.hashCode(responses);
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("responses", responses)
-        .toString();
+    return "UserResponsesForQuestionListDto{" +
+        "responses=" + responses +
+        '}';
   }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.service.dto;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Warm Up Report Dto
+ * Time spent warming up each critical path in the order of their execution
+ *
+ * @author Joumen Harzli
+ */
+public final class WarmUpReportDto {
+
+  private final int iterations;
+  private final int writeIterations;
+  private final Map<String, Long> elapsedMillis;
+
+  public WarmUpReportDto(int iterations, int writeIterations, Map<String, Long> elapsedMillis) {
+    this.iterations = iterations;
+    this.writeIterations = writeIterations;
+    this.elapsedMillis = Collections.unmodifiableMap(new LinkedHashMap<>(elapsedMillis));
+  }
+
+  /**
+   * @return number of the executions of each read path
+   */
+  public int getIterations() {
+    return iterations;
+  }
+
+  /**
+   * @return number of the executions of the write path
+   */
+  public int getWriteIterations() {
+    return writeIterations;
+  }
+
+  /**
+   * @return milliseconds spent by path
+   */
+  public Map<String, Long> getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /**
+   * @return milliseconds spent by all the paths
+   */
+  public long getTotalElapsedMillis() {
+    return elapsedMillis.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  @Override
+  public String toString() {
+    return "WarmUpReportDto{" +
+        "iterations=" + iterations +
+        ", writeIterations=" + writeIterations +
+        ", elapsedMillis=" + elapsedMillis +
+        '}';
+  }
+}
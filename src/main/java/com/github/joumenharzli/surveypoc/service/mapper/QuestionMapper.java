@@ -33,7 +33,15 @@ import com.github.joumenharzli.surveypoc.service.dto.QuestionDto;
 @Service
 public interface QuestionMapper {
 
-  QuestionDto questionToQuestionDto(Question question);
+  /**
+   * The dto is immutable so it is created using its constructor
+   */
+  default QuestionDto questionToQuestionDto(Question question) {
+    if (question == null) {
+      return null;
+    }
+    return new QuestionDto(question.getId(), question.getLabel());
+  }
 
   @Mapping(source = "questionId", target = "id")
   Question questionIdToQuestion(Long questionId);
@@ -15,28 +15,52 @@
 
 package com.github.joumenharzli.surveypoc.service.mapper;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.mapstruct.DecoratedWith;
 import org.mapstruct.Mapper;
 import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
 
 import com.github.joumenharzli.surveypoc.domain.Question;
 import com.github.joumenharzli.surveypoc.domain.Subject;
+import com.github.joumenharzli.surveypoc.service.dto.QuestionDto;
 import com.github.joumenharzli.surveypoc.service.dto.SubjectDto;
 
 /**
  * Mapper for {@link Subject} and {@link SubjectDto}
+ * <p>
+ * The dtos are immutable so the subjects are created using their constructor once their questions
+ * are mapped to an array
  *
  * @author Joumen Harzli
  */
-@Mapper(componentModel = "spring")
-@DecoratedWith(SubjectMapperDecorator.class)
+@Mapper(componentModel = "spring", uses = QuestionMapper.class)
 @Service
 public interface SubjectMapper {
 
-  List<SubjectDto> questionsToSubjectsDto(List<Question> questions);
+  QuestionDto[] questionsToQuestionsDtos(List<Question> questions);
 
-  SubjectDto toDto(Subject subject);
+  /**
+   * Group the questions by subject in the order of their first occurrence
+   *
+   * @param questions questions with their subject
+   * @return the subjects with their questions
+   * @throws IllegalArgumentException if the questions are null
+   */
+  default List<SubjectDto> questionsToSubjectsDto(List<Question> questions) {
+    Assert.notNull(questions, "Cannot map a null list of questions to a list of subject dtos");
+
+    Map<Subject, List<Question>> questionsBySubject = new LinkedHashMap<>();
+    questions.forEach(question ->
+        questionsBySubject.computeIfAbsent(question.getSubject(), subject -> new ArrayList<>()).add(question));
+
+    List<SubjectDto> subjects = new ArrayList<>(questionsBySubject.size());
+    questionsBySubject.forEach((subject, subjectQuestions) ->
+        subjects.add(new SubjectDto(subject.getId(), subject.getLabel(), questionsToQuestionsDtos(subjectQuestions))));
+    return subjects;
+  }
 
 }
@@ -24,7 +24,9 @@ import org.springframework.stereotype.Service;
 
 import com.github.joumenharzli.surveypoc.domain.User;
 import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseChangeDto;
 import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
+import com.github.joumenharzli.surveypoc.util.LongList;
 
 /**
  * Mapper for {@link UserResponse} and {@link UserResponseForQuestionDto}
@@ -40,6 +42,12 @@ public interface UserResponseMapper {
 
   List<UserResponseForQuestionDto> userResponseListToUserResponseForQuestionDtoList(List<UserResponse> entity);
 
+  @Mapping(source = "question.id", target = "questionId")
+  @Mapping(source = "user.id", target = "userId")
+  UserResponseChangeDto userResponseToUserResponseChangeDto(UserResponse entity);
+
+  List<UserResponseChangeDto> userResponseListToUserResponseChangeDtoList(List<UserResponse> entity);
+
 
   @Mapping(source = "userResponseForQuestion.questionId", target = "question.id")
   UserResponse userResponseForQuestionDtoToUserResponse(UserResponseForQuestionDto userResponseForQuestion);
@@ -57,10 +65,10 @@ public interface UserResponseMapper {
         .collect(Collectors.toList());
   }
 
-  default List<Long> userResponsesForQuestionsToQuestionsIdsList(List<UserResponseForQuestionDto> userResponsesForQuestions) {
-    return userResponsesForQuestions.stream()
-        .map(UserResponseForQuestionDto::getQuestionId)
-        .collect(Collectors.toList());
+  default LongList userResponsesForQuestionsToQuestionsIds(List<UserResponseForQuestionDto> userResponsesForQuestions) {
+    LongList questionsIds = new LongList(userResponsesForQuestions.size());
+    userResponsesForQuestions.forEach(userResponseForQuestion -> questionsIds.add(userResponseForQuestion.getQuestionId()));
+    return questionsIds;
   }
 
 }
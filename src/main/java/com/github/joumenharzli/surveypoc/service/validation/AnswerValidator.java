@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.validation;
+
+/**
+ * Compiled validator of the answers of a question
+ *
+ * @author Joumen Harzli
+ */
+@FunctionalInterface
+public interface AnswerValidator {
+
+  /**
+   * Validate an answer, a valid answer is validated without any allocation except for the patterns
+   *
+   * @param content content of the answer
+   * @return null if the answer is valid otherwise the violation
+   */
+  AnswerViolation validate(String content);
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.validation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.QuestionType;
+import com.github.joumenharzli.surveypoc.repository.dao.QuestionDao;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+/**
+ * Cache of the compiled validators of the answers keyed by question id
+ * <p>
+ * The definitions of the questions are loaded and compiled the first time one of their answers
+ * is validated, then the validations do not access the database anymore. An invalid definition is
+ * reported once and its answers are validated as free text until the definition is fixed
+ *
+ * @author Joumen Harzli
+ */
+@Component
+public class AnswerValidatorRegistry {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AnswerValidatorRegistry.class);
+
+  private final QuestionDao questionDao;
+  private final Map<Long, AnswerValidator> validators = new ConcurrentHashMap<>();
+
+  public AnswerValidatorRegistry(QuestionDao questionDao) {
+    this.questionDao = questionDao;
+  }
+
+  /**
+   * Get the validators of the questions, the questions that do not exist have no validator
+   *
+   * @param questionsIds ids of the questions
+   * @return the validators by question id
+   */
+  public Map<Long, AnswerValidator> getValidators(LongList questionsIds) {
+    Map<Long, AnswerValidator> found = new HashMap<>();
+    LongList missingQuestionsIds = new LongList(0);
+
+    for (int i = 0; i < questionsIds.size(); i++) {
+      long questionId = questionsIds.get(i);
+      AnswerValidator validator = validators.get(questionId);
+      if (validator != null) {
+        found.put(questionId, validator);
+      } else {
+        missingQuestionsIds.add(questionId);
+      }
+    }
+
+    if (!missingQuestionsIds.isEmpty()) {
+      missingQuestionsIds.sortDistinct();
+      LOGGER.debug("Compiling the validators of the questions {}", missingQuestionsIds);
+
+      for (Question question : questionDao.findQuestionsDefinitionsByQuestionsIds(missingQuestionsIds)) {
+        AnswerValidator validator = compile(question);
+        validators.put(question.getId(), validator);
+        found.put(question.getId(), validator);
+      }
+    }
+
+    return found;
+  }
+
+  private static AnswerValidator compile(Question question) {
+    try {
+      return AnswerValidators.compile(question);
+    } catch (IllegalArgumentException exception) {
+      LOGGER.error("The definition of the question {} is invalid, its answers are validated as free text",
+          question.getId(), exception);
+      return AnswerValidators.compile(new Question().id(question.getId()).type(QuestionType.FREE_TEXT));
+    }
+  }
+
+  /**
+   * Remove all the compiled validators so the definitions are loaded again
+   */
+  public void clear() {
+    validators.clear();
+  }
+
+}
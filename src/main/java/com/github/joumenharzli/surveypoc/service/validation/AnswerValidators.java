@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.validation;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.util.Assert;
+
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.QuestionType;
+
+/**
+ * Compile the definition of a question to an {@link AnswerValidator}
+ *
+ * @author Joumen Harzli
+ */
+public final class AnswerValidators {
+
+  /**
+   * Maximum length of a stored answer
+   */
+  public static final int MAX_LENGTH = 100;
+
+  private static final char CHOICES_SEPARATOR = ',';
+
+  private AnswerValidators() {
+  }
+
+  /**
+   * Compile the validator of the answers of a question
+   *
+   * @param question definition of the question
+   * @return the validator of the answers
+   * @throws IllegalArgumentException if the definition is invalid
+   */
+  public static AnswerValidator compile(Question question) {
+    Assert.notNull(question, "Question cannot be null");
+
+    QuestionType type = question.getType() == null ? QuestionType.FREE_TEXT : question.getType();
+    AnswerValidator lengthValidator = lengthValidator();
+
+    switch (type) {
+      case INTEGER_RANGE:
+        return and(lengthValidator, integerRangeValidator(question.getMinValue(), question.getMaxValue()));
+      case SINGLE_CHOICE:
+        return and(lengthValidator, singleChoiceValidator(question.getChoices()));
+      case MULTIPLE_CHOICE:
+        return and(lengthValidator, multipleChoiceValidator(question.getChoices()));
+      case REGEX:
+        return and(lengthValidator, patternValidator(question.getPattern()));
+      default:
+        return lengthValidator;
+    }
+  }
+
+  private static AnswerValidator and(AnswerValidator first, AnswerValidator second) {
+    return content -> {
+      AnswerViolation violation = first.validate(content);
+      return violation != null ? violation : second.validate(content);
+    };
+  }
+
+  private static AnswerValidator lengthValidator() {
+    AnswerViolation tooLong = new AnswerViolation(AnswerViolation.TOO_LONG, MAX_LENGTH);
+    return content -> content.length() > MAX_LENGTH ? tooLong : null;
+  }
+
+  private static AnswerValidator integerRangeValidator(Long minValue, Long maxValue) {
+    long min = minValue == null ? Long.MIN_VALUE : minValue;
+    long max = maxValue == null ? Long.MAX_VALUE : maxValue;
+    Assert.isTrue(min <= max, "Minimum value cannot be greater than the maximum value");
+
+    AnswerViolation notANumber = new AnswerViolation(AnswerViolation.NOT_A_NUMBER);
+    AnswerViolation outOfRange = new AnswerViolation(AnswerViolation.OUT_OF_RANGE, String.valueOf(min),
+        String.valueOf(max));
+
+    return content -> {
+      String trimmed = content.trim();
+      if (!isInteger(trimmed)) {
+        return notANumber;
+      }
+      long value;
+      try {
+        value = Long.parseLong(trimmed);
+      } catch (NumberFormatException exception) {
+        return outOfRange;
+      }
+      return value < min || value > max ? outOfRange : null;
+    };
+  }
+
+  private static AnswerValidator singleChoiceValidator(List<String> choices) {
+    Assert.notEmpty(choices, "Choices cannot be null or empty");
+
+    Set<String> allowedChoices = new HashSet<>(choices);
+    AnswerViolation invalidChoice = new AnswerViolation(AnswerViolation.INVALID_CHOICE, String.join(", ", choices));
+
+    return content -> allowedChoices.contains(content) ? null : invalidChoice;
+  }
+
+  private static AnswerValidator multipleChoiceValidator(List<String> choices) {
+    Assert.notEmpty(choices, "Choices cannot be null or empty");
+    Assert.isTrue(choices.size() <= Long.SIZE, "A question cannot have more than 64 choices");
+
+    List<String> allowedChoices = choices;
+    AnswerViolation invalidChoice = new AnswerViolation(AnswerViolation.INVALID_CHOICE, String.join(", ", choices));
+
+    return content -> {
+      long selected = 0;
+      int start = 0;
+      while (start <= content.length()) {
+        int end = content.indexOf(CHOICES_SEPARATOR, start);
+        if (end < 0) {
+          end = content.length();
+        }
+
+        int choice = indexOfChoice(allowedChoices, content, start, end);
+        if (choice < 0 || (selected & (1L << choice)) != 0) {
+          return invalidChoice;
+        }
+        selected |= 1L << choice;
+        start = end + 1;
+      }
+      return null;
+    };
+  }
+
+  private static AnswerValidator patternValidator(String pattern) {
+    Assert.hasText(pattern, "Pattern cannot be null or empty");
+
+    Pattern compiledPattern = Pattern.compile(pattern);
+    AnswerViolation patternMismatch = new AnswerViolation(AnswerViolation.PATTERN_MISMATCH, pattern);
+
+    return content -> compiledPattern.matcher(content).matches() ? null : patternMismatch;
+  }
+
+  private static boolean isInteger(String content) {
+    int start = content.startsWith("-") || content.startsWith("+") ? 1 : 0;
+    if (content.length() == start) {
+      return false;
+    }
+    for (int i = start; i < content.length(); i++) {
+      char digit = content.charAt(i);
+      if (digit < '0' || digit > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Find a choice matching a region of the content ignoring the surrounding spaces without extracting it
+   */
+  private static int indexOfChoice(List<String> choices, String content, int start, int end) {
+    while (start < end && Character.isWhitespace(content.charAt(start))) {
+      start++;
+    }
+    while (end > start && Character.isWhitespace(content.charAt(end - 1))) {
+      end--;
+    }
+
+    int length = end - start;
+    for (int i = 0; i < choices.size(); i++) {
+      String choice = choices.get(i);
+      if (choice.length() == length && content.regionMatches(start, choice, 0, length)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
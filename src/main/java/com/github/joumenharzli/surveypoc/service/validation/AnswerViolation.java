@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.validation;
+
+import java.util.Arrays;
+
+/**
+ * Reason why an answer is invalid
+ * <p>
+ * The violations of a validator are created when it is compiled and shared by all the validations
+ *
+ * @author Joumen Harzli
+ */
+public final class AnswerViolation {
+
+  public static final String NOT_A_NUMBER = "NotANumber";
+  public static final String OUT_OF_RANGE = "OutOfRange";
+  public static final String INVALID_CHOICE = "InvalidChoice";
+  public static final String PATTERN_MISMATCH = "PatternMismatch";
+  public static final String TOO_LONG = "TooLong";
+
+  private final String code;
+  private final Object[] arguments;
+
+  AnswerViolation(String code, Object... arguments) {
+    this.code = code;
+    this.arguments = arguments;
+  }
+
+  /**
+   * @return code of the violation
+   */
+  public String getCode() {
+    return code;
+  }
+
+  /**
+   * @return arguments of the message of the violation
+   */
+  public Object[] getArguments() {
+    return Arrays.copyOf(arguments, arguments.length);
+  }
+
+  @Override
+  public String toString() {
+    return "AnswerViolation{" +
+        "code='" + code + '\'' +
+        ", arguments=" + Arrays.toString(arguments) +
+        '}';
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.util;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * A growable list of primitive {@code long} values
+ * <p>
+ * The values are stored in an array that is kept when the list is cleared
+ * so the same list can be filled again without allocating
+ *
+ * @author Joumen Harzli
+ */
+public final class LongList {
+
+  private static final int DEFAULT_CAPACITY = 8;
+
+  private long[] elements;
+  private int size;
+
+  public LongList() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructor for a list with the given initial capacity
+   *
+   * @param initialCapacity initial capacity of the list
+   * @throws IllegalArgumentException if the capacity is negative
+   */
+  public LongList(int initialCapacity) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("Capacity cannot be negative");
+    }
+    this.elements = new long[initialCapacity];
+  }
+
+  /**
+   * Create a list containing the given values
+   *
+   * @param values the values of the list
+   * @return a new list
+   */
+  public static LongList of(long... values) {
+    LongList list = new LongList(values.length);
+    System.arraycopy(values, 0, list.elements, 0, values.length);
+    list.size = values.length;
+    return list;
+  }
+
+  /**
+   * Add a value at the end of the list
+   *
+   * @param value value to add
+   */
+  public void add(long value) {
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, Math.max(DEFAULT_CAPACITY, elements.length * 2));
+    }
+    elements[size++] = value;
+  }
+
+  /**
+   * @param index index of the value
+   * @return the value at the index
+   * @throws IndexOutOfBoundsException if the index is out of the list
+   */
+  public long get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    return elements[index];
+  }
+
+  /**
+   * @param value the searched value
+   * @return true if the list contains the value
+   */
+  public boolean contains(long value) {
+    for (int i = 0; i < size; i++) {
+      if (elements[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Search the value in a list sorted by {@link #sortDistinct()}
+   *
+   * @param value the searched value
+   * @return true if the list contains the value
+   */
+  public boolean containsSorted(long value) {
+    return Arrays.binarySearch(elements, 0, size, value) >= 0;
+  }
+
+  /**
+   * Sort the values in ascending order and remove the duplicated values
+   */
+  public void sortDistinct() {
+    Arrays.sort(elements, 0, size);
+    int distinct = 0;
+    for (int i = 0; i < size; i++) {
+      if (distinct == 0 || elements[i] != elements[distinct - 1]) {
+        elements[distinct++] = elements[i];
+      }
+    }
+    size = distinct;
+  }
+
+  /**
+   * @return the number of values in the list
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return true if the list has no value
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Remove all the values, the capacity of the list is kept
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * @return a copy of the values
+   */
+  public long[] toArray() {
+    return Arrays.copyOf(elements, size);
+  }
+
+  /**
+   * @return a sequential stream of the values
+   */
+  public LongStream stream() {
+    return Arrays.stream(elements, 0, size);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof LongList)) {
+      return false;
+    }
+    LongList list = (LongList) other;
+    if (size != list.size) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (elements[i] != list.elements[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 1;
+    for (int i = 0; i < size; i++) {
+      hashCode = 31 * hashCode + Long.hashCode(elements[i]);
+    }
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(size * 4 + 2).append('[');
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(elements[i]);
+    }
+    return builder.append(']').toString();
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+import com.github.joumenharzli.surveypoc.exception.InvalidParameterException;
+import com.github.joumenharzli.surveypoc.exception.RecordingUnavailableException;
+import com.github.joumenharzli.surveypoc.service.DiagnosticsService;
+import com.github.joumenharzli.surveypoc.service.dto.AllocationReportDto;
+import com.github.joumenharzli.surveypoc.service.dto.ProfileSummaryDto;
+import com.github.joumenharzli.surveypoc.web.error.RestErrorDto;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * Rest resource for the diagnostics of the application
+ * <p>
+ * The resource is only exposed when the diagnostics are enabled. The recordings run on their own thread
+ * so the request thread and the admission of the request are released while recording, a recording
+ * requested while another one is running is rejected.
+ *
+ * @author Joumen Harzli
+ */
+@RestController
+@RequestMapping("/api/v1/diagnostics")
+@ConditionalOnProperty(prefix = "application.diagnostics", name = "enabled")
+public class DiagnosticsResource {
+
+  public static final String DURATION_PARAMETER = "durationSeconds";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DiagnosticsResource.class);
+  private static final String FLIGHT_RECORDING_FILE_NAME = "surveypoc.jfr";
+  private static final String RECORDING_THREAD_PREFIX = "diagnostics-recording-";
+  /* time left to summarize the recording before the request times out */
+  private static final long SUMMARY_TIMEOUT_MILLIS = 30000;
+
+  private final DiagnosticsService diagnosticsService;
+  private final ApplicationProperties applicationProperties;
+  private final ThreadPoolExecutor recorder;
+
+  public DiagnosticsResource(DiagnosticsService diagnosticsService, ApplicationProperties applicationProperties) {
+    this.diagnosticsService = diagnosticsService;
+    this.applicationProperties = applicationProperties;
+
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(RECORDING_THREAD_PREFIX);
+    threadFactory.setDaemon(true);
+    this.recorder = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+        threadFactory);
+  }
+
+  /**
+   * GET  /allocations : get the bytes allocated by the requests
+   *
+   * @return the ResponseEntity with status 200 (OK) and the allocations by endpoint and by request thread
+   */
+  @ApiOperation(notes = "Returns the bytes allocated by the request threads since the start " +
+      "grouped by endpoint and by thread.",
+      value = "Get the allocations of the requests",
+      nickname = "getAllocations")
+  @GetMapping("/allocations")
+  public AllocationReportDto getAllocations() {
+    LOGGER.debug("REST request to get the allocations of the requests");
+
+    return diagnosticsService.getAllocations();
+  }
+
+  /**
+   * POST  /recordings : record the activity and summarize it by endpoint
+   *
+   * @param durationSeconds duration of the recording
+   * @return the ResponseEntity with status 200 (OK) and the top allocation, cpu and lock sites of each endpoint
+   */
+  @ApiOperation(notes = "Records the allocations, the locks and the cpu samples with the flight recorder " +
+      "during the duration then returns the top sites of each endpoint.",
+      value = "Record a profile of the endpoints",
+      nickname = "recordProfile")
+  @ApiResponses({
+      @ApiResponse(code = 400, message = "Duration is invalid", response = RestErrorDto.class),
+      @ApiResponse(code = 503, message = "Recorder is not available", response = RestErrorDto.class)
+  })
+  @PostMapping(value = "/recordings", produces = MediaType.APPLICATION_JSON_VALUE)
+  public DeferredResult<ProfileSummaryDto> recordProfile(
+      @ApiParam(value = "Duration of the recording in seconds", required = true)
+      @RequestParam(DURATION_PARAMETER) int durationSeconds) {
+
+    LOGGER.debug("REST request to record a profile of {} seconds", durationSeconds);
+
+    checkDuration(durationSeconds);
+    return record(durationSeconds, () -> diagnosticsService.recordProfile(durationSeconds));
+  }
+
+  /**
+   * POST  /recordings : record the activity with the flight recorder
+   *
+   * @param durationSeconds duration of the recording
+   * @return the ResponseEntity with status 200 (OK) and the recording as attachment
+   */
+  @ApiOperation(notes = "Records the allocations, the locks and the cpu samples with the flight recorder " +
+      "during the duration then returns the recording.",
+      value = "Record the activity with the flight recorder",
+      nickname = "recordFlightRecording")
+  @ApiResponses({
+      @ApiResponse(code = 400, message = "Duration is invalid", response = RestErrorDto.class),
+      @ApiResponse(code = 503, message = "Recorder is not available", response = RestErrorDto.class)
+  })
+  @PostMapping(value = "/recordings", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  public DeferredResult<ResponseEntity<Resource>> recordFlightRecording(
+      @ApiParam(value = "Duration of the recording in seconds", required = true)
+      @RequestParam(DURATION_PARAMETER) int durationSeconds) {
+
+    LOGGER.debug("REST request to record a flight recording of {} seconds", durationSeconds);
+
+    checkDuration(durationSeconds);
+    return record(durationSeconds, () -> ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + FLIGHT_RECORDING_FILE_NAME + '"')
+        .body(diagnosticsService.recordFlightRecording(durationSeconds)));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    recorder.shutdownNow();
+  }
+
+  /**
+   * Run the recording on the recording thread, the result is written once it is complete
+   *
+   * @throws RecordingUnavailableException if a recording is already running
+   */
+  private <T> DeferredResult<T> record(int durationSeconds, Supplier<T> recording) {
+    DeferredResult<T> result = new DeferredResult<>(TimeUnit.SECONDS.toMillis(durationSeconds) +
+        SUMMARY_TIMEOUT_MILLIS);
+    try {
+      recorder.execute(() -> {
+        try {
+          result.setResult(recording.get());
+        } catch (Exception exception) {
+          result.setErrorResult(exception);
+        }
+      });
+    } catch (RejectedExecutionException exception) {
+      throw new RecordingUnavailableException();
+    }
+    return result;
+  }
+
+  private void checkDuration(int durationSeconds) {
+    if (durationSeconds <= 0 || durationSeconds > applicationProperties.getDiagnostics().getMaxRecordingSeconds()) {
+      throw new InvalidParameterException(DURATION_PARAMETER, String.valueOf(durationSeconds));
+    }
+  }
+
+}
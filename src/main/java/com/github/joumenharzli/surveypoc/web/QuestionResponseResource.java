@@ -28,9 +28,10 @@ import com.github.joumenharzli.surveypoc.domain.UserResponse;
 import com.github.joumenharzli.surveypoc.service.UserResponseService;
 import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
 import com.github.joumenharzli.surveypoc.service.dto.UserResponsesForQuestionListDto;
+import com.github.joumenharzli.surveypoc.util.LongList;
 import com.github.joumenharzli.surveypoc.web.error.RestErrorDto;
 
-import static com.github.joumenharzli.surveypoc.web.util.RestUtils.commaDelimitedListToLongList;
+import static com.github.joumenharzli.surveypoc.web.util.RestUtils.parseCommaDelimitedIds;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
@@ -47,7 +48,12 @@ public class QuestionResponseResource {
 
   /* because this example is not using Spring Security yet
    * the user id is simply hardcoded */
-  private static final Long USER_ID = 1L;
+  private static final long USER_ID = 1L;
+
+  private static final String QUESTIONS_ID_PARAMETER = "questionsId";
+  private static final int MAX_QUESTIONS_IDS = 500;
+  /* the ids are only read while the request is handled so each request thread reuses its list */
+  private static final ThreadLocal<LongList> QUESTIONS_IDS = ThreadLocal.withInitial(LongList::new);
 
   private static final Logger LOGGER = LoggerFactory.getLogger(QuestionResponseResource.class);
 
@@ -62,12 +68,13 @@ public class QuestionResponseResource {
    *
    * @param questionsId a comma separated ids of the questions that the user may responded
    * @return the ResponseEntity with status 200 (OK) and list of responses of the user
-   * and the ResponseEntity with status 500 if the request body is invalid
+   * and the ResponseEntity with status 400 if the ids are invalid
    */
   @ApiOperation(notes = "Returns all the found responses of the connected user for the provided questions.",
       value = "Get all responses of the connected user for the questions",
       nickname = "getResponsesOfConnectUserForQuestions")
   @ApiResponses({
+      @ApiResponse(code = 400, message = "Invalid ids of the questions", response = RestErrorDto.class),
       @ApiResponse(code = 404, message = "Question or user not found", response = RestErrorDto.class),
   })
   @Timed
@@ -75,10 +82,13 @@ public class QuestionResponseResource {
   public List<UserResponseForQuestionDto> getResponsesOfConnectUserForQuestions(
       @ApiParam(value = "A comma separated ids of the questions that the user may responded example: 1, 2, 3",
           required = true)
-      @PathVariable("questionsId") String questionsId) {
+      @PathVariable(QUESTIONS_ID_PARAMETER) String questionsId) {
 
     LOGGER.debug("REST request to get the responses of the connected user for the questions with ids {}", questionsId);
-    return userResponseService.findResponsesOfUserForQuestions(USER_ID, commaDelimitedListToLongList(questionsId));
+
+    LongList questionsIds = parseCommaDelimitedIds(QUESTIONS_ID_PARAMETER, questionsId, MAX_QUESTIONS_IDS,
+        QUESTIONS_IDS.get());
+    return userResponseService.findResponsesOfUserForQuestions(USER_ID, questionsIds);
   }
 
   /**
@@ -99,7 +109,8 @@ public class QuestionResponseResource {
   @PostMapping("/responses/me")
   public List<UserResponseForQuestionDto> saveResponsesOfConnectUserForQuestions(@Valid @RequestBody
                                                                                      UserResponsesForQuestionListDto userResponseForQuestions) {
-    LOGGER.debug("REST request to save the responses of the connected user for the questions {}", userResponseForQuestions);
+    LOGGER.debug("REST request to save the responses of the connected user for {} questions",
+        userResponseForQuestions.getResponses().size());
     return userResponseService.saveResponsesOfUserForQuestions(USER_ID, userResponseForQuestions.getResponses());
   }
 
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.codahale.metrics.annotation.Timed;
+import com.github.joumenharzli.surveypoc.service.ResponseAnalyticsService;
+import com.github.joumenharzli.surveypoc.service.dto.AnswerCountDto;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+
+/**
+ * Rest Resource for the analytics of the responses
+ *
+ * @author Joumen Harzli
+ */
+@RestController
+@RequestMapping("/api/v1/analytics")
+public class ResponseAnalyticsResource {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResponseAnalyticsResource.class);
+
+  private final ResponseAnalyticsService responseAnalyticsService;
+
+  public ResponseAnalyticsResource(ResponseAnalyticsService responseAnalyticsService) {
+    this.responseAnalyticsService = responseAnalyticsService;
+  }
+
+  /**
+   * GET  /questions/:questionId/answers : Count the answers of a question grouped by content
+   *
+   * @param questionId id of the question
+   * @return the ResponseEntity with status 200 (OK) and the number of answers for each content
+   */
+  @ApiOperation(notes = "Returns the number of answers of the question for each content computed from the last " +
+      "snapshot of the responses.",
+      value = "Count the answers of a question by content",
+      nickname = "countAnswersByContent")
+  @Timed
+  @GetMapping("/questions/{questionId}/answers")
+  public List<AnswerCountDto> countAnswersByContent(
+      @ApiParam(value = "Id of the question", required = true)
+      @PathVariable("questionId") Long questionId) {
+
+    LOGGER.debug("REST request to count the answers of the question {} by content", questionId);
+    return responseAnalyticsService.countAnswersByContent(questionId);
+  }
+
+  /**
+   * GET  /questions/:questionId/users : Find the users who answered a question with a content
+   *
+   * @param questionId id of the question
+   * @param content    content of the answer
+   * @return the ResponseEntity with status 200 (OK) and the ids of the users
+   */
+  @ApiOperation(notes = "Returns the ids of the users who answered the question with the content computed from " +
+      "the last snapshot of the responses.",
+      value = "Find the users who answered a question with a content",
+      nickname = "findUsersWhoAnswered")
+  @Timed
+  @GetMapping("/questions/{questionId}/users")
+  public long[] findUsersWhoAnswered(
+      @ApiParam(value = "Id of the question", required = true)
+      @PathVariable("questionId") Long questionId,
+      @ApiParam(value = "Content of the answer", required = true)
+      @RequestParam("content") String content) {
+
+    LOGGER.debug("REST request to find the users who answered {} to the question {}", content, questionId);
+    return responseAnalyticsService.findUsersWhoAnswered(questionId, content);
+  }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.codahale.metrics.annotation.Timed;
+import com.github.joumenharzli.surveypoc.exception.InvalidParameterException;
+import com.github.joumenharzli.surveypoc.imports.ResponseImportFormat;
+import com.github.joumenharzli.surveypoc.service.ResponseImportService;
+import com.github.joumenharzli.surveypoc.service.dto.ResponseImportProgressDto;
+import com.github.joumenharzli.surveypoc.web.error.RestErrorDto;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * Rest Resource for the bulk imports of the responses
+ * <p>
+ * The body is read as a stream so the file is never held in memory, it is stored then imported in the background
+ *
+ * @author Joumen Harzli
+ */
+@RestController
+@RequestMapping("/api/v1/imports")
+public class ResponseImportResource {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResponseImportResource.class);
+
+  private static final String IMPORT_ID_PARAMETER = "importId";
+  private static final String CONTENT_TYPE_PARAMETER = "Content-Type";
+  private static final MediaType ERROR_REPORT_CONTENT_TYPE = MediaType.parseMediaType("text/csv");
+  private static final String ERROR_REPORT_SUFFIX = "-errors.csv";
+  private static final Pattern IMPORT_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,100}");
+
+  private final ResponseImportService responseImportService;
+
+  public ResponseImportResource(ResponseImportService responseImportService) {
+    this.responseImportService = responseImportService;
+  }
+
+  /**
+   * POST  /:importId : Import the responses of a csv or a ndjson file
+   *
+   * @param importId id of the import
+   * @param request  the request whose body is the file
+   * @return the ResponseEntity with status 202 (Accepted) and the progress of the import
+   * @throws IOException if the body cannot be read
+   */
+  @ApiOperation(notes = "Imports in the background the responses of a csv file with the columns " +
+      "user_id,question_id,content or of a ndjson file with the fields userId, questionId and content. The " +
+      "rejected lines are written to the error report. Posting the same file again with the same id resumes the " +
+      "import, the chunks already imported are skipped.",
+      value = "Import the responses of a file",
+      nickname = "importResponses")
+  @ApiResponses({
+      @ApiResponse(code = 400, message = "Id or format of the import is invalid", response = RestErrorDto.class),
+      @ApiResponse(code = 409, message = "Import is in progress", response = RestErrorDto.class)
+  })
+  @Timed
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  @PostMapping(value = "/{importId}", consumes = {"text/csv", "application/x-ndjson"})
+  public ResponseImportProgressDto importResponses(
+      @ApiParam(value = "Id of the import", required = true)
+      @PathVariable(IMPORT_ID_PARAMETER) String importId,
+      HttpServletRequest request) throws IOException {
+
+    LOGGER.debug("REST request to import the responses of {}", importId);
+
+    checkImportId(importId);
+    ResponseImportFormat format = ResponseImportFormat.fromMediaType(request.getContentType());
+    if (format == null) {
+      throw new InvalidParameterException(CONTENT_TYPE_PARAMETER, request.getContentType());
+    }
+
+    try (Reader input = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)) {
+      return responseImportService.importResponses(importId, format, input);
+    }
+  }
+
+  /**
+   * GET  /:importId : Get the progress of an import
+   *
+   * @param importId id of the import
+   * @return the ResponseEntity with status 200 (OK) and the progress of the import
+   */
+  @ApiOperation(notes = "Returns the totals of the chunks of the import already imported, whether the import " +
+      "is running and the report of its last run.",
+      value = "Get the progress of an import",
+      nickname = "findProgressOfImport")
+  @ApiResponses({
+      @ApiResponse(code = 404, message = "Import not found", response = RestErrorDto.class)
+  })
+  @Timed
+  @GetMapping("/{importId}")
+  public ResponseImportProgressDto findProgressOfImport(
+      @ApiParam(value = "Id of the import", required = true)
+      @PathVariable(IMPORT_ID_PARAMETER) String importId) {
+
+    LOGGER.debug("REST request to get the progress of the import {}", importId);
+    return responseImportService.findProgressOfImport(importId);
+  }
+
+  /**
+   * GET  /:importId/errors : Get the report of the rejected lines of an import
+   *
+   * @param importId id of the import
+   * @return the ResponseEntity with status 200 (OK) and the report as attachment
+   */
+  @ApiOperation(notes = "Returns the rejected lines of the import as csv with the columns line,code,detail. " +
+      "The report is complete once the import is not running.",
+      value = "Get the report of the rejected lines of an import",
+      nickname = "findErrorReportOfImport")
+  @ApiResponses({
+      @ApiResponse(code = 400, message = "Id of the import is invalid", response = RestErrorDto.class),
+      @ApiResponse(code = 404, message = "Import not found", response = RestErrorDto.class)
+  })
+  @Timed
+  @GetMapping("/{importId}/errors")
+  public ResponseEntity<Resource> findErrorReportOfImport(
+      @ApiParam(value = "Id of the import", required = true)
+      @PathVariable(IMPORT_ID_PARAMETER) String importId) {
+
+    LOGGER.debug("REST request to get the report of the rejected lines of the import {}", importId);
+
+    checkImportId(importId);
+    return ResponseEntity.ok()
+        .contentType(ERROR_REPORT_CONTENT_TYPE)
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + importId + ERROR_REPORT_SUFFIX + '"')
+        .body(responseImportService.findErrorReportOfImport(importId));
+  }
+
+  private void checkImportId(String importId) {
+    if (!IMPORT_ID_PATTERN.matcher(importId).matches()) {
+      throw new InvalidParameterException(IMPORT_ID_PARAMETER, importId);
+    }
+  }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.codahale.metrics.annotation.Timed;
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+import com.github.joumenharzli.surveypoc.live.ResponseUpdateSink;
+import com.github.joumenharzli.surveypoc.live.ResponseUpdateSubscription;
+import com.github.joumenharzli.surveypoc.service.LiveResponseService;
+import com.github.joumenharzli.surveypoc.service.dto.QuestionAnswersUpdateDto;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+
+/**
+ * Rest Resource for the live updates of the answers
+ * <p>
+ * The updates are pushed as server-sent events named {@code answers} over an asynchronous request,
+ * so the dashboards do not poll the analytics. The mappings do not declare the produced media type so
+ * the errors raised before the stream starts are still rendered as json.
+ *
+ * @author Joumen Harzli
+ */
+@RestController
+@RequestMapping("/api/v1/analytics")
+public class ResponseStreamResource {
+
+  public static final String ANSWERS_EVENT = "answers";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResponseStreamResource.class);
+
+  private final LiveResponseService liveResponseService;
+  private final ApplicationProperties applicationProperties;
+
+  public ResponseStreamResource(LiveResponseService liveResponseService,
+                                ApplicationProperties applicationProperties) {
+    this.liveResponseService = liveResponseService;
+    this.applicationProperties = applicationProperties;
+  }
+
+  /**
+   * GET  /questions/:questionId/answers/stream : Stream the updates of the answers of a question
+   *
+   * @param questionId id of the question
+   * @return the stream of the variations of the counts of the answers by content
+   */
+  @ApiOperation(notes = "Streams as server-sent events the variations of the number of answers of the question " +
+      "for each content as the responses are saved.",
+      value = "Stream the updates of the answers of a question",
+      nickname = "streamAnswersOfQuestion")
+  @Timed
+  @GetMapping("/questions/{questionId}/answers/stream")
+  public SseEmitter streamAnswersOfQuestion(
+      @ApiParam(value = "Id of the question", required = true)
+      @PathVariable("questionId") Long questionId) {
+
+    LOGGER.debug("REST request to stream the updates of the answers of the question {}", questionId);
+
+    SseEmitter emitter = new SseEmitter(applicationProperties.getLive().getTimeoutMillis());
+    return bind(emitter, liveResponseService.subscribeToQuestion(questionId, sink(emitter)));
+  }
+
+  /**
+   * GET  /subjects/:subjectId/answers/stream : Stream the updates of the answers of the questions of a subject
+   *
+   * @param subjectId id of the subject
+   * @return the stream of the variations of the counts of the answers by content
+   */
+  @ApiOperation(notes = "Streams as server-sent events the variations of the number of answers of each question " +
+      "of the subject for each content as the responses are saved.",
+      value = "Stream the updates of the answers of a subject",
+      nickname = "streamAnswersOfSubject")
+  @Timed
+  @GetMapping("/subjects/{subjectId}/answers/stream")
+  public SseEmitter streamAnswersOfSubject(
+      @ApiParam(value = "Id of the subject", required = true)
+      @PathVariable("subjectId") Long subjectId) {
+
+    LOGGER.debug("REST request to stream the updates of the answers of the subject {}", subjectId);
+
+    SseEmitter emitter = new SseEmitter(applicationProperties.getLive().getTimeoutMillis());
+    return bind(emitter, liveResponseService.subscribeToSubject(subjectId, sink(emitter)));
+  }
+
+  /**
+   * Cancel the subscription when the stream completes or times out
+   */
+  private static SseEmitter bind(SseEmitter emitter, ResponseUpdateSubscription<QuestionAnswersUpdateDto> subscription) {
+    emitter.onCompletion(subscription::cancel);
+    emitter.onTimeout(subscription::cancel);
+    return emitter;
+  }
+
+  private static ResponseUpdateSink<QuestionAnswersUpdateDto> sink(SseEmitter emitter) {
+    return new ResponseUpdateSink<QuestionAnswersUpdateDto>() {
+      @Override
+      public void send(QuestionAnswersUpdateDto update) throws IOException {
+        emitter.send(SseEmitter.event().name(ANSWERS_EVENT).data(update, MediaType.APPLICATION_JSON));
+      }
+
+      @Override
+      public void close() {
+        emitter.complete();
+      }
+    };
+  }
+
+}
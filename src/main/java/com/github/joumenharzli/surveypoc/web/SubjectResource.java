@@ -19,16 +19,22 @@ import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.codahale.metrics.annotation.Timed;
 import com.github.joumenharzli.surveypoc.service.SubjectService;
+import com.github.joumenharzli.surveypoc.service.dto.CatalogChangesDto;
 import com.github.joumenharzli.surveypoc.service.dto.SubjectDto;
+import com.github.joumenharzli.surveypoc.service.dto.SubjectProgressDto;
+import com.github.joumenharzli.surveypoc.web.error.RestErrorDto;
 import com.github.joumenharzli.surveypoc.web.error.RestFieldsErrorsDto;
 
 import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 
@@ -41,7 +47,10 @@ import io.swagger.annotations.ApiResponses;
 @RequestMapping("/api/v1/subjects")
 public class SubjectResource {
 
+  public static final String CATALOG_VERSION_HEADER = "Catalog-Version";
+
   private static final Logger LOGGER = LoggerFactory.getLogger(SubjectResource.class);
+  private static final long USER_ID = 1L;
 
   private final SubjectService subjectService;
 
@@ -51,10 +60,15 @@ public class SubjectResource {
 
   /**
    * GET  /subjects : get all the find all the subjects and their questions.
+   * <p>
+   * The version is read before the catalog so a client asking the changes since this version
+   * never misses a change
    *
-   * @return the ResponseEntity with status 200 (OK) and the list the subjects and their questions
+   * @return the ResponseEntity with status 200 (OK) and the list the subjects and their questions,
+   * the version of the catalog is in the {@value #CATALOG_VERSION_HEADER} header
    */
-  @ApiOperation(notes = "Returns all the found subjects and their questions.",
+  @ApiOperation(notes = "Returns all the found subjects and their questions. The version of the catalog is " +
+      "returned in the " + CATALOG_VERSION_HEADER + " header.",
       value = "Get all subjects and questions",
       nickname = "findAllSubjectsAndQuestions")
   @ApiResponses({
@@ -63,10 +77,55 @@ public class SubjectResource {
   })
   @Timed
   @GetMapping
-  public List<SubjectDto> findAllSubjectsAndQuestions() {
+  public ResponseEntity<List<SubjectDto>> findAllSubjectsAndQuestions() {
     LOGGER.debug("REST request to get all the subjects and the questions");
 
-    return subjectService.findAllSubjectsAndQuestions();
+    long version = subjectService.findCatalogVersion();
+    return ResponseEntity.ok()
+        .header(CATALOG_VERSION_HEADER, String.valueOf(version))
+        .body(subjectService.findAllSubjectsAndQuestions());
+  }
+
+  /**
+   * GET  /subjects/changes : get the subjects and the questions added, changed or removed since a version.
+   *
+   * @param since the version of the catalog known by the client
+   * @return the ResponseEntity with status 200 (OK) and the changes with the current version
+   */
+  @ApiOperation(notes = "Returns the subjects and the questions added, changed or removed since the version " +
+      "and the current version of the catalog. The version 0 returns the whole catalog.",
+      value = "Get the changes of the catalog",
+      nickname = "findCatalogChanges")
+  @ApiResponses({
+      @ApiResponse(code = 400, message = "Version is invalid", response = RestErrorDto.class)
+  })
+  @Timed
+  @GetMapping("/changes")
+  public CatalogChangesDto findCatalogChanges(
+      @ApiParam(value = "Version of the catalog known by the client", required = true)
+      @RequestParam("since") long since) {
+
+    LOGGER.debug("REST request to get the changes of the catalog since the version {}", since);
+
+    return subjectService.findCatalogChangesSince(since);
+  }
+
+  /**
+   * GET  /subjects/progress/me : get the number of the answered questions of the connected user by subject.
+   *
+   * @return the ResponseEntity with status 200 (OK) and the progress of the user in the subjects
+   * where at least one question was answered
+   */
+  @ApiOperation(notes = "Returns the number of the questions answered by the connected user in each subject. " +
+      "The subjects without any answered question are not returned.",
+      value = "Get the progress of the connected user",
+      nickname = "getProgressOfConnectedUser")
+  @Timed
+  @GetMapping("/progress/me")
+  public List<SubjectProgressDto> getProgressOfConnectedUser() {
+    LOGGER.debug("REST request to get the progress of the connected user");
+
+    return subjectService.findProgressOfUser(USER_ID);
   }
 
 }
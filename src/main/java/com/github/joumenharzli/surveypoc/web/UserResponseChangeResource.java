@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.codahale.metrics.annotation.Timed;
+import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.service.UserResponseChangeService;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseChangesDto;
+import com.github.joumenharzli.surveypoc.web.error.RestErrorDto;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * Rest Resource for the changes of the entity {@link UserResponse}
+ *
+ * @author Joumen Harzli
+ */
+@RestController
+@RequestMapping("/api/v1/responses")
+public class UserResponseChangeResource {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(UserResponseChangeResource.class);
+
+  private final UserResponseChangeService userResponseChangeService;
+
+  public UserResponseChangeResource(UserResponseChangeService userResponseChangeService) {
+    this.userResponseChangeService = userResponseChangeService;
+  }
+
+  /**
+   * GET  /changes : Get the responses created or updated since the provided token
+   *
+   * @param since token returned by the previous call, the feed starts from the beginning if absent
+   * @param size  maximum number of the returned changes
+   * @return the ResponseEntity with status 200 (OK) and a page of the changed responses with the next token
+   * and the ResponseEntity with status 400 if the token or the size is invalid
+   */
+  @ApiOperation(notes = "Returns the responses created or updated since the provided token ordered by update time. " +
+      "The returned token must be sent on the next call to continue the feed.",
+      value = "Get the responses changed since a token",
+      nickname = "getResponsesChangedSince")
+  @ApiResponses({
+      @ApiResponse(code = 400, message = "Invalid token or size", response = RestErrorDto.class),
+  })
+  @Timed
+  @GetMapping("/changes")
+  public UserResponseChangesDto getResponsesChangedSince(
+      @ApiParam(value = "Token returned by the previous call, the feed starts from the beginning if absent")
+      @RequestParam(value = "since", required = false) String since,
+      @ApiParam(value = "Maximum number of the returned changes")
+      @RequestParam(value = "size", required = false) Integer size) {
+
+    LOGGER.debug("REST request to get the responses changed since {}", since);
+    return userResponseChangeService.findChangesSince(since, size);
+  }
+
+}
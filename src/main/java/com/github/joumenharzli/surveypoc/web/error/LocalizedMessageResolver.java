@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.error;
+
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ObjectUtils;
+
+import com.github.joumenharzli.surveypoc.config.LocalizationConfiguration;
+
+/**
+ * Resolve the localized messages of the errors using a cache of the pre-parsed messages
+ * <p>
+ * The messages are looked up once by code, locale and shape of the arguments from the {@link MessageSource}
+ * then kept parsed so resolving a message does not search the resource bundles nor parse a
+ * {@link MessageFormat} again. Like {@link org.springframework.context.support.AbstractMessageSource} the
+ * shape of the arguments selects the rendering: without arguments the message is returned as it is written,
+ * with arguments it is formatted, and a message without any placeholder is never formatted. The codes that
+ * are not defined are cached too so the codes of the field errors that are tried before their generic code
+ * are cheap.
+ * <p>
+ * The keys of the cache are bounded: the locales are reduced to the
+ * {@link LocalizationConfiguration#SUPPORTED_LOCALES supported locales} and the indexes of the fields are
+ * removed from the codes, so a message cannot be defined for a single index of a field. The cache evicts
+ * the least recently used messages when it is full.
+ *
+ * @author Joumen Harzli
+ */
+@Component
+public class LocalizedMessageResolver {
+
+  private static final int MAX_CACHED_MESSAGES = 1000;
+  private static final String MISSING_MESSAGE = "\u0000missing";
+  private static final LocalizedMessage MISSING = new LocalizedMessage(null, null);
+  private static final Pattern FIELD_INDEX = Pattern.compile("\\[\\d+]");
+
+  private final MessageSource messageSource;
+  private final Map<MessageKey, LocalizedMessage> messages;
+
+  public LocalizedMessageResolver(MessageSource messageSource) {
+    this.messageSource = messageSource;
+    this.messages = Collections.synchronizedMap(new LinkedHashMap<MessageKey, LocalizedMessage>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<MessageKey, LocalizedMessage> eldest) {
+        return size() > MAX_CACHED_MESSAGES;
+      }
+    });
+  }
+
+  /**
+   * Get the localized message of a code
+   *
+   * @param code      code of the message
+   * @param arguments arguments of the message, may be null
+   * @param locale    locale of the message
+   * @return the localized message if found or the code
+   */
+  public String getMessage(String code, Object[] arguments, Locale locale) {
+    Locale supportedLocale = LocalizationConfiguration.toSupportedLocale(locale);
+    LocalizedMessage message = lookup(code, arguments, supportedLocale);
+    if (message == MISSING) {
+      return code;
+    }
+    return message.render(arguments, this, supportedLocale);
+  }
+
+  /**
+   * Get the localized message of a resolvable such as a field error
+   * <p>
+   * The first defined code is used, when no code is defined the resolution including the rendering
+   * of the default message is delegated to the {@link MessageSource}
+   *
+   * @param resolvable resolvable of the message
+   * @param locale     locale of the message
+   * @return the localized message
+   */
+  public String getMessage(MessageSourceResolvable resolvable, Locale locale) {
+    Locale supportedLocale = LocalizationConfiguration.toSupportedLocale(locale);
+    String[] codes = resolvable.getCodes();
+    if (codes != null) {
+      for (String code : codes) {
+        LocalizedMessage message = lookup(code, resolvable.getArguments(), supportedLocale);
+        if (message != MISSING) {
+          return message.render(resolvable.getArguments(), this, supportedLocale);
+        }
+      }
+    }
+    return messageSource.getMessage(resolvable, supportedLocale);
+  }
+
+  private LocalizedMessage lookup(String code, Object[] arguments, Locale locale) {
+    String normalizedCode = code.indexOf('[') < 0 ? code : FIELD_INDEX.matcher(code).replaceAll("[]");
+    MessageKey key = new MessageKey(normalizedCode, locale, !ObjectUtils.isEmpty(arguments));
+    LocalizedMessage message = messages.get(key);
+    if (message == null) {
+      message = load(key);
+      messages.put(key, message);
+    }
+    return message;
+  }
+
+  private LocalizedMessage load(MessageKey key) {
+    /* without arguments the message source returns the message as it is written */
+    String pattern = messageSource.getMessage(key.code, null, MISSING_MESSAGE, key.locale);
+    if (MISSING_MESSAGE.equals(pattern)) {
+      return MISSING;
+    }
+    boolean constant = !key.withArguments || (pattern.indexOf('{') < 0 && pattern.indexOf('\'') < 0);
+    return new LocalizedMessage(pattern, constant ? null : new MessageFormat(pattern, key.locale));
+  }
+
+  private Object[] resolveArguments(Object[] arguments, Locale locale) {
+    Object[] resolvedArguments = new Object[arguments.length];
+    for (int i = 0; i < arguments.length; i++) {
+      Object argument = arguments[i];
+      resolvedArguments[i] = argument instanceof MessageSourceResolvable ?
+          getMessage((MessageSourceResolvable) argument, locale) : argument;
+    }
+    return resolvedArguments;
+  }
+
+  private static final class LocalizedMessage {
+
+    private final String pattern;
+    private final MessageFormat format;
+
+    private LocalizedMessage(String pattern, MessageFormat format) {
+      this.pattern = pattern;
+      this.format = format;
+    }
+
+    private String render(Object[] arguments, LocalizedMessageResolver resolver, Locale locale) {
+      if (format == null) {
+        return pattern;
+      }
+      Object[] resolvedArguments = resolver.resolveArguments(arguments, locale);
+      /* a message format is not thread safe so each rendering uses its own copy of the parsed format */
+      return ((MessageFormat) format.clone()).format(resolvedArguments);
+    }
+  }
+
+  private static final class MessageKey {
+
+    private final String code;
+    private final Locale locale;
+    private final boolean withArguments;
+
+    private MessageKey(String code, Locale locale, boolean withArguments) {
+      this.code = code;
+      this.locale = locale;
+      this.withArguments = withArguments;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof MessageKey)) {
+        return false;
+      }
+      MessageKey key = (MessageKey) other;
+      return withArguments == key.withArguments && code.equals(key.code) && locale.equals(key.locale);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * code.hashCode() + locale.hashCode()) + (withArguments ? 1 : 0);
+    }
+  }
+}
@@ -26,6 +26,16 @@ public final class RestErrorConstants {
   public static final String ERR_VALIDATION_ERROR = "error.validation";
   public static final String ERR_QUESTIONS_NOT_FOUND_ERROR = "error.questionNotFound";
   public static final String ERR_USERS_NOT_FOUND_ERROR = "error.userNotFound";
+  public static final String ERR_SUBJECTS_NOT_FOUND_ERROR = "error.subjectNotFound";
+  public static final String ERR_IMPORT_NOT_FOUND_ERROR = "error.importNotFound";
+  public static final String ERR_IMPORT_IN_PROGRESS = "error.importInProgress";
+  public static final String ERR_TOO_MANY_REQUESTS = "error.tooManyRequests";
+  public static final String ERR_SERVICE_UNAVAILABLE = "error.serviceUnavailable";
+  public static final String ERR_RECORDING_UNAVAILABLE = "error.recordingUnavailable";
+  public static final String ERR_INVALID_PARAMETER = "error.invalidParameter";
+  public static final String ERR_RESPONSES_CONFLICT = "error.responsesConflict";
+  public static final String ERR_RESPONSE_CONFLICT = "error.responseConflict";
+  public static final String ERR_INVALID_ANSWER_PREFIX = "error.answer.";
 
   private RestErrorConstants() {
   }
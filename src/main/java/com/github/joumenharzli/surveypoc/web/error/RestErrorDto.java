@@ -16,10 +16,7 @@
 package com.github.joumenharzli.surveypoc.web.error;
 
 import java.io.Serializable;
-
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
+import java.util.Objects;
 
 import io.swagger.annotations.ApiModel;
 
@@ -58,25 +55,20 @@ public class RestErrorDto implements Serializable {
 
     RestErrorDto that = (RestErrorDto) o;
 
-    return new EqualsBuilder()
-        .append(code, that.code)
-        .append(message, that.message)
-        .isEquals();
+    return Objects.equals(code, that.code)
+        && Objects.equals(message, that.message);
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(17, 37)
-        .append(code)
-        .toHashCode();
+    return Objects.hashCode(code);
   }
 
   @Override
   public String toString() {
-    ToStringBuilder builder = new ToStringBuilder(this)
-        .append("code", code)
-        .append("message", message);
-
-    return builder.toString();
+    return "RestErrorDto{" +
+        "code='" + code + '\'' +
+        ", message='" + message + '\'' +
+        '}';
   }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.error;
+
+import java.io.IOException;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes a {@link RestErrorDto} directly to the servlet response
+ * <p>
+ * Used by the servlet filters that reject requests before they reach the controllers
+ * so {@link RestExceptionTranslator} cannot be used
+ *
+ * @author Joumen Harzli
+ */
+@Component
+public class RestErrorWriter {
+
+  private final LocalizedMessageResolver messageResolver;
+  private final ObjectMapper objectMapper;
+
+  public RestErrorWriter(LocalizedMessageResolver messageResolver, ObjectMapper objectMapper) {
+    this.messageResolver = messageResolver;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Write an error with a {@code Retry-After} header
+   *
+   * @param response          servlet response
+   * @param status            status of the response
+   * @param errorCode         code of the error used to find the localized message
+   * @param retryAfterSeconds number of seconds the client should wait before retrying
+   * @throws IOException if the response cannot be written
+   */
+  public void writeError(HttpServletResponse response, HttpStatus status, String errorCode,
+                         long retryAfterSeconds) throws IOException {
+    String message = messageResolver.getMessage(errorCode, null, LocaleContextHolder.getLocale());
+
+    response.setStatus(status.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), new RestErrorDto(errorCode, message));
+  }
+}
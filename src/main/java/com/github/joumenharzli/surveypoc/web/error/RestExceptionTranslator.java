@@ -17,9 +17,10 @@ package com.github.joumenharzli.surveypoc.web.error;
 
 import java.util.List;
 
-import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -28,8 +29,17 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+import com.github.joumenharzli.surveypoc.exception.ImportInProgressException;
+import com.github.joumenharzli.surveypoc.exception.ImportNotFoundException;
+import com.github.joumenharzli.surveypoc.exception.InvalidParameterException;
+import com.github.joumenharzli.surveypoc.exception.InvalidResponseException;
 import com.github.joumenharzli.surveypoc.exception.QuestionNotFoundException;
+import com.github.joumenharzli.surveypoc.exception.RecordingUnavailableException;
+import com.github.joumenharzli.surveypoc.exception.ResponseConflictException;
+import com.github.joumenharzli.surveypoc.exception.SubjectNotFoundException;
 import com.github.joumenharzli.surveypoc.exception.UserNotFoundException;
+import com.github.joumenharzli.surveypoc.repository.dao.DaoOverloadedException;
 
 /**
  * Controller advice to translate the server side exceptions to client-friendly json structures.
@@ -39,10 +49,13 @@ import com.github.joumenharzli.surveypoc.exception.UserNotFoundException;
 @ControllerAdvice
 public class RestExceptionTranslator {
 
-  private final MessageSource messageSource;
+  private final LocalizedMessageResolver messageResolver;
+  private final ApplicationProperties applicationProperties;
 
-  public RestExceptionTranslator(MessageSource messageSource) {
-    this.messageSource = messageSource;
+  public RestExceptionTranslator(LocalizedMessageResolver messageResolver,
+                                 ApplicationProperties applicationProperties) {
+    this.messageResolver = messageResolver;
+    this.applicationProperties = applicationProperties;
   }
 
   /**
@@ -58,6 +71,45 @@ public class RestExceptionTranslator {
     return new RestErrorDto(errorCode, getLocalizedMessageFromErrorCode(errorCode, new Object[]{exception.getNotFoundQuestionsIds()}));
   }
 
+  /**
+   * Handle Subject Not Found
+   *
+   * @return 404 status with message telling that the subject not found
+   */
+  @ResponseStatus(value = HttpStatus.NOT_FOUND)
+  @ExceptionHandler(value = SubjectNotFoundException.class)
+  @ResponseBody
+  public RestErrorDto handleSubjectNotFound(SubjectNotFoundException exception) {
+    String errorCode = RestErrorConstants.ERR_SUBJECTS_NOT_FOUND_ERROR;
+    return new RestErrorDto(errorCode, getLocalizedMessageFromErrorCode(errorCode, new Object[]{exception.getNotFoundSubjectsIds()}));
+  }
+
+  /**
+   * Handle Import Not Found
+   *
+   * @return 404 status with message telling that the import not found
+   */
+  @ResponseStatus(value = HttpStatus.NOT_FOUND)
+  @ExceptionHandler(value = ImportNotFoundException.class)
+  @ResponseBody
+  public RestErrorDto handleImportNotFound(ImportNotFoundException exception) {
+    String errorCode = RestErrorConstants.ERR_IMPORT_NOT_FOUND_ERROR;
+    return new RestErrorDto(errorCode, getLocalizedMessageFromErrorCode(errorCode, new Object[]{exception.getImportId()}));
+  }
+
+  /**
+   * Handle Import In Progress
+   *
+   * @return 409 status with message telling that the import is still running
+   */
+  @ResponseStatus(value = HttpStatus.CONFLICT)
+  @ExceptionHandler(value = ImportInProgressException.class)
+  @ResponseBody
+  public RestErrorDto handleImportInProgress(ImportInProgressException exception) {
+    String errorCode = RestErrorConstants.ERR_IMPORT_IN_PROGRESS;
+    return new RestErrorDto(errorCode, getLocalizedMessageFromErrorCode(errorCode, new Object[]{exception.getImportId()}));
+  }
+
   /**
    * Handle User Not Found
    *
@@ -95,6 +147,89 @@ public class RestExceptionTranslator {
 
   }
 
+  /**
+   * Handle the responses whose contents do not match the definitions of their questions
+   *
+   * @return validation error with the fields errors and a bad request
+   */
+  @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+  @ExceptionHandler(value = InvalidResponseException.class)
+  @ResponseBody
+  public RestFieldsErrorsDto handleInvalidResponses(InvalidResponseException exception) {
+    String errorCode = RestErrorConstants.ERR_VALIDATION_ERROR;
+
+    RestFieldsErrorsDto restFieldsErrors = new RestFieldsErrorsDto(errorCode, getLocalizedMessageFromErrorCode(errorCode));
+
+    exception.getInvalidResponses().forEach(invalidResponse ->
+        restFieldsErrors.addError(new RestFieldErrorDto("responses[" + invalidResponse.getIndex() + "].content",
+            invalidResponse.getCode(), getLocalizedMessageFromErrorCode(
+                RestErrorConstants.ERR_INVALID_ANSWER_PREFIX + invalidResponse.getCode(), invalidResponse.getArguments()))));
+
+    return restFieldsErrors;
+  }
+
+  /**
+   * Handle Response Conflict
+   *
+   * @return 409 status with an error for each question whose response was modified concurrently
+   */
+  @ResponseStatus(value = HttpStatus.CONFLICT)
+  @ExceptionHandler(value = ResponseConflictException.class)
+  @ResponseBody
+  public RestFieldsErrorsDto handleResponseConflict(ResponseConflictException exception) {
+    String errorCode = RestErrorConstants.ERR_RESPONSES_CONFLICT;
+
+    RestFieldsErrorsDto restFieldsErrors = new RestFieldsErrorsDto(errorCode, getLocalizedMessageFromErrorCode(errorCode));
+
+    String questionErrorCode = RestErrorConstants.ERR_RESPONSE_CONFLICT;
+    exception.getConflictingQuestionsIds().stream().map(String::valueOf).forEach(questionId ->
+        restFieldsErrors.addError(new RestFieldErrorDto(questionId, questionErrorCode,
+            getLocalizedMessageFromErrorCode(questionErrorCode, new Object[]{questionId}))));
+
+    return restFieldsErrors;
+  }
+
+  /**
+   * Handle Invalid Parameter
+   *
+   * @return 400 status with message telling which parameter is invalid
+   */
+  @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+  @ExceptionHandler(value = InvalidParameterException.class)
+  @ResponseBody
+  public RestErrorDto handleInvalidParameter(InvalidParameterException exception) {
+    String errorCode = RestErrorConstants.ERR_INVALID_PARAMETER;
+    return new RestErrorDto(errorCode, getLocalizedMessageFromErrorCode(errorCode,
+        new Object[]{exception.getParameter(), exception.getValue()}));
+  }
+
+  /**
+   * Handle the dao calls rejected because the database is saturated
+   *
+   * @return 503 status with a {@code Retry-After} header
+   */
+  @ExceptionHandler(value = DaoOverloadedException.class)
+  @ResponseBody
+  public ResponseEntity<RestErrorDto> handleDaoOverloaded() {
+    String errorCode = RestErrorConstants.ERR_SERVICE_UNAVAILABLE;
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(applicationProperties.getAdmission().getRetryAfterSeconds()))
+        .body(new RestErrorDto(errorCode, getLocalizedMessageFromErrorCode(errorCode)));
+  }
+
+  /**
+   * Handle the recordings requested while the flight recorder cannot record
+   *
+   * @return 503 status with message telling that the recorder is not available
+   */
+  @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+  @ExceptionHandler(value = RecordingUnavailableException.class)
+  @ResponseBody
+  public RestErrorDto handleRecordingUnavailable() {
+    String errorCode = RestErrorConstants.ERR_RECORDING_UNAVAILABLE;
+    return new RestErrorDto(errorCode, getLocalizedMessageFromErrorCode(errorCode));
+  }
+
   /**
    * Handle all types of errors
    *
@@ -115,7 +250,7 @@ public class RestExceptionTranslator {
    * @return the localized message if found or the default one
    */
   private String getLocalizedMessageFromFieldError(FieldError fieldError) {
-    return messageSource.getMessage(fieldError, LocaleContextHolder.getLocale());
+    return messageResolver.getMessage(fieldError, LocaleContextHolder.getLocale());
   }
 
   /**
@@ -125,7 +260,7 @@ public class RestExceptionTranslator {
    * @return the localized message if found
    */
   private String getLocalizedMessageFromErrorCode(String errorCode) {
-    return getLocalizedMessageFromErrorCode(errorCode, new Object[]{});
+    return getLocalizedMessageFromErrorCode(errorCode, null);
   }
 
   /**
@@ -136,6 +271,6 @@ public class RestExceptionTranslator {
    * @return the localized message if found
    */
   private String getLocalizedMessageFromErrorCode(String errorCode, Object[] arguments) {
-    return messageSource.getMessage(errorCode, arguments, LocaleContextHolder.getLocale());
+    return messageResolver.getMessage(errorCode, arguments, LocaleContextHolder.getLocale());
   }
 }
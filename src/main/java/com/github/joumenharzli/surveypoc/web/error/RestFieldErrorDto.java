@@ -16,10 +16,7 @@
 package com.github.joumenharzli.surveypoc.web.error;
 
 import java.io.Serializable;
-
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
+import java.util.Objects;
 
 /**
  * A representation for the rest field error
@@ -74,28 +71,25 @@ public class RestFieldErrorDto implements Serializable {
 
     RestFieldErrorDto that = (RestFieldErrorDto) o;
 
-    return new EqualsBuilder()
-        .append(field, that.field)
-        .append(code, that.code)
-        .append(message, that.message)
-        .isEquals();
+    return Objects.equals(field, that.field)
+        && Objects.equals(code, that.code)
+        && Objects.equals(message, that.message);
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(17, 37)
-        .append(field)
-        .append(code)
-        .append(message)
-        .toHashCode();
+    int result = Objects.hashCode(field);
+    result = 31 * result + Objects.hashCode(code);
+    result = 31 * result + Objects.hashCode(message);
+    return result;
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("field", field)
-        .append("code", code)
-        .append("message", message)
-        .toString();
+    return "RestFieldErrorDto{" +
+        "field='" + field + '\'' +
+        ", code='" + code + '\'' +
+        ", message='" + message + '\'' +
+        '}';
   }
 }
@@ -18,10 +18,8 @@ package com.github.joumenharzli.surveypoc.web.error;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.springframework.util.Assert;
 
 import io.swagger.annotations.ApiModel;
@@ -80,24 +78,21 @@ public class RestFieldsErrorsDto extends RestErrorDto implements Serializable {
 
     RestFieldsErrorsDto that = (RestFieldsErrorsDto) o;
 
-    return new EqualsBuilder()
-        .appendSuper(super.equals(o))
-        .append(fieldsErrors, that.fieldsErrors)
-        .isEquals();
+    return super.equals(o)
+        && Objects.equals(fieldsErrors, that.fieldsErrors);
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(17, 37)
-        .appendSuper(super.hashCode())
-        .append(fieldsErrors)
-        .toHashCode();
+    int result = super.hashCode();
+    result = 31 * result + Objects.hashCode(fieldsErrors);
+    return result;
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("fieldsErrors", fieldsErrors)
-        .toString();
+    return "RestFieldsErrorsDto{" +
+        "fieldsErrors=" + fieldsErrors +
+        '}';
   }
 }
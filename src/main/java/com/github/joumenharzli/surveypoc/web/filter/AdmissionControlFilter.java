@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.filter;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.github.joumenharzli.surveypoc.web.error.RestErrorConstants;
+import com.github.joumenharzli.surveypoc.web.error.RestErrorWriter;
+import com.github.joumenharzli.surveypoc.web.ratelimit.ConcurrencyLimiter;
+
+/**
+ * Reject with a {@code 503} the requests that exceed the global concurrency limit
+ * so they do not queue up waiting for a connection of the pool
+ *
+ * @author Joumen Harzli
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+  private final ConcurrencyLimiter concurrencyLimiter;
+  private final RestErrorWriter restErrorWriter;
+  private final int retryAfterSeconds;
+  private final Meter acceptedRequests;
+  private final Meter rejectedRequests;
+
+  public AdmissionControlFilter(ConcurrencyLimiter concurrencyLimiter, RestErrorWriter restErrorWriter,
+                                int retryAfterSeconds, MetricRegistry metricRegistry) {
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.restErrorWriter = restErrorWriter;
+    this.retryAfterSeconds = retryAfterSeconds;
+    this.acceptedRequests = metricRegistry.meter(MetricRegistry.name(AdmissionControlFilter.class, "accepted"));
+    this.rejectedRequests = metricRegistry.meter(MetricRegistry.name(AdmissionControlFilter.class, "rejected"));
+    metricRegistry.register(MetricRegistry.name(AdmissionControlFilter.class, "in-flight"),
+        (Gauge<Integer>) concurrencyLimiter::getInFlightRequests);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    if (!concurrencyLimiter.tryAcquire()) {
+      rejectedRequests.mark();
+      LOGGER.debug("Request rejected because {} requests are already in flight",
+          concurrencyLimiter.getMaxConcurrentRequests());
+
+      restErrorWriter.writeError(response, HttpStatus.SERVICE_UNAVAILABLE, RestErrorConstants.ERR_SERVICE_UNAVAILABLE,
+          retryAfterSeconds);
+      return;
+    }
+
+    acceptedRequests.mark();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      concurrencyLimiter.release();
+    }
+  }
+}
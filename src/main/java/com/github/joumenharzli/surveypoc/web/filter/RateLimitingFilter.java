@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.filter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.github.joumenharzli.surveypoc.web.error.RestErrorConstants;
+import com.github.joumenharzli.surveypoc.web.error.RestErrorWriter;
+import com.github.joumenharzli.surveypoc.web.ratelimit.ClientRateLimiter;
+
+/**
+ * Reject with a {@code 429} the requests of the clients that exceeded their rate
+ * <p>
+ * The client is identified by the authenticated user or by its address, a header sent by the client
+ * is not trusted since a client could change it on each request to escape its limit. Behind a load balancer
+ * the address is the one forwarded by the trusted proxy, see {@code server.use-forward-headers}
+ *
+ * @author Joumen Harzli
+ */
+public class RateLimitingFilter extends OncePerRequestFilter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitingFilter.class);
+
+  private final ClientRateLimiter rateLimiter;
+  private final RestErrorWriter restErrorWriter;
+  private final Meter allowedRequests;
+  private final Meter rejectedRequests;
+
+  public RateLimitingFilter(ClientRateLimiter rateLimiter, RestErrorWriter restErrorWriter,
+                            MetricRegistry metricRegistry) {
+    this.rateLimiter = rateLimiter;
+    this.restErrorWriter = restErrorWriter;
+    this.allowedRequests = metricRegistry.meter(MetricRegistry.name(RateLimitingFilter.class, "allowed"));
+    this.rejectedRequests = metricRegistry.meter(MetricRegistry.name(RateLimitingFilter.class, "rejected"));
+    metricRegistry.register(MetricRegistry.name(RateLimitingFilter.class, "clients"),
+        (Gauge<Integer>) rateLimiter::getTrackedClients);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    String clientKey = resolveClientKey(request);
+    long waitNanos = rateLimiter.tryAcquire(clientKey);
+
+    if (waitNanos > 0) {
+      rejectedRequests.mark();
+      LOGGER.debug("Rate limit exceeded for the client {}", clientKey);
+
+      long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+      restErrorWriter.writeError(response, HttpStatus.TOO_MANY_REQUESTS, RestErrorConstants.ERR_TOO_MANY_REQUESTS,
+          retryAfterSeconds);
+      return;
+    }
+
+    allowedRequests.mark();
+    filterChain.doFilter(request, response);
+  }
+
+  private String resolveClientKey(HttpServletRequest request) {
+    Principal principal = request.getUserPrincipal();
+    if (principal != null) {
+      return "user:" + principal.getName();
+    }
+
+    return "address:" + request.getRemoteAddr();
+  }
+}
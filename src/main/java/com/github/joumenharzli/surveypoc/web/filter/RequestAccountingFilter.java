@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.filter;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.github.joumenharzli.surveypoc.diagnostics.RequestAccounting;
+import com.github.joumenharzli.surveypoc.diagnostics.RequestAccountingMetrics;
+import com.github.joumenharzli.surveypoc.diagnostics.ThreadAllocationCounter;
+
+/**
+ * Account the dao calls, the statements and the bytes allocated by each request and attribute them
+ * to the endpoint that handled the request
+ * <p>
+ * The allocation report and the recordings of the diagnostics are fed by the {@link RequestDiagnosticsFilter},
+ * which is enabled separately.
+ * <p>
+ * The endpoint is the method and the pattern of the mapping that handled the request, so the number of
+ * the endpoints is bounded whatever the values of the path variables are
+ *
+ * @author Joumen Harzli
+ */
+public class RequestAccountingFilter extends OncePerRequestFilter {
+
+  public static final String UNMATCHED_PATTERN = "UNMATCHED";
+
+  private final ThreadAllocationCounter allocationCounter;
+  private final RequestAccountingMetrics accountingMetrics;
+  private final boolean serverTimingHeader;
+
+  public RequestAccountingFilter(ThreadAllocationCounter allocationCounter, RequestAccountingMetrics accountingMetrics,
+                                 boolean serverTimingHeader) {
+    this.allocationCounter = allocationCounter;
+    this.accountingMetrics = accountingMetrics;
+    this.serverTimingHeader = serverTimingHeader;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    RequestAccounting accounting = RequestAccounting.begin(allocationCounter);
+    ServerTimingResponseWrapper serverTimingResponse = serverTimingHeader ?
+        new ServerTimingResponseWrapper(response, accounting) : null;
+    try {
+      filterChain.doFilter(request, serverTimingResponse == null ? response : serverTimingResponse);
+    } finally {
+      if (serverTimingResponse != null) {
+        serverTimingResponse.complete();
+      }
+      accounting.end();
+      accountingMetrics.record(endpointOf(request), accounting);
+    }
+  }
+
+  /**
+   * The pattern is only known once the request was dispatched to its handler
+   */
+  private static String endpointOf(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return request.getMethod() + ' ' + (pattern == null ? UNMATCHED_PATTERN : pattern);
+  }
+}
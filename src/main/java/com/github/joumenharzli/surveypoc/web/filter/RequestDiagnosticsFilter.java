@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.filter;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.github.joumenharzli.surveypoc.diagnostics.AllocationStatistics;
+import com.github.joumenharzli.surveypoc.diagnostics.ProfileRecorder;
+import com.github.joumenharzli.surveypoc.diagnostics.ThreadAllocationCounter;
+
+/**
+ * Attribute the bytes allocated by the request threads and the events of the running recording
+ * to the endpoints that handled the requests
+ * <p>
+ * The endpoint is the method and the pattern of the mapping that handled the request, so the number of
+ * the endpoints is bounded whatever the values of the path variables are
+ *
+ * @author Joumen Harzli
+ */
+public class RequestDiagnosticsFilter extends OncePerRequestFilter {
+
+  public static final String UNMATCHED_PATTERN = "UNMATCHED";
+
+  private final ThreadAllocationCounter allocationCounter;
+  private final AllocationStatistics allocationStatistics;
+  private final ProfileRecorder profileRecorder;
+
+  public RequestDiagnosticsFilter(ThreadAllocationCounter allocationCounter,
+                                  AllocationStatistics allocationStatistics, ProfileRecorder profileRecorder) {
+    this.allocationCounter = allocationCounter;
+    this.allocationStatistics = allocationStatistics;
+    this.profileRecorder = profileRecorder;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    long allocatedBytesBefore = allocationCounter.currentThreadAllocatedBytes();
+    Object requestEvent = profileRecorder.beginRequest();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      String endpoint = endpointOf(request);
+      profileRecorder.endRequest(requestEvent, endpoint);
+
+      if (allocatedBytesBefore != ThreadAllocationCounter.UNSUPPORTED) {
+        allocationStatistics.record(endpoint, Thread.currentThread().getName(),
+            allocationCounter.currentThreadAllocatedBytes() - allocatedBytesBefore);
+      }
+    }
+  }
+
+  /**
+   * The pattern is only known once the request was dispatched to its handler
+   */
+  private static String endpointOf(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return request.getMethod() + ' ' + (pattern == null ? UNMATCHED_PATTERN : pattern);
+  }
+}
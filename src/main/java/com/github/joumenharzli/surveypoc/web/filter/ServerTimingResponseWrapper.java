@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.filter;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+
+import com.github.joumenharzli.surveypoc.diagnostics.RequestAccounting;
+import com.github.joumenharzli.surveypoc.diagnostics.ThreadAllocationCounter;
+
+/**
+ * Response that sends the accounting of the request in the {@code Server-Timing} header
+ * just before the response is committed
+ * <p>
+ * The header cannot be added after the body was written, so the serialization of the body
+ * is not accounted in the header
+ *
+ * @author Joumen Harzli
+ */
+class ServerTimingResponseWrapper extends OnCommittedResponseWrapper {
+
+  static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+  private final RequestAccounting accounting;
+  private boolean written;
+
+  ServerTimingResponseWrapper(HttpServletResponse response, RequestAccounting accounting) {
+    super(response);
+    this.accounting = accounting;
+  }
+
+  @Override
+  protected void onResponseCommitted() {
+    writeHeader();
+  }
+
+  /**
+   * Send the header if the response was not committed by the handler
+   */
+  void complete() {
+    if (!isCommitted()) {
+      writeHeader();
+    }
+  }
+
+  private void writeHeader() {
+    if (written) {
+      return;
+    }
+    written = true;
+
+    StringBuilder header = new StringBuilder(160)
+        .append("app;dur=").append(millis(accounting.getElapsedNanos()))
+        .append(", dao;desc=\"calls=").append(accounting.getDaoCalls())
+        .append(" connections=").append(accounting.getConnections()).append('"')
+        .append(", db;dur=").append(millis(accounting.getJdbcNanos()))
+        .append(";desc=\"statements=").append(accounting.getStatements())
+        .append(" rows-read=").append(accounting.getRowsRead())
+        .append(" rows-written=").append(accounting.getRowsWritten()).append('"');
+
+    long allocatedBytes = accounting.getAllocatedBytes();
+    if (allocatedBytes != ThreadAllocationCounter.UNSUPPORTED) {
+      header.append(", alloc;desc=\"bytes=").append(allocatedBytes).append('"');
+    }
+
+    setHeader(SERVER_TIMING_HEADER, header.toString());
+  }
+
+  private static String millis(long nanos) {
+    return String.format(Locale.ROOT, "%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+  }
+}
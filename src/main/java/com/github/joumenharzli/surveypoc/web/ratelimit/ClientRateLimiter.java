@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.util.Assert;
+
+/**
+ * Keeps a {@link TokenBucket} for each client
+ * <p>
+ * The buckets are stored in a {@link ConcurrentHashMap} so the lookups are lock-free and the
+ * creations are striped by bin. The full buckets do not hold any state so they are evicted by
+ * {@link #evictIdleClients()}, which is called periodically and never on the request path.
+ * Until the next eviction, the clients that do not fit in the map share a single bucket, so a flood
+ * of new clients is throttled as one client instead of growing the map.
+ *
+ * @author Joumen Harzli
+ */
+public class ClientRateLimiter {
+
+  private final int capacity;
+  private final int refillPerSecond;
+  private final int maxTrackedClients;
+
+  private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+  private final TokenBucket overflowBucket;
+
+  public ClientRateLimiter(int capacity, int refillPerSecond, int maxTrackedClients) {
+    Assert.isTrue(maxTrackedClients > 0, "Maximum number of tracked clients must be positive");
+
+    this.capacity = capacity;
+    this.refillPerSecond = refillPerSecond;
+    this.maxTrackedClients = maxTrackedClients;
+    this.overflowBucket = new TokenBucket(capacity, refillPerSecond, System.nanoTime());
+  }
+
+  /**
+   * Try to consume a token from the bucket of the client
+   *
+   * @param clientKey key that identifies the client
+   * @return zero if the request is allowed otherwise the number of nanoseconds to wait
+   * before the next request of the client is allowed
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  public long tryAcquire(String clientKey) {
+    Assert.notNull(clientKey, "Key of the client cannot be null");
+
+    long now = System.nanoTime();
+
+    TokenBucket bucket = buckets.get(clientKey);
+    if (bucket == null) {
+      bucket = buckets.size() < maxTrackedClients ?
+          buckets.computeIfAbsent(clientKey, key -> new TokenBucket(capacity, refillPerSecond, now)) : overflowBucket;
+    }
+
+    return bucket.tryConsume(now);
+  }
+
+  /**
+   * @return number of the clients that have a bucket
+   */
+  public int getTrackedClients() {
+    return buckets.size();
+  }
+
+  /**
+   * Evict the buckets of the clients that are full again, they behave as new buckets
+   *
+   * @return number of the evicted clients
+   */
+  public int evictIdleClients() {
+    long now = System.nanoTime();
+    int trackedClients = buckets.size();
+    buckets.values().removeIf(bucket -> bucket.isFull(now));
+    return trackedClients - buckets.size();
+  }
+}
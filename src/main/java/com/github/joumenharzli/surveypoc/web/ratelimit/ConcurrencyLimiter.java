@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.ratelimit;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.springframework.util.Assert;
+
+/**
+ * Limits the number of the requests processed at the same time
+ * <p>
+ * A request that cannot get a permit within the maximum wait is rejected instead
+ * of being queued. The maximum is read before each acquisition so it can follow a resource
+ * resized at runtime, like the connection pool: when it shrinks the permits in use are kept
+ * and the new requests wait until enough of them are released.
+ *
+ * @author Joumen Harzli
+ */
+public class ConcurrencyLimiter {
+
+  private final IntSupplier maxConcurrentRequestsSupplier;
+  private final long maxWaitMillis;
+  private final ResizableSemaphore permits;
+  private volatile int maxConcurrentRequests;
+
+  public ConcurrencyLimiter(int maxConcurrentRequests, long maxWaitMillis) {
+    this(() -> maxConcurrentRequests, maxWaitMillis);
+  }
+
+  /**
+   * @param maxConcurrentRequestsSupplier supplies the current maximum number of concurrent requests
+   * @param maxWaitMillis                 maximum time a request waits for a permit
+   */
+  public ConcurrencyLimiter(IntSupplier maxConcurrentRequestsSupplier, long maxWaitMillis) {
+    int initialMaxConcurrentRequests = maxConcurrentRequestsSupplier.getAsInt();
+    Assert.isTrue(initialMaxConcurrentRequests > 0, "Maximum number of concurrent requests must be positive");
+    Assert.isTrue(maxWaitMillis >= 0, "Maximum wait cannot be negative");
+
+    this.maxConcurrentRequestsSupplier = maxConcurrentRequestsSupplier;
+    this.maxWaitMillis = maxWaitMillis;
+    this.maxConcurrentRequests = initialMaxConcurrentRequests;
+    this.permits = new ResizableSemaphore(initialMaxConcurrentRequests);
+  }
+
+  /**
+   * Try to get a permit for a request
+   *
+   * @return true if the permit was acquired and then must be released using {@link #release()}
+   */
+  public boolean tryAcquire() {
+    int currentMaxConcurrentRequests = maxConcurrentRequestsSupplier.getAsInt();
+    if (currentMaxConcurrentRequests != maxConcurrentRequests) {
+      resize(currentMaxConcurrentRequests);
+    }
+
+    if (permits.tryAcquire()) {
+      return true;
+    }
+
+    try {
+      return maxWaitMillis > 0 && permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Release a permit acquired with {@link #tryAcquire()}
+   */
+  public void release() {
+    permits.release();
+  }
+
+  /**
+   * @return number of the requests being processed
+   */
+  public int getInFlightRequests() {
+    return maxConcurrentRequests - permits.availablePermits();
+  }
+
+  public int getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  private synchronized void resize(int newMaxConcurrentRequests) {
+    int currentMaxConcurrentRequests = maxConcurrentRequests;
+    if (newMaxConcurrentRequests <= 0 || newMaxConcurrentRequests == currentMaxConcurrentRequests) {
+      return;
+    }
+
+    if (newMaxConcurrentRequests > currentMaxConcurrentRequests) {
+      permits.release(newMaxConcurrentRequests - currentMaxConcurrentRequests);
+    } else {
+      permits.reducePermits(currentMaxConcurrentRequests - newMaxConcurrentRequests);
+    }
+    maxConcurrentRequests = newMaxConcurrentRequests;
+  }
+
+  /**
+   * Semaphore whose permits can be reduced below the ones in use
+   */
+  private static final class ResizableSemaphore extends Semaphore {
+
+    ResizableSemaphore(int permits) {
+      super(permits);
+    }
+
+    @Override
+    protected void reducePermits(int reduction) {
+      super.reducePermits(reduction);
+    }
+  }
+}
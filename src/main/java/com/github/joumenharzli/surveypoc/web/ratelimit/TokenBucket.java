@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+/**
+ * A lock-free token bucket
+ * <p>
+ * The bucket is implemented as a generic cell rate algorithm: instead of storing the number of the
+ * available tokens it stores the theoretical arrival time of the next request so the whole state
+ * fits in a single {@link AtomicLong} and is updated with one compare and set
+ *
+ * @author Joumen Harzli
+ */
+public class TokenBucket {
+
+  private final long emissionIntervalNanos;
+  private final long burstToleranceNanos;
+  private final AtomicLong theoreticalArrivalTime;
+
+  /**
+   * Constructor for the token bucket
+   *
+   * @param capacity        maximum number of tokens that can be consumed in a burst
+   * @param refillPerSecond number of tokens added to the bucket each second
+   * @param nowNanos        current time in nanoseconds
+   * @throws IllegalArgumentException if any given argument is invalid
+   */
+  public TokenBucket(int capacity, int refillPerSecond, long nowNanos) {
+    Assert.isTrue(capacity > 0, "Capacity of the bucket must be positive");
+    Assert.isTrue(refillPerSecond > 0, "Refill rate of the bucket must be positive");
+
+    this.emissionIntervalNanos = TimeUnit.SECONDS.toNanos(1) / refillPerSecond;
+    this.burstToleranceNanos = emissionIntervalNanos * capacity;
+    this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+  }
+
+  /**
+   * Try to consume one token from the bucket
+   *
+   * @param nowNanos current time in nanoseconds
+   * @return zero if the token was consumed otherwise the number of nanoseconds to wait
+   * before a token is available
+   */
+  public long tryConsume(long nowNanos) {
+    while (true) {
+      long current = theoreticalArrivalTime.get();
+      long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+      long waitNanos = next - nowNanos - burstToleranceNanos;
+
+      if (waitNanos > 0) {
+        return waitNanos;
+      }
+
+      if (theoreticalArrivalTime.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * @param nowNanos current time in nanoseconds
+   * @return true if the bucket is full so it can be discarded without losing any state
+   */
+  public boolean isFull(long nowNanos) {
+    return theoreticalArrivalTime.get() <= nowNanos;
+  }
+}
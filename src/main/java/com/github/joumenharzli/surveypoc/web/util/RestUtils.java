@@ -15,10 +15,8 @@
 
 package com.github.joumenharzli.surveypoc.web.util;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
-import org.springframework.util.StringUtils;
+import com.github.joumenharzli.surveypoc.exception.InvalidParameterException;
+import com.github.joumenharzli.surveypoc.util.LongList;
 
 /**
  * Utils for Rest Controllers
@@ -27,19 +25,68 @@ import org.springframework.util.StringUtils;
  */
 public final class RestUtils {
 
+  private static final long MAX_ID_BEFORE_MULTIPLICATION = Long.MAX_VALUE / 10;
+
   private RestUtils() {
   }
 
   /**
-   * Convert a comma delimited list into a list of {@code Long} values.
+   * Parse a comma delimited list of ids in a single pass without allocating
+   * <p>
+   * The whitespaces around the ids are ignored and the duplicated ids are kept only once
+   * in the order of their first occurrence
    *
-   * @param value comma separated text
-   * @return list of parsed elements
+   * @param parameter name of the parameter used to report an invalid value
+   * @param value     comma separated ids
+   * @param maxCount  maximum number of distinct ids
+   * @param ids       list that is cleared then filled with the parsed ids
+   * @return the given list of ids
+   * @throws InvalidParameterException if an id is not a positive number or if there are too many ids
    */
-  public static List<Long> commaDelimitedListToLongList(String value) {
-    return StringUtils.commaDelimitedListToSet(value)
-        .stream()
-        .map(Long::parseLong)
-        .collect(Collectors.toList());
+  public static LongList parseCommaDelimitedIds(String parameter, String value, int maxCount, LongList ids) {
+    ids.clear();
+
+    int length = value.length();
+    int position = 0;
+
+    while (position <= length) {
+      while (position < length && Character.isWhitespace(value.charAt(position))) {
+        position++;
+      }
+
+      int digitsStart = position;
+      long id = 0;
+      while (position < length) {
+        int digit = value.charAt(position) - '0';
+        if (digit < 0 || digit > 9) {
+          break;
+        }
+        if (id > MAX_ID_BEFORE_MULTIPLICATION || id * 10 > Long.MAX_VALUE - digit) {
+          throw new InvalidParameterException(parameter, value);
+        }
+        id = id * 10 + digit;
+        position++;
+      }
+
+      while (position < length && Character.isWhitespace(value.charAt(position))) {
+        position++;
+      }
+
+      if (position == digitsStart || id == 0 || (position < length && value.charAt(position) != ',')) {
+        throw new InvalidParameterException(parameter, value);
+      }
+
+      if (!ids.contains(id)) {
+        if (ids.size() == maxCount) {
+          throw new InvalidParameterException(parameter, value);
+        }
+        ids.add(id);
+      }
+
+      /* skip the comma, after the last id this ends the loop */
+      position++;
+    }
+
+    return ids;
   }
 }
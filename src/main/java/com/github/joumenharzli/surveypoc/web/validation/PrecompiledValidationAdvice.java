@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.validation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.validation.Validator;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.InitBinder;
+
+/**
+ * Replace the bean validation of the request bodies that have a precompiled validator
+ * <p>
+ * The {@code @Valid} annotations of the resources are kept: the binder simply calls the precompiled
+ * validator instead of the reflective one and the failures still raise a
+ * {@link org.springframework.web.bind.MethodArgumentNotValidException}
+ *
+ * @author Joumen Harzli
+ */
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "application.validation", name = "precompiled", havingValue = "true")
+public class PrecompiledValidationAdvice {
+
+  private final Validator userResponsesForQuestionListDtoValidator = new UserResponsesForQuestionListDtoValidator();
+
+  @InitBinder
+  public void initBinder(WebDataBinder binder) {
+    Object target = binder.getTarget();
+    if (target != null && userResponsesForQuestionListDtoValidator.supports(target.getClass())) {
+      binder.setValidator(userResponsesForQuestionListDtoValidator);
+    }
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.validation;
+
+import java.util.List;
+
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponsesForQuestionListDto;
+
+/**
+ * Hand-built validator of {@link UserResponsesForQuestionListDto}
+ * <p>
+ * It checks the same constraints as the bean validation annotations of the dto in a single pass over
+ * the responses, without reflection and without any allocation when the request is valid. The errors
+ * have the same fields and codes as the ones of bean validation so they are translated the same way.
+ * The annotations of the dto and this validator must be kept in sync.
+ *
+ * @author Joumen Harzli
+ */
+public class UserResponsesForQuestionListDtoValidator implements Validator {
+
+  static final String NOT_EMPTY = "NotEmpty";
+  static final String NOT_NULL = "NotNull";
+  static final String NOT_BLANK = "NotBlank";
+  static final String SIZE = "Size";
+
+  private static final String RESPONSES_FIELD = "responses";
+
+  @Override
+  public boolean supports(Class<?> clazz) {
+    return UserResponsesForQuestionListDto.class.equals(clazz);
+  }
+
+  @Override
+  public void validate(Object target, Errors errors) {
+    List<UserResponseForQuestionDto> responses = ((UserResponsesForQuestionListDto) target).getResponses();
+
+    if (responses == null || responses.isEmpty()) {
+      errors.rejectValue(RESPONSES_FIELD, NOT_EMPTY);
+      return;
+    }
+
+    if (responses.size() > UserResponsesForQuestionListDto.MAX_RESPONSES) {
+      rejectSize(errors);
+    }
+
+    for (int index = 0; index < responses.size(); index++) {
+      UserResponseForQuestionDto response = responses.get(index);
+
+      /* like the cascaded validation the null elements are not validated */
+      if (response == null) {
+        continue;
+      }
+
+      if (response.getQuestionId() == null) {
+        errors.rejectValue(RESPONSES_FIELD + "[" + index + "].questionId", NOT_NULL);
+      }
+
+      if (isBlank(response.getContent())) {
+        errors.rejectValue(RESPONSES_FIELD + "[" + index + "].content", NOT_BLANK);
+      }
+    }
+  }
+
+  /**
+   * Reject the size with the arguments of bean validation: the field then the attributes of the constraint
+   * sorted by name
+   */
+  private static void rejectSize(Errors errors) {
+    DefaultMessageSourceResolvable field = new DefaultMessageSourceResolvable(
+        new String[]{errors.getObjectName() + Errors.NESTED_PATH_SEPARATOR + RESPONSES_FIELD, RESPONSES_FIELD},
+        RESPONSES_FIELD);
+    errors.rejectValue(RESPONSES_FIELD, SIZE, new Object[]{field, UserResponsesForQuestionListDto.MAX_RESPONSES, 0},
+        null);
+  }
+
+  private static boolean isBlank(String content) {
+    if (content == null) {
+      return true;
+    }
+    for (int i = 0; i < content.length(); i++) {
+      if (content.charAt(i) > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
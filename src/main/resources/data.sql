@@ -2,11 +2,16 @@ INSERT INTO subjects (id, label) VALUES (1, 'Personal information');
 INSERT INTO subjects (id, label) VALUES (2, 'Appreciations');
 
 INSERT INTO questions (id, label, subject_id) VALUES (1, 'What''s your name ?', 1);
-INSERT INTO questions (id, label, subject_id) VALUES (2, 'How old are you ?', 1);
-INSERT INTO questions (id, label, subject_id) VALUES (3, 'Do you like this example ?', 2);
+INSERT INTO questions (id, label, subject_id, type, min_value, max_value) VALUES (2, 'How old are you ?', 1, 'INTEGER_RANGE', 0, 150);
+INSERT INTO questions (id, label, subject_id, type) VALUES (3, 'Do you like this example ?', 2, 'SINGLE_CHOICE');
 INSERT INTO questions (id, label, subject_id) VALUES (4, 'Any suggestions ?', 2);
 
+INSERT INTO question_choices (question_id, position, label) VALUES (3, 0, 'Yes');
+INSERT INTO question_choices (question_id, position, label) VALUES (3, 1, 'No');
+
 INSERT INTO users (id, name) VALUES (1, 'demo');
 
 INSERT INTO user_responses (content, question_id, user_id) VALUES ('Joe', 1, 1);
 INSERT INTO user_responses (content, question_id, user_id) VALUES ('25', 2, 1);
+
+INSERT INTO user_subject_progress (user_id, subject_id, answered_questions) VALUES (1, 1, 2);
@@ -0,0 +1,27 @@
+-- Creation of the snapshot of the catalog served to the clients by version
+--
+-- The table is filled by the first refresh of the catalog version. It can be run again safely.
+-- The definitions of the questions are added to a table created by a previous version, its next
+-- refresh records the questions whose definition is not known yet as changed.
+
+CREATE TABLE IF NOT EXISTS catalog_entries (
+  entity_type   VARCHAR(10)   NOT NULL,
+  entity_id     INT8          NOT NULL,
+  label         VARCHAR(100),
+  subject_id    INT8,
+  question_type VARCHAR(20),
+  min_value     INT8,
+  max_value     INT8,
+  pattern       VARCHAR(255),
+  choices       VARCHAR(4000),
+  version       INT8          NOT NULL,
+  removed       BOOLEAN       NOT NULL,
+  CONSTRAINT pk_catalog_entries PRIMARY KEY (entity_type, entity_id)
+);
+CREATE INDEX IF NOT EXISTS idx_catalog_entries_version ON catalog_entries (version);
+
+ALTER TABLE catalog_entries ADD COLUMN IF NOT EXISTS question_type VARCHAR(20);
+ALTER TABLE catalog_entries ADD COLUMN IF NOT EXISTS min_value INT8;
+ALTER TABLE catalog_entries ADD COLUMN IF NOT EXISTS max_value INT8;
+ALTER TABLE catalog_entries ADD COLUMN IF NOT EXISTS pattern VARCHAR(255);
+ALTER TABLE catalog_entries ADD COLUMN IF NOT EXISTS choices VARCHAR(4000);
@@ -0,0 +1,20 @@
+-- Creation of the tables recording the progress of the bulk imports of the responses
+--
+-- The imports are resumed from the chunks recorded in response_import_chunks. It can be run again safely.
+
+CREATE TABLE IF NOT EXISTS response_imports (
+  id         VARCHAR(100) NOT NULL,
+  format     VARCHAR(10)  NOT NULL,
+  batch_size INT          NOT NULL,
+  created_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT pk_response_imports PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS response_import_chunks (
+  import_id   VARCHAR(100) NOT NULL,
+  chunk_index INT8         NOT NULL,
+  imported    INT          NOT NULL,
+  rejected    INT          NOT NULL,
+  CONSTRAINT pk_response_import_chunks PRIMARY KEY (import_id, chunk_index),
+  CONSTRAINT fk_response_imports_response_import_chunks FOREIGN KEY (import_id) REFERENCES response_imports (id)
+);
@@ -0,0 +1,32 @@
+-- Migration of an existing database to the dictionary storage of the response contents
+--
+-- The reads decode both the text and the dictionary forms, so this script can be run
+-- while the application is serving requests. Enable application.response-values.dictionary-enabled
+-- first so the new responses are written as value ids, then run the script to encode the
+-- existing rows. Only the answers of the choice and range questions are encoded, the free answers
+-- stay stored as text. It can be run again safely.
+
+CREATE TABLE IF NOT EXISTS response_values (
+  id      INT8         NOT NULL AUTO_INCREMENT,
+  content VARCHAR(100) NOT NULL,
+  CONSTRAINT pk_response_values PRIMARY KEY (id),
+  CONSTRAINT uk_response_values_content UNIQUE (content)
+);
+
+ALTER TABLE user_responses ADD COLUMN IF NOT EXISTS value_id INT8 AFTER content;
+ALTER TABLE user_responses ALTER COLUMN content SET NULL;
+ALTER TABLE user_responses ADD CONSTRAINT IF NOT EXISTS ck_user_responses_content
+  CHECK (content IS NOT NULL OR value_id IS NOT NULL);
+ALTER TABLE user_responses ADD CONSTRAINT IF NOT EXISTS fk_response_values_user_responses
+  FOREIGN KEY (value_id) REFERENCES response_values (id);
+
+INSERT INTO response_values (content)
+  SELECT DISTINCT ur.content FROM user_responses AS ur
+  INNER JOIN questions AS q ON q.id = ur.question_id
+  WHERE ur.content IS NOT NULL AND q.type IN ('SINGLE_CHOICE', 'MULTIPLE_CHOICE', 'INTEGER_RANGE')
+    AND NOT EXISTS (SELECT 1 FROM response_values AS rv WHERE rv.content = ur.content);
+
+UPDATE user_responses AS ur
+  SET value_id = (SELECT rv.id FROM response_values AS rv WHERE rv.content = ur.content), content = NULL
+  WHERE ur.content IS NOT NULL AND ur.question_id IN (SELECT q.id FROM questions AS q
+    WHERE q.type IN ('SINGLE_CHOICE', 'MULTIPLE_CHOICE', 'INTEGER_RANGE'));
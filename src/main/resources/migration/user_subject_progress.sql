@@ -0,0 +1,19 @@
+-- Migration of an existing database to the materialized progress of the users
+--
+-- The progress is incremented by the application when the responses are added and this script replaces
+-- the counts by the counts of the existing responses, so deploy the version that maintains the progress
+-- first then run the script. It can be run again safely.
+
+CREATE TABLE IF NOT EXISTS user_subject_progress (
+  user_id            INT8 NOT NULL,
+  subject_id         INT8 NOT NULL,
+  answered_questions INT  NOT NULL,
+  CONSTRAINT pk_user_subject_progress PRIMARY KEY (user_id, subject_id),
+  CONSTRAINT fk_users_user_subject_progress FOREIGN KEY (user_id) REFERENCES users (id),
+  CONSTRAINT fk_subjects_user_subject_progress FOREIGN KEY (subject_id) REFERENCES subjects (id)
+);
+
+MERGE INTO user_subject_progress (user_id, subject_id, answered_questions) KEY (user_id, subject_id)
+  SELECT ur.user_id, q.subject_id, COUNT(*) FROM user_responses AS ur
+  INNER JOIN questions AS q ON q.id = ur.question_id
+  GROUP BY ur.user_id, q.subject_id;
@@ -1,3 +1,4 @@
+DROP TABLE IF EXISTS user_subject_progress;
 DROP TABLE IF EXISTS subjects;
 CREATE TABLE subjects (
   id    INT8         NOT NULL AUTO_INCREMENT,
@@ -10,8 +11,22 @@ CREATE TABLE questions (
   id         INT8         NOT NULL AUTO_INCREMENT,
   label      VARCHAR(100) NOT NULL,
   subject_id INT8         NOT NULL,
+  type       VARCHAR(20)  NOT NULL DEFAULT 'FREE_TEXT',
+  min_value  INT8,
+  max_value  INT8,
+  pattern    VARCHAR(255),
   CONSTRAINT pk_questions PRIMARY KEY (id),
-  CONSTRAINT fk_subjects_questions FOREIGN KEY (subject_id) REFERENCES subjects (id)
+  CONSTRAINT fk_subjects_questions FOREIGN KEY (subject_id) REFERENCES subjects (id),
+  CONSTRAINT ck_questions_type CHECK (type IN ('FREE_TEXT', 'INTEGER_RANGE', 'SINGLE_CHOICE', 'MULTIPLE_CHOICE', 'REGEX'))
+);
+
+DROP TABLE IF EXISTS question_choices;
+CREATE TABLE question_choices (
+  question_id INT8         NOT NULL,
+  position    INT          NOT NULL,
+  label       VARCHAR(100) NOT NULL,
+  CONSTRAINT pk_question_choices PRIMARY KEY (question_id, position),
+  CONSTRAINT fk_questions_question_choices FOREIGN KEY (question_id) REFERENCES questions (id)
 );
 
 DROP TABLE IF EXISTS users;
@@ -22,12 +37,72 @@ CREATE TABLE users (
 );
 
 DROP TABLE IF EXISTS user_responses;
+DROP TABLE IF EXISTS response_values;
+CREATE TABLE response_values (
+  id      INT8         NOT NULL AUTO_INCREMENT,
+  content VARCHAR(100) NOT NULL,
+  CONSTRAINT pk_response_values PRIMARY KEY (id),
+  CONSTRAINT uk_response_values_content UNIQUE (content)
+);
+
 CREATE TABLE user_responses (
-  content     VARCHAR(100) NOT NULL,
+  content     VARCHAR(100),
+  value_id    INT8,
   question_id INT8         NOT NULL,
   user_id     INT8         NOT NULL,
+  created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  version     INT8         NOT NULL DEFAULT 0,
   CONSTRAINT pk_user_responses PRIMARY KEY (question_id, user_id),
+  CONSTRAINT ck_user_responses_content CHECK (content IS NOT NULL OR value_id IS NOT NULL),
   CONSTRAINT fk_questions_user_responses FOREIGN KEY (question_id) REFERENCES questions (id),
-  CONSTRAINT fk_users_user_responses FOREIGN KEY (user_id) REFERENCES users (id)
+  CONSTRAINT fk_users_user_responses FOREIGN KEY (user_id) REFERENCES users (id),
+  CONSTRAINT fk_response_values_user_responses FOREIGN KEY (value_id) REFERENCES response_values (id)
 );
 
+CREATE INDEX idx_user_responses_changes ON user_responses (updated_at, user_id, question_id);
+
+CREATE TABLE user_subject_progress (
+  user_id            INT8 NOT NULL,
+  subject_id         INT8 NOT NULL,
+  answered_questions INT  NOT NULL,
+  CONSTRAINT pk_user_subject_progress PRIMARY KEY (user_id, subject_id),
+  CONSTRAINT fk_users_user_subject_progress FOREIGN KEY (user_id) REFERENCES users (id),
+  CONSTRAINT fk_subjects_user_subject_progress FOREIGN KEY (subject_id) REFERENCES subjects (id)
+);
+
+DROP TABLE IF EXISTS response_import_chunks;
+DROP TABLE IF EXISTS response_imports;
+CREATE TABLE response_imports (
+  id         VARCHAR(100) NOT NULL,
+  format     VARCHAR(10)  NOT NULL,
+  batch_size INT          NOT NULL,
+  created_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT pk_response_imports PRIMARY KEY (id)
+);
+
+CREATE TABLE response_import_chunks (
+  import_id   VARCHAR(100) NOT NULL,
+  chunk_index INT8         NOT NULL,
+  imported    INT          NOT NULL,
+  rejected    INT          NOT NULL,
+  CONSTRAINT pk_response_import_chunks PRIMARY KEY (import_id, chunk_index),
+  CONSTRAINT fk_response_imports_response_import_chunks FOREIGN KEY (import_id) REFERENCES response_imports (id)
+);
+
+DROP TABLE IF EXISTS catalog_entries;
+CREATE TABLE catalog_entries (
+  entity_type   VARCHAR(10)   NOT NULL,
+  entity_id     INT8          NOT NULL,
+  label         VARCHAR(100),
+  subject_id    INT8,
+  question_type VARCHAR(20),
+  min_value     INT8,
+  max_value     INT8,
+  pattern       VARCHAR(255),
+  choices       VARCHAR(4000),
+  version       INT8          NOT NULL,
+  removed       BOOLEAN       NOT NULL,
+  CONSTRAINT pk_catalog_entries PRIMARY KEY (entity_type, entity_id)
+);
+CREATE INDEX idx_catalog_entries_version ON catalog_entries (version);
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.analytics;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * ResponseSnapshotTest
+ *
+ * @author Joumen Harzli
+ */
+public class ResponseSnapshotTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void queriesTest() {
+    ResponseSnapshot snapshot = createSnapshot(ColumnStorage.DIRECT);
+    assertQueries(snapshot);
+  }
+
+  @Test
+  public void mappedQueriesTest() throws Exception {
+    ResponseSnapshot snapshot = createSnapshot(ColumnStorage.mapped(temporaryFolder.newFolder().toPath()));
+    assertQueries(snapshot);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unsortedRowsTest() {
+    new ResponseSnapshotBuilder(2)
+        .add(2L, 1L, "Yes")
+        .add(1L, 1L, "No");
+  }
+
+  @Test
+  public void scanDoesNotAllocatePerRowTest() {
+    com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    Assert.assertTrue(threadMXBean.isThreadAllocatedMemorySupported());
+
+    int rows = 1_000_000;
+    ResponseSnapshotBuilder builder = new ResponseSnapshotBuilder(rows);
+    for (int userId = 0; userId < rows; userId++) {
+      builder.add(1L, userId, userId % 2 == 0 ? "Yes" : "No");
+    }
+    ResponseSnapshot snapshot = builder.build(ColumnStorage.DIRECT);
+    int yesId = snapshot.valueId("Yes");
+
+    UserSum sum = new UserSum(yesId);
+    snapshot.forEachAnswer(1L, sum);
+
+    long threadId = Thread.currentThread().getId();
+    long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+    snapshot.forEachAnswer(1L, sum);
+    int count = snapshot.countAnswers(1L, yesId);
+    long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    Assert.assertEquals(rows / 2, count);
+    Assert.assertTrue("Scan allocated " + allocated + " bytes", allocated < 1024);
+  }
+
+  private void assertQueries(ResponseSnapshot snapshot) {
+    Assert.assertEquals(5, snapshot.size());
+    Assert.assertEquals(3, snapshot.dictionarySize());
+
+    int yesId = snapshot.valueId("Yes");
+    int noId = snapshot.valueId("No");
+    Assert.assertEquals("Yes", snapshot.value(yesId));
+    Assert.assertEquals("No", snapshot.value(noId));
+    Assert.assertEquals(ResponseSnapshot.NO_VALUE, snapshot.valueId("Maybe"));
+
+    Assert.assertEquals(3, snapshot.countAnswers(1L));
+    Assert.assertEquals(2, snapshot.countAnswers(1L, yesId));
+    Assert.assertEquals(0, snapshot.countAnswers(3L));
+    Assert.assertArrayEquals(new long[]{1L, 3L}, snapshot.findUsers(1L, yesId));
+
+    Map<String, Integer> counts = new HashMap<>();
+    snapshot.forEachValueCount(2L, (valueId, count) -> counts.put(snapshot.value(valueId), count));
+    Assert.assertEquals(2, counts.size());
+    Assert.assertEquals(Integer.valueOf(1), counts.get("No"));
+    Assert.assertEquals(Integer.valueOf(1), counts.get("18-25"));
+
+    snapshot.forEachValueCount(1L, (valueId, count) -> counts.put(snapshot.value(valueId), count));
+    Assert.assertEquals(Integer.valueOf(2), counts.get("Yes"));
+    Assert.assertEquals(Integer.valueOf(1), counts.get("No"));
+
+    snapshot.forEachValueCount(3L, (valueId, count) -> Assert.fail("Question 3 has no answer"));
+  }
+
+  private ResponseSnapshot createSnapshot(ColumnStorage storage) {
+    return new ResponseSnapshotBuilder(1)
+        .add(1L, 1L, "Yes")
+        .add(1L, 2L, "No")
+        .add(1L, 3L, "Yes")
+        .add(2L, 1L, "18-25")
+        .add(2L, 2L, "No")
+        .build(storage);
+  }
+
+  private static class UserSum implements AnswerConsumer {
+
+    private final int valueId;
+    private long sum;
+
+    UserSum(int valueId) {
+      this.valueId = valueId;
+    }
+
+    @Override
+    public void accept(long userId, int valueId) {
+      if (valueId == this.valueId) {
+        sum += userId;
+      }
+    }
+  }
+
+}
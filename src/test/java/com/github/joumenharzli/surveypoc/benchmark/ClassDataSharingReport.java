@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.github.joumenharzli.surveypoc.SurveyPocApplication;
+
+/**
+ * Measure the startup time and the footprint of the application with and without an application class data
+ * sharing archive
+ * <p>
+ * A training run records the classes loaded until the application is started, the archive is dumped from this
+ * list then the application is started several times with the default archive of the virtual machine and with
+ * the archive of the application. The application classes can only be archived from plain jars so the report
+ * runs on the jar of the classes and its dependencies instead of the executable jar.
+ * <p>
+ * Application class data sharing needs a virtual machine of version 10 or later, the report is run by the
+ * {@code cds} profile with {@code mvn -Pcds verify -Dcds.java.home=<jdk>}
+ * <p>
+ * Usage: {@code ClassDataSharingReport <java home> <application jar> <libraries directory> <output directory>
+ * <runs>}
+ *
+ * @author Joumen Harzli
+ */
+public class ClassDataSharingReport {
+
+  private static final Pattern STARTED = Pattern.compile("Started " +
+      SurveyPocApplication.class.getSimpleName() + " in ([0-9.]+) seconds");
+  private static final Pattern RESIDENT_SET_SIZE = Pattern.compile("VmRSS:\\s+(\\d+) kB");
+
+  private static final String[] APPLICATION_ARGUMENTS = {"--server.port=0", "--spring.main.banner-mode=off"};
+  private static final long STARTUP_TIMEOUT_SECONDS = 120;
+
+  private final Path java;
+  private final String classPath;
+  private final Path classList;
+  private final Path archive;
+
+  ClassDataSharingReport(Path javaHome, Path applicationJar, Path libraries, Path output) throws IOException {
+    this.java = javaHome.resolve("bin").resolve("java");
+    this.classPath = classPath(applicationJar, libraries);
+    this.classList = output.resolve("classes.lst");
+    this.archive = output.resolve("application.jsa");
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    if (args.length != 5) {
+      throw new IllegalArgumentException("Usage: ClassDataSharingReport <java home> <application jar> " +
+          "<libraries directory> <output directory> <runs>");
+    }
+
+    Path output = Paths.get(args[3]);
+    Files.createDirectories(output);
+
+    ClassDataSharingReport report = new ClassDataSharingReport(Paths.get(args[0]), Paths.get(args[1]),
+        Paths.get(args[2]), output);
+    List<String> lines = report.run(Integer.parseInt(args[4]));
+
+    lines.forEach(System.out::println);
+    Files.write(output.resolve("report.txt"), lines, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Create the archive then compare the startups without and with the archive
+   *
+   * @param runs number of the startups measured for each configuration
+   * @return the lines of the report
+   */
+  List<String> run(int runs) throws IOException, InterruptedException {
+    start(Collections.singletonList("-XX:DumpLoadedClassList=" + classList));
+    dump();
+
+    List<Startup> baseline = new ArrayList<>();
+    List<Startup> shared = new ArrayList<>();
+    for (int i = 0; i < runs; i++) {
+      baseline.add(start(Collections.emptyList()));
+      shared.add(start(Collections.singletonList("-XX:SharedArchiveFile=" + archive)));
+    }
+
+    Startup baselineMedian = Startup.median(baseline);
+    Startup sharedMedian = Startup.median(shared);
+
+    return Arrays.asList(
+        String.format(Locale.ROOT, "Class data sharing report (%d runs, medians)", runs),
+        String.format(Locale.ROOT, "%-12s %14s %14s %12s", "", "started (ms)", "process (ms)", "rss (MiB)"),
+        baselineMedian.format("default"),
+        sharedMedian.format("application"),
+        String.format(Locale.ROOT, "%-12s %+14d %+14d %+12.1f", "delta",
+            sharedMedian.startedMillis - baselineMedian.startedMillis,
+            sharedMedian.processMillis - baselineMedian.processMillis,
+            (sharedMedian.residentKilobytes - baselineMedian.residentKilobytes) / 1024.0),
+        String.format(Locale.ROOT, "archive: %s (%.1f MiB, %d classes)", archive,
+            Files.size(archive) / (1024.0 * 1024.0), Files.lines(classList).count()));
+  }
+
+  private void dump() throws IOException, InterruptedException {
+    Process process = new ProcessBuilder(java.toString(), "-Xshare:dump", "-XX:SharedClassListFile=" + classList,
+        "-XX:SharedArchiveFile=" + archive, "-cp", classPath)
+        .inheritIO()
+        .start();
+    if (process.waitFor() != 0) {
+      throw new IllegalStateException("Unable to dump the class data sharing archive " + archive);
+    }
+  }
+
+  /**
+   * Start the application until it logs that it is started, then measure the footprint of the process
+   * and stop it
+   * <p>
+   * The process is started by a shell that prints its pid before replacing itself by the virtual machine
+   * so the resident set size can be read from {@code /proc}
+   */
+  private Startup start(List<String> options) throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add("exec");
+    command.add(java.toString());
+    command.addAll(options);
+    command.addAll(Arrays.asList("-cp", classPath, SurveyPocApplication.class.getName()));
+    command.addAll(Arrays.asList(APPLICATION_ARGUMENTS));
+
+    long start = System.nanoTime();
+    Process process = new ProcessBuilder("/bin/sh", "-c", "echo $$; " + String.join(" ", command))
+        .redirectErrorStream(true)
+        .start();
+
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      String pid = reader.readLine();
+
+      String line;
+      while ((line = reader.readLine()) != null) {
+        Matcher matcher = STARTED.matcher(line);
+        if (matcher.find()) {
+          long processMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+          long startedMillis = Math.round(Double.parseDouble(matcher.group(1)) * 1000);
+          return new Startup(startedMillis, processMillis, residentKilobytes(pid));
+        }
+      }
+      throw new IllegalStateException("The application exited before it was started: " + command);
+    } finally {
+      process.destroy();
+      if (!process.waitFor(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  private static long residentKilobytes(String pid) throws IOException {
+    for (String line : Files.readAllLines(Paths.get("/proc", pid, "status"), StandardCharsets.UTF_8)) {
+      Matcher matcher = RESIDENT_SET_SIZE.matcher(line);
+      if (matcher.find()) {
+        return Long.parseLong(matcher.group(1));
+      }
+    }
+    throw new IllegalStateException("No resident set size for the process " + pid);
+  }
+
+  /**
+   * The class path must be the same when the archive is dumped and used so the libraries are sorted
+   */
+  private static String classPath(Path applicationJar, Path libraries) throws IOException {
+    try (Stream<Path> jars = Files.list(libraries)) {
+      return Stream.concat(Stream.of(applicationJar), jars.sorted())
+          .map(path -> path.toAbsolutePath().toString())
+          .collect(Collectors.joining(File.pathSeparator));
+    }
+  }
+
+  private static final class Startup {
+
+    private final long startedMillis;
+    private final long processMillis;
+    private final long residentKilobytes;
+
+    Startup(long startedMillis, long processMillis, long residentKilobytes) {
+      this.startedMillis = startedMillis;
+      this.processMillis = processMillis;
+      this.residentKilobytes = residentKilobytes;
+    }
+
+    static Startup median(List<Startup> startups) {
+      return new Startup(
+          median(startups.stream().mapToLong(startup -> startup.startedMillis).sorted().toArray()),
+          median(startups.stream().mapToLong(startup -> startup.processMillis).sorted().toArray()),
+          median(startups.stream().mapToLong(startup -> startup.residentKilobytes).sorted().toArray()));
+    }
+
+    private static long median(long[] sorted) {
+      return sorted[sorted.length / 2];
+    }
+
+    String format(String name) {
+      return String.format(Locale.ROOT, "%-12s %14d %14d %12.1f", name, startedMillis, processMillis,
+          residentKilobytes / 1024.0);
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.Subject;
+import com.github.joumenharzli.surveypoc.domain.User;
+import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.domain.UserResponseKey;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+
+/**
+ * Compare the allocations of the hash based operations on the entities with the equality and hashing
+ * built by the commons-lang builders, which the entities used before, and with the hand-written ones
+ * <p>
+ * The allocation rate of each method is reported by the gc profiler as {@code gc.alloc.rate.norm}.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.github.joumenharzli.surveypoc.benchmark.DomainObjectsBenchmark}
+ *
+ * @author Joumen Harzli
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainObjectsBenchmark {
+
+  private static final int RESPONSES = 500;
+  private static final int SUBJECTS = 20;
+
+  private final List<UserResponse> userResponses = new ArrayList<>();
+  private final List<Question> questions = new ArrayList<>();
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(DomainObjectsBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+
+  @Setup
+  public void setup() {
+    User user = new User().id(1L).name("user");
+    for (long id = 1; id <= RESPONSES; id++) {
+      Subject subject = new Subject().id(id % SUBJECTS).label("subject " + id % SUBJECTS);
+      Question question = new Question().id(id).label("question " + id).subject(subject);
+      questions.add(question);
+      userResponses.add(new UserResponse().user(user).question(question).content("content " + id));
+    }
+  }
+
+  @Benchmark
+  public int builderHashCodes() {
+    int hashCodes = 0;
+    for (UserResponse userResponse : userResponses) {
+      hashCodes += new HashCodeBuilder(17, 37)
+          .append(new HashCodeBuilder(17, 37).append(userResponse.getQuestion().getId()).toHashCode())
+          .append(new HashCodeBuilder(17, 37).append(userResponse.getUser().getId()).toHashCode())
+          .toHashCode();
+    }
+    return hashCodes;
+  }
+
+  @Benchmark
+  public int handWrittenHashCodes() {
+    int hashCodes = 0;
+    for (UserResponse userResponse : userResponses) {
+      hashCodes += userResponse.hashCode();
+    }
+    return hashCodes;
+  }
+
+  @Benchmark
+  public int builderEquals() {
+    int equals = 0;
+    UserResponse first = userResponses.get(0);
+    for (UserResponse userResponse : userResponses) {
+      if (new EqualsBuilder()
+          .append(first.getQuestion().getId(), userResponse.getQuestion().getId())
+          .append(first.getUser().getId(), userResponse.getUser().getId())
+          .isEquals()) {
+        equals++;
+      }
+    }
+    return equals;
+  }
+
+  @Benchmark
+  public int handWrittenEquals() {
+    int equals = 0;
+    UserResponse first = userResponses.get(0);
+    for (UserResponse userResponse : userResponses) {
+      if (first.equals(userResponse)) {
+        equals++;
+      }
+    }
+    return equals;
+  }
+
+  @Benchmark
+  public Multimap<Subject, Question> indexQuestionsBySubject() {
+    return Multimaps.index(questions, Question::getSubject);
+  }
+
+  @Benchmark
+  public Map<UserResponseKey, UserResponse> indexResponsesByKey() {
+    Map<UserResponseKey, UserResponse> userResponsesByKey = new HashMap<>(RESPONSES * 2);
+    for (UserResponse userResponse : userResponses) {
+      userResponsesByKey.put(userResponse.getKey(), userResponse);
+    }
+    return userResponsesByKey;
+  }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.benchmark;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.StringUtils;
+
+import com.github.joumenharzli.surveypoc.util.LongList;
+import com.github.joumenharzli.surveypoc.web.util.RestUtils;
+
+/**
+ * Compare the parsing of the ids of a path variable through the string utils with the single pass parser
+ * <p>
+ * The allocation rate of each method is reported by the gc profiler as {@code gc.alloc.rate.norm}.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.github.joumenharzli.surveypoc.benchmark.IdsParsingBenchmark}
+ *
+ * @author Joumen Harzli
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdsParsingBenchmark {
+
+  @Param({"3", "50"})
+  private int count;
+
+  private String value;
+  private final LongList ids = new LongList();
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(IdsParsingBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+
+  @Setup
+  public void setup() {
+    StringJoiner joiner = new StringJoiner(",");
+    for (long id = 1; id <= count; id++) {
+      joiner.add(String.valueOf(id * 7919));
+    }
+    value = joiner.toString();
+  }
+
+  @Benchmark
+  public List<Long> stringUtils() {
+    return StringUtils.commaDelimitedListToSet(value)
+        .stream()
+        .map(Long::parseLong)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public LongList singlePass() {
+    return RestUtils.parseCommaDelimitedIds("ids", value, 500, ids);
+  }
+
+}
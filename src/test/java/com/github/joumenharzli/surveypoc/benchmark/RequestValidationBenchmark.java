@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponsesForQuestionListDto;
+import com.github.joumenharzli.surveypoc.web.validation.UserResponsesForQuestionListDtoValidator;
+
+/**
+ * Compare the reflective bean validation with the precompiled validation of a valid request
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.github.joumenharzli.surveypoc.benchmark.RequestValidationBenchmark}
+ *
+ * @author Joumen Harzli
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestValidationBenchmark {
+
+  @Param({"10", "500"})
+  private int responses;
+
+  private UserResponsesForQuestionListDto request;
+  private Validator reflectiveValidator;
+  private Validator precompiledValidator;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(RequestValidationBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+  @Setup
+  public void setup() {
+    List<UserResponseForQuestionDto> userResponses = new ArrayList<>();
+    for (long questionId = 1; questionId <= responses; questionId++) {
+      UserResponseForQuestionDto userResponse = new UserResponseForQuestionDto();
+      userResponse.setQuestionId(questionId);
+      userResponse.setContent("content " + questionId);
+      userResponses.add(userResponse);
+    }
+    request = new UserResponsesForQuestionListDto();
+    request.setResponses(userResponses);
+
+    LocalValidatorFactoryBean localValidatorFactoryBean = new LocalValidatorFactoryBean();
+    localValidatorFactoryBean.afterPropertiesSet();
+    reflectiveValidator = localValidatorFactoryBean;
+    precompiledValidator = new UserResponsesForQuestionListDtoValidator();
+  }
+
+  @Benchmark
+  public Errors reflective() {
+    return validate(reflectiveValidator);
+  }
+
+  @Benchmark
+  public Errors precompiled() {
+    return validate(precompiledValidator);
+  }
+
+  private Errors validate(Validator validator) {
+    Errors errors = new BeanPropertyBindingResult(request, "userResponsesForQuestionListDto");
+    validator.validate(request, errors);
+    return errors;
+  }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.QuestionType;
+import com.github.joumenharzli.surveypoc.domain.User;
+import com.github.joumenharzli.surveypoc.service.ResponseSubmissionProcessor;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
+import com.github.joumenharzli.surveypoc.service.mapper.UserResponseMapperImpl;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerValidator;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerValidators;
+
+/**
+ * Compare the sequential and the parallel mapping and validation of a submission to choose
+ * {@code application.submissions.parallel-threshold}, the smallest size where the parallel path is faster
+ * <p>
+ * Run on the production hardware with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.github.joumenharzli.surveypoc.benchmark.ResponseSubmissionBenchmark}
+ *
+ * @author Joumen Harzli
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSubmissionBenchmark {
+
+  private static final int QUESTIONS = 1000;
+
+  @Param({"256", "1024", "2048", "4096", "8192"})
+  private int responses;
+
+  private List<UserResponseForQuestionDto> userResponsesForQuestions;
+  private Map<Long, AnswerValidator> validators;
+  private User user;
+  private ResponseSubmissionProcessor sequentialProcessor;
+  private ResponseSubmissionProcessor parallelProcessor;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ResponseSubmissionBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+  @Setup
+  public void setup() {
+    validators = new HashMap<>();
+    for (long questionId = 1; questionId <= QUESTIONS; questionId++) {
+      Question question = new Question().id(questionId);
+      if (questionId % 2 == 0) {
+        question.type(QuestionType.INTEGER_RANGE).minValue(0L).maxValue(150L);
+      } else {
+        question.type(QuestionType.FREE_TEXT);
+      }
+      validators.put(questionId, AnswerValidators.compile(question));
+    }
+
+    userResponsesForQuestions = new ArrayList<>();
+    for (int index = 0; index < responses; index++) {
+      long questionId = index % QUESTIONS + 1;
+      UserResponseForQuestionDto userResponse = new UserResponseForQuestionDto();
+      userResponse.setQuestionId(questionId);
+      userResponse.setContent(questionId % 2 == 0 ? String.valueOf(index % 150) : "content " + index);
+      userResponsesForQuestions.add(userResponse);
+    }
+    user = new User().id(1L);
+
+    sequentialProcessor = newProcessor(Integer.MAX_VALUE);
+    parallelProcessor = newProcessor(1);
+  }
+
+  @TearDown
+  public void tearDown() {
+    sequentialProcessor.shutdown();
+    parallelProcessor.shutdown();
+  }
+
+  @Benchmark
+  public void sequential(Blackhole blackhole) {
+    process(sequentialProcessor, blackhole);
+  }
+
+  @Benchmark
+  public void parallel(Blackhole blackhole) {
+    process(parallelProcessor, blackhole);
+  }
+
+  private void process(ResponseSubmissionProcessor processor, Blackhole blackhole) {
+    blackhole.consume(processor.toQuestionsIds(userResponsesForQuestions));
+    blackhole.consume(processor.findViolations(userResponsesForQuestions, validators));
+    blackhole.consume(processor.toUserResponses(userResponsesForQuestions, user));
+  }
+
+  private static ResponseSubmissionProcessor newProcessor(int parallelThreshold) {
+    ApplicationProperties applicationProperties = new ApplicationProperties();
+    applicationProperties.getSubmissions().setParallelThreshold(parallelThreshold);
+    return new ResponseSubmissionProcessor(new UserResponseMapperImpl(), applicationProperties);
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.Driver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import com.github.joumenharzli.surveypoc.SurveyPocApplication;
+
+/**
+ * Measure the time to first request of the application, from the start of the context
+ * to the response of the first request on the catalog
+ * <p>
+ * Each measurement is a cold start in a new virtual machine. The schema is created before the measurement
+ * because the {@code prod} profile expects it to be managed outside of the application.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.github.joumenharzli.surveypoc.benchmark.StartupBenchmark}
+ *
+ * @author Joumen Harzli
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+  private static final String DATABASE_URL = "jdbc:h2:mem:surveypoc;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+  private static final String DATABASE_USERNAME = "sa";
+  private static final String FIRST_REQUEST_PATH = "/api/v1/subjects";
+
+  @Param({"default", "prod"})
+  private String profile;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(StartupBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+  @Setup(Level.Trial)
+  public void createSchema() {
+    new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql"))
+        .execute(new SimpleDriverDataSource(new Driver(), DATABASE_URL, DATABASE_USERNAME, ""));
+  }
+
+  @Benchmark
+  public int timeToFirstRequest() throws IOException {
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SurveyPocApplication.class)
+        .profiles(profile)
+        .properties("server.port=0")
+        .run()) {
+
+      int port = context.getEnvironment().getProperty("local.server.port", Integer.class);
+      HttpURLConnection connection = (HttpURLConnection) new URL("http", "localhost", port, FIRST_REQUEST_PATH)
+          .openConnection();
+      try (InputStream body = connection.getInputStream()) {
+        while (body.read() != -1) {
+          /* read the whole response */
+        }
+        return connection.getResponseCode();
+      } finally {
+        connection.disconnect();
+      }
+    }
+  }
+
+}
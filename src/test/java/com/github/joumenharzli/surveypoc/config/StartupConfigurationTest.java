@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.codahale.metrics.health.HealthCheck;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.github.joumenharzli.surveypoc.web.filter.TestClients;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * StartupConfigurationTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"application.startup.lazy-initialization=true", "application.startup.warm-up=true",
+    "application.startup.warm-up-iterations=20", "application.startup.warm-up-write-iterations=3",
+    "application.swagger.enabled=true"})
+@AutoConfigureMockMvc
+public class StartupConfigurationTest {
+
+  @Autowired
+  ConfigurableApplicationContext applicationContext;
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  HealthCheckRegistry healthCheckRegistry;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  ApplicationProperties applicationProperties;
+
+  @Test
+  public void lazyInitializationTest() throws Exception {
+    assertThat(applicationContext.getBeanFactory().getBeanDefinition("simpleSubjectService").isLazyInit()).isTrue();
+
+    mockMvc.perform(get("/api/v1/subjects")
+        .with(TestClients.client("StartupConfigurationTest")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].questions").isNotEmpty());
+  }
+
+  @Test
+  public void scheduledTasksAndHealthChecksAreEagerTest() throws Exception {
+    ConfigurableListableBeanFactory beanFactory = applicationContext.getBeanFactory();
+    assertThat(beanFactory.containsSingleton("analyticsConfiguration")).isTrue();
+    assertThat(beanFactory.containsSingleton("progressConfiguration")).isTrue();
+    assertThat(beanFactory.containsSingleton("catalogConfiguration")).isTrue();
+    assertThat(beanFactory.containsSingleton("rateLimitingConfiguration")).isTrue();
+    assertThat(beanFactory.containsSingleton("connectionPoolConfiguration")).isTrue();
+    assertThat(beanFactory.containsSingleton("connectionPoolMonitor")).isTrue();
+    assertThat(healthCheckRegistry.getNames()).contains("connectionPool");
+  }
+
+  @Test
+  public void librariesAreNotLazyTest() throws Exception {
+    mockMvc.perform(get("/v2/api-docs").param("group", "api"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.definitions.RestErrorDto.properties.code").exists())
+        .andExpect(jsonPath("$.definitions.RestFieldsErrorsDto.properties.fieldsErrors").exists());
+  }
+
+  @Test
+  public void warmUpHealthCheckRegisteredBeforeTheApplicationIsReadyTest() {
+    HealthCheckRegistry registry = new HealthCheckRegistry();
+
+    new StartupConfiguration(null, registry, applicationProperties);
+
+    assertThat(registry.getNames()).containsExactly("warmUp");
+    assertThat(registry.runHealthCheck("warmUp").isHealthy()).isFalse();
+  }
+
+  @Test
+  public void warmUpTest() throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    HealthCheck.Result result = healthCheckRegistry.runHealthCheck("warmUp");
+    while (!result.isHealthy() && System.nanoTime() < deadline) {
+      Thread.sleep(50);
+      result = healthCheckRegistry.runHealthCheck("warmUp");
+    }
+
+    assertThat(result.isHealthy()).isTrue();
+    assertThat(result.getMessage()).startsWith("Critical paths warmed up").contains("ids=", "reads=", "savePreparation=");
+
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE name = 'warm-up'", Long.class))
+        .isZero();
+
+    mockMvc.perform(get("/health"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("UP"));
+  }
+
+}
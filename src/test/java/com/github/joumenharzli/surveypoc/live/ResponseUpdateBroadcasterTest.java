@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.live;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.codahale.metrics.Meter;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+/**
+ * ResponseUpdateBroadcasterTest
+ *
+ * @author Joumen Harzli
+ */
+public class ResponseUpdateBroadcasterTest {
+
+  private final Meter dropped = new Meter();
+  private final ResponseUpdateBroadcaster<String> broadcaster = new ResponseUpdateBroadcaster<>(2, 2, dropped);
+
+  @After
+  public void shutdown() {
+    broadcaster.shutdown();
+  }
+
+  @Test
+  public void publishToSubscribersOfQuestionsTest() throws Exception {
+    RecordingSink first = new RecordingSink(2);
+    RecordingSink second = new RecordingSink(1);
+    broadcaster.subscribe(LongList.of(1L, 2L), first);
+    ResponseUpdateSubscription<String> subscription = broadcaster.subscribe(LongList.of(2L), second);
+
+    Assert.assertEquals(2, broadcaster.getSubscribers());
+    Assert.assertFalse(broadcaster.hasSubscribers(3L));
+
+    broadcaster.publish(Collections.singletonMap(1L, "a"));
+    broadcaster.publish(Collections.singletonMap(2L, "b"));
+    broadcaster.publish(Collections.singletonMap(3L, "c"));
+
+    Assert.assertTrue(first.awaitUpdates());
+    Assert.assertTrue(second.awaitUpdates());
+    Assert.assertEquals(Arrays.asList("a", "b"), first.updates);
+    Assert.assertEquals(Collections.singletonList("b"), second.updates);
+
+    subscription.cancel();
+    subscription.cancel();
+    Assert.assertEquals(1, broadcaster.getSubscribers());
+    Assert.assertTrue(broadcaster.hasSubscribers(2L));
+    Assert.assertFalse(second.closed);
+  }
+
+  @Test
+  public void dropSlowSubscriberTest() throws Exception {
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    RecordingSink slow = new RecordingSink(1) {
+      @Override
+      public void send(String update) {
+        sending.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException exception) {
+          Thread.currentThread().interrupt();
+        }
+        super.send(update);
+      }
+    };
+    ResponseUpdateSubscription<String> subscription = broadcaster.subscribe(LongList.of(1L), slow);
+
+    broadcaster.publish(Collections.singletonMap(1L, "update-0"));
+    Assert.assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+    /* the first update is being sent, the next two fill the buffer and the last one overflows it */
+    for (int i = 1; i < 4; i++) {
+      broadcaster.publish(Collections.singletonMap(1L, "update-" + i));
+    }
+
+    Assert.assertTrue(subscription.isCancelled());
+    Assert.assertEquals(0, broadcaster.getSubscribers());
+    Assert.assertFalse(broadcaster.hasSubscribers(1L));
+    Assert.assertEquals(1, dropped.getCount());
+
+    release.countDown();
+    Assert.assertTrue(slow.awaitClosed());
+    Assert.assertEquals(Collections.singletonList("update-0"), slow.updates);
+  }
+
+  @Test
+  public void publishOnlyWhenCommittedTest() throws Exception {
+    RecordingSink sink = new RecordingSink(1);
+    broadcaster.subscribe(LongList.of(1L), sink);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      broadcaster.publish(Collections.singletonMap(1L, "committed"));
+      Assert.assertFalse(sink.awaitUpdates(100));
+      TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    Assert.assertTrue(sink.awaitUpdates());
+    Assert.assertEquals(Collections.singletonList("committed"), sink.updates);
+  }
+
+  private static class RecordingSink implements ResponseUpdateSink<String> {
+
+    final List<String> updates = new CopyOnWriteArrayList<>();
+    final CountDownLatch received;
+    final CountDownLatch closedLatch = new CountDownLatch(1);
+    volatile boolean closed;
+
+    RecordingSink(int expectedUpdates) {
+      this.received = new CountDownLatch(expectedUpdates);
+    }
+
+    @Override
+    public void send(String update) {
+      updates.add(update);
+      received.countDown();
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+      closedLatch.countDown();
+    }
+
+    boolean awaitUpdates() throws InterruptedException {
+      return awaitUpdates(5000);
+    }
+
+    boolean awaitUpdates(long timeoutMillis) throws InterruptedException {
+      return received.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    boolean awaitClosed() throws InterruptedException {
+      return closedLatch.await(5, TimeUnit.SECONDS);
+    }
+  }
+
+}
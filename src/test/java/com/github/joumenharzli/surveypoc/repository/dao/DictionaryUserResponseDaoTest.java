@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.dao;
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.jdbc.JdbcTestUtils;
+
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.User;
+import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+/**
+ * DictionaryUserResponseDaoTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "application.response-values.dictionary-enabled=true")
+public class DictionaryUserResponseDaoTest {
+
+  @Autowired
+  UserResponseDao userResponseDao;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  DataSource dataSource;
+
+  @Before
+  public void init() {
+    JdbcTestUtils.deleteFromTables(jdbcTemplate, "user_responses");
+  }
+
+  @Test
+  public void addUserResponsesStoresValueIdsTest() {
+    userResponseDao.addUserResponses(Arrays.asList(
+        createUserResponse(1L, 2L, "42"),
+        createUserResponse(1L, 3L, "Yes")));
+
+    Assert.assertEquals(0, JdbcTestUtils.countRowsInTableWhere(jdbcTemplate, "user_responses", "content IS NOT NULL"));
+    Assert.assertEquals(1, JdbcTestUtils.countRowsInTableWhere(jdbcTemplate, "response_values", "content = 'Yes'"));
+    Assert.assertEquals(1, JdbcTestUtils.countRowsInTableWhere(jdbcTemplate, "response_values", "content = '42'"));
+
+    List<UserResponse> userResponses = userResponseDao.findResponsesOfUserByUserIdAndQuestionIds(1L,
+        LongList.of(2L, 3L));
+    Assert.assertEquals("42", userResponses.get(0).getContent());
+    Assert.assertEquals("Yes", userResponses.get(1).getContent());
+  }
+
+  @Test
+  public void freeTextResponsesAreStoredAsTextTest() {
+    userResponseDao.addUserResponses(Arrays.asList(
+        createUserResponse(1L, 3L, "No"),
+        createUserResponse(1L, 4L, "A free suggestion")));
+    userResponseDao.updateUserResponses(Collections.singletonList(
+        createUserResponse(1L, 4L, "Another suggestion").version(0L)));
+
+    Assert.assertEquals(0, JdbcTestUtils.countRowsInTableWhere(jdbcTemplate, "response_values",
+        "content LIKE '%suggestion'"));
+    Assert.assertEquals(1, JdbcTestUtils.countRowsInTableWhere(jdbcTemplate, "user_responses",
+        "question_id = 4 AND value_id IS NULL AND content = 'Another suggestion'"));
+    Assert.assertEquals(1, JdbcTestUtils.countRowsInTableWhere(jdbcTemplate, "user_responses",
+        "question_id = 3 AND value_id IS NOT NULL"));
+  }
+
+  @Test
+  public void addUserResponsesReusesExistingValuesTest() {
+    jdbcTemplate.update("MERGE INTO response_values (content) KEY (content) VALUES ('No')");
+    Long valueId = jdbcTemplate.queryForObject("SELECT id FROM response_values WHERE content = 'No'", Long.class);
+
+    userResponseDao.addUserResponses(Arrays.asList(
+        createUserResponse(1L, 3L, "No"),
+        createUserResponse(1L, 4L, "Maybe not")));
+
+    Assert.assertEquals(1, JdbcTestUtils.countRowsInTableWhere(jdbcTemplate, "response_values", "content = 'No'"));
+    Assert.assertEquals(1, JdbcTestUtils.countRowsInTableWhere(jdbcTemplate, "user_responses",
+        "question_id = 3 AND value_id = " + valueId));
+
+    List<UserResponse> userResponses = userResponseDao.findResponsesOfUserByUserIdAndQuestionIds(1L,
+        LongList.of(3L, 4L));
+    Assert.assertEquals("No", userResponses.get(0).getContent());
+    Assert.assertEquals("Maybe not", userResponses.get(1).getContent());
+    Assert.assertEquals(0, JdbcTestUtils.countRowsInTableWhere(jdbcTemplate, "response_values",
+        "content = 'Maybe not'"));
+  }
+
+  @Test
+  public void migrationTest() throws Exception {
+    jdbcTemplate.update("INSERT INTO user_responses (content, question_id, user_id) VALUES ('Maybe', 3, 1)");
+    jdbcTemplate.update("INSERT INTO user_responses (content, question_id, user_id) VALUES ('Nothing', 4, 1)");
+
+    try (Connection connection = dataSource.getConnection()) {
+      ScriptUtils.executeSqlScript(connection, new ClassPathResource("migration/response_values.sql"));
+    }
+
+    Assert.assertEquals(1, JdbcTestUtils.countRowsInTableWhere(jdbcTemplate, "user_responses",
+        "question_id = 3 AND value_id IS NOT NULL AND content IS NULL"));
+    Assert.assertEquals(1, JdbcTestUtils.countRowsInTableWhere(jdbcTemplate, "user_responses",
+        "question_id = 4 AND value_id IS NULL AND content = 'Nothing'"));
+
+    List<UserResponse> userResponses = userResponseDao.findResponsesOfUserByUserIdAndQuestionIds(1L,
+        LongList.of(3L, 4L));
+    Assert.assertEquals("Maybe", userResponses.get(0).getContent());
+    Assert.assertEquals("Nothing", userResponses.get(1).getContent());
+  }
+
+  private UserResponse createUserResponse(Long userId, Long questionId, String responseContent) {
+    return new UserResponse()
+        .user(new User().id(userId))
+        .question(new Question().id(questionId))
+        .content(responseContent);
+  }
+
+}
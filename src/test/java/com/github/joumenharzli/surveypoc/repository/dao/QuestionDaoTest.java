@@ -15,6 +15,7 @@
 
 package com.github.joumenharzli.surveypoc.repository.dao;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Assert;
@@ -25,6 +26,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.QuestionType;
+import com.github.joumenharzli.surveypoc.util.LongList;
 
 /**
  * QuestionDaoTest
@@ -43,6 +46,30 @@ public class QuestionDaoTest {
     List<Question> questions = questionDao.findAllQuestionsAndSubjects();
     Assert.assertNotNull(questions);
     Assert.assertEquals(questions.size(), 4);
+    Assert.assertSame(questions.get(0).getSubject(), questions.get(1).getSubject());
+    Assert.assertSame(questions.get(2).getSubject(), questions.get(3).getSubject());
+  }
+
+  @Test
+  public void findNonExistingQuestionsByQuestionsIds() {
+    Assert.assertEquals(LongList.of(99L, 98L),
+        questionDao.findNonExistingQuestionsByQuestionsIds(LongList.of(1L, 99L, 2L, 98L)));
+    Assert.assertTrue(questionDao.findNonExistingQuestionsByQuestionsIds(LongList.of(4L)).isEmpty());
+  }
+
+  @Test
+  public void findQuestionsDefinitionsByQuestionsIds() {
+    List<Question> questions = questionDao.findQuestionsDefinitionsByQuestionsIds(LongList.of(2L, 3L, 99L));
+    Assert.assertEquals(2, questions.size());
+
+    Question ageQuestion = questions.get(0);
+    Assert.assertEquals(QuestionType.INTEGER_RANGE, ageQuestion.getType());
+    Assert.assertEquals(Long.valueOf(0), ageQuestion.getMinValue());
+    Assert.assertEquals(Long.valueOf(150), ageQuestion.getMaxValue());
+
+    Question likeQuestion = questions.get(1);
+    Assert.assertEquals(QuestionType.SINGLE_CHOICE, likeQuestion.getType());
+    Assert.assertEquals(Arrays.asList("Yes", "No"), likeQuestion.getChoices());
   }
 
 }
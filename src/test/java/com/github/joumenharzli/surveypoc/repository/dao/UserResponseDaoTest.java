@@ -15,6 +15,7 @@
 
 package com.github.joumenharzli.surveypoc.repository.dao;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 
@@ -32,6 +33,7 @@ import org.springframework.test.jdbc.JdbcTestUtils;
 import com.github.joumenharzli.surveypoc.domain.Question;
 import com.github.joumenharzli.surveypoc.domain.User;
 import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.util.LongList;
 
 /**
  * UserResponseDaoTest
@@ -91,6 +93,76 @@ public class UserResponseDaoTest {
 
   }
 
+  @Test
+  public void updateUserResponsesIncrementsVersionTest() {
+
+    Long userId = 1L;
+    Long question1Id = 3L;
+    Long question2Id = 4L;
+
+    addUserResponses(userId, question1Id, question2Id, "a", "b");
+
+    List<UserResponse> userResponses = findResponsesOfUserForQuestions(userId, question1Id, question2Id);
+    userResponses.forEach((userResponse -> {
+      Assert.assertEquals(Long.valueOf(0), userResponse.getVersion());
+      Assert.assertNotNull(userResponse.getCreatedAt());
+      Assert.assertEquals(userResponse.getCreatedAt(), userResponse.getUpdatedAt());
+    }));
+
+    userResponseDao.updateUserResponses(userResponses);
+
+    List<UserResponse> updatedUserResponses = findResponsesOfUserForQuestions(userId, question1Id, question2Id);
+    updatedUserResponses.forEach((userResponse -> {
+      Assert.assertEquals(Long.valueOf(1), userResponse.getVersion());
+      Assert.assertFalse(userResponse.getUpdatedAt().isBefore(userResponse.getCreatedAt()));
+    }));
+  }
+
+  @Test
+  public void updateUserResponsesWithStaleVersionTest() {
+
+    Long userId = 1L;
+    Long question1Id = 3L;
+    Long question2Id = 4L;
+
+    addUserResponses(userId, question1Id, question2Id, "a", "b");
+
+    List<UserResponse> userResponses = findResponsesOfUserForQuestions(userId, question1Id, question2Id);
+    userResponseDao.updateUserResponses(userResponses.subList(0, 1));
+
+    userResponses.forEach((userResponse -> userResponse.setContent("c")));
+    int[] result = userResponseDao.updateUserResponses(userResponses);
+
+    Assert.assertArrayEquals(new int[]{0, 1}, result);
+  }
+
+  @Test
+  public void findResponsesChangedAfterTest() {
+
+    Long userId = 1L;
+    Long question1Id = 3L;
+    Long question2Id = 4L;
+
+    addUserResponses(userId, question1Id, question2Id, "a", "b");
+
+    Instant upperBound = Instant.now().plusSeconds(1);
+
+    List<UserResponse> firstPage = userResponseDao.findResponsesChangedAfter(Instant.EPOCH, 0L, 0L, upperBound, 1);
+    Assert.assertEquals(1, firstPage.size());
+
+    UserResponse last = firstPage.get(0);
+    List<UserResponse> secondPage = userResponseDao.findResponsesChangedAfter(last.getUpdatedAt(), last.getUserId(),
+        last.getQuestionId(), upperBound, 10);
+    Assert.assertEquals(1, secondPage.size());
+    Assert.assertNotEquals(last.getQuestionId(), secondPage.get(0).getQuestionId());
+
+    UserResponse end = secondPage.get(0);
+    Assert.assertTrue(userResponseDao.findResponsesChangedAfter(end.getUpdatedAt(), end.getUserId(),
+        end.getQuestionId(), upperBound, 10).isEmpty());
+
+    Assert.assertTrue(userResponseDao.findResponsesChangedAfter(Instant.EPOCH, 0L, 0L, Instant.EPOCH, 10).isEmpty());
+  }
+
   private int[] addUserResponses(Long userId, Long question1Id, Long question2Id,
                                  String response1Content, String response2Content) {
     UserResponse userResponse1 = createUserResponse(userId, question1Id, response1Content);
@@ -101,7 +173,7 @@ public class UserResponseDaoTest {
 
   private List<UserResponse> findResponsesOfUserForQuestions(Long userId, Long question1Id, Long question2Id) {
     return userResponseDao.findResponsesOfUserByUserIdAndQuestionIds(userId,
-        Arrays.asList(question1Id, question2Id));
+        LongList.of(question1Id, question2Id));
   }
 
   private UserResponse createUserResponse(Long userId, Long questionId, String responseContent) {
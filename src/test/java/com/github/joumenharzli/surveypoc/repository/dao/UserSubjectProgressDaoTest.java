@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.dao;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.jdbc.JdbcTestUtils;
+
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.User;
+import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+/**
+ * UserSubjectProgressDaoTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class UserSubjectProgressDaoTest {
+
+  private static final long USER_ID = 1L;
+
+  @Autowired
+  UserSubjectProgressDao userSubjectProgressDao;
+
+  @Autowired
+  UserResponseDao userResponseDao;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Before
+  public void init() {
+    JdbcTestUtils.deleteFromTables(jdbcTemplate, "user_responses", "user_subject_progress");
+  }
+
+  @Test
+  public void addUserResponsesIncrementsProgressTest() {
+
+    userResponseDao.addUserResponses(Arrays.asList(createUserResponse(1L), createUserResponse(3L)));
+    userResponseDao.addUserResponses(Arrays.asList(createUserResponse(4L)));
+
+    Assert.assertEquals(Arrays.asList("1=1", "2=2"), findProgressOfUser());
+
+    List<UserResponse> userResponses = userResponseDao.findResponsesOfUserByUserIdAndQuestionIds(USER_ID,
+        LongList.of(1L, 3L, 4L));
+    userResponseDao.updateUserResponses(userResponses);
+
+    Assert.assertEquals(Arrays.asList("1=1", "2=2"), findProgressOfUser());
+    Assert.assertEquals(0, rebuildProgress());
+  }
+
+  @Test
+  public void rebuildProgressTest() {
+
+    userResponseDao.addUserResponses(Arrays.asList(createUserResponse(1L), createUserResponse(3L),
+        createUserResponse(4L)));
+
+    jdbcTemplate.update("UPDATE user_subject_progress SET answered_questions = 5 WHERE subject_id = 2");
+    Assert.assertEquals(1, rebuildProgress());
+    Assert.assertEquals(Arrays.asList("1=1", "2=2"), findProgressOfUser());
+
+    jdbcTemplate.update("DELETE FROM user_subject_progress WHERE subject_id = 1");
+    jdbcTemplate.update("DELETE FROM user_responses WHERE question_id = 4");
+    Assert.assertEquals(2, rebuildProgress());
+    Assert.assertEquals(Arrays.asList("1=1", "2=1"), findProgressOfUser());
+
+    jdbcTemplate.update("DELETE FROM user_responses WHERE question_id = 3");
+    Assert.assertEquals(1, rebuildProgress());
+    Assert.assertEquals(Arrays.asList("1=1"), findProgressOfUser());
+  }
+
+  @Test
+  public void rebuildProgressByBatchOfUsersTest() {
+    jdbcTemplate.update("INSERT INTO users (name) VALUES ('UserSubjectProgressDaoTest')");
+    long otherUserId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+    jdbcTemplate.update("INSERT INTO user_subject_progress (user_id, subject_id, answered_questions) VALUES (?, 1, 3)",
+        otherUserId);
+
+    Assert.assertEquals(Long.valueOf(USER_ID), userSubjectProgressDao.findLastUserIdOfBatch(0, 1));
+    Assert.assertNull(userSubjectProgressDao.findLastUserIdOfBatch(otherUserId, 1));
+
+    Assert.assertEquals(0, userSubjectProgressDao.rebuildProgressOfUsers(0, USER_ID));
+    Assert.assertEquals(Integer.valueOf(3), jdbcTemplate.queryForObject(
+        "SELECT answered_questions FROM user_subject_progress WHERE user_id = ?", Integer.class, otherUserId));
+
+    Assert.assertEquals(1, userSubjectProgressDao.rebuildProgressOfUsers(USER_ID, otherUserId));
+    Assert.assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM user_subject_progress WHERE user_id = ?", Integer.class, otherUserId));
+  }
+
+  private int rebuildProgress() {
+    return userSubjectProgressDao.rebuildProgressOfUsers(0, USER_ID);
+  }
+
+  private List<String> findProgressOfUser() {
+    return userSubjectProgressDao.findProgressOfUser(USER_ID).stream()
+        .map(progress -> progress.getSubjectId() + "=" + progress.getAnsweredQuestions())
+        .collect(Collectors.toList());
+  }
+
+  private UserResponse createUserResponse(Long questionId) {
+    return new UserResponse()
+        .user(new User().id(USER_ID))
+        .question(new Question().id(questionId))
+        .content("a");
+  }
+
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.repository.limit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.codahale.metrics.Meter;
+import com.github.joumenharzli.surveypoc.repository.dao.DaoOverloadedException;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Simulates an overloaded database to verify that the adaptive limiter keeps the latency of the
+ * accepted dao calls stable
+ * <p>
+ * The overload is simulated in rounds without any clock: in each round every client tries to call the
+ * database, which serves {@code DATABASE_CAPACITY} calls at a time in the order they arrive, so the latency
+ * of a call grows with the number of the calls in flight before it. The interceptor is then checked against
+ * a local H2 database where each query sleeps, behind a pool of two connections, by concurrent clients.
+ *
+ * @author Joumen Harzli
+ */
+public class AdaptiveConcurrencyLimiterSimulationTest {
+
+  private static final int CLIENTS = 32;
+  private static final int DATABASE_CAPACITY = 4;
+  private static final long SERVICE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+  private static final int WARM_UP_ROUNDS = 200;
+  private static final int SIMULATION_ROUNDS = 1000;
+  private static final long QUERY_MILLIS = 10;
+  private static final int CONCURRENT_CLIENTS = 16;
+  private static final long WARM_UP_MILLIS = 2000;
+  private static final long MEASURE_MILLIS = 1500;
+  private static final long TIMED_OUT_QUERY_MILLIS = 400;
+  private static final long CONNECTION_TIMEOUT_MILLIS = 250;
+
+  private HikariDataSource dataSource;
+  private SlowDao slowDao;
+
+  @Before
+  public void init() {
+    dataSource = createDataSource();
+
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS SLOW_QUERY FOR \"" + getClass().getName() + ".slowQuery\"");
+
+    slowDao = millis -> jdbcTemplate.queryForObject("SELECT SLOW_QUERY(" + millis + ")", Integer.class);
+  }
+
+  @After
+  public void destroy() {
+    dataSource.close();
+  }
+
+  @Test
+  public void adaptiveLimiterKeepsTheLatencyStableUnderOverload() {
+    AdaptiveConcurrencyLimiter unlimited = new AdaptiveConcurrencyLimiter(1000, 1000, 1000, 1.5, 0.2, 10);
+    SimulationResult unlimitedResult = simulate(unlimited);
+
+    AdaptiveConcurrencyLimiter adaptive = new AdaptiveConcurrencyLimiter(20, 1, 200, 1.5, 0.2, 10);
+    SimulationResult adaptiveResult = simulate(adaptive);
+
+    Assert.assertEquals(0, unlimitedResult.rejected);
+    Assert.assertTrue("The limiter should reject calls under overload", adaptiveResult.rejected > 0);
+    Assert.assertTrue("The limit should shrink under overload but was " + adaptive.getLimit(),
+        adaptive.getLimit() < 20);
+    Assert.assertTrue(String.format("The p90 latency with the limiter %d ns should be lower than without %d ns",
+        adaptiveResult.p90Nanos(), unlimitedResult.p90Nanos()),
+        adaptiveResult.p90Nanos() < unlimitedResult.p90Nanos());
+  }
+
+  @Test
+  public void adaptiveLimiterKeepsTheLatencyStableOnASlowDatabase() throws Exception {
+    SimulationResult unlimitedResult = runClients(limited(new AdaptiveConcurrencyLimiter(1000, 1000, 1000, 1.5,
+        0.2, 10)));
+
+    AdaptiveConcurrencyLimiter adaptive = new AdaptiveConcurrencyLimiter(20, 1, 200, 1.5, 0.2, 10);
+    SimulationResult adaptiveResult = runClients(limited(adaptive));
+
+    Assert.assertEquals(0, unlimitedResult.rejected);
+    Assert.assertTrue("The limiter should reject calls when the pool is saturated", adaptiveResult.rejected > 0);
+    Assert.assertTrue("The limit should shrink when the pool is saturated but was " + adaptive.getLimit(),
+        adaptive.getLimit() < 20);
+    Assert.assertTrue(String.format("The median latency with the limiter %d ns should be lower than half of the " +
+            "one without %d ns", adaptiveResult.p50Nanos(), unlimitedResult.p50Nanos()),
+        adaptiveResult.p50Nanos() * 2 < unlimitedResult.p50Nanos());
+    Assert.assertTrue(String.format("The p90 latency with the limiter %d ns should be lower than without %d ns",
+        adaptiveResult.p90Nanos(), unlimitedResult.p90Nanos()),
+        adaptiveResult.p90Nanos() < unlimitedResult.p90Nanos());
+    Assert.assertEquals(0, adaptive.getInFlight());
+  }
+
+  @Test
+  public void adaptiveLimiterDoesNotRejectWhenTheDatabaseIsNotSaturated() throws Exception {
+    AdaptiveConcurrencyLimiter adaptive = new AdaptiveConcurrencyLimiter(20, 1, 200, 1.5, 0.2, 10);
+    SlowDao limitedDao = limited(adaptive);
+
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(Integer.valueOf(1), limitedDao.query(QUERY_MILLIS));
+    }
+
+    Assert.assertEquals(20, adaptive.getLimit());
+    Assert.assertEquals(0, adaptive.getInFlight());
+  }
+
+  @Test
+  public void adaptiveLimiterShrinksWhenTheCallsTimeOut() throws Exception {
+    AdaptiveConcurrencyLimiter adaptive = new AdaptiveConcurrencyLimiter(20, 1, 200, 1.5, 0.2, 10);
+    int timedOut = 0;
+
+    try (HikariDataSource timingOutDataSource = createDataSource()) {
+      timingOutDataSource.setConnectionTimeout(CONNECTION_TIMEOUT_MILLIS);
+      JdbcTemplate jdbcTemplate = new JdbcTemplate(timingOutDataSource);
+      SlowDao limitedDao = limited(adaptive, millis -> jdbcTemplate.queryForObject(
+          "SELECT SLOW_QUERY(" + millis + ")", Integer.class));
+
+      ExecutorService clients = Executors.newFixedThreadPool(8);
+      List<Future<Integer>> calls = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        calls.add(clients.submit(() -> limitedDao.query(TIMED_OUT_QUERY_MILLIS)));
+      }
+
+      for (Future<Integer> call : calls) {
+        try {
+          call.get();
+        } catch (ExecutionException exception) {
+          Assert.assertTrue(exception.getCause() instanceof CannotGetJdbcConnectionException);
+          timedOut++;
+        }
+      }
+      clients.shutdown();
+    }
+
+    Assert.assertTrue("Some calls should time out waiting for a connection", timedOut > 0);
+    Assert.assertTrue("The limit should shrink when the calls time out but was " + adaptive.getLimit(),
+        adaptive.getLimit() < 20);
+    Assert.assertEquals(0, adaptive.getInFlight());
+  }
+
+  /**
+   * The clients call the dao in a loop, a rejected client waits for the duration of a query before retrying.
+   * Only the latencies after the warm up are kept. The pool does not serve the waiting threads in order,
+   * so the tail latency varies more than the median.
+   */
+  private static SimulationResult runClients(SlowDao limitedDao) throws Exception {
+    List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+    AtomicLong rejected = new AtomicLong();
+    long start = System.nanoTime();
+    long measureStart = start + TimeUnit.MILLISECONDS.toNanos(WARM_UP_MILLIS);
+    long end = measureStart + TimeUnit.MILLISECONDS.toNanos(MEASURE_MILLIS);
+
+    ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_CLIENTS);
+    List<Future<?>> runs = new ArrayList<>();
+    for (int client = 0; client < CONCURRENT_CLIENTS; client++) {
+      runs.add(clients.submit(() -> {
+        long callStart;
+        while ((callStart = System.nanoTime()) < end) {
+          try {
+            limitedDao.query(QUERY_MILLIS);
+            if (callStart >= measureStart) {
+              latencies.add(System.nanoTime() - callStart);
+            }
+          } catch (DaoOverloadedException exception) {
+            rejected.incrementAndGet();
+            slowQuery(QUERY_MILLIS);
+          }
+        }
+      }));
+    }
+    for (Future<?> run : runs) {
+      run.get();
+    }
+    clients.shutdown();
+
+    return new SimulationResult(latencies, rejected.get());
+  }
+
+  private static SimulationResult simulate(AdaptiveConcurrencyLimiter limiter) {
+    List<Long> latencies = new ArrayList<>();
+    long rejected = 0;
+
+    for (int round = 0; round < WARM_UP_ROUNDS + SIMULATION_ROUNDS; round++) {
+      List<Integer> permits = new ArrayList<>();
+      for (int client = 0; client < CLIENTS; client++) {
+        int inFlightCalls = limiter.tryAcquire();
+        if (inFlightCalls == 0) {
+          rejected++;
+        } else {
+          permits.add(inFlightCalls);
+        }
+      }
+
+      for (int inFlightCalls : permits) {
+        long latency = SERVICE_NANOS * ((inFlightCalls + DATABASE_CAPACITY - 1) / DATABASE_CAPACITY);
+        limiter.release(latency, inFlightCalls);
+        if (round >= WARM_UP_ROUNDS) {
+          latencies.add(latency);
+        }
+      }
+    }
+
+    return new SimulationResult(latencies, rejected);
+  }
+
+  private static HikariDataSource createDataSource() {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl("jdbc:h2:mem:slowdb;DB_CLOSE_DELAY=-1");
+    dataSource.setMaximumPoolSize(2);
+    return dataSource;
+  }
+
+  private SlowDao limited(AdaptiveConcurrencyLimiter limiter) {
+    return limited(limiter, slowDao);
+  }
+
+  private static SlowDao limited(AdaptiveConcurrencyLimiter limiter, SlowDao dao) {
+    ProxyFactory proxyFactory = new ProxyFactory(dao);
+    proxyFactory.addInterface(SlowDao.class);
+    proxyFactory.addAdvice(new ConcurrencyLimitInterceptor(limiter, new Meter()));
+    return (SlowDao) proxyFactory.getProxy();
+  }
+
+  /**
+   * Function called by the database to simulate a slow query
+   */
+  public static int slowQuery(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+    return 1;
+  }
+
+  interface SlowDao {
+    Integer query(long millis);
+  }
+
+  private static class SimulationResult {
+
+    private final List<Long> latencies;
+    private final long rejected;
+
+    SimulationResult(List<Long> latencies, long rejected) {
+      this.latencies = new ArrayList<>(latencies);
+      this.rejected = rejected;
+      Collections.sort(this.latencies);
+    }
+
+    long p90Nanos() {
+      return percentile(0.9);
+    }
+
+    long p50Nanos() {
+      return percentile(0.5);
+    }
+
+    private long percentile(double percentile) {
+      Assert.assertFalse("No call succeeded", latencies.isEmpty());
+      return latencies.get((int) (latencies.size() * percentile));
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+
+package com.github.joumenharzli.surveypoc.repository.pool;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.github.joumenharzli.surveypoc.service.SubjectService;
+import com.github.joumenharzli.surveypoc.service.UserResponseService;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
+import com.github.joumenharzli.surveypoc.web.ratelimit.ConcurrencyLimiter;
+import com.zaxxer.hikari.HikariDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ConnectionPoolMonitorTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"application.connection-pool.interval-millis=3600000",
+    "application.connection-pool.wait-threshold-millis=0", "application.connection-pool.auto-tune=true",
+    "application.connection-pool.max-pool-size=12", "application.analytics.enabled=false"})
+public class ConnectionPoolMonitorTest {
+
+  @Autowired
+  SubjectService subjectService;
+
+  @Autowired
+  UserResponseService userResponseService;
+
+  @Autowired
+  ConnectionPoolStatistics connectionPoolStatistics;
+
+  @Autowired
+  ConnectionPoolMonitor connectionPoolMonitor;
+
+  @Autowired
+  HikariDataSource hikariDataSource;
+
+  @Autowired
+  HealthCheckRegistry healthCheckRegistry;
+
+  @Autowired
+  ConcurrencyLimiter admissionConcurrencyLimiter;
+
+  @Test
+  public void holdSitesTest() {
+    connectionPoolStatistics.drain();
+
+    subjectService.findAllSubjectsAndQuestions();
+
+    ConnectionPoolStatistics.Interval interval = connectionPoolStatistics.drain();
+    assertThat(interval.getAcquisitions()).isEqualTo(1);
+    assertThat(interval.getPeakInUse()).isEqualTo(1);
+    assertThat(interval.getHolds()).extracting(ConnectionPoolStatistics.Hold::getSite)
+        .containsExactly("JdbcQuestionDao.findAllQuestionsAndSubjects");
+  }
+
+  @Test
+  public void transactionHoldSiteTest() {
+    connectionPoolStatistics.drain();
+    /* the caller of the transaction would be captured while the pool is saturated */
+    connectionPoolStatistics.setCallerSitesCaptured(true);
+
+    UserResponseForQuestionDto userResponseForQuestion = new UserResponseForQuestionDto();
+    userResponseForQuestion.setQuestionId(2L);
+    userResponseForQuestion.setContent("25");
+    try {
+      userResponseService.saveResponsesOfUserForQuestions(1L, Collections.singletonList(userResponseForQuestion));
+    } finally {
+      connectionPoolStatistics.setCallerSitesCaptured(false);
+    }
+
+    /* the first dao of the transaction depends on whether the definition of the question was cached */
+    ConnectionPoolStatistics.Interval interval = connectionPoolStatistics.drain();
+    assertThat(interval.getAcquisitions()).isEqualTo(1);
+    assertThat(interval.getHolds()).hasSize(1);
+    assertThat(interval.getHolds().get(0).getSite()).isIn("JdbcQuestionDao.findQuestionsDefinitionsByQuestionsIds",
+        "JdbcUserDao.findNonExistingUsersByUsersIds");
+  }
+
+  @Test
+  public void failedWaitTest() {
+    connectionPoolStatistics.drain();
+
+    connectionPoolStatistics.waited(TimeUnit.MILLISECONDS.toNanos(30), false);
+
+    ConnectionPoolStatistics.Interval interval = connectionPoolStatistics.drain();
+    assertThat(interval.getAcquisitions()).isEqualTo(0);
+    assertThat(interval.getFailedAcquisitions()).isEqualTo(1);
+    assertThat(interval.getMeanWaitMillis()).isEqualTo(30.0);
+    assertThat(interval.getPeakInUse()).isEqualTo(0);
+  }
+
+  @Test
+  public void saturationTest() {
+    subjectService.findAllSubjectsAndQuestions();
+    connectionPoolMonitor.check();
+
+    ConnectionPoolSample sample = connectionPoolMonitor.getLastSample();
+    assertThat(sample.isSaturated()).isTrue();
+    assertThat(sample.getMaximumPoolSize()).isEqualTo(10);
+    assertThat(sample.getRecommendedPoolSize()).isEqualTo(12);
+    assertThat(hikariDataSource.getHikariConfigMXBean().getMaximumPoolSize()).isEqualTo(12);
+    assertThat(admissionConcurrencyLimiter.tryAcquire()).isTrue();
+    admissionConcurrencyLimiter.release();
+    assertThat(admissionConcurrencyLimiter.getMaxConcurrentRequests()).isEqualTo(12);
+    assertThat(healthCheckRegistry.runHealthCheck("connectionPool").isHealthy()).isFalse();
+  }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.joumenharzli.surveypoc.config.ApplicationProperties;
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.QuestionType;
+import com.github.joumenharzli.surveypoc.domain.User;
+import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
+import com.github.joumenharzli.surveypoc.service.mapper.UserResponseMapperImpl;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerValidator;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerValidators;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerViolation;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ResponseSubmissionProcessorTest
+ * <p>
+ * The parallel path is only taken on a host with more than one processor
+ *
+ * @author Joumen Harzli
+ */
+public class ResponseSubmissionProcessorTest {
+
+  private static final int RESPONSES = 10000;
+
+  @Test
+  public void parallelPathKeepsTheOrderOfTheSubmissionTest() {
+    ResponseSubmissionProcessor sequentialProcessor = newProcessor(Integer.MAX_VALUE);
+    ResponseSubmissionProcessor parallelProcessor = newProcessor(16);
+
+    try {
+      assertThat(sequentialProcessor.isParallel(RESPONSES)).isFalse();
+
+      List<UserResponseForQuestionDto> userResponsesForQuestions = new ArrayList<>();
+      for (int index = 0; index < RESPONSES; index++) {
+        UserResponseForQuestionDto userResponse = new UserResponseForQuestionDto();
+        userResponse.setQuestionId((long) index);
+        userResponse.setContent(String.valueOf(index % 200));
+        userResponsesForQuestions.add(userResponse);
+      }
+      User user = new User().id(1L);
+      Map<Long, AnswerValidator> validators = Collections.singletonMap(7L, AnswerValidators.compile(
+          new Question().id(7L).type(QuestionType.INTEGER_RANGE).minValue(0L).maxValue(1L)));
+
+      LongList questionsIds = parallelProcessor.toQuestionsIds(userResponsesForQuestions);
+      assertThat(questionsIds).isEqualTo(sequentialProcessor.toQuestionsIds(userResponsesForQuestions));
+
+      List<UserResponse> userResponses = parallelProcessor.toUserResponses(userResponsesForQuestions, user);
+      assertThat(userResponses).hasSize(RESPONSES);
+      for (int index = 0; index < RESPONSES; index++) {
+        assertThat(userResponses.get(index).getQuestionId()).isEqualTo(index);
+        assertThat(userResponses.get(index).getUser()).isSameAs(user);
+      }
+
+      AnswerViolation[] violations = parallelProcessor.findViolations(userResponsesForQuestions, validators);
+      assertThat(violations).hasSize(RESPONSES);
+      assertThat(violations[7].getCode()).isEqualTo(AnswerViolation.OUT_OF_RANGE);
+      violations[7] = null;
+      assertThat(violations).containsOnly((AnswerViolation) null);
+    } finally {
+      sequentialProcessor.shutdown();
+      parallelProcessor.shutdown();
+    }
+  }
+
+  private static ResponseSubmissionProcessor newProcessor(int parallelThreshold) {
+    ApplicationProperties applicationProperties = new ApplicationProperties();
+    applicationProperties.getSubmissions().setParallelThreshold(parallelThreshold);
+    return new ResponseSubmissionProcessor(new UserResponseMapperImpl(), applicationProperties);
+  }
+
+}
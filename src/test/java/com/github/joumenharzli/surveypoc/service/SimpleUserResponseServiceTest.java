@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.github.joumenharzli.surveypoc.exception.ResponseConflictException;
+import com.github.joumenharzli.surveypoc.live.ResponseUpdateBroadcaster;
+import com.github.joumenharzli.surveypoc.repository.dao.QuestionDao;
+import com.github.joumenharzli.surveypoc.repository.dao.UserDao;
+import com.github.joumenharzli.surveypoc.repository.dao.UserResponseDao;
+import com.github.joumenharzli.surveypoc.service.dto.QuestionAnswersUpdateDto;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
+import com.github.joumenharzli.surveypoc.service.mapper.QuestionMapper;
+import com.github.joumenharzli.surveypoc.service.mapper.UserMapper;
+import com.github.joumenharzli.surveypoc.service.mapper.UserResponseMapper;
+import com.github.joumenharzli.surveypoc.service.validation.AnswerValidatorRegistry;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+
+/**
+ * SimpleUserResponseServiceTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class SimpleUserResponseServiceTest {
+
+  @Autowired
+  UserResponseDao userResponseDao;
+
+  @Autowired
+  UserMapper userMapper;
+
+  @Autowired
+  QuestionMapper questionMapper;
+
+  @Autowired
+  UserResponseMapper userResponseMapper;
+
+  @Autowired
+  QuestionDao questionDao;
+
+  @Autowired
+  UserDao userDao;
+
+  @Autowired
+  AnswerValidatorRegistry answerValidatorRegistry;
+
+  @Autowired
+  ResponseUpdateBroadcaster<QuestionAnswersUpdateDto> responseUpdateBroadcaster;
+
+  @Autowired
+  ResponseSubmissionProcessor responseSubmissionProcessor;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  UserResponseService userResponseService;
+
+  private UserResponseService racingUserResponseService;
+
+  @Before
+  public void init() {
+    /* the existing responses are not found as if they were added by another save after they were read */
+    UserResponseDao racingUserResponseDao = Mockito.mock(UserResponseDao.class,
+        AdditionalAnswers.delegatesTo(userResponseDao));
+    Mockito.doReturn(Collections.emptyList()).when(racingUserResponseDao)
+        .findResponsesOfUserByUserIdAndQuestionIds(anyLong(), any(LongList.class));
+
+    racingUserResponseService = new SimpleUserResponseService(racingUserResponseDao, userMapper, questionMapper,
+        userResponseMapper, questionDao, userDao, answerValidatorRegistry, responseUpdateBroadcaster,
+        responseSubmissionProcessor);
+  }
+
+  @Test
+  public void saveResponseAddedConcurrentlyTest() {
+    UserResponseForQuestionDto userResponseForQuestion = new UserResponseForQuestionDto();
+    userResponseForQuestion.setQuestionId(1L);
+    userResponseForQuestion.setContent("Jack");
+
+    try {
+      racingUserResponseService.saveResponsesOfUserForQuestions(1L,
+          Collections.singletonList(userResponseForQuestion));
+      Assert.fail("The response added concurrently should be a conflict");
+    } catch (ResponseConflictException exception) {
+      Assert.assertEquals(Collections.singletonList(1L), exception.getConflictingQuestionsIds());
+    }
+
+    Assert.assertEquals("Joe", jdbcTemplate.queryForObject(
+        "SELECT content FROM user_responses WHERE user_id = 1 AND question_id = 1", String.class));
+  }
+
+  @Test
+  public void saveRolledBackWhenLateStepFailsTest() {
+    jdbcTemplate.update("INSERT INTO users (name) VALUES ('SimpleUserResponseServiceTest-rollback')");
+    long userId = jdbcTemplate.queryForObject(
+        "SELECT MAX(id) FROM users WHERE name = 'SimpleUserResponseServiceTest-rollback'", Long.class);
+    userResponseService.saveResponsesOfUserForQuestions(userId,
+        Collections.singletonList(createUserResponseForQuestion(1L, "Joe", null)));
+
+    /* the new response is added then the update of the stale response fails */
+    try {
+      userResponseService.saveResponsesOfUserForQuestions(userId, Arrays.asList(
+          createUserResponseForQuestion(3L, "Yes", null), createUserResponseForQuestion(1L, "Jack", 999L)));
+      Assert.fail("The stale response should be a conflict");
+    } catch (ResponseConflictException exception) {
+      Assert.assertEquals(Collections.singletonList(1L), exception.getConflictingQuestionsIds());
+    }
+
+    Assert.assertEquals(Long.valueOf(0), jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM user_responses WHERE user_id = ? AND question_id = 3", Long.class, userId));
+    Assert.assertEquals("Joe", jdbcTemplate.queryForObject(
+        "SELECT content FROM user_responses WHERE user_id = ? AND question_id = 1", String.class, userId));
+    Assert.assertEquals(Long.valueOf(0), jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM user_subject_progress WHERE user_id = ? AND subject_id = 2", Long.class, userId));
+  }
+
+  private UserResponseForQuestionDto createUserResponseForQuestion(Long questionId, String content, Long version) {
+    UserResponseForQuestionDto userResponseForQuestion = new UserResponseForQuestionDto();
+    userResponseForQuestion.setQuestionId(questionId);
+    userResponseForQuestion.setContent(content);
+    userResponseForQuestion.setVersion(version);
+    return userResponseForQuestion;
+  }
+
+}
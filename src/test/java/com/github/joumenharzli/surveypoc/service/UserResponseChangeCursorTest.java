@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.User;
+import com.github.joumenharzli.surveypoc.domain.UserResponse;
+import com.github.joumenharzli.surveypoc.exception.InvalidParameterException;
+
+/**
+ * UserResponseChangeCursorTest
+ *
+ * @author Joumen Harzli
+ */
+public class UserResponseChangeCursorTest {
+
+  @Test
+  public void tokenRoundTripTest() {
+    UserResponse userResponse = new UserResponse().user(new User().id(3L)).question(new Question().id(7L));
+    userResponse.setUpdatedAt(Instant.parse("2018-03-04T10:15:30.123456789Z"));
+
+    String token = UserResponseChangeCursor.after(userResponse).toToken();
+    UserResponseChangeCursor cursor = UserResponseChangeCursor.parse(token);
+
+    Assert.assertEquals(userResponse.getUpdatedAt(), cursor.getUpdatedAt());
+    Assert.assertEquals(Long.valueOf(3L), cursor.getUserId());
+    Assert.assertEquals(Long.valueOf(7L), cursor.getQuestionId());
+    Assert.assertEquals(token, cursor.toToken());
+  }
+
+  @Test
+  public void emptyTokenStartsTheFeedTest() {
+    UserResponseChangeCursor cursor = UserResponseChangeCursor.parse(null);
+
+    Assert.assertEquals(Instant.EPOCH, cursor.getUpdatedAt());
+    Assert.assertEquals(Long.valueOf(0L), cursor.getUserId());
+    Assert.assertEquals(Long.valueOf(0L), cursor.getQuestionId());
+    Assert.assertEquals(cursor.toToken(), UserResponseChangeCursor.parse("").toToken());
+  }
+
+  @Test
+  public void malformedTokensTest() {
+    String[] tokens = {"not base64!", encode("1:0:0:1"), encode("2:0:0:1:1"), encode("1:x:0:1:1"),
+        encode("1:0:0:1:y")};
+
+    for (String token : tokens) {
+      try {
+        UserResponseChangeCursor.parse(token);
+        Assert.fail("The token " + token + " should be rejected");
+      } catch (InvalidParameterException exception) {
+        Assert.assertEquals(UserResponseChangeCursor.TOKEN_PARAMETER, exception.getParameter());
+      }
+    }
+  }
+
+  private static String encode(String decoded) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+  }
+
+}
@@ -30,13 +30,13 @@ import com.github.joumenharzli.surveypoc.domain.Subject;
 import com.github.joumenharzli.surveypoc.service.dto.SubjectDto;
 
 /**
- * SubjectMapperDecoratorTest
+ * SubjectMapperTest
  *
  * @author Joumen Harzli
  */
 @RunWith(SpringRunner.class)
 @SpringBootTest
-public class SubjectMapperDecoratorTest {
+public class SubjectMapperTest {
 
   @Autowired
   SubjectMapper subjectMapper;
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.validation;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.QuestionType;
+import com.github.joumenharzli.surveypoc.repository.dao.QuestionDao;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+import static org.mockito.Matchers.any;
+
+/**
+ * AnswerValidatorRegistryTest
+ *
+ * @author Joumen Harzli
+ */
+public class AnswerValidatorRegistryTest {
+
+  @Test
+  public void invalidDefinitionTest() {
+    QuestionDao questionDao = Mockito.mock(QuestionDao.class);
+    Mockito.when(questionDao.findQuestionsDefinitionsByQuestionsIds(any(LongList.class))).thenReturn(
+        Collections.singletonList(new Question().id(1L).type(QuestionType.REGEX).pattern("[A-Z")));
+    AnswerValidatorRegistry answerValidatorRegistry = new AnswerValidatorRegistry(questionDao);
+
+    answerValidatorRegistry.getValidators(LongList.of(1L));
+    Map<Long, AnswerValidator> validators = answerValidatorRegistry.getValidators(LongList.of(1L));
+
+    Assert.assertNull(validators.get(1L).validate("Anything"));
+    Assert.assertEquals(AnswerViolation.TOO_LONG, validators.get(1L).validate(StringUtils.repeat('a', 101)).getCode());
+    Mockito.verify(questionDao, Mockito.times(1)).findQuestionsDefinitionsByQuestionsIds(any(LongList.class));
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.service.validation;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.github.joumenharzli.surveypoc.domain.Question;
+import com.github.joumenharzli.surveypoc.domain.QuestionType;
+
+/**
+ * AnswerValidatorsTest
+ *
+ * @author Joumen Harzli
+ */
+public class AnswerValidatorsTest {
+
+  @Test
+  public void freeTextTest() {
+    AnswerValidator validator = AnswerValidators.compile(new Question().id(1L));
+
+    Assert.assertNull(validator.validate("Anything"));
+    assertViolation(AnswerViolation.TOO_LONG, validator.validate(StringUtils.repeat('a', 101)));
+  }
+
+  @Test
+  public void integerRangeTest() {
+    AnswerValidator validator = AnswerValidators.compile(new Question().id(1L).type(QuestionType.INTEGER_RANGE)
+        .minValue(0L).maxValue(150L));
+
+    Assert.assertNull(validator.validate("25"));
+    Assert.assertNull(validator.validate(" 0 "));
+    assertViolation(AnswerViolation.OUT_OF_RANGE, validator.validate("151"));
+    assertViolation(AnswerViolation.OUT_OF_RANGE, validator.validate("-1"));
+    assertViolation(AnswerViolation.OUT_OF_RANGE, validator.validate("99999999999999999999"));
+    assertViolation(AnswerViolation.NOT_A_NUMBER, validator.validate("twenty"));
+    assertViolation(AnswerViolation.NOT_A_NUMBER, validator.validate("-"));
+  }
+
+  @Test
+  public void singleChoiceTest() {
+    AnswerValidator validator = AnswerValidators.compile(new Question().id(1L).type(QuestionType.SINGLE_CHOICE)
+        .choices(Arrays.asList("Yes", "No")));
+
+    Assert.assertNull(validator.validate("Yes"));
+    assertViolation(AnswerViolation.INVALID_CHOICE, validator.validate("Maybe"));
+  }
+
+  @Test
+  public void multipleChoiceTest() {
+    AnswerValidator validator = AnswerValidators.compile(new Question().id(1L).type(QuestionType.MULTIPLE_CHOICE)
+        .choices(Arrays.asList("Red", "Green", "Blue")));
+
+    Assert.assertNull(validator.validate("Red"));
+    Assert.assertNull(validator.validate("Red, Blue"));
+    assertViolation(AnswerViolation.INVALID_CHOICE, validator.validate("Red,Red"));
+    assertViolation(AnswerViolation.INVALID_CHOICE, validator.validate("Red,"));
+    assertViolation(AnswerViolation.INVALID_CHOICE, validator.validate("Yellow"));
+  }
+
+  @Test
+  public void regexTest() {
+    AnswerValidator validator = AnswerValidators.compile(new Question().id(1L).type(QuestionType.REGEX)
+        .pattern("[A-Z]{2}[0-9]{3}"));
+
+    Assert.assertNull(validator.validate("AB123"));
+    assertViolation(AnswerViolation.PATTERN_MISMATCH, validator.validate("ab123"));
+  }
+
+  private void assertViolation(String expectedCode, AnswerViolation violation) {
+    Assert.assertNotNull(violation);
+    Assert.assertEquals(expectedCode, violation.getCode());
+  }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.github.joumenharzli.surveypoc.diagnostics.ProfileRecorder;
+import com.github.joumenharzli.surveypoc.web.error.RestErrorConstants;
+import com.github.joumenharzli.surveypoc.web.filter.TestClients;
+import com.github.joumenharzli.surveypoc.web.ratelimit.ConcurrencyLimiter;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * DiagnosticsResourceTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"application.diagnostics.enabled=true", "application.diagnostics.max-recording-seconds=2",
+    "application.accounting.enabled=false"})
+@AutoConfigureMockMvc
+public class DiagnosticsResourceTest {
+
+  private static final String SUBJECTS_ENDPOINT = "GET /api/v1/subjects";
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  ProfileRecorder profileRecorder;
+
+  @Autowired
+  ConcurrencyLimiter admissionConcurrencyLimiter;
+
+  private final AtomicInteger clients = new AtomicInteger();
+
+  @Test
+  public void getAllocationsTest() throws Exception {
+    findAllSubjects();
+
+    mockMvc.perform(get("/api/v1/diagnostics/allocations")
+        .with(TestClients.client(nextClient())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.supported").value(true))
+        .andExpect(jsonPath("$.endpoints[*].name", hasItem(SUBJECTS_ENDPOINT)))
+        .andExpect(jsonPath("$.endpoints[?(@.name == '" + SUBJECTS_ENDPOINT + "')].allocatedBytes",
+            hasItem(greaterThan(0))))
+        .andExpect(jsonPath("$.threads").isNotEmpty());
+  }
+
+  @Test
+  public void recordProfileTest() throws Exception {
+    Assume.assumeTrue(profileRecorder.isAvailable());
+
+    AtomicBoolean recording = new AtomicBoolean(true);
+    Thread load = new Thread(() -> {
+      while (recording.get()) {
+        findAllSubjects();
+      }
+    });
+    load.start();
+
+    try {
+      MvcResult recordingResult = mockMvc.perform(post("/api/v1/diagnostics/recordings")
+          .with(TestClients.client(nextClient()))
+          .param(DiagnosticsResource.DURATION_PARAMETER, "1")
+          .accept(MediaType.APPLICATION_JSON))
+          .andExpect(request().asyncStarted())
+          .andReturn();
+
+      mockMvc.perform(asyncDispatch(recordingResult))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.durationSeconds").value(1))
+          .andExpect(jsonPath("$.endpoints[*].endpoint", hasItem(SUBJECTS_ENDPOINT)))
+          .andExpect(jsonPath("$.endpoints[?(@.endpoint == '" + SUBJECTS_ENDPOINT + "')].allocationSites[*].frame")
+              .isNotEmpty());
+    } finally {
+      recording.set(false);
+      load.join();
+    }
+  }
+
+  @Test
+  public void recordFlightRecordingTest() throws Exception {
+    Assume.assumeTrue(profileRecorder.isAvailable());
+
+    MvcResult recordingResult = mockMvc.perform(post("/api/v1/diagnostics/recordings")
+        .with(TestClients.client(nextClient()))
+        .param(DiagnosticsResource.DURATION_PARAMETER, "1")
+        .accept(MediaType.APPLICATION_OCTET_STREAM))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    assertEquals(0, admissionConcurrencyLimiter.getInFlightRequests());
+
+    mockMvc.perform(post("/api/v1/diagnostics/recordings")
+        .with(TestClients.client(nextClient()))
+        .param(DiagnosticsResource.DURATION_PARAMETER, "1")
+        .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(jsonPath("$.code").value(RestErrorConstants.ERR_RECORDING_UNAVAILABLE));
+
+    mockMvc.perform(asyncDispatch(recordingResult))
+        .andExpect(status().isOk())
+        .andExpect(result -> assertTrue(result.getResponse().getContentAsByteArray().length > 0));
+  }
+
+  @Test
+  public void recordProfileWithInvalidDurationTest() throws Exception {
+    mockMvc.perform(post("/api/v1/diagnostics/recordings")
+        .with(TestClients.client(nextClient()))
+        .param(DiagnosticsResource.DURATION_PARAMETER, "3")
+        .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.code").value(RestErrorConstants.ERR_INVALID_PARAMETER));
+  }
+
+  private void findAllSubjects() {
+    try {
+      mockMvc.perform(get("/api/v1/subjects").with(TestClients.client(nextClient())))
+          .andExpect(status().isOk());
+    } catch (Exception exception) {
+      throw new IllegalStateException(exception);
+    }
+  }
+
+  private String nextClient() {
+    return "DiagnosticsResourceTest-" + clients.incrementAndGet();
+  }
+
+}
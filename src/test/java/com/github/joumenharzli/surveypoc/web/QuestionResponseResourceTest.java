@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.github.joumenharzli.surveypoc.web.error.RestErrorConstants;
+import com.github.joumenharzli.surveypoc.web.filter.TestClients;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * QuestionResponseResourceTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class QuestionResponseResourceTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Test
+  public void saveResponseModifiedSinceReadTest() throws Exception {
+    saveResponses("{\"responses\":[{\"questionId\":1,\"content\":\"Jack\",\"version\":999}]}")
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.code").value(RestErrorConstants.ERR_RESPONSES_CONFLICT))
+        .andExpect(jsonPath("$.fieldsErrors[0].field").value("1"))
+        .andExpect(jsonPath("$.fieldsErrors[0].code").value(RestErrorConstants.ERR_RESPONSE_CONFLICT));
+
+    mockMvc.perform(get("/api/v1/questions/1/responses/me")
+        .with(TestClients.client("QuestionResponseResourceTest")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].content").value("Joe"));
+  }
+
+  @Test
+  public void saveDuplicateQuestionTest() throws Exception {
+    saveResponses("{\"responses\":[{\"questionId\":3,\"content\":\"Yes\"},{\"questionId\":3,\"content\":\"No\"}]}")
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.code").value(RestErrorConstants.ERR_VALIDATION_ERROR))
+        .andExpect(jsonPath("$.fieldsErrors.length()").value(1))
+        .andExpect(jsonPath("$.fieldsErrors[0].field").value("responses[1].content"))
+        .andExpect(jsonPath("$.fieldsErrors[0].code").value("DuplicateQuestion"))
+        .andExpect(jsonPath("$.fieldsErrors[0].message").value("The question 3 is answered more than once"));
+  }
+
+  private ResultActions saveResponses(String content) throws Exception {
+    return mockMvc.perform(post("/api/v1/questions/responses/me")
+        .with(TestClients.client("QuestionResponseResourceTest"))
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(content));
+  }
+
+}
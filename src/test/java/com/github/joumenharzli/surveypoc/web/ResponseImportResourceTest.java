@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.github.joumenharzli.surveypoc.imports.ImportedResponse;
+import com.github.joumenharzli.surveypoc.web.filter.TestClients;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ResponseImportResourceTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "application.imports.batch-size=2")
+@AutoConfigureMockMvc
+public class ResponseImportResourceTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Test
+  public void importCsvTest() throws Exception {
+    long userId = addUser("ResponseImportResourceTest-csv");
+    String importId = "csv-" + RandomStringUtils.randomAlphanumeric(10);
+    String file = "user_id,question_id,content\n" +
+        userId + ",1,\"Doe, John\"\n" +
+        userId + ",2,200\n" +
+        "999999,1,Joe\n" +
+        userId + ",99,Joe\n" +
+        userId + ",3,Yes\n" +
+        userId + ",3,No\n" +
+        "not a line\n" +
+        "\n" +
+        userId + ",4,Nice\n" +
+        userId + ",1,Jane\n";
+
+    importFile(importId, "text/csv", file)
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.importId").value(importId))
+        .andExpect(jsonPath("$.errorReport").doesNotExist());
+
+    awaitImport(importId)
+        .andExpect(jsonPath("$.lastRun.lines").value(11))
+        .andExpect(jsonPath("$.lastRun.skippedChunks").value(0))
+        .andExpect(jsonPath("$.lastRun.failedChunks").value(0))
+        .andExpect(jsonPath("$.lastRun.importedResponses").value(3))
+        .andExpect(jsonPath("$.lastRun.rejectedResponses").value(6))
+        .andExpect(jsonPath("$.completedChunks").value(5));
+
+    List<String> errors = Arrays.asList(findErrorReport(importId).split("\r?\n"));
+    assertThat(errors).hasSize(7);
+    assertThat(errors.get(0)).isEqualTo("line,code,detail");
+    assertThat(String.join("\n", errors))
+        .contains("3,OutOfRange,")
+        .contains("4," + ImportedResponse.USER_NOT_FOUND + ",\"999999\"")
+        .contains("5," + ImportedResponse.QUESTION_NOT_FOUND + ",\"99\"")
+        .contains("7," + ImportedResponse.DUPLICATE + ",")
+        .contains("8," + ImportedResponse.INVALID_LINE + ",")
+        .contains("11," + ImportedResponse.DUPLICATE + ",");
+
+    importFile(importId, "text/csv", file)
+        .andExpect(status().isAccepted());
+
+    awaitImport(importId)
+        .andExpect(jsonPath("$.lastRun.skippedChunks").value(5))
+        .andExpect(jsonPath("$.lastRun.importedResponses").value(0))
+        .andExpect(jsonPath("$.importedResponses").value(3));
+  }
+
+  @Test
+  public void importNdjsonTest() throws Exception {
+    long userId = addUser("ResponseImportResourceTest-ndjson");
+    String importId = "ndjson-" + RandomStringUtils.randomAlphanumeric(10);
+    String file = "{\"userId\":" + userId + ",\"questionId\":1,\"content\":\"Jane\"}\n" +
+        "{\"userId\":" + userId + ",\"questionId\":\"x\",\"content\":\"Jane\"}\n";
+
+    importFile(importId, "application/x-ndjson", file)
+        .andExpect(status().isAccepted());
+
+    awaitImport(importId)
+        .andExpect(jsonPath("$.lastRun.importedResponses").value(1))
+        .andExpect(jsonPath("$.lastRun.rejectedResponses").value(1));
+
+    importFile(importId, "text/csv", file)
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  public void findProgressOfUnknownImportTest() throws Exception {
+    mockMvc.perform(get("/api/v1/imports/unknown")
+        .with(TestClients.client("ResponseImportResourceTest-unknown")))
+        .andExpect(status().isNotFound());
+    mockMvc.perform(get("/api/v1/imports/unknown/errors")
+        .with(TestClients.client("ResponseImportResourceTest-unknown")))
+        .andExpect(status().isNotFound());
+  }
+
+  private long addUser(String name) {
+    jdbcTemplate.update("INSERT INTO users (name) VALUES (?)", name);
+    return jdbcTemplate.queryForObject("SELECT MAX(id) FROM users WHERE name = ?", Long.class, name);
+  }
+
+  private ResultActions importFile(String importId, String contentType, String file) throws Exception {
+    return mockMvc.perform(post("/api/v1/imports/" + importId)
+        .with(TestClients.client("ResponseImportResourceTest-" + importId))
+        .contentType(contentType)
+        .content(file.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private ResultActions awaitImport(String importId) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    ResultActions progress;
+    do {
+      Thread.sleep(20);
+      progress = mockMvc.perform(get("/api/v1/imports/" + importId)
+          .with(TestClients.client("ResponseImportResourceTest-" + importId)))
+          .andExpect(status().isOk());
+    } while (progress.andReturn().getResponse().getContentAsString().contains("\"running\":true") &&
+        System.nanoTime() < deadline);
+    return progress.andExpect(jsonPath("$.running").value(false));
+  }
+
+  private String findErrorReport(String importId) throws Exception {
+    return mockMvc.perform(get("/api/v1/imports/" + importId + "/errors")
+        .with(TestClients.client("ResponseImportResourceTest-" + importId)))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+  }
+
+}
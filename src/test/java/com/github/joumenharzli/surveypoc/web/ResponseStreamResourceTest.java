@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.github.joumenharzli.surveypoc.live.ResponseUpdateBroadcaster;
+import com.github.joumenharzli.surveypoc.service.dto.QuestionAnswersUpdateDto;
+import com.github.joumenharzli.surveypoc.web.filter.TestClients;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ResponseStreamResourceTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ResponseStreamResourceTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  ResponseUpdateBroadcaster<QuestionAnswersUpdateDto> responseUpdateBroadcaster;
+
+  @Test
+  public void streamAnswersOfSubjectTest() throws Exception {
+    int subscribers = responseUpdateBroadcaster.getSubscribers();
+
+    MvcResult stream = mockMvc.perform(get("/api/v1/analytics/subjects/2/answers/stream")
+        .with(TestClients.client("ResponseStreamResourceTest-stream")))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    assertThat(responseUpdateBroadcaster.getSubscribers()).isEqualTo(subscribers + 1);
+    assertThat(responseUpdateBroadcaster.hasSubscribers(4L)).isTrue();
+
+    String content = RandomStringUtils.randomAlphabetic(10);
+    mockMvc.perform(post("/api/v1/questions/responses/me")
+        .with(TestClients.client("ResponseStreamResourceTest-save"))
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"responses\":[{\"questionId\":4,\"content\":\"" + content + "\"}]}"))
+        .andExpect(status().isOk());
+
+    String events = awaitContent(stream.getResponse(), content);
+    assertThat(events).contains("event:" + ResponseStreamResource.ANSWERS_EVENT);
+    assertThat(events).contains("\"questionId\":4");
+    assertThat(events).contains("{\"content\":\"" + content + "\",\"count\":1}");
+  }
+
+  @Test
+  public void streamAnswersOfUnknownSubjectTest() throws Exception {
+    mockMvc.perform(get("/api/v1/analytics/subjects/99/answers/stream")
+        .with(TestClients.client("ResponseStreamResourceTest-unknown")))
+        .andExpect(status().isNotFound());
+  }
+
+  private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    String content = response.getContentAsString();
+    while (!content.contains(expected) && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+      content = response.getContentAsString();
+    }
+    return content;
+  }
+
+}
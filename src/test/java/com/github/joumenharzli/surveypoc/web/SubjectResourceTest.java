@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.github.joumenharzli.surveypoc.service.SubjectService;
+import com.github.joumenharzli.surveypoc.web.filter.TestClients;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SubjectResourceTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SubjectResourceTest {
+
+  private static final long SUBJECT_ID = 100L;
+  private static final long QUESTION_ID = 100L;
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  SubjectService subjectService;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @After
+  public void cleanup() {
+    jdbcTemplate.update("DELETE FROM questions WHERE id = ?", QUESTION_ID);
+    jdbcTemplate.update("DELETE FROM subjects WHERE id = ?", SUBJECT_ID);
+    subjectService.refreshCatalogVersion();
+  }
+
+  @Test
+  public void findCatalogChangesTest() throws Exception {
+    long version = subjectService.refreshCatalogVersion();
+
+    mockMvc.perform(get("/api/v1/subjects")
+        .with(TestClients.client("SubjectResourceTest-catalog")))
+        .andExpect(status().isOk())
+        .andExpect(header().string(SubjectResource.CATALOG_VERSION_HEADER, String.valueOf(version)));
+
+    jdbcTemplate.update("INSERT INTO subjects (id, label) VALUES (?, 'Work')", SUBJECT_ID);
+    jdbcTemplate.update("INSERT INTO questions (id, label, subject_id) VALUES (?, 'Your job ?', ?)", QUESTION_ID,
+        SUBJECT_ID);
+    subjectService.refreshCatalogVersion();
+
+    findChanges(version)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.version").value(version + 1))
+        .andExpect(jsonPath("$.subjects", hasSize(1)))
+        .andExpect(jsonPath("$.subjects[0].label").value("Work"))
+        .andExpect(jsonPath("$.questions", hasSize(1)))
+        .andExpect(jsonPath("$.questions[0].subjectId").value((int) SUBJECT_ID))
+        .andExpect(jsonPath("$.removedSubjectsIds", hasSize(0)));
+
+    jdbcTemplate.update("UPDATE questions SET label = 'Your work ?' WHERE id = ?", QUESTION_ID);
+    subjectService.refreshCatalogVersion();
+
+    findChanges(version + 1)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.version").value(version + 2))
+        .andExpect(jsonPath("$.subjects", hasSize(0)))
+        .andExpect(jsonPath("$.questions[0].label").value("Your work ?"));
+
+    jdbcTemplate.update("UPDATE questions SET type = 'INTEGER_RANGE', min_value = 0, max_value = 10 WHERE id = ?",
+        QUESTION_ID);
+    subjectService.refreshCatalogVersion();
+
+    findChanges(version + 2)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.version").value(version + 3))
+        .andExpect(jsonPath("$.questions[0].type").value("INTEGER_RANGE"))
+        .andExpect(jsonPath("$.questions[0].maxValue").value(10));
+
+    jdbcTemplate.update("DELETE FROM questions WHERE id = ?", QUESTION_ID);
+    subjectService.refreshCatalogVersion();
+
+    findChanges(version + 3)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.version").value(version + 4))
+        .andExpect(jsonPath("$.questions", hasSize(0)))
+        .andExpect(jsonPath("$.removedSubjectsIds[0]").value((int) SUBJECT_ID))
+        .andExpect(jsonPath("$.removedQuestionsIds[0]").value((int) QUESTION_ID));
+
+    findChanges(0)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.subjects[?(@.id == 1)]").exists())
+        .andExpect(jsonPath("$.questions[?(@.id == 4)]").exists());
+  }
+
+  @Test
+  public void findCatalogChangesOfFutureVersionTest() throws Exception {
+    long version = subjectService.refreshCatalogVersion();
+
+    findChanges(version + 1)
+        .andExpect(status().isBadRequest());
+  }
+
+  private ResultActions findChanges(long since) throws Exception {
+    return mockMvc.perform(get("/api/v1/subjects/changes")
+        .param("since", String.valueOf(since))
+        .with(TestClients.client("SubjectResourceTest-changes-" + since)));
+  }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.joumenharzli.surveypoc.web.error.RestErrorConstants;
+import com.github.joumenharzli.surveypoc.web.filter.TestClients;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * UserResponseChangeResourceTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "application.changes.safety-lag-millis=0")
+@AutoConfigureMockMvc
+public class UserResponseChangeResourceTest {
+
+  private static final Timestamp UPDATED_AT = Timestamp.valueOf("2000-01-01 00:00:00");
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Test
+  public void pagesOfChangesTest() throws Exception {
+    jdbcTemplate.update("INSERT INTO users (name) VALUES ('UserResponseChangeResourceTest')");
+    long userId = jdbcTemplate.queryForObject(
+        "SELECT MAX(id) FROM users WHERE name = 'UserResponseChangeResourceTest'", Long.class);
+    /* the same update time so the pages are cut by the ids of the responses */
+    for (long questionId = 1; questionId <= 3; questionId++) {
+      jdbcTemplate.update("INSERT INTO user_responses (user_id, question_id, content, updated_at) VALUES (?, ?, ?, ?)",
+          userId, questionId, "change " + questionId, UPDATED_AT);
+    }
+
+    JsonNode firstPage = readPage(getChanges("?size=2")
+        .andExpect(jsonPath("$.changes.length()").value(2))
+        .andExpect(jsonPath("$.hasMore").value(true)));
+    assertThat(firstPage.get("changes").get(0).get("questionId").asLong()).isEqualTo(1L);
+    assertThat(firstPage.get("changes").get(1).get("questionId").asLong()).isEqualTo(2L);
+
+    List<String> keys = new ArrayList<>();
+    JsonNode page = firstPage;
+    collectKeys(page, keys);
+    while (page.get("hasMore").asBoolean()) {
+      page = readPage(getChanges("?size=2&since=" + page.get("nextToken").asText()));
+      collectKeys(page, keys);
+    }
+
+    Set<String> distinctKeys = new HashSet<>(keys);
+    assertThat(distinctKeys).hasSize(keys.size());
+    assertThat(keys.subList(0, 3)).containsExactly(userId + ":1", userId + ":2", userId + ":3");
+    assertThat(keys).hasSize(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_responses", Integer.class));
+
+    getChanges("?size=2&since=" + page.get("nextToken").asText())
+        .andExpect(jsonPath("$.changes").isEmpty())
+        .andExpect(jsonPath("$.hasMore").value(false))
+        .andExpect(jsonPath("$.nextToken").value(page.get("nextToken").asText()));
+  }
+
+  @Test
+  public void invalidParametersTest() throws Exception {
+    getChanges("?since=not-a-token")
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.code").value(RestErrorConstants.ERR_INVALID_PARAMETER));
+
+    getChanges("?size=0")
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.code").value(RestErrorConstants.ERR_INVALID_PARAMETER));
+  }
+
+  private ResultActions getChanges(String query) throws Exception {
+    return mockMvc.perform(get("/api/v1/responses/changes" + query)
+        .with(TestClients.client("UserResponseChangeResourceTest")));
+  }
+
+  private JsonNode readPage(ResultActions resultActions) throws Exception {
+    return objectMapper.readTree(resultActions.andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString());
+  }
+
+  private static void collectKeys(JsonNode page, List<String> keys) {
+    page.get("changes").forEach(change ->
+        keys.add(change.get("userId").asLong() + ":" + change.get("questionId").asLong()));
+  }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.error;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import com.github.joumenharzli.surveypoc.config.LocalizationConfiguration;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponsesForQuestionListDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LocalizedMessageResolverTest
+ *
+ * @author Joumen Harzli
+ */
+public class LocalizedMessageResolverTest {
+
+  private static final Locale[] LOCALES = {Locale.US, Locale.FRENCH, Locale.GERMANY};
+
+  private ResourceBundleMessageSource messageSource;
+  private LocalizedMessageResolver messageResolver;
+
+  @Before
+  public void setUp() {
+    messageSource = new LocalizationConfiguration().messageSource();
+    messageResolver = new LocalizedMessageResolver(messageSource);
+  }
+
+  @Test
+  public void getMessageFromCodeTest() {
+    Object[][] arguments = {null, {}, {Arrays.asList(1L, 2L)}, {"size", 1234567L}, {"a'b{0}"}};
+    String[] codes = {RestErrorConstants.ERR_INTERNAL_SERVER_ERROR, RestErrorConstants.ERR_QUESTIONS_NOT_FOUND_ERROR,
+        RestErrorConstants.ERR_INVALID_PARAMETER, RestErrorConstants.ERR_VALIDATION_ERROR, "error.undefined"};
+
+    for (Locale locale : LOCALES) {
+      for (String code : codes) {
+        for (Object[] argument : arguments) {
+          /* twice so the cached message is used too */
+          assertThat(messageResolver.getMessage(code, argument, locale))
+              .isEqualTo(messageSource.getMessage(code, argument, supported(locale)));
+          assertThat(messageResolver.getMessage(code, argument, locale))
+              .isEqualTo(messageSource.getMessage(code, argument, supported(locale)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void getMessageFromResolvableTest() {
+    UserResponseForQuestionDto userResponse = new UserResponseForQuestionDto();
+    userResponse.setContent(" ");
+    UserResponsesForQuestionListDto request = new UserResponsesForQuestionListDto();
+    request.setResponses(Collections.singletonList(userResponse));
+
+    LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+    validator.afterPropertiesSet();
+    BeanPropertyBindingResult errors = new BeanPropertyBindingResult(request, "request");
+    validator.validate(request, errors);
+
+    FieldError undefinedFieldError = new FieldError("request", "field", null, false,
+        new String[]{"Undefined.request.field", "Undefined"}, new Object[]{5}, "must be lower than {0}");
+    DefaultMessageSourceResolvable resolvableArgument = new DefaultMessageSourceResolvable(
+        new String[]{RestErrorConstants.ERR_INTERNAL_SERVER_ERROR});
+    DefaultMessageSourceResolvable nestedResolvable = new DefaultMessageSourceResolvable(
+        new String[]{RestErrorConstants.ERR_QUESTIONS_NOT_FOUND_ERROR}, new Object[]{resolvableArgument});
+
+    assertThat(errors.getFieldErrors()).hasSize(2);
+    for (Locale locale : LOCALES) {
+      for (FieldError fieldError : errors.getFieldErrors()) {
+        assertThat(messageResolver.getMessage(fieldError, locale))
+            .isEqualTo(messageSource.getMessage(fieldError, supported(locale)));
+      }
+      assertThat(messageResolver.getMessage(undefinedFieldError, locale))
+          .isEqualTo(messageSource.getMessage(undefinedFieldError, supported(locale)));
+      assertThat(messageResolver.getMessage(nestedResolvable, locale))
+          .isEqualTo(messageSource.getMessage(nestedResolvable, supported(locale)));
+    }
+  }
+
+  @Test
+  public void getMessageOfUnsupportedLocaleTest() {
+    assertThat(messageResolver.getMessage(RestErrorConstants.ERR_INTERNAL_SERVER_ERROR, null, Locale.GERMANY))
+        .isEqualTo(messageSource.getMessage(RestErrorConstants.ERR_INTERNAL_SERVER_ERROR, null, Locale.ENGLISH));
+    assertThat(messageResolver.getMessage(RestErrorConstants.ERR_INTERNAL_SERVER_ERROR, null, Locale.CANADA_FRENCH))
+        .isEqualTo(messageSource.getMessage(RestErrorConstants.ERR_INTERNAL_SERVER_ERROR, null, Locale.FRENCH));
+  }
+
+  private static Locale supported(Locale locale) {
+    return LocalizationConfiguration.toSupportedLocale(locale);
+  }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.filter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * ForwardedRateLimitingFilterTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"application.rate-limiting.capacity=2", "application.rate-limiting.refill-per-second=1"})
+public class ForwardedRateLimitingFilterTest {
+
+  @Autowired
+  TestRestTemplate restTemplate;
+
+  @Test
+  public void limitEachClientBehindTheLoadBalancerSeparately() {
+    for (int i = 0; i < 2; i++) {
+      Assert.assertEquals(HttpStatus.OK, getSubjectsForwardedFor("203.0.113.1"));
+    }
+    Assert.assertEquals(HttpStatus.TOO_MANY_REQUESTS, getSubjectsForwardedFor("203.0.113.1"));
+
+    Assert.assertEquals(HttpStatus.OK, getSubjectsForwardedFor("203.0.113.2"));
+  }
+
+  private HttpStatus getSubjectsForwardedFor(String clientAddress) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("X-Forwarded-For", clientAddress);
+    return restTemplate.exchange("/api/v1/subjects", HttpMethod.GET, new HttpEntity<>(headers), String.class)
+        .getStatusCode();
+  }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.filter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.github.joumenharzli.surveypoc.web.error.RestErrorConstants;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * RateLimitingFilterTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"application.rate-limiting.capacity=2", "application.rate-limiting.refill-per-second=1"})
+@AutoConfigureMockMvc
+public class RateLimitingFilterTest {
+
+  private static final String API_KEY_HEADER = "X-API-Key";
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Test
+  public void rejectRequestsExceedingTheRateOfTheClient() throws Exception {
+    String apiKey = "rejectRequestsExceedingTheRateOfTheClient";
+
+    mockMvc.perform(get("/api/v1/subjects").with(TestClients.client(apiKey)))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/api/v1/subjects").with(TestClients.client(apiKey)))
+        .andExpect(status().isOk());
+
+    mockMvc.perform(get("/api/v1/subjects").with(TestClients.client(apiKey)))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+        .andExpect(jsonPath("$.code").value(RestErrorConstants.ERR_TOO_MANY_REQUESTS));
+  }
+
+  @Test
+  public void ignoreTheKeySentByTheClient() throws Exception {
+    String client = "ignoreTheKeySentByTheClient";
+
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(get("/api/v1/subjects").with(TestClients.client(client)).header(API_KEY_HEADER, "key-" + i))
+          .andExpect(status().isOk());
+    }
+
+    mockMvc.perform(get("/api/v1/subjects").with(TestClients.client(client)).header(API_KEY_HEADER, "key-2"))
+        .andExpect(status().isTooManyRequests());
+  }
+
+  @Test
+  public void limitEachClientSeparately() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(get("/api/v1/subjects").with(TestClients.client("client-a")))
+          .andExpect(status().isOk());
+    }
+
+    mockMvc.perform(get("/api/v1/subjects").with(TestClients.client("client-b")))
+        .andExpect(status().isOk());
+  }
+
+}
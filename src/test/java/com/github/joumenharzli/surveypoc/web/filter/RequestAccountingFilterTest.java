@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.filter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.github.joumenharzli.surveypoc.diagnostics.RequestAccounting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * RequestAccountingFilterTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "application.accounting.server-timing-header=true")
+@AutoConfigureMockMvc
+public class RequestAccountingFilterTest {
+
+  private static final String RESPONSES_ENDPOINT = "GET /api/v1/questions/{questionsId}/responses/me";
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  MetricRegistry metricRegistry;
+
+  @Test
+  public void serverTimingHeaderTest() throws Exception {
+    mockMvc.perform(get("/api/v1/questions/1,2/responses/me")
+        .with(TestClients.client("RequestAccountingFilterTest-header")))
+        .andExpect(status().isOk())
+        .andExpect(header().string(ServerTimingResponseWrapper.SERVER_TIMING_HEADER, containsString("app;dur=")))
+        .andExpect(header().string(ServerTimingResponseWrapper.SERVER_TIMING_HEADER, containsString("calls=3 ")))
+        .andExpect(header().string(ServerTimingResponseWrapper.SERVER_TIMING_HEADER,
+            containsString("connections=1\"")))
+        .andExpect(header().string(ServerTimingResponseWrapper.SERVER_TIMING_HEADER,
+            containsString("statements=3 ")))
+        .andExpect(header().string(ServerTimingResponseWrapper.SERVER_TIMING_HEADER, containsString("rows-written=0")))
+        .andExpect(header().string(ServerTimingResponseWrapper.SERVER_TIMING_HEADER, containsString("alloc;desc=")));
+  }
+
+  @Test
+  public void saveInOneTransactionTest() throws Exception {
+    mockMvc.perform(post("/api/v1/questions/responses/me")
+        .with(TestClients.client("RequestAccountingFilterTest-save"))
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"responses\":[{\"questionId\":1,\"content\":\"Joe\"}]}"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(ServerTimingResponseWrapper.SERVER_TIMING_HEADER,
+            containsString("connections=1\"")))
+        .andExpect(header().string(ServerTimingResponseWrapper.SERVER_TIMING_HEADER, containsString("rows-written=1\"")));
+  }
+
+  @Test
+  public void endpointMetricsTest() throws Exception {
+    Histogram statements = metricRegistry.histogram(
+        MetricRegistry.name(RequestAccounting.class, RESPONSES_ENDPOINT, "statements"));
+    long requests = statements.getCount();
+
+    mockMvc.perform(get("/api/v1/questions/1/responses/me")
+        .with(TestClients.client("RequestAccountingFilterTest-metrics")))
+        .andExpect(status().isOk());
+
+    assertThat(statements.getCount()).isEqualTo(requests + 1);
+    assertThat(statements.getSnapshot().getMax()).isGreaterThan(0);
+    assertThat(metricRegistry.timer(MetricRegistry.name(RequestAccounting.class, RESPONSES_ENDPOINT, "jdbc-time"))
+        .getCount()).isEqualTo(requests + 1);
+  }
+
+}
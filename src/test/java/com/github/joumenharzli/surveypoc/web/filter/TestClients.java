@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.filter;
+
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+/**
+ * Gives each test its own client address so the tests sharing a context do not exhaust
+ * the rate of a single client
+ *
+ * @author Joumen Harzli
+ */
+public final class TestClients {
+
+  private TestClients() {
+  }
+
+  /**
+   * @param name name of the client
+   * @return a post processor sending the request from an address derived from the name
+   */
+  public static RequestPostProcessor client(String name) {
+    int hash = name.hashCode();
+    String address = "10." + (hash >>> 16 & 0xff) + "." + (hash >>> 8 & 0xff) + "." + (hash & 0xff);
+    return request -> {
+      request.setRemoteAddr(address);
+      return request;
+    };
+  }
+}
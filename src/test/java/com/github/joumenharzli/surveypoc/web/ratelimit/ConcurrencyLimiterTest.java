@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * ConcurrencyLimiterTest
+ *
+ * @author Joumen Harzli
+ */
+public class ConcurrencyLimiterTest {
+
+  @Test
+  public void followsTheMaximumTest() {
+    AtomicInteger maxConcurrentRequests = new AtomicInteger(2);
+    ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(maxConcurrentRequests::get, 0);
+
+    Assert.assertTrue(concurrencyLimiter.tryAcquire());
+    Assert.assertTrue(concurrencyLimiter.tryAcquire());
+    Assert.assertFalse(concurrencyLimiter.tryAcquire());
+
+    maxConcurrentRequests.set(3);
+    Assert.assertTrue(concurrencyLimiter.tryAcquire());
+    Assert.assertEquals(3, concurrencyLimiter.getMaxConcurrentRequests());
+    Assert.assertEquals(3, concurrencyLimiter.getInFlightRequests());
+
+    /* the requests in flight keep their permits, the new ones wait until the limiter is below the maximum */
+    maxConcurrentRequests.set(1);
+    Assert.assertFalse(concurrencyLimiter.tryAcquire());
+    Assert.assertEquals(3, concurrencyLimiter.getInFlightRequests());
+
+    concurrencyLimiter.release();
+    concurrencyLimiter.release();
+    Assert.assertFalse(concurrencyLimiter.tryAcquire());
+    concurrencyLimiter.release();
+    Assert.assertTrue(concurrencyLimiter.tryAcquire());
+    Assert.assertFalse(concurrencyLimiter.tryAcquire());
+  }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.util;
+
+import org.junit.Test;
+
+import com.github.joumenharzli.surveypoc.exception.InvalidParameterException;
+import com.github.joumenharzli.surveypoc.util.LongList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * RestUtilsTest
+ *
+ * @author Joumen Harzli
+ */
+public class RestUtilsTest {
+
+  private static final String PARAMETER = "ids";
+
+  @Test
+  public void parseCommaDelimitedIdsTest() {
+    LongList ids = new LongList(1);
+
+    assertThat(RestUtils.parseCommaDelimitedIds(PARAMETER, "3", 10, ids)).isEqualTo(LongList.of(3));
+    assertThat(RestUtils.parseCommaDelimitedIds(PARAMETER, " 1, 2 ,3\t,2,1", 10, ids))
+        .isSameAs(ids)
+        .isEqualTo(LongList.of(1, 2, 3));
+    assertThat(RestUtils.parseCommaDelimitedIds(PARAMETER, "01," + Long.MAX_VALUE, 10, ids))
+        .isEqualTo(LongList.of(1, Long.MAX_VALUE));
+    assertThat(RestUtils.parseCommaDelimitedIds(PARAMETER, "1,2,1,2", 2, ids)).isEqualTo(LongList.of(1, 2));
+  }
+
+  @Test
+  public void parseInvalidCommaDelimitedIdsTest() {
+    String[] invalidValues = {"", " ", "1,", ",1", "1,,2", "1 2", "a", "1a", "-1", "+1", "1.5", "0", "1,00",
+        "9223372036854775808", "99999999999999999999", "1,2,3"};
+
+    for (String invalidValue : invalidValues) {
+      assertThatThrownBy(() -> RestUtils.parseCommaDelimitedIds(PARAMETER, invalidValue, 2, new LongList()))
+          .as(invalidValue)
+          .isInstanceOf(InvalidParameterException.class)
+          .hasFieldOrPropertyWithValue("parameter", PARAMETER)
+          .hasFieldOrPropertyWithValue("value", invalidValue);
+    }
+  }
+
+}
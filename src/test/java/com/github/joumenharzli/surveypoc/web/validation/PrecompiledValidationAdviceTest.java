@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.validation;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.github.joumenharzli.surveypoc.web.error.RestErrorConstants;
+import com.github.joumenharzli.surveypoc.web.filter.TestClients;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * PrecompiledValidationAdviceTest
+ *
+ * @author Joumen Harzli
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "application.validation.precompiled=true")
+@AutoConfigureMockMvc
+public class PrecompiledValidationAdviceTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Test
+  public void invalidRequestTest() throws Exception {
+    mockMvc.perform(post("/api/v1/questions/responses/me")
+        .with(TestClients.client("PrecompiledValidationAdviceTest"))
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"responses\":[{\"questionId\":1,\"content\":\" \"}]}"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.code").value(RestErrorConstants.ERR_VALIDATION_ERROR))
+        .andExpect(jsonPath("$.fieldsErrors[0].field").value("responses[0].content"))
+        .andExpect(jsonPath("$.fieldsErrors[0].code").value(UserResponsesForQuestionListDtoValidator.NOT_BLANK))
+        .andExpect(jsonPath("$.fieldsErrors[0].message").value("may not be empty"));
+  }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2018 Joumen Harzli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package com.github.joumenharzli.surveypoc.web.validation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import com.github.joumenharzli.surveypoc.service.dto.UserResponseForQuestionDto;
+import com.github.joumenharzli.surveypoc.service.dto.UserResponsesForQuestionListDto;
+
+/**
+ * UserResponsesForQuestionListDtoValidatorTest
+ * Verify that the precompiled validator reports the same errors as bean validation
+ *
+ * @author Joumen Harzli
+ */
+public class UserResponsesForQuestionListDtoValidatorTest {
+
+  private final Validator precompiledValidator = new UserResponsesForQuestionListDtoValidator();
+  private LocalValidatorFactoryBean reflectiveValidator;
+
+  @Before
+  public void init() {
+    reflectiveValidator = new LocalValidatorFactoryBean();
+    reflectiveValidator.afterPropertiesSet();
+  }
+
+  @Test
+  public void validRequestTest() {
+    UserResponsesForQuestionListDto request = createRequest(createResponse(1L, "Joe"), createResponse(2L, "25"));
+
+    Assert.assertFalse(validate(precompiledValidator, request).hasErrors());
+    assertSameErrors(request);
+  }
+
+  @Test
+  public void invalidResponsesTest() {
+    UserResponsesForQuestionListDto request = createRequest(createResponse(null, "Joe"), createResponse(2L, "  "),
+        createResponse(null, null), createResponse(3L, "Yes"));
+
+    Assert.assertEquals(4, validate(precompiledValidator, request).getErrorCount());
+    assertSameErrors(request);
+  }
+
+  @Test
+  public void emptyRequestTest() {
+    assertSameErrors(createRequest());
+
+    UserResponsesForQuestionListDto request = new UserResponsesForQuestionListDto();
+    request.setResponses(null);
+    assertSameErrors(request);
+  }
+
+  @Test
+  public void tooManyResponsesTest() {
+    UserResponseForQuestionDto[] responses =
+        new UserResponseForQuestionDto[UserResponsesForQuestionListDto.MAX_RESPONSES + 1];
+    for (int index = 0; index < responses.length; index++) {
+      responses[index] = createResponse((long) index, "Joe");
+    }
+    UserResponsesForQuestionListDto request = createRequest(responses);
+
+    Errors errors = validate(precompiledValidator, request);
+    Assert.assertEquals(1, errors.getErrorCount());
+    Assert.assertArrayEquals(validate(reflectiveValidator, request).getFieldError().getArguments(),
+        errors.getFieldError().getArguments());
+    assertSameErrors(request);
+  }
+
+  private void assertSameErrors(UserResponsesForQuestionListDto request) {
+    Assert.assertEquals(fieldErrors(validate(reflectiveValidator, request)),
+        fieldErrors(validate(precompiledValidator, request)));
+  }
+
+  private Set<String> fieldErrors(Errors errors) {
+    return errors.getFieldErrors().stream()
+        .map(fieldError -> fieldError.getField() + ":" + Arrays.toString(fieldError.getCodes()))
+        .collect(Collectors.toSet());
+  }
+
+  private Errors validate(Validator validator, UserResponsesForQuestionListDto request) {
+    Errors errors = new BeanPropertyBindingResult(request, "userResponsesForQuestionListDto");
+    validator.validate(request, errors);
+    return errors;
+  }
+
+  private UserResponsesForQuestionListDto createRequest(UserResponseForQuestionDto... responses) {
+    UserResponsesForQuestionListDto request = new UserResponsesForQuestionListDto();
+    request.setResponses(responses.length == 0 ? Collections.emptyList() : Arrays.asList(responses));
+    return request;
+  }
+
+  private UserResponseForQuestionDto createResponse(Long questionId, String content) {
+    UserResponseForQuestionDto response = new UserResponseForQuestionDto();
+    response.setQuestionId(questionId);
+    response.setContent(content);
+    return response;
+  }
+
+}